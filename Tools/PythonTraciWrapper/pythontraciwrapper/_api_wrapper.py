@@ -1,3 +1,5 @@
+import struct
+
 from py4j.java_gateway import java_import
 
 
@@ -11,8 +13,37 @@ class ApiWrapper(object):
         java_import(self._gateway.jvm, "org.vadere.manager.traci.compoundobjects.*")
         java_import(self._gateway.jvm, "org.vadere.util.geometry.shapes.*")
         java_import(self._gateway.jvm, "java.util.*")
+        java_import(self._gateway.jvm, "java.nio.*")
 
         # java types
         self._stringClass = self._gateway.jvm.String
         self._vpointClass = self._gateway.jvm.VPoint
         self._arraylistClass = self._gateway.jvm.ArrayList
+        self._bytebufferClass = self._gateway.jvm.ByteBuffer
+
+    # py4j transfers byte arrays in one piece but accesses other java arrays element by element.
+    # Thus, primitive arrays are converted via a ByteBuffer (big endian like TraCI).
+
+    def _toPythonDoubles(self, javaArray):
+        n = len(javaArray)
+        buf = self._bytebufferClass.allocate(8 * n)
+        buf.asDoubleBuffer().put(javaArray)
+        return list(struct.unpack(">%dd" % n, buf.array()))
+
+    def _toPythonInts(self, javaArray):
+        n = len(javaArray)
+        buf = self._bytebufferClass.allocate(4 * n)
+        buf.asIntBuffer().put(javaArray)
+        return list(struct.unpack(">%di" % n, buf.array()))
+
+    def _toJavaDoubles(self, values):
+        javaArray = self._gateway.new_array(self._gateway.jvm.double, len(values))
+        data = struct.pack(">%dd" % len(values), *values)
+        self._bytebufferClass.wrap(data).asDoubleBuffer().get(javaArray)
+        return javaArray
+
+    def _toJavaInts(self, values):
+        javaArray = self._gateway.new_array(self._gateway.jvm.int, len(values))
+        data = struct.pack(">%di" % len(values), *values)
+        self._bytebufferClass.wrap(data).asIntBuffer().get(javaArray)
+        return javaArray
@@ -89,3 +89,56 @@ class PersonapiWrapper(ApiWrapper):
         response = self._apiObject.createNew(jsonFilePath)
         result = response.toString()
         return result
+
+    # bulk access: all persons are ordered by ascending id (see getIDArray)
+
+    def getIDArray(self):
+        response = self._apiObject.getIdArray()
+        result = response.getResponseData()
+        return self._toPythonInts(result)
+
+    def getPosition2DArray(self):
+        response = self._apiObject.getPosition2DArray()
+        result = self._toPythonDoubles(response.getResponseData())
+        return list(zip(result[0::2], result[1::2]))
+
+    def getVelocityArray(self):
+        response = self._apiObject.getVelocityArray()
+        result = self._toPythonDoubles(response.getResponseData())
+        return list(zip(result[0::2], result[1::2]))
+
+    def getFreeFlowSpeedArray(self):
+        response = self._apiObject.getFreeFlowSpeedArray()
+        result = response.getResponseData()
+        return self._toPythonDoubles(result)
+
+    def setFreeFlowSpeedArray(self, speeds):
+        # speeds: dict personID -> speed
+        data = []
+        for personID, speed in speeds.items():
+            data.append(float(personID))
+            data.append(float(speed))
+        response = self._apiObject.setFreeFlowSpeedArray(self._toJavaDoubles(data))
+        result = response.toString()
+        return result
+
+    def getTargetListArray(self):
+        response = self._apiObject.getTargetListArray()
+        result = self._toPythonInts(response.getResponseData())
+        targetLists = []
+        i = 0
+        while i < len(result):
+            targetLists.append(result[i + 1:i + 1 + result[i]])
+            i += 1 + result[i]
+        return targetLists
+
+    def setTargetListArray(self, targetLists):
+        # targetLists: dict personID -> list of target ids
+        data = []
+        for personID, targets in targetLists.items():
+            data.append(int(personID))
+            data.append(len(targets))
+            data.extend(int(t) for t in targets)
+        response = self._apiObject.setTargetListArray(self._toJavaInts(data))
+        result = response.toString()
+        return result
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.configuration2.Configuration;
 import org.vadere.state.psychology.cognition.SelfCategory;
@@ -49,7 +50,7 @@ public class DefaultSimulationConfig extends DefaultConfig {
 	private boolean showGroups = false;
 	protected final Color pedestrianDefaultColor = new Color(76, 114, 202);
 	private Map<Integer, Color> pedestrianColors = new TreeMap<>();
-	private Map<Integer, Color> randomColors = new HashMap<>();
+	private Map<Integer, Color> randomColors = new ConcurrentHashMap<>();
 	private Map<Integer, Color> selfCategoryColors = new HashMap<>();
 
 	/*
@@ -75,7 +76,7 @@ public class DefaultSimulationConfig extends DefaultConfig {
 	public DefaultSimulationConfig(final DefaultSimulationConfig config) {
 		super(config);
 
-		this.randomColors = new HashMap<>();
+		this.randomColors = new ConcurrentHashMap<>();
 		this.pedestrianColors = new HashMap<>();
 		this.selfCategoryColors = new HashMap<>();
 		this.lowerVisualizedExposure = config.lowerVisualizedExposure;
@@ -358,11 +359,12 @@ public class DefaultSimulationConfig extends DefaultConfig {
 		randomColors.clear();
 	}
 
+	/**
+	 * Returns the random color of the pedestrian. The online visualization calls this on the simulation thread
+	 * while the GUI reads the colors, i.e. the colors are created atomically.
+	 */
 	public Color getRandomColor(int pedId) {
-		if (!randomColors.containsKey(pedId)) {
-			randomColors.put(pedId, ColorHelper.randomColor());
-		}
-		return randomColors.get(pedId);
+		return randomColors.computeIfAbsent(pedId, id -> ColorHelper.randomColor());
 	}
 
 	public void setSelfCategoryColor(SelfCategory selfCategory, final Color color) {
@@ -34,6 +34,13 @@ public abstract class SimulationModel<T extends DefaultSimulationConfig> extends
 
 	public abstract Collection<Pedestrian> getPedestrians();
 
+	/**
+	 * Returns the number of agents, i.e. the size of {@link #getAgents()}.
+	 */
+	public int getNumberOfAgents() {
+		return getAgents().size();
+	}
+
 	public abstract int getTopographyId();
 
 	public abstract double getSimTimeInSec();
@@ -83,10 +90,10 @@ public abstract class SimulationModel<T extends DefaultSimulationConfig> extends
 
             VPoint gridPointCoord = potentialField.pointToCoord(gridPoint);
 
-            double z1 = potentialField.getValue(gridPoint).potential;
-            double z2 = potentialField.getValue(new Point(gridPoint.x + incX, gridPoint.y)).potential;
-            double z3 = potentialField.getValue(new Point(gridPoint.x + incX, gridPoint.y + incY)).potential;
-            double z4 = potentialField.getValue(new Point(gridPoint.x, gridPoint.y + incY)).potential;
+            double z1 = potentialField.getPotential(gridPoint);
+            double z2 = potentialField.getPotential(new Point(gridPoint.x + incX, gridPoint.y));
+            double z3 = potentialField.getPotential(new Point(gridPoint.x + incX, gridPoint.y + incY));
+            double z4 = potentialField.getPotential(new Point(gridPoint.x, gridPoint.y + incY));
 
             double t = (pos.x - gridPointCoord.x) / potentialField.getResolution();
             double u = (pos.y - gridPointCoord.y) / potentialField.getResolution();
@@ -104,13 +111,9 @@ public abstract class SimulationModel<T extends DefaultSimulationConfig> extends
 			return config.getPedestrianDefaultColor();
 		}
 
+		// the online visualization colors the agents on the simulation thread while the GUI reads the colors
 		int groupId = ped.getGroupIds().getFirst();
-		Color c = colorMap.get(groupId);
-		if (c == null) {
-			c = new Color(Color.HSBtoRGB(random.nextFloat(), 1f, 0.75f));
-			colorMap.put(groupId, c);
-		}
-		return c;
+		return colorMap.computeIfAbsent(groupId, id -> new Color(Color.HSBtoRGB(random.nextFloat(), 1f, 0.75f)));
 	}
 
 	@Override
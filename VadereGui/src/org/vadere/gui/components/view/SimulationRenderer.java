@@ -146,17 +146,21 @@ public abstract class SimulationRenderer extends DefaultRenderer {
     }
 
     protected void renderTrajectory(final Graphics2D g, final Stream<VPoint> points, final Pedestrian pedestrain) {
+        VPoint endPos = model.config.isInterpolatePositions() ? pedestrain.getInterpolatedFootStepPosition(model.getSimTimeInSec()) : pedestrain.getPosition();
+        renderTrajectory(g, points, endPos, model.isElementSelected() && model.getSelectedElement().equals(pedestrain));
+    }
+
+    protected void renderTrajectory(final Graphics2D g, final Stream<VPoint> points, final VPoint endPos, final boolean selected) {
         Color color = g.getColor();
         Stroke stroke = g.getStroke();
 
-        if (model.isElementSelected() && model.getSelectedElement().equals(pedestrain)) {
+        if (selected) {
             g.setColor(Color.MAGENTA);
             g.setStroke(new BasicStroke(getLineWidth() / 2.0f));
         } else {
             g.setStroke(new BasicStroke(getLineWidth() / 4.0f));
         }
 
-        VPoint endPos = model.config.isInterpolatePositions() ? pedestrain.getInterpolatedFootStepPosition(model.getSimTimeInSec()) : pedestrain.getPosition();
         Path2D.Double path = new Path2D.Double();
         path.moveTo(
 		        endPos.getX(), endPos.getY());
@@ -300,6 +304,14 @@ public abstract class SimulationRenderer extends DefaultRenderer {
     }
 
     public Color getPedestrianColor(@NotNull final Agent agent) {
+	    return getPedestrianColor(model, agent);
+    }
+
+    /**
+     * Returns the color of the agent with respect to the agent coloring of the model. This method does
+     * not depend on the state of a renderer, i.e. it can be used to color agents outside of the draw thread.
+     */
+    public static Color getPedestrianColor(@NotNull final SimulationModel model, @NotNull final Agent agent) {
 	    int targetId = agent.hasNextTarget() ? agent.getNextTargetId() : -1;
 
 	    switch (model.config.getAgentColoring()) {
@@ -2,6 +2,8 @@ package org.vadere.gui.onlinevisualization;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.vadere.gui.components.view.SimulationRenderer;
+import org.vadere.gui.onlinevisualization.model.AgentSnapshot;
 import org.vadere.gui.onlinevisualization.model.OnlineVisualizationModel;
 import org.vadere.gui.onlinevisualization.view.MainPanel;
 import org.vadere.gui.onlinevisualization.view.OnlineVisualisationWindow;
@@ -10,10 +12,24 @@ import org.vadere.simulator.control.simulation.PassiveCallback;
 import org.vadere.simulator.models.potential.fields.IPotentialField;
 import org.vadere.simulator.models.potential.fields.IPotentialFieldTarget;
 import org.vadere.simulator.projects.Domain;
+import org.vadere.state.scenario.AbsorbingArea;
+import org.vadere.state.scenario.AerosolCloud;
 import org.vadere.state.scenario.Agent;
+import org.vadere.state.scenario.Droplets;
+import org.vadere.state.scenario.MeasurementArea;
+import org.vadere.state.scenario.Obstacle;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.ScenarioElement;
+import org.vadere.state.scenario.Source;
+import org.vadere.state.scenario.Stairs;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.TargetChanger;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.VRectangle;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 
 public class OnlineVisualization implements PassiveCallback {
@@ -22,11 +38,18 @@ public class OnlineVisualization implements PassiveCallback {
 	 * Holds a snapshot of the observation area of a frame. This class is used
 	 * to provide simulation data for visualization to the draw thread. To avoid
 	 * threading issues, the class holds a partial copy of the original
-	 * scenario.
+	 * scenario: The static elements of the topography are copied whenever they
+	 * change and the copy is shared by the snapshots, the agents are copied into
+	 * an {@link AgentSnapshot}, the selected agent and the aerosol clouds and
+	 * droplets are cloned. The snapshot is not changed after it is pushed to the
+	 * model.
 	 */
 	public class ObservationAreaSnapshotData {
 		public final double simTimeInSec;
 		public final Domain domain;
+		public final AgentSnapshot agents;
+		public final List<AerosolCloud> aerosolClouds;
+		public final List<Droplets> droplets;
 		public final IPotentialField potentialFieldTarget;
 		public final Agent selectedAgent;
 		public final IPotentialField potentialField;
@@ -35,12 +58,18 @@ public class OnlineVisualization implements PassiveCallback {
 		public ObservationAreaSnapshotData(
 				final double simTimeInSec,
 				@NotNull final Domain scenario,
+				@NotNull final AgentSnapshot agents,
+				@NotNull final List<AerosolCloud> aerosolClouds,
+				@NotNull final List<Droplets> droplets,
 				@Nullable final IPotentialField potentialFieldTarget,
 				@Nullable final IPotentialField potentialField,
 				@Nullable final Agent selectedAgent,
 				@Nullable final Function<Agent, IMesh<?, ?, ?>> discretizations) {
 			this.simTimeInSec = simTimeInSec;
 			this.domain = scenario;
+			this.agents = agents;
+			this.aerosolClouds = aerosolClouds;
+			this.droplets = droplets;
 			this.potentialFieldTarget = potentialFieldTarget;
 			this.potentialField = potentialField;
 			this.selectedAgent = selectedAgent;
@@ -53,6 +82,13 @@ public class OnlineVisualization implements PassiveCallback {
 	private OnlineVisualizationModel model;
 	private Domain domain;
 
+	/**
+	 * The copy of the static elements of the domain which is shared by the snapshots until the static elements
+	 * change (see {@link Topography#getStaticElementsVersion()}).
+	 */
+	private Domain staticDomain;
+	private long staticDomainVersion;
+
 	/**
 	 * Target potential.
 	 */
@@ -92,6 +128,8 @@ public class OnlineVisualization implements PassiveCallback {
 
 	@Override
 	public void preLoop(double simTimeInSec) {
+		staticDomain = null;
+
 		// [issue 280] ensure OnlineVisualisation model is completely setup before
 		// OnlineVisualisation renderer is initialized in window.preLoop()
 		// push pop DrawData once at the beginning. This will completely initialize the model
@@ -109,6 +147,7 @@ public class OnlineVisualization implements PassiveCallback {
 	public void postLoop(double simTimeInSec) {
 		onlineVisualisationPanel.setVisible(false);
 		model.reset();
+		staticDomain = null;
 
 		// [issue 280] deactivate mouse listeners because model is not valid anymore
 		window.removeListeners();
@@ -119,8 +158,8 @@ public class OnlineVisualization implements PassiveCallback {
 
 	@Override
 	public void postUpdate(double simTimeInSec) {
+		// the draw thread pops the snapshot, i.e. the simulation never waits for the renderer
 		pushDrawData(simTimeInSec);
-		model.popDrawData();
 		model.notifyObservers();
 	}
 
@@ -128,28 +167,98 @@ public class OnlineVisualization implements PassiveCallback {
 	 * Pushes (by copy) required data from current simulation into data queues
 	 * for being displayed by draw thread (thread-safe). These may be for
 	 * example the physical world representation and potential field of
-	 * perception.
+	 * perception. The snapshot replaces the last snapshot if the draw thread
+	 * has not popped it yet.
 	 */
 	private void pushDrawData(double simTimeInSec) {
+		/* Push new snapshot of the observation area to the draw thread. */
+		IPotentialField pft = (model.config.isShowTargetPotentialField() && potentialFieldTarget != null) ? potentialFieldTarget.getSolution() : null;
+		Function<Agent, IMesh<?, ?, ?>> discretizations = (model.config.isShowTargetPotentielFieldMesh() && potentialFieldTarget != null) ? potentialFieldTarget.getDiscretization() : null;
+		IPotentialField pedPotentialField = null;
+		Agent selectedAgent = null;
+		Topography topography = domain.getTopography();
 
-		synchronized (model.getDataSynchronizer()) {
-			/* Push new snapshot of the observation area to the draw thread. */
-			IPotentialField pft = (model.config.isShowTargetPotentialField() && potentialFieldTarget != null) ? potentialFieldTarget.getSolution() : null;
-			Function<Agent, IMesh<?, ?, ?>> discretizations = (model.config.isShowTargetPotentielFieldMesh() && potentialFieldTarget != null) ? potentialFieldTarget.getDiscretization() : null;
-			IPotentialField pedPotentialField = null;
-			Agent selectedAgent = null;
+		// e.g. a target changer adds targets or a queue moves its tail target
+		if (staticDomain == null || staticDomainVersion != topography.getStaticElementsVersion()) {
+			staticDomainVersion = topography.getStaticElementsVersion();
+			staticDomain = createStaticDomain(domain);
+		}
 
-			if(model.getSelectedElement() instanceof Agent){
-				selectedAgent = (Agent)model.getSelectedElement();
+		// the selected element is a copy of the draw thread, the potential field requires the simulated agent
+		ScenarioElement selectedElement = model.getSelectedElement();
+		if(selectedElement instanceof Agent){
+			Agent simulatedAgent = topography.getElement(Pedestrian.class, selectedElement.getId());
+			if (simulatedAgent != null) {
+				if(model.config.isShowPotentialField() && potentialField != null) {
+					pedPotentialField = IPotentialField.copyAgentField(potentialField, simulatedAgent, new VRectangle(model.getTopographyBound()), 0.1);
+				}
+				// the simulation continues to change the simulated agent while the draw thread reads the snapshot
+				selectedAgent = simulatedAgent.clone();
 			}
+		}
 
-			if(model.config.isShowPotentialField() && selectedAgent != null && potentialField != null) {
-				pedPotentialField = IPotentialField.copyAgentField(potentialField, selectedAgent, new VRectangle(model.getTopographyBound()), 0.1);
+		AgentSnapshot agents = AgentSnapshot.of(topography.getElements(Agent.class), agent -> SimulationRenderer.getPedestrianColor(model, agent).getRGB());
+		List<AerosolCloud> aerosolClouds = Collections.emptyList();
+		if (model.config.isShowAerosolClouds()) {
+			aerosolClouds = new ArrayList<>(topography.getAerosolClouds().size());
+			for (AerosolCloud aerosolCloud : topography.getAerosolClouds()) {
+				aerosolClouds.add(aerosolCloud.clone());
+			}
+		}
+		List<Droplets> droplets = Collections.emptyList();
+		if (model.config.isShowDroplets()) {
+			droplets = new ArrayList<>(topography.getDroplets().size());
+			for (Droplets d : topography.getDroplets()) {
+				droplets.add(d.clone());
 			}
+		}
+
+		ObservationAreaSnapshotData data = new ObservationAreaSnapshotData(simTimeInSec, staticDomain, agents, aerosolClouds, droplets, pft, pedPotentialField, selectedAgent, discretizations);
+		model.pushObservationAreaSnapshot(data);
+	}
 
-			ObservationAreaSnapshotData data = new ObservationAreaSnapshotData(simTimeInSec, domain.clone(), pft, pedPotentialField, selectedAgent, discretizations);
-			model.pushObservationAreaSnapshot(data);
+	/**
+	 * Copies the static elements of the domain, i.e. all elements except of the agents, aerosol clouds and
+	 * droplets. The copy is shared by the snapshots until the static elements change and only read by the draw
+	 * thread.
+	 */
+	private static Domain createStaticDomain(@NotNull final Domain domain) {
+		Topography topography = domain.getTopography();
+		Topography copy = new Topography(topography.getAttributes(), topography.getAttributesPedestrian());
+		List<Obstacle> boundaryObstacles = topography.getBoundaryObstacles();
+
+		for (Obstacle obstacle : topography.getObstacles()) {
+			if (boundaryObstacles.contains(obstacle))
+				copy.addBoundary(obstacle.clone());
+			else
+				copy.addObstacle(obstacle.clone());
+		}
+		for (MeasurementArea measurementArea : topography.getMeasurementAreas()) {
+			copy.addMeasurementArea(measurementArea);
+		}
+		for (Stairs stairs : topography.getStairs()) {
+			copy.addStairs(stairs.clone());
+		}
+		for (Target target : topography.getTargets()) {
+			copy.addTarget(target.clone());
 		}
+		for (TargetChanger targetChanger : topography.getTargetChangers()) {
+			copy.addTargetChanger(targetChanger.clone());
+		}
+		for (AbsorbingArea absorbingArea : topography.getAbsorbingAreas()) {
+			copy.addAbsorbingArea(absorbingArea.clone());
+		}
+		for (Source source : topography.getSources()) {
+			copy.addSource(source.clone());
+		}
+		if (topography.hasTeleporter()) {
+			copy.setTeleporter(topography.getTeleporter().clone());
+		}
+
+		return new Domain(
+				domain.getFloorFieldMesh() == null ? null : domain.getFloorFieldMesh().clone(),
+				domain.getBackgroundMesh() == null ? null : domain.getBackgroundMesh().clone(),
+				copy);
 	}
 
 
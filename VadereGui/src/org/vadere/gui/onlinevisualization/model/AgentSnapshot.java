@@ -0,0 +1,153 @@
+package org.vadere.gui.onlinevisualization.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.scenario.Agent;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable snapshot of the agents of one simulation step which holds only the data required to draw
+ * them (id, next target, group, position, radius and color) in primitive arrays. The snapshot does not reference
+ * the agents of the simulation, i.e. it can be read by the draw thread while the simulation continues.
+ */
+public class AgentSnapshot {
+
+	private static final AgentSnapshot EMPTY = new AgentSnapshot(0);
+
+	private final int[] ids;
+	private final int[] targetIds;
+	private final int[] groupIds;
+	private final double[] xs;
+	private final double[] ys;
+	private final double[] radii;
+	private final int[] colors;
+
+	private AgentSnapshot(final int size) {
+		this.ids = new int[size];
+		this.targetIds = new int[size];
+		this.groupIds = new int[size];
+		this.xs = new double[size];
+		this.ys = new double[size];
+		this.radii = new double[size];
+		this.colors = new int[size];
+	}
+
+	/**
+	 * Takes a snapshot of the agents.
+	 *
+	 * @param agents    the agents of the simulation
+	 * @param coloring  the (sRGB) color of an agent
+	 */
+	public static AgentSnapshot of(@NotNull final Collection<? extends Agent> agents, @NotNull final ToIntFunction<Agent> coloring) {
+		AgentSnapshot snapshot = new AgentSnapshot(agents.size());
+		int i = 0;
+		for (Agent agent : agents) {
+			VPoint position = agent.getPosition();
+			snapshot.ids[i] = agent.getId();
+			snapshot.targetIds[i] = agent.hasNextTarget() ? agent.getNextTargetId() : -1;
+			snapshot.groupIds[i] = firstGroupId(agent);
+			snapshot.xs[i] = position.x;
+			snapshot.ys[i] = position.y;
+			snapshot.radii[i] = agent.getRadius();
+			snapshot.colors[i] = coloring.applyAsInt(agent);
+			i++;
+		}
+		return snapshot;
+	}
+
+	private static int firstGroupId(final Agent agent) {
+		if (agent instanceof Pedestrian) {
+			Pedestrian pedestrian = (Pedestrian) agent;
+			if (!pedestrian.getGroupIds().isEmpty() && (pedestrian.getGroupSizes().isEmpty() || pedestrian.getGroupSizes().getFirst() != 1)) {
+				return pedestrian.getGroupIds().getFirst();
+			}
+		}
+		return -1;
+	}
+
+	public static AgentSnapshot empty() {
+		return EMPTY;
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public int getId(final int i) {
+		return ids[i];
+	}
+
+	/**
+	 * Returns the id of the next target of the agent <tt>i</tt> or -1 if it has no target.
+	 */
+	public int getTargetId(final int i) {
+		return targetIds[i];
+	}
+
+	/**
+	 * Returns the id of the first group of the agent <tt>i</tt> or -1 if it is not a member of a group
+	 * with more than one member.
+	 */
+	public int getGroupId(final int i) {
+		return groupIds[i];
+	}
+
+	public double getX(final int i) {
+		return xs[i];
+	}
+
+	public double getY(final int i) {
+		return ys[i];
+	}
+
+	public VPoint getPosition(final int i) {
+		return new VPoint(xs[i], ys[i]);
+	}
+
+	public double getRadius(final int i) {
+		return radii[i];
+	}
+
+	/**
+	 * Returns the sRGB color of the agent <tt>i</tt>.
+	 */
+	public int getColor(final int i) {
+		return colors[i];
+	}
+
+	/**
+	 * Returns the index of the agent with the id or -1 if there is no such agent.
+	 */
+	public int indexOf(final int id) {
+		for (int i = 0; i < ids.length; i++) {
+			if (ids[i] == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Creates a pedestrian with the id, next target, position and radius of the agent <tt>i</tt>. The
+	 * pedestrian is not part of the simulation, it is used to select agents and to display their attributes.
+	 */
+	public Pedestrian toPedestrian(final int i, @NotNull final Random random) {
+		AttributesAgent attributesAgent = new AttributesAgent(ids[i]);
+		attributesAgent.setRadius(radii[i]);
+		attributesAgent.setSpeedDistributionStandardDeviation(0.0);
+		Pedestrian pedestrian = new Pedestrian(attributesAgent, random);
+		pedestrian.setPosition(getPosition(i));
+		if (targetIds[i] >= 0) {
+			LinkedList<Integer> targets = new LinkedList<>();
+			targets.add(targetIds[i]);
+			pedestrian.setTargets(targets);
+		}
+		return pedestrian;
+	}
+}
@@ -6,8 +6,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.NotNull;
 import org.vadere.gui.components.model.AgentColoring;
@@ -20,6 +22,7 @@ import org.vadere.simulator.models.potential.fields.IPotentialField;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.state.scenario.*;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.voronoi.VoronoiDiagram;
 
 public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationConfig> {
@@ -28,7 +31,13 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 	 * Lists for thread safe data exchange between main and draw thread.
 	 */
 	private LinkedList<VoronoiDiagram> voronoiSnapshots;
-	private LinkedList<OnlineVisualization.ObservationAreaSnapshotData> observationAreaSnapshots;
+
+	/**
+	 * The latest snapshot pushed by the main thread which has not been popped by the draw thread.
+	 * The main thread replaces it without waiting for the draw thread, i.e. the draw thread skips
+	 * snapshots if it is slower than the simulation.
+	 */
+	private final AtomicReference<OnlineVisualization.ObservationAreaSnapshotData> observationAreaSnapshot;
 
 	/**
 	 * Latest snapshot of the potential field to be displayed. This is a certain
@@ -47,28 +56,43 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 	 */
 	private VoronoiDiagram voronoiDiagram = null;
 
-	private double simTimeInSec;
+	private volatile double simTimeInSec;
 
 	private boolean drawArrows;
 
 	/**
-	 * Synchronizer object used to control access to the simulation data
-	 * exchange structures to avoid threading issues.
+	 * The observation area to display. Updated by popDrawData() with the latest
+	 * observation area snapshot. The static elements of its topography are shared
+	 * by all snapshots, its aerosol clouds, droplets and pedestrians are replaced
+	 * by the ones of the latest snapshot.
 	 */
-	private Object drawDataSynchronizer;
+	private Domain domain;
 
+	/**
+	 * The agents of the latest snapshot.
+	 */
+	private volatile AgentSnapshot agents;
 
 	/**
-	 * The observation area to display. Updated by popDrawData() with the latest
-	 * observation area snapshot.
+	 * True if the agents of the latest snapshot are added (as pedestrians) to the topography. The
+	 * pedestrians are only created if they are required, e.g. to select an agent.
 	 */
-	private Domain domain;
+	private boolean pedestriansAdded;
+
+	/**
+	 * Guards the pedestrians of the topography. The draw thread replaces them and both the draw thread and
+	 * the event dispatching thread (e.g. selecting an agent) add them lazily.
+	 */
+	private final Object pedestriansLock = new Object();
+
+	private final Random random;
 
 	public OnlineVisualizationModel() {
 		super(new DefaultSimulationConfig());
-		this.drawDataSynchronizer = new Object();
 		this.voronoiSnapshots = new LinkedList<>();
-		this.observationAreaSnapshots = new LinkedList<>();
+		this.observationAreaSnapshot = new AtomicReference<>();
+		this.agents = AgentSnapshot.empty();
+		this.random = new Random();
 		this.config.setInterpolatePositions(false);
 	}
 
@@ -78,7 +102,10 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 			return new ArrayList<>();
 		}
 		Collection<Agent> result = new LinkedList<>();
-		result.addAll(domain.getTopography().getElements(Agent.class));
+		synchronized (pedestriansLock) {
+			addPedestrians();
+			result.addAll(domain.getTopography().getElements(Agent.class));
+		}
 		return result;
 	}
 
@@ -88,10 +115,37 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 			return new ArrayList<>();
 		}
 		Collection<Pedestrian> result = new LinkedList<>();
-		result.addAll(domain.getTopography().getElements(Pedestrian.class));
+		synchronized (pedestriansLock) {
+			addPedestrians();
+			result.addAll(domain.getTopography().getElements(Pedestrian.class));
+		}
 		return result;
 	}
 
+	@Override
+	public int getNumberOfAgents() {
+		return agents.size();
+	}
+
+	/**
+	 * Returns the agents of the latest snapshot.
+	 */
+	public AgentSnapshot getAgentSnapshot() {
+		return agents;
+	}
+
+	private void addPedestrians() {
+		synchronized (pedestriansLock) {
+			if (!pedestriansAdded && domain != null) {
+				Topography topography = domain.getTopography();
+				for (int i = 0; i < agents.size(); i++) {
+					topography.addElement(agents.toPedestrian(i, random));
+				}
+				pedestriansAdded = true;
+			}
+		}
+	}
+
 	@Override
 	public int getTopographyId() {
 		return 0;
@@ -110,35 +164,39 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 		if (domain == null) {
 			return new ArrayList<ScenarioElement>().iterator();
 		}
+		addPedestrians();
 		return new TopographyIterator(domain.getTopography());
 	}
 
 	/**
-	 * Retrieve latest simulation data from data exchange structures. As these
-	 * structures may be accessed by the main thread at the same time, access is
-	 * controlled by drawDataSynchronizer.
+	 * Retrieve latest simulation data from data exchange structures. The main
+	 * thread pushes the snapshots without locking, i.e. this method has to be
+	 * called by the draw thread (and by the main thread only before the draw
+	 * thread starts).
 	 */
 	public boolean popDrawData() {
-		synchronized (drawDataSynchronizer) {
-			if (observationAreaSnapshots.isEmpty()) {
-				return false;
-			}
+		OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshot = this.observationAreaSnapshot.getAndSet(null);
+		if (observationAreaSnapshot == null) {
+			return false;
+		}
+
+		simTimeInSec = observationAreaSnapshot.simTimeInSec;
 
-			OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshot =
-					observationAreaSnapshots.getFirst();
-			simTimeInSec = observationAreaSnapshot.simTimeInSec;
+		// potentialFieldTarget might be null!
+		potentialFieldTarget = observationAreaSnapshot.potentialFieldTarget;
+		potentialField = observationAreaSnapshot.potentialField;
+		agent = observationAreaSnapshot.selectedAgent;
 
-			// potentialFieldTarget might be null!
-            potentialFieldTarget = observationAreaSnapshot.potentialFieldTarget;
-			potentialField = observationAreaSnapshot.potentialField;
-			agent = observationAreaSnapshot.selectedAgent;
+		/*
+		 * if(topography == null ||
+		 * !topography.getBounds().equals(observationAreaSnapshot.scenario.getBounds())) {
+		 * setViewportBound(observationAreaSnapshot.scenario.getBounds());
+		 * }
+		 */
 
-			/*
-			 * if(topography == null ||
-			 * !topography.getBounds().equals(observationAreaSnapshot.scenario.getBounds())) {
-			 * setViewportBound(observationAreaSnapshot.scenario.getBounds());
-			 * }
-			 */
+		Pedestrian selectedPedestrian = null;
+		synchronized (pedestriansLock) {
+			agents = observationAreaSnapshot.agents;
 
 			if (domain == null) {
 				domain = observationAreaSnapshot.domain;
@@ -152,50 +210,54 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 				domain = observationAreaSnapshot.domain;
 			}
 
+			Topography topography = domain.getTopography();
+			topography.getAerosolClouds().clear();
+			topography.getAerosolClouds().addAll(observationAreaSnapshot.aerosolClouds);
+			topography.getDroplets().clear();
+			topography.getDroplets().addAll(observationAreaSnapshot.droplets);
+			topography.getPedestrianDynamicElements().clear();
+			pedestriansAdded = false;
+
 			if (getSelectedElement() instanceof Pedestrian) {
 				int pedId = getSelectedElement().getId();
-				Pedestrian ped = domain.getTopography().getElement(Pedestrian.class, pedId);
-				setSelectedElement(ped);
+				addPedestrians();
+				selectedPedestrian = topography.getElement(Pedestrian.class, pedId);
 			}
+		}
+		if (getSelectedElement() instanceof Pedestrian) {
+			setSelectedElement(selectedPedestrian);
+		}
 
-			if (isVoronoiDiagramAvailable() && isVoronoiDiagramVisible()) {
-				getVoronoiDiagram().computeVoronoiDiagram(domain.getTopography().getPedestrianDynamicElements().getElements()
-								.stream()
-								.map(ped -> ped.getPosition())
-								.collect(Collectors.toList()));
+		if (isVoronoiDiagramAvailable() && isVoronoiDiagramVisible()) {
+			List<VPoint> positions = new ArrayList<>(agents.size());
+			for (int i = 0; i < agents.size(); i++) {
+				positions.add(agents.getPosition(i));
 			}
-
-			return true;
+			getVoronoiDiagram().computeVoronoiDiagram(positions);
 		}
+
+		return true;
 	}
 
 	public void pushObservationAreaSnapshot(final OnlineVisualization.ObservationAreaSnapshotData observationAreaSnapshotData) {
-        if (observationAreaSnapshots.size() > 0) {
-            observationAreaSnapshots.pop();
-        }
-        observationAreaSnapshots.push(observationAreaSnapshotData);
-        setChanged();
+		observationAreaSnapshot.set(observationAreaSnapshotData);
+		setChanged();
 	}
 
 	public void reset() {
 		voronoiSnapshots.clear();
-		observationAreaSnapshots.clear();
+		observationAreaSnapshot.set(null);
 		selectedElement = null;
 
 		voronoiDiagram = null;
-		domain = null;
+		synchronized (pedestriansLock) {
+			domain = null;
+			agents = AgentSnapshot.empty();
+			pedestriansAdded = false;
+		}
 		simTimeInSec = 0.0;
 	}
 
-	/**
-	 * Returns the data synchronization object, used for thread safe data
-	 * exchange between main thread and draw thread. Ensure that there is no
-	 * simultaneous access to the shared data structures.
-	 */
-	public Object getDataSynchronizer() {
-		return drawDataSynchronizer;
-	}
-
 	/**
 	 * Returns the list of jts diagram snapshots. Used for thread safe data
 	 * exchange between main thread and draw thread.
@@ -208,7 +270,8 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 	public Function<IPoint, Double> getPotentialField() {
 	    Function<IPoint, Double> f = pos -> 0.0;
 
-	    if(agent != null && potentialField != null && config.isShowPotentialField() && agent.equals(getSelectedElement())) {
+	    // the selected element is a copy of the agent of the snapshot
+	    if(agent != null && potentialField != null && config.isShowPotentialField() && isElementSelected() && agent.getId() == getSelectedElement().getId()) {
 	    	f = pos -> potentialField.getPotential(pos, agent);
 	    }
 		else if(potentialFieldTarget != null && config.isShowTargetPotentialField()) {
@@ -264,6 +327,6 @@ public class OnlineVisualizationModel extends SimulationModel<DefaultSimulationC
 
 	@Override
 	public boolean isAlive(int pedId) {
-		return domain.getTopography().getPedestrianDynamicElements().idExists(pedId);
+		return agents.indexOf(pedId) >= 0;
 	}
 }
@@ -3,11 +3,14 @@ package org.vadere.gui.onlinevisualization.view;
 import org.jetbrains.annotations.NotNull;
 import org.vadere.gui.components.view.DefaultRenderer;
 import org.vadere.gui.components.view.SimulationRenderer;
+import org.vadere.gui.onlinevisualization.model.AgentSnapshot;
 import org.vadere.gui.onlinevisualization.model.OnlineVisualizationModel;
-import org.vadere.gui.renderer.agent.AgentRender;
+import org.vadere.gui.renderer.agent.FormHelper;
 import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.Pedestrian;
+import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VShape;
 
 import java.awt.*;
 import java.util.HashMap;
@@ -33,17 +36,14 @@ public class OnlinevisualizationRenderer extends SimulationRenderer {
 
 	@Override
 	public void render(final Graphics2D targetGraphics2D, int x, int y, int width, int height) {
-	    synchronized (model.getDataSynchronizer()) {
-            super.render(targetGraphics2D, x, y, width, height);
-        }
-
+		model.popDrawData();
+		super.render(targetGraphics2D, x, y, width, height);
 	}
 
 	@Override
 	public void render(final Graphics2D targetGraphics2D, int width, int height) {
-        synchronized (model.getDataSynchronizer()) {
-            super.render(targetGraphics2D, width, height);
-        }
+		model.popDrawData();
+		super.render(targetGraphics2D, width, height);
 	}
 
 	@Override
@@ -56,34 +56,29 @@ public class OnlinevisualizationRenderer extends SimulationRenderer {
 
 
 	private void renderPedestrians(final Graphics2D g) {
-		AgentRender agentRender = getAgentRender();
-		for (Pedestrian ped : model.getPedestrians()) {
-			Color agentColor = getPedestrianColor(ped);
+		AgentSnapshot agents = model.getAgentSnapshot();
+		int selectedId = model.isElementSelected() ? model.getSelectedElement().getId() : -1;
+
+		for (int i = 0; i < agents.size(); i++) {
+			int pedestrianId = agents.getId(i);
+			VPoint position = agents.getPosition(i);
+			double radius = agents.getRadius(i);
+			Color agentColor = new Color(agents.getColor(i));
+			renderAgent(g, position, radius, agents.getGroupId(i), agentColor);
 			g.setColor(agentColor);
-			VPoint position = ped.getPosition();
-			agentRender.render(ped, agentColor, g);
 
-			if (!pedestrianPositions.containsKey(ped.getId())) {
-				pedestrianPositions.put(ped.getId(), new LinkedList());
+			if (!pedestrianPositions.containsKey(pedestrianId)) {
+				pedestrianPositions.put(pedestrianId, new LinkedList());
 			}
 
 			// reverse the point order
-			if(!model.config.isInterpolatePositions()) {
-				pedestrianPositions.get(ped.getId()).addFirst(ped.getPosition());
-			} else {
-				if(ped.getFootstepHistory().getCapacity() > 0) {
-					pedestrianPositions.get(ped.getId()).addFirst(ped.getFootstepHistory().getYoungestFootStep().getStart());
-				} else {
-					pedestrianPositions.get(ped.getId()).addFirst(ped.getPosition());
-				}
-			}
+			pedestrianPositions.get(pedestrianId).addFirst(position);
 
 			if (model.config.isShowTrajectories()) {
-				renderTrajectory(g, pedestrianPositions.get(ped.getId()), ped);
+				renderTrajectory(g, pedestrianPositions.get(pedestrianId).stream(), position, pedestrianId == selectedId);
 			}
 
 			if (model.config.isShowWalkdirection()) {
-				int pedestrianId = ped.getId();
 				VPoint lastPosition = lastPedestrianPositions.get(pedestrianId);
 				lastPedestrianPositions.put(pedestrianId, position);
 
@@ -103,14 +98,28 @@ public class OnlinevisualizationRenderer extends SimulationRenderer {
 					}
 					if (direction != null) {
 						double theta = Math.atan2(-direction.getY(), -direction.getX());
-						DefaultRenderer.drawArrow(g, theta, position.getX() - ped.getRadius() * 2 * direction.getX(),
-								position.getY() - ped.getRadius() * 2 * direction.getY());
+						DefaultRenderer.drawArrow(g, theta, position.getX() - radius * 2 * direction.getX(),
+								position.getY() - radius * 2 * direction.getY());
 					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Draws an agent of the snapshot like {@link org.vadere.gui.renderer.agent.AgentRender} draws a pedestrian.
+	 */
+	private void renderAgent(final Graphics2D g, final VPoint position, final double radius, final int groupId, final Color color) {
+		VShape shape = new VCircle(position, radius);
+		if (model.config.isShowGroups() && groupId >= 0 && groupId != 1) {
+			g.setColor(Color.DARK_GRAY);
+			g.fill(shape);
+			shape = FormHelper.getShape(groupId, position, radius);
+		}
+		g.setColor(color);
+		DefaultRenderer.fill(shape, g);
+	}
+
 	/*
 	 * This method should replace pedestrianPositions.get(ped.getId()).addFirst(ped.getPosition());
 	 * However the simulation runs in an separated thread. Therefore, foot steps might be cleared
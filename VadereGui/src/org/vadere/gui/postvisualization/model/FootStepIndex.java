@@ -0,0 +1,341 @@
+package org.vadere.gui.postvisualization.model;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+
+/**
+ * A time index of the footsteps (rows) of a trajectory table. It answers which footsteps are processed at a certain
+ * time without filtering the whole table, i.e. a query costs O(log n + k) where k is the number of returned rows.
+ *
+ * The footsteps are sorted by their start time and an implicit interval tree (a binary tree of the maximal end times
+ * over the sorted footsteps) prunes all subtrees whose footsteps ended before the requested time. In addition,
+ * the footsteps of each agent are stored in the order of their start time such that the footstep of a single agent
+ * can be found by binary search.
+ */
+class FootStepIndex {
+
+	/**
+	 * the row numbers of the footsteps, sorted by the start time (ties are broken by the row number).
+	 */
+	private final int[] rows;
+	private final double[] startTimes;
+	private final double[] endTimes;
+
+	/**
+	 * the maximal end times of the subtrees, the leaves start at <tt>treeSize</tt>.
+	 */
+	private final double[] maxEndTimes;
+	private final int treeSize;
+
+	/**
+	 * the agents are sorted by their id and <tt>stepAgents[i]</tt> is the agent of the i-th sorted footstep.
+	 * The footsteps of agent <tt>a</tt> are <tt>agentSteps[agentOffsets[a]]</tt>, ...,
+	 * <tt>agentSteps[agentOffsets[a+1]-1]</tt>, these are indices into the sorted footsteps.
+	 */
+	private final int[] agentIds;
+	private final int[] stepAgents;
+	private final int[] agentOffsets;
+	private final int[] agentSteps;
+	private final Int2IntMap agentIndices;
+	private final double[] birthTimes;
+	private final double[] deathTimes;
+
+	/**
+	 * the agents sorted by their birth time.
+	 */
+	private final int[] agentsByBirth;
+	private final double[] sortedBirthTimes;
+
+	FootStepIndex(@NotNull final IntColumn pedIds, @NotNull final DoubleColumn startTimeColumn, @NotNull final DoubleColumn endTimeColumn) {
+		int n = pedIds.size();
+
+		// (1) footsteps sorted by the start time
+		double[] unsortedStartTimes = startTimeColumn.asDoubleArray();
+		rows = identity(n);
+		IntArrays.parallelQuickSort(rows, (i, j) -> {
+			int cmp = Double.compare(unsortedStartTimes[i], unsortedStartTimes[j]);
+			return cmp != 0 ? cmp : Integer.compare(i, j);
+		});
+
+		startTimes = new double[n];
+		endTimes = new double[n];
+		for (int i = 0; i < n; i++) {
+			startTimes[i] = unsortedStartTimes[rows[i]];
+			endTimes[i] = endTimeColumn.getDouble(rows[i]);
+		}
+
+		// (2) the implicit interval tree
+		int size = 1;
+		while (size < n) {
+			size *= 2;
+		}
+		treeSize = size;
+		maxEndTimes = new double[2 * treeSize];
+		Arrays.fill(maxEndTimes, Double.NEGATIVE_INFINITY);
+		for (int i = 0; i < n; i++) {
+			maxEndTimes[treeSize + i] = Double.isNaN(endTimes[i]) ? Double.NEGATIVE_INFINITY : endTimes[i];
+		}
+		for (int node = treeSize - 1; node >= 1; node--) {
+			maxEndTimes[node] = Math.max(maxEndTimes[2 * node], maxEndTimes[2 * node + 1]);
+		}
+
+		// (3) the footsteps of each agent, agents are sorted by their id
+		agentIds = Arrays.stream(pedIds.asIntArray()).distinct().sorted().toArray();
+		agentIndices = new Int2IntOpenHashMap(agentIds.length);
+		for (int i = 0; i < agentIds.length; i++) {
+			agentIndices.put(agentIds[i], i);
+		}
+
+		agentOffsets = new int[agentIds.length + 1];
+		for (int row = 0; row < n; row++) {
+			agentOffsets[agentIndices.get(pedIds.getInt(row)) + 1]++;
+		}
+		for (int i = 0; i < agentIds.length; i++) {
+			agentOffsets[i + 1] += agentOffsets[i];
+		}
+
+		agentSteps = new int[n];
+		stepAgents = new int[n];
+		int[] next = Arrays.copyOf(agentOffsets, agentIds.length);
+		birthTimes = new double[agentIds.length];
+		deathTimes = new double[agentIds.length];
+		Arrays.fill(birthTimes, Double.POSITIVE_INFINITY);
+		Arrays.fill(deathTimes, Double.NEGATIVE_INFINITY);
+		for (int i = 0; i < n; i++) {
+			int agent = agentIndices.get(pedIds.getInt(rows[i]));
+			stepAgents[i] = agent;
+			agentSteps[next[agent]++] = i;
+			// missing values are ignored
+			if (!Double.isNaN(startTimes[i])) {
+				birthTimes[agent] = Math.min(birthTimes[agent], startTimes[i]);
+			}
+			if (!Double.isNaN(endTimes[i])) {
+				deathTimes[agent] = Math.max(deathTimes[agent], endTimes[i]);
+			}
+		}
+
+		agentsByBirth = identity(agentIds.length);
+		IntArrays.quickSort(agentsByBirth, (i, j) -> Double.compare(birthTimes[i], birthTimes[j]));
+		sortedBirthTimes = new double[agentIds.length];
+		for (int i = 0; i < agentIds.length; i++) {
+			sortedBirthTimes[i] = birthTimes[agentsByBirth[i]];
+		}
+	}
+
+	/**
+	 * Returns the row numbers of all footsteps <tt>fs</tt> for which <tt>fs.startTime &lt;= simTimeInSec</tt>
+	 * and <tt>fs.endTime &gt;= simTimeInSec</tt> sorted by the agent id and the row number.
+	 */
+	int[] getRows(final double simTimeInSec) {
+		return sortByAgent(activeSteps(simTimeInSec));
+	}
+
+	/**
+	 * Returns the row numbers of all footsteps <tt>fs</tt> for which <tt>fs.startTime &lt; endTime</tt>
+	 * and <tt>fs.endTime &gt;= startTime</tt> in the order of the table.
+	 */
+	int[] getRows(final double startTime, final double endTime) {
+		IntArrayList result = new IntArrayList();
+		collect(lowerBound(startTimes, 0, startTimes.length, endTime), startTime, i -> result.add(rows[i]));
+		int[] sorted = result.toIntArray();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * Returns the row numbers of the footsteps of one agent for which <tt>fs.startTime &lt;= simTimeInSec</tt>
+	 * and <tt>fs.endTime &gt;= simTimeInSec</tt> in the order of the table. The footsteps of one agent do not
+	 * overlap, therefore only the footsteps before the last footstep which starts before <tt>simTimeInSec</tt>
+	 * and which end at or after <tt>simTimeInSec</tt> are checked.
+	 */
+	int[] getRows(final double simTimeInSec, final int pedId) {
+		if (!agentIndices.containsKey(pedId)) {
+			return new int[0];
+		}
+
+		int agent = agentIndices.get(pedId);
+		IntArrayList result = new IntArrayList();
+		for (int j = upperBoundOfAgent(agent, simTimeInSec) - 1; j >= agentOffsets[agent] && endTimes[agentSteps[j]] >= simTimeInSec; j--) {
+			result.add(rows[agentSteps[j]]);
+		}
+		int[] sorted = result.toIntArray();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * Returns the row numbers of {@link #getRows(double)} followed by the last footstep of each agent which
+	 * appeared before <tt>simTimeInSec</tt> but has no footstep at <tt>simTimeInSec</tt> (sorted by the agent id).
+	 */
+	int[] getRowsWithDisappearedAgents(final double simTimeInSec) {
+		int[] activeSteps = activeSteps(simTimeInSec);
+		IntArrayList result = new IntArrayList(sortByAgent(activeSteps));
+
+		boolean[] isAlive = new boolean[agentIds.length];
+		for (int i : activeSteps) {
+			isAlive[stepAgents[i]] = true;
+		}
+
+		int nAppeared = upperBound(sortedBirthTimes, 0, sortedBirthTimes.length, simTimeInSec);
+		int[] appearedAgents = Arrays.copyOf(agentsByBirth, nAppeared);
+		Arrays.sort(appearedAgents);
+		for (int agent : appearedAgents) {
+			if (!isAlive[agent]) {
+				int last = lastStepBefore(agent, simTimeInSec);
+				if (last >= 0) {
+					result.add(rows[last]);
+				}
+			}
+		}
+		return result.toIntArray();
+	}
+
+	/**
+	 * Returns true if the agent is known, i.e. it has at least one footstep.
+	 */
+	boolean contains(final int pedId) {
+		return agentIndices.containsKey(pedId);
+	}
+
+	double getBirthTime(final int pedId) {
+		return birthTimes[agentIndex(pedId)];
+	}
+
+	double getDeathTime(final int pedId) {
+		return deathTimes[agentIndex(pedId)];
+	}
+
+	private int agentIndex(final int pedId) {
+		if (!agentIndices.containsKey(pedId)) {
+			throw new IllegalArgumentException("there is no footstep of the agent " + pedId);
+		}
+		return agentIndices.get(pedId);
+	}
+
+	private int[] activeSteps(final double simTimeInSec) {
+		IntArrayList result = new IntArrayList();
+		collect(upperBound(startTimes, 0, startTimes.length, simTimeInSec), simTimeInSec, result::add);
+		return result.toIntArray();
+	}
+
+	/**
+	 * Returns the index of the footstep of the agent with the largest start time which is smaller or equal to
+	 * <tt>simTimeInSec</tt>, or -1 if there is no such footstep.
+	 */
+	private int lastStepBefore(final int agent, final double simTimeInSec) {
+		int j = upperBoundOfAgent(agent, simTimeInSec);
+		return j > agentOffsets[agent] ? agentSteps[j - 1] : -1;
+	}
+
+	/**
+	 * Returns the first position <tt>j</tt> in the footsteps of the agent with
+	 * <tt>startTimes[agentSteps[j]] &gt; simTimeInSec</tt>.
+	 */
+	private int upperBoundOfAgent(final int agent, final double simTimeInSec) {
+		int lo = agentOffsets[agent];
+		int hi = agentOffsets[agent + 1];
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (startTimes[agentSteps[mid]] <= simTimeInSec) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Calls the consumer for all footsteps <tt>i &lt; hi</tt> (in the sorted order) with
+	 * <tt>endTimes[i] &gt;= minEndTime</tt>.
+	 */
+	private void collect(final int hi, final double minEndTime, @NotNull final IntConsumer consumer) {
+		if (hi > 0) {
+			collect(1, 0, treeSize, hi, minEndTime, consumer);
+		}
+	}
+
+	private void collect(final int node, final int lo, final int length, final int hi, final double minEndTime, @NotNull final IntConsumer consumer) {
+		if (lo >= hi || maxEndTimes[node] < minEndTime) {
+			return;
+		}
+
+		if (length == 1) {
+			consumer.accept(lo);
+		} else {
+			int half = length / 2;
+			collect(2 * node, lo, half, hi, minEndTime, consumer);
+			collect(2 * node + 1, lo + half, half, hi, minEndTime, consumer);
+		}
+	}
+
+	/**
+	 * Returns the row numbers of the footsteps sorted by the agent id and the row number.
+	 */
+	private int[] sortByAgent(final int[] steps) {
+		// agents are numbered in the order of their ids and row numbers are non-negative
+		long[] keys = new long[steps.length];
+		for (int j = 0; j < steps.length; j++) {
+			keys[j] = ((long) stepAgents[steps[j]] << 32) | rows[steps[j]];
+		}
+		Arrays.sort(keys);
+
+		int[] sorted = new int[steps.length];
+		for (int j = 0; j < steps.length; j++) {
+			sorted[j] = (int) keys[j];
+		}
+		return sorted;
+	}
+
+	private static int[] identity(final int n) {
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = i;
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the first index in [from, to) with <tt>values[index] &gt; value</tt>.
+	 */
+	private static int upperBound(final double[] values, final int from, final int to, final double value) {
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (values[mid] <= value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the first index in [from, to) with <tt>values[index] &gt;= value</tt>.
+	 */
+	private static int lowerBound(final double[] values, final int from, final int to, final double value) {
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (values[mid] < value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+}
@@ -1,8 +1,5 @@
 package org.vadere.gui.postvisualization.model;
 
-import it.unimi.dsi.fastutil.ints.Int2IntAVLTreeMap;
-import it.unimi.dsi.fastutil.ints.Int2IntMap;
-
 import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.projects.io.ColumnNames;
 import org.vadere.state.attributes.scenario.AttributesAgent;
@@ -27,7 +24,9 @@ import tech.tablesaw.table.Rows;
 import static tech.tablesaw.aggregate.AggregateFunctions.*;
 
 /**
- * The {@link TableTrajectoryFootStep}
+ * The {@link TableTrajectoryFootStep} contains all footsteps of all agents. The time queries, which are executed for
+ * each rendered frame, do not filter the whole table but use a {@link FootStepIndex}, i.e. their costs depend on the
+ * number of returned footsteps instead of the size of the table.
  */
 public class TableTrajectoryFootStep {
 
@@ -40,6 +39,11 @@ public class TableTrajectoryFootStep {
 	 */
 	private final Table agentDataFrame;
 
+	/**
+	 * the time index of the footsteps, it is null if the table is empty.
+	 */
+	private final FootStepIndex index;
+
 	private final double startTime;
 	private final double endTime;
 
@@ -101,6 +105,7 @@ public class TableTrajectoryFootStep {
 		this.trajectoryDataFrame = dataFrame;
 		this.currentSlice = trajectoryDataFrame;
 		this.agentDataFrame = generateAgentDataFrame();
+		this.index = isEmpty() ? null : new FootStepIndex(getPedId(dataFrame), getStartTime(dataFrame), getEndTime(dataFrame));
 
 		if(!isEmpty()) {
 			this.startTime = agentDataFrame.summarize(birthTimeColName, min).apply().doubleColumn(0).get(0);
@@ -186,8 +191,7 @@ public class TableTrajectoryFootStep {
 	 * @return multiple foosteps for each agent
 	 */
 	public Table getAgents(final double startTime, final double endTime) {
-		return currentSlice.where(getStartTime().isLessThan(endTime)
-				.and(getEndTime().isGreaterThanOrEqualTo(startTime)));
+		return isEmpty() ? currentSlice : rows(index.getRows(startTime, endTime));
 	}
 
 	/**
@@ -200,10 +204,15 @@ public class TableTrajectoryFootStep {
 	 * @return multiple foosteps for each agent
 	 */
 	public Table getAliveAgents(final double startTime, final double endTime) {
-		Integer[] filteredPedIds = filterAgents(startTime, endTime);
-		return currentSlice.where(getPedId().isIn(Arrays.asList(filteredPedIds))
-				.and(getStartTime().isLessThan(endTime)
-						.and(getEndTime().isGreaterThanOrEqualTo(startTime))));
+		if(isEmpty()) {
+			return currentSlice;
+		}
+
+		IntColumn pedIds = getPedId(trajectoryDataFrame);
+		int[] rowNumbers = Arrays.stream(index.getRows(startTime, endTime))
+				.filter(rowNumber -> isAlive(pedIds.getInt(rowNumber), startTime, endTime))
+				.toArray();
+		return rows(rowNumbers);
 	}
 
 	/**
@@ -213,27 +222,18 @@ public class TableTrajectoryFootStep {
 	 * @return for all agent at most one footstep
 	 */
 	public Table getAgents(final double simTimeInSec) {
-		return currentSlice.where(
-				getStartTime().isLessThanOrEqualTo(simTimeInSec)
-						.and(getEndTime().isGreaterThanOrEqualTo(simTimeInSec)))
-				.sortAscendingOn(getColumnName(pedIdCol));
+		return isEmpty() ? currentSlice : rows(index.getRows(simTimeInSec));
 	}
 
+	/**
+	 * Returns the footsteps of {@link #getAgents(double)} followed by the last footstep of each agent
+	 * which appeared before <tt>simTimeInSec</tt> but has no footstep at <tt>simTimeInSec</tt>.
+	 *
+	 * @param simTimeInSec
+	 * @return for all agent at most one footstep
+	 */
 	public Table getAgentsWithDisappearedAgents(final double simTimeInSec) {
-		Table aliveAgents = getAgents(simTimeInSec);
-		Table deadAgents = currentSlice.where(getPedId().isNotIn(Arrays.asList(getPedId(aliveAgents).asObjectArray()))
-						.and(getStartTime().isLessThanOrEqualTo(simTimeInSec)));
-
-		Int2IntMap idToRowNr = new Int2IntAVLTreeMap();
-
-		// get the last rows only, this might be computational expensive!
-		for(Row row : deadAgents) {
-			idToRowNr.put(row.getInt(pedIdCol), row.getRowNumber());
-		}
-
-		idToRowNr.forEach((pedId, rowNr) -> Rows.appendRowToTable(rowNr, deadAgents, aliveAgents));
-
-		return aliveAgents;
+		return isEmpty() ? currentSlice : rows(index.getRowsWithDisappearedAgents(simTimeInSec));
 	}
 
 	/**
@@ -245,17 +245,20 @@ public class TableTrajectoryFootStep {
 	 * @return at most one footstep
 	 */
 	public Table getAgent(final double simTimeInSec, final int pedId) {
-		return currentSlice.where(
-				getStartTime().isLessThanOrEqualTo(simTimeInSec)
-						.and(getEndTime().isGreaterThanOrEqualTo(simTimeInSec))
-						.and(getPedId().isEqualTo(pedId)));
+		return isEmpty() ? currentSlice : rows(index.getRows(simTimeInSec, pedId));
+	}
+
+	private boolean isAlive(final int pedId, final double startTime, final double endTime) {
+		return index.getBirthTime(pedId) >= startTime && index.getDeathTime(pedId) >= endTime;
 	}
 
-	private Integer[] filterAgents(final double startTime, final double endTime) {
-		return agentDataFrame
-				.where(getBirthTime().isGreaterThanOrEqualTo(startTime).and(getDeathTime().isGreaterThanOrEqualTo(endTime)))
-				.intColumn(agentDFPedIdCol)
-				.asObjectArray();
+	/**
+	 * Returns the rows in the given order, note that {@link Table#rows(int...)} sorts the rows.
+	 */
+	private Table rows(final int[] rowNumbers) {
+		Table rows = trajectoryDataFrame.emptyCopy(rowNumbers.length);
+		Rows.copyRowsToTable(rowNumbers, trajectoryDataFrame, rows);
+		return rows;
 	}
 
 	public Table getCurrentSlice() {
@@ -335,12 +338,11 @@ public class TableTrajectoryFootStep {
 	}
 
 	public double getBirthTime(final int pedId) {
-		return agentDataFrame.where(agentDataFrame.intColumn(pedIdCol).isEqualTo(pedId)).doubleColumn(birthTimeCol).get(0);
+		return index.getBirthTime(pedId);
 	}
 
 	public double getDeathTime(final int pedId) {
-		double deathTime = agentDataFrame.where(agentDataFrame.intColumn(pedIdCol).isEqualTo(pedId)).doubleColumn(deathTimeCol).get(0);
-		return deathTime;
+		return index.getDeathTime(pedId);
 	}
 
 	public IntColumn getPedId() {
@@ -0,0 +1,61 @@
+package org.vadere.gui.onlinevisualization.model;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestAgentSnapshot {
+
+	private Pedestrian createPedestrian(final int id, final VPoint position, final int targetId) {
+		AttributesAgent attributesAgent = new AttributesAgent(id);
+		attributesAgent.setRadius(0.1 * id);
+		Pedestrian pedestrian = new Pedestrian(attributesAgent, new Random(0));
+		pedestrian.setPosition(position);
+		if (targetId >= 0) {
+			LinkedList<Integer> targets = new LinkedList<>();
+			targets.add(targetId);
+			pedestrian.setTargets(targets);
+		}
+		return pedestrian;
+	}
+
+	@Test
+	public void testSnapshotDoesNotChangeWithAgents() {
+		List<Pedestrian> pedestrians = new ArrayList<>();
+		pedestrians.add(createPedestrian(1, new VPoint(1, 2), 5));
+		pedestrians.add(createPedestrian(2, new VPoint(3, 4), -1));
+
+		AgentSnapshot snapshot = AgentSnapshot.of(pedestrians, agent -> agent.getId() * 10);
+		pedestrians.get(0).setPosition(new VPoint(7, 7));
+
+		assertEquals(2, snapshot.size());
+		assertEquals(1, snapshot.getId(0));
+		assertEquals(new VPoint(1, 2), snapshot.getPosition(0));
+		assertEquals(0.1, snapshot.getRadius(0), 1e-12);
+		assertEquals(5, snapshot.getTargetId(0));
+		assertEquals(-1, snapshot.getTargetId(1));
+		assertEquals(-1, snapshot.getGroupId(1));
+		assertEquals(20, snapshot.getColor(1));
+		assertEquals(1, snapshot.indexOf(2));
+		assertEquals(-1, snapshot.indexOf(3));
+	}
+
+	@Test
+	public void testToPedestrian() {
+		AgentSnapshot snapshot = AgentSnapshot.of(List.of(createPedestrian(3, new VPoint(1, 2), 5)), agent -> 0);
+		Pedestrian pedestrian = snapshot.toPedestrian(0, new Random(0));
+
+		assertEquals(3, pedestrian.getId());
+		assertEquals(new VPoint(1, 2), pedestrian.getPosition());
+		assertEquals(0.3, pedestrian.getRadius(), 1e-12);
+		assertEquals(5, pedestrian.getNextTargetId());
+	}
+}
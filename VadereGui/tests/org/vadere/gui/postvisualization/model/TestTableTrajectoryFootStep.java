@@ -0,0 +1,135 @@
+package org.vadere.gui.postvisualization.model;
+
+import it.unimi.dsi.fastutil.ints.Int2IntAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.Row;
+import tech.tablesaw.api.Table;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the indexed time queries of {@link TableTrajectoryFootStep} with filters over the whole table.
+ */
+public class TestTableTrajectoryFootStep {
+
+	private Table table;
+	private TableTrajectoryFootStep trajectories;
+
+	@BeforeEach
+	public void setUp() {
+		Random random = new Random(0);
+		List<double[]> steps = new ArrayList<>();
+
+		for (int pedId = 1; pedId <= 50; pedId++) {
+			double time = random.nextDouble() * 20;
+			int nSteps = 1 + random.nextInt(40);
+			for (int i = 0; i < nSteps; i++) {
+				double duration = 0.1 + random.nextDouble() * (random.nextInt(10) == 0 ? 5.0 : 0.5);
+				steps.add(new double[]{pedId, time, time + duration, random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble()});
+				time += duration;
+			}
+		}
+
+		// the order of the output files: sorted by the start time and the agent id
+		steps.sort(Comparator.comparingDouble((double[] step) -> step[1]).thenComparingDouble(step -> step[0]));
+
+		table = Table.create("postvis.traj",
+				IntColumn.create("pedestrianId", steps.stream().mapToInt(step -> (int) step[0]).toArray()),
+				DoubleColumn.create("simTime", steps.stream().mapToDouble(step -> step[1]).toArray()),
+				DoubleColumn.create("endTime-PID1", steps.stream().mapToDouble(step -> step[2]).toArray()),
+				DoubleColumn.create("startX-PID1", steps.stream().mapToDouble(step -> step[3]).toArray()),
+				DoubleColumn.create("startY-PID1", steps.stream().mapToDouble(step -> step[4]).toArray()),
+				DoubleColumn.create("endX-PID1", steps.stream().mapToDouble(step -> step[5]).toArray()),
+				DoubleColumn.create("endY-PID1", steps.stream().mapToDouble(step -> step[6]).toArray()));
+		trajectories = new TableTrajectoryFootStep(table);
+	}
+
+	@Test
+	public void testGetAgents() {
+		for (double t = -1.0; t < 60.0; t += 0.137) {
+			Table expected = table.where(table.doubleColumn(1).isLessThanOrEqualTo(t).and(table.doubleColumn(2).isGreaterThanOrEqualTo(t)));
+			expected = expected.sortAscendingOn("pedestrianId", "simTime");
+			assertEquals(toStrings(expected), toStrings(trajectories.getAgents(t)));
+		}
+	}
+
+	@Test
+	public void testGetAgentsInTimeInterval() {
+		for (double t = -1.0; t < 60.0; t += 0.731) {
+			double startTime = t;
+			double endTime = t + 3.3;
+			Table expected = table.where(table.doubleColumn(1).isLessThan(endTime).and(table.doubleColumn(2).isGreaterThanOrEqualTo(startTime)));
+			assertEquals(toStrings(expected), toStrings(trajectories.getAgents(startTime, endTime)));
+		}
+	}
+
+	@Test
+	public void testGetAgent() {
+		for (double t = -1.0; t < 60.0; t += 0.291) {
+			for (int pedId = 0; pedId <= 51; pedId++) {
+				Table expected = table.where(table.doubleColumn(1).isLessThanOrEqualTo(t)
+						.and(table.doubleColumn(2).isGreaterThanOrEqualTo(t))
+						.and(table.intColumn(0).isEqualTo(pedId)));
+				assertEquals(toStrings(expected), toStrings(trajectories.getAgent(t, pedId)));
+			}
+		}
+	}
+
+	@Test
+	public void testGetAgentsWithDisappearedAgents() {
+		for (double t = -1.0; t < 60.0; t += 0.173) {
+			Table aliveAgents = table.where(table.doubleColumn(1).isLessThanOrEqualTo(t).and(table.doubleColumn(2).isGreaterThanOrEqualTo(t)))
+					.sortAscendingOn("pedestrianId", "simTime");
+			Set<Integer> alivePedIds = new HashSet<>(Arrays.asList(aliveAgents.intColumn(0).asObjectArray()));
+
+			// the last footstep of each disappeared agent
+			Int2IntMap idToRowNr = new Int2IntAVLTreeMap();
+			for (Row row : table) {
+				if (!alivePedIds.contains(row.getInt(0)) && row.getDouble(1) <= t) {
+					idToRowNr.put(row.getInt(0), row.getRowNumber());
+				}
+			}
+			List<String> expected = toStrings(aliveAgents);
+			for (int rowNr : idToRowNr.values()) {
+				expected.add(toString(table.row(rowNr)));
+			}
+
+			assertEquals(expected, toStrings(trajectories.getAgentsWithDisappearedAgents(t)));
+		}
+	}
+
+	@Test
+	public void testBirthAndDeathTime() {
+		for (int pedId = 1; pedId <= 50; pedId++) {
+			Table steps = table.where(table.intColumn(0).isEqualTo(pedId));
+			assertEquals(steps.doubleColumn(1).min(), trajectories.getBirthTime(pedId));
+			assertEquals(steps.doubleColumn(2).max(), trajectories.getDeathTime(pedId));
+		}
+	}
+
+	private static List<String> toStrings(final Table table) {
+		List<String> rows = new ArrayList<>();
+		for (Row row : table) {
+			rows.add(toString(row));
+		}
+		return rows;
+	}
+
+	private static String toString(final Row row) {
+		return row.getInt(0) + " " + row.getDouble(1) + " " + row.getDouble(2) + " " + row.getDouble(3);
+	}
+}
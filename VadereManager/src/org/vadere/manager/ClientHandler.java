@@ -71,6 +71,7 @@ public class ClientHandler implements Runnable {
 						TraCIPacket response = cmdExecutor.execute(cmd);
 						logger.debugf("send packet [%d byte]", response.size());
 						traCISocket.sendExact(response);
+						response.release();
 
 						cmd = traCIPacketBuffer.nextCommand();
 					}
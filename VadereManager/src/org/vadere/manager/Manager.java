@@ -6,13 +6,16 @@ import net.sourceforge.argparse4j.inf.Namespace;
 import net.sourceforge.argparse4j.internal.HelpScreenException;
 
 import org.vadere.manager.server.AbstractVadereServer;
+import org.vadere.manager.server.VadereNioServer;
 import org.vadere.manager.server.VadereServer;
 import org.vadere.manager.server.VadereSingleClientServer;
 import org.vadere.util.io.VadereArgumentParser;
 import org.vadere.util.logging.Logger;
 
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
 import java.nio.file.Paths;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -30,10 +33,15 @@ public class Manager {
 		try {
 			ns = p.parseArgsAndProcessInitialOptions(args);
 
-			ServerSocket serverSocket = new ServerSocket(ns.getInt("port"), 50, InetAddress.getByName(ns.getString("bind")));
 			logger.infof("Start Server(%s) with Loglevel: %s", VadereServer.currentVersion.getVersionString(), logger.getLevel().toString());
 			AbstractVadereServer server;
-			if (ns.getBoolean("singleClient")) {
+			// the sockets of a channel allow to send the direct buffers of the TraCI packets without copying them
+			ServerSocketChannel serverChannel = ServerSocketChannel.open();
+			serverChannel.bind(new InetSocketAddress(InetAddress.getByName(ns.getString("bind")), ns.getInt("port")), 50);
+			ServerSocket serverSocket = serverChannel.socket();
+			if (ns.getBoolean("nio")) {
+				server = new VadereNioServer(serverChannel, ns.getInt("selectorThreads"), Executors.newCachedThreadPool(), Paths.get(ns.getString("output-dir")), ns.getBoolean("guiMode"), ns.getBoolean("trace"));
+			} else if (ns.getBoolean("singleClient")) {
 				server = new VadereSingleClientServer(serverSocket, Paths.get(ns.getString("output-dir")), ns.getBoolean("guiMode"), ns.getBoolean("trace"), ns.getString("scenario"));
 			} else {
 				ExecutorService pool = Executors.newFixedThreadPool(ns.getInt("clientNum"));
@@ -117,6 +125,20 @@ public class Manager {
 				.dest("singleClient")
 				.help("Use server which only accepts one client and terminates after one simulation run.");
 
+		parser.addArgument("--nio")
+				.required(false)
+				.action(Arguments.storeTrue())
+				.type(Boolean.class)
+				.dest("nio")
+				.help("Use non-blocking server which multiplexes all clients onto a few selector threads. The number of clients is not limited by --clientNum.");
+
+		parser.addArgument("--selector-threads")
+				.required(false)
+				.type(Integer.class)
+				.setDefault(2)
+				.dest("selectorThreads")
+				.help("Set number of selector threads of the non-blocking server (see --nio).");
+
 		// boolean switch to tell server to start in gui mode.
 		parser.addArgument("--gui-mode")
 				.required(false)
@@ -11,6 +11,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 
 /**
  * //todo comment
@@ -66,7 +67,17 @@ public class TraCISocket implements Closeable {
 	public void sendExact(final TraCIPacket packet) throws IOException {
 		if (tracePackets)
 			logger.tracef("send packet [%d byte]: %s", packet.size(), packet.asHexString());
-		send(packet.send());
+
+		SocketChannel channel = socket.getChannel();
+		if (channel != null) {
+			// write the (direct) buffer of the packet without copying it
+			ByteBuffer buf = packet.sendBuffer();
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		} else {
+			send(packet.send());
+		}
 	}
 
 
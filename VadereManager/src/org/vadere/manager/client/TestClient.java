@@ -437,6 +437,60 @@ public class TestClient extends org.vadere.manager.client.AbstractTestClient imp
 		System.out.println(res.getResponseData());
 	}
 
+	@Override
+	public void personapi_getIdArray(String[] args) throws IOException {
+		TraCIGetResponse res = (TraCIGetResponse) personapi.getIdArray();
+		System.out.println(Arrays.toString((int[]) res.getResponseData()));
+	}
+
+	@Override
+	public void personapi_getPosition2DArray(String[] args) throws IOException {
+		TraCIGetResponse res = (TraCIGetResponse) personapi.getPosition2DArray();
+		System.out.println(Arrays.toString((double[]) res.getResponseData()));
+	}
+
+	@Override
+	public void personapi_getVelocityArray(String[] args) throws IOException {
+		TraCIGetResponse res = (TraCIGetResponse) personapi.getVelocityArray();
+		System.out.println(Arrays.toString((double[]) res.getResponseData()));
+	}
+
+	@Override
+	public void personapi_getFreeFlowSpeedArray(String[] args) throws IOException {
+		TraCIGetResponse res = (TraCIGetResponse) personapi.getFreeFlowSpeedArray();
+		System.out.println(Arrays.toString((double[]) res.getResponseData()));
+	}
+
+	@Override
+	public void personapi_setFreeFlowSpeedArray(String[] args) throws IOException {
+		if (args.length < 3 || args.length % 2 == 0) {
+			System.out.println("command needs arguments id, speed [id, speed ...]");
+			return;
+		}
+
+		double[] data = Arrays.stream(args, 1, args.length).mapToDouble(Double::parseDouble).toArray();
+		TraCIResponse res = personapi.setFreeFlowSpeedArray(data);
+		System.out.println(res.toString());
+	}
+
+	@Override
+	public void personapi_getTargetListArray(String[] args) throws IOException {
+		TraCIGetResponse res = (TraCIGetResponse) personapi.getTargetListArray();
+		System.out.println(Arrays.toString((int[]) res.getResponseData()));
+	}
+
+	@Override
+	public void personapi_setTargetListArray(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.out.println("command needs arguments id, number of targets, target ids [id, ...]");
+			return;
+		}
+
+		int[] data = Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray();
+		TraCIResponse res = personapi.setTargetListArray(data);
+		System.out.println(res.toString());
+	}
+
 	// simulationapi
 
 	@Override
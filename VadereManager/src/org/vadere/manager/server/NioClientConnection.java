@@ -0,0 +1,223 @@
+package org.vadere.manager.server;
+
+import org.vadere.manager.RemoteManager;
+import org.vadere.manager.traci.commandHandler.CommandExecutor;
+import org.vadere.manager.traci.commands.TraCICommand;
+import org.vadere.manager.traci.reader.TraCIPacketBuffer;
+import org.vadere.manager.traci.writer.TraCIPacket;
+import org.vadere.util.logging.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The state of one client of the {@link VadereNioServer}. The selector thread reads the length prefixed TraCI
+ * packets from the non-blocking channel and writes the responses back. The commands of the packets are executed
+ * by the {@link CommandExecutor} of the client on the shared command pool. The tasks of one client are executed
+ * strictly one after another (like in the {@link org.vadere.manager.ClientHandler}) but never occupy more than one
+ * thread of the pool.
+ */
+class NioClientConnection {
+
+	private final static int TRACI_LEN_LENGTH = 4;
+	private final static int MAX_GATHERED_WRITES = 16;
+	private static Logger logger = Logger.getLogger(NioClientConnection.class);
+
+	private final SocketChannel channel;
+	private final ExecutorService commandPool;
+	private final boolean tracePackets;
+	private final ByteBuffer lengthBuffer;
+	private final Queue<TraCIPacket> writeQueue;
+	private final ByteBuffer[] writeBuffers;
+	private final Queue<Runnable> tasks;
+	private final AtomicBoolean closed;
+
+	private RemoteManager remoteManager;
+	private CommandExecutor cmdExecutor;
+	private VadereNioServer.SelectorLoop selectorLoop;
+	private SelectionKey key;
+	private ByteBuffer dataBuffer;
+	private int writtenBytes;
+	private boolean processing;
+
+	NioClientConnection(SocketChannel channel, ExecutorService commandPool, Path baseDir, boolean guiSupport, boolean tracePackets) {
+		this.channel = channel;
+		this.commandPool = commandPool;
+		this.tracePackets = tracePackets;
+		this.lengthBuffer = ByteBuffer.allocate(TRACI_LEN_LENGTH);
+		this.writeQueue = new ConcurrentLinkedQueue<>();
+		this.writeBuffers = new ByteBuffer[MAX_GATHERED_WRITES];
+		this.tasks = new ArrayDeque<>();
+		this.closed = new AtomicBoolean(false);
+		this.remoteManager = new RemoteManager(baseDir, guiSupport);
+		this.cmdExecutor = new CommandExecutor(remoteManager);
+		this.dataBuffer = null;
+		this.writtenBytes = 0;
+		this.processing = false;
+	}
+
+	/**
+	 * Must be called by the selector thread.
+	 */
+	void register(final VadereNioServer.SelectorLoop selectorLoop, final Selector selector) throws IOException {
+		this.selectorLoop = selectorLoop;
+		this.key = channel.register(selector, SelectionKey.OP_READ, this);
+		logger.infof("client connected... (%s)", channel.getRemoteAddress());
+	}
+
+	/**
+	 * Reads all available bytes from the channel and submits each complete packet. Must be called by the selector
+	 * thread.
+	 */
+	void read() throws IOException {
+		while (true) {
+			ByteBuffer target = dataBuffer == null ? lengthBuffer : dataBuffer;
+			if (channel.read(target) < 0) {
+				throw new EOFException();
+			}
+			if (target.hasRemaining()) {
+				return;
+			}
+
+			if (dataBuffer == null) {
+				int dataLength = lengthBuffer.getInt(0) - TRACI_LEN_LENGTH;
+				lengthBuffer.clear();
+				if (dataLength > 0) {
+					dataBuffer = ByteBuffer.allocate(dataLength);
+				}
+			} else {
+				dataBuffer.flip();
+				TraCIPacketBuffer packet = TraCIPacketBuffer.wrap(dataBuffer);
+				dataBuffer = null;
+				submit(() -> process(packet));
+			}
+		}
+	}
+
+	/**
+	 * Writes the pending responses as far as the channel accepts them. The (direct) buffers of several packets are
+	 * written at once by a gathering write and each packet is released as soon as it is written completely. If the
+	 * channel is full the selector waits until the channel is writable again. Must be called by the selector thread.
+	 */
+	void write() throws IOException {
+		while (!writeQueue.isEmpty()) {
+			int n = 0;
+			for (TraCIPacket packet : writeQueue) {
+				if (n == writeBuffers.length) {
+					break;
+				}
+				writeBuffers[n++] = packet.sendBuffer();
+			}
+
+			// sendBuffer() returns a new view, thus skip the bytes of the first packet which are already written
+			writeBuffers[0].position(writtenBytes);
+			channel.write(writeBuffers, 0, n);
+
+			for (int i = 0; i < n; i++) {
+				if (writeBuffers[i].hasRemaining()) {
+					writtenBytes = writeBuffers[i].position();
+					Arrays.fill(writeBuffers, null);
+					key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+					return;
+				}
+				writeQueue.poll().release();
+			}
+			writtenBytes = 0;
+			Arrays.fill(writeBuffers, null);
+		}
+		key.interestOps(SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Closes the channel and stops the simulation of the client. May be called by any thread.
+	 */
+	void close() {
+		if (closed.compareAndSet(false, true)) {
+			logger.infof("EOF. Client closed socket");
+			if (key != null) {
+				key.cancel();
+			}
+			try {
+				channel.close();
+			} catch (IOException e) {
+				logger.error(e);
+			}
+			submit(this::release);
+		}
+	}
+
+	private void process(final TraCIPacketBuffer packet) {
+		if (closed.get()) {
+			return;
+		}
+
+		try {
+			TraCICommand cmd = packet.nextCommand();
+			while (cmd != null) {
+				TraCIPacket response = cmdExecutor.execute(cmd);
+				logger.debugf("send packet [%d byte]", response.size());
+				if (tracePackets) {
+					logger.tracef("send packet [%d byte]: %s", response.size(), response.asHexString());
+				}
+				writeQueue.add(response);
+				selectorLoop.requestWrite(this);
+				cmd = packet.nextCommand();
+			}
+		} catch (Exception e) {
+			logger.error("Error while handling TraCI Message", e);
+			close();
+		}
+	}
+
+	private void release() {
+		remoteManager.stopSimulationIfRunning();
+		cmdExecutor = null;
+		remoteManager = null;
+	}
+
+	/**
+	 * Executes the task on the command pool after all tasks which were submitted before.
+	 */
+	private void submit(final Runnable task) {
+		synchronized (tasks) {
+			tasks.add(task);
+			if (processing) {
+				return;
+			}
+			processing = true;
+		}
+
+		try {
+			commandPool.execute(this::processTasks);
+		} catch (RejectedExecutionException e) {
+			// the server shuts down
+			logger.warn("Interrupt Vadere Server");
+		}
+	}
+
+	private void processTasks() {
+		while (true) {
+			Runnable task;
+			synchronized (tasks) {
+				task = tasks.poll();
+				if (task == null) {
+					processing = false;
+					return;
+				}
+			}
+			task.run();
+		}
+	}
+}
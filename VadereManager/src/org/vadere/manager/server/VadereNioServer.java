@@ -0,0 +1,193 @@
+package org.vadere.manager.server;
+
+import org.vadere.util.config.VadereConfig;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server which multiplexes all TraCI connections onto a small number of selector threads instead of blocking
+ * one thread per client like the {@link VadereServer}. The selector threads only read and write bytes. Complete
+ * TraCI packets are handed to the {@link NioClientConnection} of the client which executes the commands on the
+ * shared <tt>commandPool</tt>, one packet after another, against its own {@link org.vadere.manager.RemoteManager}.
+ * Thus a client only occupies a thread while one of its commands is executed (e.g. while it waits for a simulation
+ * step) and the number of clients is not limited by the size of a thread pool.
+ */
+public class VadereNioServer extends AbstractVadereServer {
+
+	private final ServerSocketChannel serverChannel;
+	private final ExecutorService commandPool;
+	private final SelectorLoop[] selectorLoops;
+
+	public VadereNioServer(ServerSocketChannel serverChannel, int selectorThreads, ExecutorService commandPool, Path baseDir, boolean guiSupport, boolean trace) throws IOException {
+		super(serverChannel.socket(), baseDir, guiSupport, trace);
+		if (selectorThreads < 1) {
+			throw new IllegalArgumentException("at least one selector thread is required.");
+		}
+		this.serverChannel = serverChannel;
+		this.commandPool = commandPool;
+		this.selectorLoops = new SelectorLoop[selectorThreads];
+		for (int i = 0; i < selectorThreads; i++) {
+			selectorLoops[i] = new SelectorLoop(Selector.open());
+		}
+	}
+
+	@Override
+	public void run() {
+		Thread[] threads = new Thread[selectorLoops.length];
+		for (int i = 0; i < selectorLoops.length; i++) {
+			threads[i] = new Thread(selectorLoops[i], "vadere-traci-selector-" + i);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+
+		try {
+			logger.infof("listening on port %d... (gui-mode: %s, selector threads: %d)", serverSocket.getLocalPort(), Boolean.toString(guiSupport), selectorLoops.length);
+			if (VadereConfig.getConfig().getBoolean("Vadere.cache.useGlobalCacheBaseDir")) {
+				logger.infof("Cache location lookup searches at: %s",
+						VadereConfig.getConfig().getString("Vadere.cache.globalCacheBaseDir"));
+			}
+
+			// the blocking accept is fine, the accepting thread does nothing else
+			serverChannel.configureBlocking(true);
+			int next = 0;
+			while (true) {
+				SocketChannel clientChannel = serverChannel.accept();
+				clientChannel.configureBlocking(false);
+				clientChannel.socket().setTcpNoDelay(true);
+				NioClientConnection connection = new NioClientConnection(clientChannel, commandPool, baseDir, guiSupport, trace);
+				selectorLoops[next].register(connection);
+				next = (next + 1) % selectorLoops.length;
+			}
+		} catch (IOException e) {
+			logger.warn("Interrupt Vadere Server");
+		} finally {
+			logger.info("Shutdown Vadere Server ...");
+			for (SelectorLoop loop : selectorLoops) {
+				loop.close();
+			}
+			commandPool.shutdown();
+			try {
+				for (Thread thread : threads) {
+					thread.join(4000L);
+				}
+				commandPool.awaitTermination(4L, TimeUnit.SECONDS);
+				if (serverChannel.isOpen()) {
+					serverChannel.close();
+				}
+			} catch (InterruptedException | IOException e) {
+				logger.error(e);
+			}
+		}
+	}
+
+	/**
+	 * A selector thread which reads and writes the channels of its connections. Channels are registered and
+	 * write interests are changed by other threads via queues since a {@link Selector} must only be modified
+	 * by the thread which selects.
+	 */
+	static class SelectorLoop implements Runnable {
+
+		private final Selector selector;
+		private final Queue<NioClientConnection> pendingRegistrations;
+		private final Queue<NioClientConnection> pendingWrites;
+		private volatile boolean running;
+
+		SelectorLoop(final Selector selector) {
+			this.selector = selector;
+			this.pendingRegistrations = new ConcurrentLinkedQueue<>();
+			this.pendingWrites = new ConcurrentLinkedQueue<>();
+			this.running = true;
+		}
+
+		void register(final NioClientConnection connection) {
+			pendingRegistrations.add(connection);
+			selector.wakeup();
+		}
+
+		/**
+		 * Requests that the selector writes the pending responses of the connection.
+		 */
+		void requestWrite(final NioClientConnection connection) {
+			pendingWrites.add(connection);
+			selector.wakeup();
+		}
+
+		void close() {
+			running = false;
+			selector.wakeup();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (running) {
+					selector.select();
+					processPendingRegistrations();
+					processPendingWrites();
+
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						NioClientConnection connection = (NioClientConnection) key.attachment();
+						try {
+							if (key.isValid() && key.isReadable()) {
+								connection.read();
+							}
+							if (key.isValid() && key.isWritable()) {
+								connection.write();
+							}
+						} catch (IOException | CancelledKeyException e) {
+							connection.close();
+						}
+					}
+				}
+			} catch (IOException | ClosedSelectorException e) {
+				logger.error(e);
+			} finally {
+				for (SelectionKey key : selector.keys()) {
+					((NioClientConnection) key.attachment()).close();
+				}
+				try {
+					selector.close();
+				} catch (IOException e) {
+					logger.error(e);
+				}
+			}
+		}
+
+		private void processPendingRegistrations() {
+			NioClientConnection connection;
+			while ((connection = pendingRegistrations.poll()) != null) {
+				try {
+					connection.register(this, selector);
+				} catch (IOException e) {
+					connection.close();
+				}
+			}
+		}
+
+		private void processPendingWrites() {
+			NioClientConnection connection;
+			while ((connection = pendingWrites.poll()) != null) {
+				try {
+					connection.write();
+				} catch (IOException | CancelledKeyException e) {
+					connection.close();
+				}
+			}
+		}
+	}
+}
@@ -21,6 +21,7 @@ import org.vadere.state.traci.TraCIDataType;
 import org.vadere.state.util.StateJsonConverter;
 import org.vadere.util.geometry.Vector3D;
 import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 
 import java.io.IOException;
@@ -477,6 +478,143 @@ public class PersonCommandHandler extends CommandHandler<PersonVar> {
 	}
 
 
+	/**
+	 * Returns all pedestrians ordered by ascending id. The bulk variables (e.g. {@link PersonVar#POSITION_ARRAY})
+	 * use this order, i.e. the i-th entry belongs to the i-th id of {@link PersonVar#ID_ARRAY}.
+	 */
+	private static List<Pedestrian> getPedestriansSortedById(SimulationState state) {
+		List<Pedestrian> peds = new ArrayList<>(state.getTopography().getPedestrianDynamicElements().getElements());
+		peds.sort(Comparator.comparingInt(Pedestrian::getId));
+		return peds;
+	}
+
+	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.ID_ARRAY, name = "getIdArray", ignoreElementId = true)
+	public TraCICommand process_getIdArray(TraCIGetCommand cmd, RemoteManager remoteManager) {
+		remoteManager.accessState((manager, state) -> {
+			int[] data = getPedestriansSortedById(state).stream().mapToInt(Pedestrian::getId).toArray();
+			cmd.setResponse(responseOK(PersonVar.ID_ARRAY.type, data));
+		});
+		return cmd;
+	}
+
+	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.POSITION_ARRAY, name = "getPosition2DArray", ignoreElementId = true)
+	public TraCICommand process_getPosition2DArray(TraCIGetCommand cmd, RemoteManager remoteManager) {
+		remoteManager.accessState((manager, state) -> {
+			List<Pedestrian> peds = getPedestriansSortedById(state);
+			double[] data = new double[2 * peds.size()];
+			for (int i = 0; i < peds.size(); i++) {
+				VPoint position = peds.get(i).getPosition();
+				data[2 * i] = position.x;
+				data[2 * i + 1] = position.y;
+			}
+			cmd.setResponse(responseOK(PersonVar.POSITION_ARRAY.type, data));
+		});
+		return cmd;
+	}
+
+	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.VELOCITY_ARRAY, name = "getVelocityArray", ignoreElementId = true)
+	public TraCICommand process_getVelocityArray(TraCIGetCommand cmd, RemoteManager remoteManager) {
+		remoteManager.accessState((manager, state) -> {
+			List<Pedestrian> peds = getPedestriansSortedById(state);
+			double[] data = new double[2 * peds.size()];
+			for (int i = 0; i < peds.size(); i++) {
+				Vector2D velocity = peds.get(i).getVelocity();
+				data[2 * i] = velocity.x;
+				data[2 * i + 1] = velocity.y;
+			}
+			cmd.setResponse(responseOK(PersonVar.VELOCITY_ARRAY.type, data));
+		});
+		return cmd;
+	}
+
+	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.SPEED_ARRAY, name = "getFreeFlowSpeedArray", ignoreElementId = true)
+	public TraCICommand process_getFreeFlowSpeedArray(TraCIGetCommand cmd, RemoteManager remoteManager) {
+		remoteManager.accessState((manager, state) -> {
+			double[] data = getPedestriansSortedById(state).stream()
+					.mapToDouble(p -> p.getFootstepHistory().getAverageSpeedInMeterPerSecond())
+					.map(speed -> Double.isNaN(speed) ? 0.0 : speed)
+					.toArray();
+			cmd.setResponse(responseOK(PersonVar.SPEED_ARRAY.type, data));
+		});
+		return cmd;
+	}
+
+	@PersonHandler(cmd = TraCICmd.SET_PERSON_STATE, var = PersonVar.SPEED_ARRAY, name = "setFreeFlowSpeedArray", ignoreElementId = true, dataTypeStr = "double[]")
+	public TraCICommand process_setFreeFlowSpeedArray(TraCISetCommand cmd, RemoteManager remoteManager) {
+		double[] data = (double[]) cmd.getVariableValue();
+		if (data.length % 2 != 0) {
+			cmd.setErr("expected pairs of (id, speed) but got " + data.length + " values");
+			return cmd;
+		}
+		remoteManager.accessState((manager, state) -> {
+			// check all ids first, thus either all or none of the speeds are set
+			Pedestrian[] peds = new Pedestrian[data.length / 2];
+			for (int i = 0; i < peds.length; i++) {
+				peds[i] = state.getTopography().getPedestrianDynamicElements().getElement((int) data[2 * i]);
+				if (peds[i] == null) {
+					cmd.setErr(CommandHandler.ELEMENT_ID_NOT_FOUND + (int) data[2 * i]);
+					return;
+				}
+			}
+			for (int i = 0; i < peds.length; i++) {
+				peds[i].setFreeFlowSpeed(data[2 * i + 1]);
+			}
+			cmd.setOK();
+		});
+		return cmd;
+	}
+
+	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.TARGET_LIST_ARRAY, name = "getTargetListArray", ignoreElementId = true)
+	public TraCICommand process_getTargetListArray(TraCIGetCommand cmd, RemoteManager remoteManager) {
+		remoteManager.accessState((manager, state) -> {
+			List<Pedestrian> peds = getPedestriansSortedById(state);
+			int size = peds.size();
+			for (Pedestrian ped : peds) {
+				size += ped.getTargets().size();
+			}
+			int[] data = new int[size];
+			int index = 0;
+			for (Pedestrian ped : peds) {
+				data[index++] = ped.getTargets().size();
+				for (int target : ped.getTargets()) {
+					data[index++] = target;
+				}
+			}
+			cmd.setResponse(responseOK(PersonVar.TARGET_LIST_ARRAY.type, data));
+		});
+		return cmd;
+	}
+
+	@PersonHandler(cmd = TraCICmd.SET_PERSON_STATE, var = PersonVar.TARGET_LIST_ARRAY, name = "setTargetListArray", ignoreElementId = true, dataTypeStr = "int[]")
+	public TraCICommand process_setTargetListArray(TraCISetCommand cmd, RemoteManager remoteManager) {
+		int[] data = (int[]) cmd.getVariableValue();
+		remoteManager.accessState((manager, state) -> {
+			// check all ids first, thus either all or none of the target lists are set
+			Map<Pedestrian, LinkedList<Integer>> targets = new LinkedHashMap<>();
+			int index = 0;
+			while (index < data.length) {
+				if (index + 1 >= data.length || index + 2 + data[index + 1] > data.length || data[index + 1] < 0) {
+					cmd.setErr("malformed target list array at index " + index);
+					return;
+				}
+				Pedestrian ped = state.getTopography().getPedestrianDynamicElements().getElement(data[index]);
+				if (ped == null) {
+					cmd.setErr(CommandHandler.ELEMENT_ID_NOT_FOUND + data[index]);
+					return;
+				}
+				LinkedList<Integer> targetList = new LinkedList<>();
+				for (int i = index + 2; i < index + 2 + data[index + 1]; i++) {
+					targetList.add(data[i]);
+				}
+				targets.put(ped, targetList);
+				index += 2 + data[index + 1];
+			}
+			targets.forEach(Pedestrian::setTargets);
+			cmd.setOK();
+		});
+		return cmd;
+	}
+
 	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.WAITING_TIME, name = "getWaitingTime")
 	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.COLOR, name = "getColor")
 	@PersonHandler(cmd = TraCICmd.GET_PERSON_VALUE, var = PersonVar.EDGE_POS, name = "getEdgePos")
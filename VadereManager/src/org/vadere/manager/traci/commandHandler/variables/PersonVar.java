@@ -36,7 +36,13 @@ public enum PersonVar {
 	ADD(0x80, TraCIDataType.STRING),
 	REMOVE_STAGE(0xc5, TraCIDataType.INTEGER), // set
 	TARGET_LIST(0xfe, TraCIDataType.STRING_LIST), // get, set            
-	INFORMATION_ITEM(0xfd, TraCIDataType.COMPOUND_OBJECT)
+	INFORMATION_ITEM(0xfd, TraCIDataType.COMPOUND_OBJECT),
+	// bulk variables of all persons ordered by ascending id (see ID_ARRAY)
+	ID_ARRAY(0xf0, TraCIDataType.INTEGER_LIST), // get
+	POSITION_ARRAY(0xf1, TraCIDataType.DOUBLE_LIST), // get [x0, y0, x1, y1, ...]
+	VELOCITY_ARRAY(0xf2, TraCIDataType.DOUBLE_LIST), // get [vx0, vy0, vx1, vy1, ...]
+	SPEED_ARRAY(0xf3, TraCIDataType.DOUBLE_LIST), // get [s0, s1, ...], set [id0, s0, id1, s1, ...]
+	TARGET_LIST_ARRAY(0xf4, TraCIDataType.INTEGER_LIST) // get [n0, t0_0, ..., n1, ...], set [id0, n0, t0_0, ..., id1, n1, ...]
 	;
 
 
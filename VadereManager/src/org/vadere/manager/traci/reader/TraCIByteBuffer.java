@@ -64,6 +64,17 @@ public class TraCIByteBuffer implements TraCIReader {
 		return data;
 	}
 
+	/**
+	 * Returns a slice of the next <tt>num</tt> bytes, i.e. the bytes of the commands of a packet are not copied.
+	 */
+	@Override
+	public ByteBuffer readByteBuffer(int num) {
+		ensureBytes(num);
+		ByteBuffer slice = byteBuffer.slice(byteBuffer.position(), num);
+		byteBuffer.position(byteBuffer.position() + num);
+		return slice;
+	}
+
 	@Override
 	public void readBytes(byte[] data) {
 		byteBuffer.get(data, 0, data.length);
@@ -114,6 +125,30 @@ public class TraCIByteBuffer implements TraCIReader {
 		return stringList;
 	}
 
+	@Override
+	public double[] readDoubleList() {
+		ensureBytes(4); // 1x int
+		int numOfValues = byteBuffer.getInt();
+
+		ensureBytes(numOfValues * 8); // numOfValues x double
+		double[] values = new double[numOfValues];
+		byteBuffer.asDoubleBuffer().get(values);
+		byteBuffer.position(byteBuffer.position() + numOfValues * 8);
+		return values;
+	}
+
+	@Override
+	public int[] readIntList() {
+		ensureBytes(4); // 1x int
+		int numOfValues = byteBuffer.getInt();
+
+		ensureBytes(numOfValues * 4); // numOfValues x int
+		int[] values = new int[numOfValues];
+		byteBuffer.asIntBuffer().get(values);
+		byteBuffer.position(byteBuffer.position() + numOfValues * 4);
+		return values;
+	}
+
 	@Override
 	public VPoint read2DPosition() {
 		// id already consumed
@@ -275,6 +310,10 @@ public class TraCIByteBuffer implements TraCIReader {
 				return readTrafficLightPhaseList();
 			case COLOR:
 				return readColor();
+			case DOUBLE_LIST:
+				return readDoubleList();
+			case INTEGER_LIST:
+				return readIntList();
 			case COMPOUND_OBJECT:
 				return readCompoundObject();
 			case NULL:
@@ -47,6 +47,10 @@ public interface TraCIReader {
 
 	List<String> readStringList();
 
+	double[] readDoubleList();
+
+	int[] readIntList();
+
 	VPoint read2DPosition();
 
 	Map<String, VPoint> read2DPositionList();
@@ -0,0 +1,188 @@
+package org.vadere.manager.traci.writer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link TraCIWriter} which writes directly into a growing {@link ByteBuffer}. Ints and doubles are put into the
+ * buffer without temporary arrays and the written bytes can be accessed without a copy (see {@link #slice()}).
+ * If a {@link TraCIBufferPool} is given, the (direct) buffers are taken from the pool and given back by
+ * {@link #release()}.
+ */
+public class ByteBufferTraCIWriter extends AbstractTraCIWriter {
+
+	private static final int INITIAL_HEAP_CAPACITY = 256;
+
+	private final TraCIBufferPool pool;
+	private ByteBuffer data;
+
+	public ByteBufferTraCIWriter() {
+		this.pool = null;
+		this.data = ByteBuffer.allocate(INITIAL_HEAP_CAPACITY);
+	}
+
+	public ByteBufferTraCIWriter(TraCIBufferPool pool) {
+		this.pool = pool;
+		this.data = pool.acquire(TraCIBufferPool.DEFAULT_BUFFER_CAPACITY);
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return ByteBuffer.wrap(asByteArray());
+	}
+
+	@Override
+	public byte[] asByteArray() {
+		byte[] bytes = new byte[data.position()];
+		data.get(0, bytes);
+		return bytes;
+	}
+
+	/**
+	 * Returns the written bytes (position 0, limit {@link #size()}) without copying them. The returned buffer shares
+	 * the content of this writer and is only valid until the writer is changed or released.
+	 */
+	public ByteBuffer slice() {
+		return data.slice(0, data.position());
+	}
+
+	@Override
+	public TraCIWriter rest() {
+		data.clear();
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeByte(int val) {
+		ensureRemaining(1);
+		data.put((byte) val);
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeBytes(byte[] buf) {
+		return writeBytes(buf, 0, buf.length);
+	}
+
+	@Override
+	public TraCIWriter writeBytes(byte[] buf, int offset, int len) {
+		ensureRemaining(len);
+		data.put(buf, offset, len);
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeBytes(ByteBuffer buf, int offset, int len) {
+		ensureRemaining(len);
+		data.put(data.position(), buf, offset, len);
+		data.position(data.position() + len);
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeBytes(ByteBuffer buf) {
+		return writeBytes(buf, 0, buf.limit());
+	}
+
+	@Override
+	public TraCIWriter writeInt(int val) {
+		ensureRemaining(Integer.BYTES);
+		data.putInt(val);
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeDouble(double val) {
+		ensureRemaining(Double.BYTES);
+		data.putDouble(val);
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeString(String val) {
+		int len = val.length();
+		for (int i = 0; i < len; i++) {
+			if (val.charAt(i) >= 128) {
+				// let the encoder replace non ASCII characters
+				return super.writeString(val);
+			}
+		}
+
+		ensureRemaining(Integer.BYTES + len);
+		data.putInt(len);
+		for (int i = 0; i < len; i++) {
+			data.put((byte) val.charAt(i));
+		}
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeDoubleList(double[] val) {
+		ensureRemaining(Integer.BYTES + val.length * Double.BYTES);
+		data.putInt(val.length);
+		data.asDoubleBuffer().put(val);
+		data.position(data.position() + val.length * Double.BYTES);
+		return this;
+	}
+
+	@Override
+	public TraCIWriter writeIntList(int[] val) {
+		ensureRemaining(Integer.BYTES + val.length * Integer.BYTES);
+		data.putInt(val.length);
+		data.asIntBuffer().put(val);
+		data.position(data.position() + val.length * Integer.BYTES);
+		return this;
+	}
+
+	/**
+	 * Overwrites the int at the given index, e.g. a length field which is known after the content is written.
+	 */
+	public void setInt(int index, int val) {
+		data.putInt(index, val);
+	}
+
+	/**
+	 * Overwrites the byte at the given index.
+	 */
+	public void setByte(int index, int val) {
+		data.put(index, (byte) val);
+	}
+
+	/**
+	 * Moves the bytes <tt>[from, size())</tt> to <tt>to &lt; from</tt> and shrinks the written bytes accordingly.
+	 */
+	void moveTail(int from, int to) {
+		int len = data.position() - from;
+		byte[] tail = new byte[len];
+		data.get(from, tail);
+		data.put(to, tail);
+		data.position(to + len);
+	}
+
+	@Override
+	public int size() {
+		return data.position();
+	}
+
+	/**
+	 * Gives the buffer back to the pool. The writer must not be used afterwards.
+	 */
+	public void release() {
+		if (pool != null && data != null) {
+			pool.release(data);
+		}
+		data = null;
+	}
+
+	private void ensureRemaining(int len) {
+		if (data.remaining() < len) {
+			int capacity = Math.max(2 * data.capacity(), data.position() + len);
+			ByteBuffer grown = pool != null ? pool.acquire(capacity) : ByteBuffer.allocate(capacity);
+			data.flip();
+			grown.put(data);
+			if (pool != null) {
+				pool.release(data);
+			}
+			data = grown;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package org.vadere.manager.traci.writer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct {@link ByteBuffer}s for the {@link TraCIPacket}s. Allocating direct buffers is expensive, thus
+ * packets take their buffer from the pool and give it back after they are sent (see {@link TraCIPacket#release()}).
+ * Since a buffer grows with the largest packet written into it, the buffers of the pool converge to the size of the
+ * typical responses (e.g. the subscription results of a simulation step). Buffers which are never released are
+ * simply collected by the garbage collector.
+ */
+public class TraCIBufferPool {
+
+	public static final int DEFAULT_BUFFER_CAPACITY = 1 << 10;
+
+	private static final TraCIBufferPool sharedPool = new TraCIBufferPool(256, 1 << 26);
+
+	private final ConcurrentLinkedQueue<ByteBuffer> buffers;
+	private final AtomicInteger size;
+	private final int maxSize;
+	private final int maxBufferCapacity;
+
+	/**
+	 * @param maxSize           the maximal number of buffers which are kept
+	 * @param maxBufferCapacity the capacity of the largest buffer which is kept
+	 */
+	public TraCIBufferPool(int maxSize, int maxBufferCapacity) {
+		this.buffers = new ConcurrentLinkedQueue<>();
+		this.size = new AtomicInteger(0);
+		this.maxSize = maxSize;
+		this.maxBufferCapacity = maxBufferCapacity;
+	}
+
+	public static TraCIBufferPool getSharedPool() {
+		return sharedPool;
+	}
+
+	/**
+	 * Returns a cleared buffer with at least the given capacity.
+	 */
+	public ByteBuffer acquire(int minCapacity) {
+		ByteBuffer buffer = buffers.poll();
+		if (buffer != null) {
+			size.decrementAndGet();
+			if (buffer.capacity() >= minCapacity) {
+				return buffer.clear();
+			}
+		}
+		return ByteBuffer.allocateDirect(Math.max(minCapacity, DEFAULT_BUFFER_CAPACITY));
+	}
+
+	/**
+	 * Gives the buffer back to the pool. The buffer must not be used afterwards.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (!buffer.isDirect() || buffer.capacity() > maxBufferCapacity) {
+			return;
+		}
+		if (size.incrementAndGet() <= maxSize) {
+			buffers.add(buffer);
+		} else {
+			size.decrementAndGet();
+		}
+	}
+
+	public int size() {
+		return size.get();
+	}
+}
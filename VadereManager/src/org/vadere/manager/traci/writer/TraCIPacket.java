@@ -16,8 +16,13 @@ import java.util.List;
 
 /**
  * //todo comment
+ *
+ * The packet is written into a direct buffer of the {@link TraCIBufferPool#getSharedPool()}. Commands are written in
+ * place (the length field is set after the content is written) and a sent packet can be written to a channel
+ * without copying it (see {@link #sendBuffer()}). Call {@link #release()} after the packet is sent to give its buffer
+ * back to the pool.
  */
-public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
+public class TraCIPacket extends ByteBufferTraCIWriter {
 	private static Logger logger = Logger.getLogger(TraCIPacket.class);
 
 	//	private TraCIWriter writer;
@@ -26,7 +31,7 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 
 
 	private TraCIPacket() {
-		super();
+		super(TraCIBufferPool.getSharedPool());
 		finalized = false;
 		emptyLengthField = false;
 	}
@@ -86,19 +91,23 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 
 
 	public byte[] send() {
+		setLengthField();
+		return asByteArray();
+	}
 
-		// packet is valid TraCI packet an can be send.
-		if (finalized)
-			return asByteArray();
+	/**
+	 * Like {@link #send()} but returns a view of the packet instead of a copy, i.e. the returned buffer is only valid
+	 * until the packet is released.
+	 */
+	public ByteBuffer sendBuffer() {
+		setLengthField();
+		return slice();
+	}
 
+	private void setLengthField() {
 		// packet limit must be set to correct value
-		if (emptyLengthField) {
-			ByteBuffer packet = asByteBuffer();
-			packet.putInt(packet.capacity());
-			packet.position(0);
-			return packet.array();
-		} else {
-			return asByteArray();
+		if (!finalized && emptyLengthField) {
+			setInt(0, size());
 		}
 	}
 
@@ -113,20 +122,43 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 		return commands;
 	}
 
-	private TraCIWriter getCmdBuilder() {
-		return new ByteArrayOutputStreamTraCIWriter();
+	/**
+	 * Reserves the extended length field (5 bytes) of a command which is written in place.
+	 *
+	 * @return the start of the command
+	 */
+	private int beginCommand() {
+		int start = size();
+		writeUnsignedByte(0);
+		writeInt(0);
+		return start;
+	}
+
+	/**
+	 * Sets the length field of the command which starts at <tt>start</tt>. If the command is short and the extended
+	 * length field is not required, the content is moved to use the short length field (1 byte).
+	 */
+	private void endCommand(int start, boolean extendedLenField) {
+		int len = size() - start - 5;
+		if (!extendedLenField && len <= 254) {
+			setByte(start, len + 1); // 1 length field
+			moveTail(start + 5, start + 1);
+		} else {
+			setByte(start, 0);
+			setInt(start + 1, len + 5); // 1 + 4 length field
+		}
 	}
 
 	public TraCIPacket wrapCommand(TraCICmd commandIdentifier, String elementIdentifier,
 								   int variableIdentifier, TraCIDataType dataType, Object data) {
 
-		TraCIWriter cmdBuilder = getCmdBuilder();
-		cmdBuilder.writeUnsignedByte(commandIdentifier.id)
+		int start = beginCommand();
+		writeUnsignedByte(commandIdentifier.id)
 				.writeUnsignedByte(variableIdentifier)
 				.writeString(elementIdentifier)
 				.writeObjectWithId(dataType, data);
 
-		addCommandWithoutLen(cmdBuilder.asByteArray());
+		endCommand(start, false);
 
 		return this;
 	}
@@ -138,13 +170,13 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 		if (!res.getStatusResponse().getResponse().equals(TraCIStatusResponse.OK))
 			return this; // ERR or NOT_IMPLEMENTED --> only StatusResponse
 
-		TraCIWriter cmdBuilder = getCmdBuilder();
-		cmdBuilder.writeUnsignedByte(res.getResponseIdentifier().id)
+		int start = beginCommand();
+		writeUnsignedByte(res.getResponseIdentifier().id)
 				.writeUnsignedByte(res.getVariableIdentifier())
 				.writeString(res.getElementIdentifier())
 				.writeObjectWithId(res.getResponseDataType(), res.getResponseData());
 
-		addCommandWithoutLen(cmdBuilder.asByteArray());
+		endCommand(start, false);
 
 		return this;
 	}
@@ -161,17 +193,17 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 	}
 
 	private void wrapSubscription(TraCISubscriptionResponse res) {
-		TraCIWriter cmdBuilder = getCmdBuilder();
-		cmdBuilder.writeUnsignedByte(res.getResponseIdentifier().id) // (i.e. TraCICmd.RESPONSE_SUB_PERSON_VARIABLE)
+		int start = beginCommand();
+		writeUnsignedByte(res.getResponseIdentifier().id) // (i.e. TraCICmd.RESPONSE_SUB_PERSON_VARIABLE)
 				.writeString(res.getElementId())
 				.writeUnsignedByte(res.getNumberOfVariables());
 		res.getResponses().forEach(var -> {
-			cmdBuilder.writeUnsignedByte(var.getVariableId())
+			writeUnsignedByte(var.getVariableId())
 					.writeUnsignedByte(var.getStatus().id)
 					.writeObjectWithId(var.getVariableDataType(), var.getVariableValue());
 		});
 
-		addCommandWithExtendedLenField(cmdBuilder.asByteArray());
+		endCommand(start, true);
 	}
 
 	public TraCIPacket wrapGetVersionCommand(TraCIGetVersionCommand cmd) {
@@ -182,13 +214,13 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 		else
 			addStatusResponse(res.getStatusResponse());
 
-		TraCIWriter cmdBuilder = getCmdBuilder();
+		int start = beginCommand();
 		// ResponseIdentifier needed by implementation in Veins/OMNeT++
-		cmdBuilder.writeUnsignedByte(res.getResponseIdentifier().id)
+		writeUnsignedByte(res.getResponseIdentifier().id)
 				.writeInt(res.getVersionId())
 				.writeString(res.getVersionString());
 
-		addCommandWithoutLen(cmdBuilder.asByteArray());
+		endCommand(start, false);
 
 		return this;
 	}
@@ -287,7 +319,7 @@ public class TraCIPacket extends ByteArrayOutputStreamTraCIWriter {
 	}
 
 	public String asHexString() {
-		return Hex.encodeHexString(this.data.toByteArray());
+		return Hex.encodeHexString(asByteArray());
 	}
 
 }
@@ -0,0 +1,121 @@
+package org.vadere.manager.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vadere.manager.RemoteManager;
+import org.vadere.manager.traci.commandHandler.CommandExecutor;
+import org.vadere.manager.traci.commands.control.TraCIGetVersionCommand;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class VadereNioServerTest {
+
+	private ServerSocketChannel serverChannel;
+	private Thread serverThread;
+	private byte[] request;
+	private byte[] expectedResponse;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		Path baseDir = Files.createTempDirectory("vadere-nio-server");
+
+		// the response of the blocking server
+		request = TraCIGetVersionCommand.build().send();
+		expectedResponse = new CommandExecutor(new RemoteManager(baseDir, false))
+				.execute(TraCIGetVersionCommand.build().getCommands().get(0)).send();
+
+		VadereNioServer server = new VadereNioServer(serverChannel, 2, Executors.newCachedThreadPool(), baseDir, false, false);
+		serverThread = new Thread(server);
+		serverThread.start();
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException, InterruptedException {
+		serverChannel.close();
+		serverThread.join(10000L);
+	}
+
+	@Test
+	public void testManyClients() throws IOException {
+		List<Socket> clients = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			clients.add(connect());
+		}
+
+		for (int round = 0; round < 3; round++) {
+			for (Socket client : clients) {
+				client.getOutputStream().write(request);
+			}
+			for (Socket client : clients) {
+				assertArrayEquals(expectedResponse, receivePacket(client));
+			}
+		}
+
+		for (Socket client : clients) {
+			client.close();
+		}
+	}
+
+	@Test
+	public void testFragmentedPacket() throws IOException {
+		try (Socket client = connect()) {
+			OutputStream out = client.getOutputStream();
+
+			// two packets, the second one is sent byte by byte
+			out.write(request);
+			for (byte b : request) {
+				out.write(b);
+				out.flush();
+			}
+
+			assertArrayEquals(expectedResponse, receivePacket(client));
+			assertArrayEquals(expectedResponse, receivePacket(client));
+		}
+	}
+
+	@Test
+	public void testSeveralPacketsAtOnce() throws IOException {
+		try (Socket client = connect()) {
+			byte[] requests = new byte[3 * request.length];
+			for (int i = 0; i < 3; i++) {
+				System.arraycopy(request, 0, requests, i * request.length, request.length);
+			}
+			client.getOutputStream().write(requests);
+
+			for (int i = 0; i < 3; i++) {
+				assertArrayEquals(expectedResponse, receivePacket(client));
+			}
+		}
+	}
+
+	private Socket connect() throws IOException {
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverChannel.socket().getLocalPort());
+		socket.setTcpNoDelay(true);
+		return socket;
+	}
+
+	private static byte[] receivePacket(final Socket socket) throws IOException {
+		DataInputStream in = new DataInputStream(socket.getInputStream());
+		int length = in.readInt();
+		byte[] packet = ByteBuffer.allocate(length).putInt(length).array();
+		in.readFully(packet, Integer.BYTES, length - Integer.BYTES);
+		return packet;
+	}
+}
@@ -0,0 +1,121 @@
+package org.vadere.manager.traci;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.manager.traci.commandHandler.variables.PersonVar;
+import org.vadere.manager.traci.reader.TraCIPacketBuffer;
+import org.vadere.manager.traci.response.StatusResponse;
+import org.vadere.manager.traci.response.TraCIGetResponse;
+import org.vadere.manager.traci.response.TraCIResponse;
+import org.vadere.manager.traci.response.TraCISimTimeResponse;
+import org.vadere.manager.traci.response.TraCIStatusResponse;
+import org.vadere.manager.traci.response.TraCISubscriptionResponse;
+import org.vadere.manager.traci.writer.ByteArrayOutputStreamTraCIWriter;
+import org.vadere.manager.traci.writer.ByteBufferTraCIWriter;
+import org.vadere.manager.traci.writer.TraCIBufferPool;
+import org.vadere.manager.traci.writer.TraCIPacket;
+import org.vadere.manager.traci.writer.TraCIWriter;
+import org.vadere.state.traci.TraCIDataType;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.awt.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class ByteBufferTraCIWriterTest {
+
+	@Test
+	public void writeEqualsByteArrayOutputStreamWriter() {
+		TraCIBufferPool pool = new TraCIBufferPool(4, 1 << 20);
+		ByteArrayOutputStreamTraCIWriter expected = new ByteArrayOutputStreamTraCIWriter();
+		ByteBufferTraCIWriter heapWriter = new ByteBufferTraCIWriter();
+		ByteBufferTraCIWriter directWriter = new ByteBufferTraCIWriter(pool);
+
+		// the buffers have to grow several times
+		for (int i = 0; i < 500; i++) {
+			write(expected, i);
+			write(heapWriter, i);
+			write(directWriter, i);
+		}
+
+		assertThat(heapWriter.asByteArray(), equalTo(expected.asByteArray()));
+		assertThat(directWriter.asByteArray(), equalTo(expected.asByteArray()));
+		assertThat(directWriter.size(), equalTo(expected.size()));
+
+		ByteBuffer slice = directWriter.slice();
+		byte[] bytes = new byte[slice.remaining()];
+		slice.get(bytes);
+		assertThat(bytes, equalTo(expected.asByteArray()));
+	}
+
+	@Test
+	public void releasedBufferIsReused() {
+		TraCIBufferPool pool = new TraCIBufferPool(4, 1 << 20);
+		ByteBufferTraCIWriter writer = new ByteBufferTraCIWriter(pool);
+		writer.writeInt(42);
+		writer.release();
+		assertThat(pool.size(), equalTo(1));
+
+		ByteBufferTraCIWriter nextWriter = new ByteBufferTraCIWriter(pool);
+		assertThat(pool.size(), equalTo(0));
+		assertThat(nextWriter.size(), equalTo(0));
+	}
+
+	@Test
+	public void getResponseRoundTrip() {
+		// short and extended command length field
+		for (String elementId : Arrays.asList("1", "x".repeat(300))) {
+			TraCIGetResponse res = new TraCIGetResponse(
+					new StatusResponse(TraCICmd.GET_PERSON_VALUE, TraCIStatusResponse.OK, ""),
+					TraCICmd.RESPONSE_GET_PERSON_VALUE);
+			res.setVariableIdentifier(PersonVar.POSITION.id);
+			res.setElementIdentifier(elementId);
+			res.setResponseDataType(TraCIDataType.POS_2D);
+			res.setResponseData(new VPoint(1.5, -2.5));
+
+			TraCIResponse parsed = parse(TraCIPacket.create().wrapGetResponse(res));
+			assertThat(parsed, equalTo(res));
+		}
+	}
+
+	@Test
+	public void simStepRoundTrip() {
+		StatusResponse status = new StatusResponse(TraCICmd.SIM_STEP, TraCIStatusResponse.OK, "");
+		TraCISimTimeResponse res = new TraCISimTimeResponse(status);
+		for (int i = 0; i < 1000; i++) {
+			TraCISubscriptionResponse sub = new TraCISubscriptionResponse(status, TraCICmd.RESPONSE_SUB_PERSON_VARIABLE, Integer.toString(i), 1);
+			sub.addVariableResponse(PersonVar.POSITION.id, TraCIStatusResponse.OK, TraCIDataType.POS_2D, new VPoint(i, 2 * i));
+			res.addSubscriptionResponse(sub);
+		}
+
+		TraCIPacket packet = TraCIPacket.create().wrapSimTimeStepCommand(res);
+		TraCIResponse parsed = parse(packet);
+		packet.release();
+
+		assertThat(parsed, instanceOf(TraCISimTimeResponse.class));
+		assertThat(((TraCISimTimeResponse) parsed).getSubscriptionResponses(), equalTo(res.getSubscriptionResponses()));
+	}
+
+	private static TraCIResponse parse(final TraCIPacket packet) {
+		ByteBuffer buf = ByteBuffer.wrap(packet.send());
+		assertThat(buf.getInt(), equalTo(buf.capacity()));
+		return TraCIPacketBuffer.wrap(buf.slice()).nextResponse();
+	}
+
+	private static void write(final TraCIWriter writer, final int i) {
+		writer.writeUnsignedByte(i % 256)
+				.writeIntWithId(i)
+				.writeDoubleWithId(i * 0.1)
+				.writeStringWithId("person-" + i)
+				.writeString("äöü" + i)
+				.write2DPosition(new VPoint(i, -i))
+				.writePolygon(new VPoint(0, 0), new VPoint(i, 0), new VPoint(i, i))
+				.writeColor(Color.RED)
+				.writeDoubleListWithId(new double[]{i, 0.5 * i})
+				.writeIntListWithId(new int[]{i, -i, 2 * i})
+				.writeCommandLength(i);
+	}
+}
@@ -957,4 +957,110 @@ public class PersonCommandHandlerTest extends CommandHandlerTest {
 		testSetValue(ret, varID, varType, elementID, data);
 	}
 
+	@Test
+	public void process_getPosition2DArray() {
+		PersonVar var = PersonVar.POSITION_ARRAY;
+		int varID = var.id;
+		TraCIDataType varType = var.type;
+		String elementID = "-1";
+		TraCIGetCommand cmd = (TraCIGetCommand) getFirstCommand(TraCIGetCommand.build(
+				TraCICmd.GET_PERSON_VALUE, varID, elementID));
+		RemoteManager rm = new TestRemoteManager() {
+			@Override
+			protected void mockIt() {
+				ArrayList<Pedestrian> pedEls = new ArrayList<>();
+				for (int id : new int[]{3, 1, 2}) {
+					Pedestrian ped = mock(Pedestrian.class, Mockito.RETURNS_DEEP_STUBS);
+					when(ped.getId()).thenReturn(id);
+					when(ped.getPosition()).thenReturn(new VPoint(id, -id));
+					pedEls.add(ped);
+				}
+				when(simState.getTopography().getPedestrianDynamicElements().getElements()).thenReturn(pedEls);
+			}
+		};
+		TraCICommand ret = persCmdHandler.process_getPosition2DArray(cmd, rm);
+		testTraCICommand(ret, TraCICmd.GET_PERSON_VALUE, CmdType.VALUE_GET);
+		checkGET_OK(ret);
+		// ordered by id
+		testGetValue(ret, varID, varType, elementID, new double[]{1, -1, 2, -2, 3, -3});
+	}
+
+	@Test
+	public void process_getTargetListArray() {
+		PersonVar var = PersonVar.TARGET_LIST_ARRAY;
+		int varID = var.id;
+		TraCIDataType varType = var.type;
+		String elementID = "-1";
+		TraCIGetCommand cmd = (TraCIGetCommand) getFirstCommand(TraCIGetCommand.build(
+				TraCICmd.GET_PERSON_VALUE, varID, elementID));
+		RemoteManager rm = new TestRemoteManager() {
+			@Override
+			protected void mockIt() {
+				Pedestrian ped1 = mock(Pedestrian.class, Mockito.RETURNS_DEEP_STUBS);
+				when(ped1.getId()).thenReturn(1);
+				when(ped1.getTargets()).thenReturn(new LinkedList<>(List.of(5, 6)));
+				Pedestrian ped2 = mock(Pedestrian.class, Mockito.RETURNS_DEEP_STUBS);
+				when(ped2.getId()).thenReturn(2);
+				when(ped2.getTargets()).thenReturn(new LinkedList<>());
+				when(simState.getTopography().getPedestrianDynamicElements().getElements())
+						.thenReturn(new ArrayList<>(List.of(ped2, ped1)));
+			}
+		};
+		TraCICommand ret = persCmdHandler.process_getTargetListArray(cmd, rm);
+		testTraCICommand(ret, TraCICmd.GET_PERSON_VALUE, CmdType.VALUE_GET);
+		checkGET_OK(ret);
+		testGetValue(ret, varID, varType, elementID, new int[]{2, 5, 6, 0});
+	}
+
+	@Test
+	public void process_setTargetListArray() {
+		PersonVar var = PersonVar.TARGET_LIST_ARRAY;
+		int varID = var.id;
+		TraCIDataType varType = var.type;
+		String elementID = "-1";
+		int[] data = new int[]{1, 2, 5, 6, 2, 0};
+		Pedestrian ped1 = mock(Pedestrian.class, Mockito.RETURNS_DEEP_STUBS);
+		Pedestrian ped2 = mock(Pedestrian.class, Mockito.RETURNS_DEEP_STUBS);
+		TraCISetCommand cmd = (TraCISetCommand) getFirstCommand(TraCISetCommand.build(
+				TraCICmd.SET_PERSON_STATE, elementID, varID, varType, data));
+		RemoteManager rm = new TestRemoteManager() {
+			@Override
+			protected void mockIt() {
+				when(simState.getTopography().getPedestrianDynamicElements().getElement(1)).thenReturn(ped1);
+				when(simState.getTopography().getPedestrianDynamicElements().getElement(2)).thenReturn(ped2);
+			}
+		};
+		TraCICommand ret = persCmdHandler.process_setTargetListArray(cmd, rm);
+		testTraCICommand(ret, TraCICmd.SET_PERSON_STATE, CmdType.VALUE_SET);
+		checkSET_OK(ret);
+		testSetValue(ret, varID, varType, elementID, data);
+		Mockito.verify(ped1).setTargets(new LinkedList<>(List.of(5, 6)));
+		Mockito.verify(ped2).setTargets(new LinkedList<>());
+	}
+
+	@Test
+	public void process_setFreeFlowSpeedArray() {
+		PersonVar var = PersonVar.SPEED_ARRAY;
+		int varID = var.id;
+		TraCIDataType varType = var.type;
+		String elementID = "-1";
+		double[] data = new double[]{1, 1.5, 10, 0.5};
+		Pedestrian ped1 = mock(Pedestrian.class, Mockito.RETURNS_DEEP_STUBS);
+		TraCISetCommand cmd = (TraCISetCommand) getFirstCommand(TraCISetCommand.build(
+				TraCICmd.SET_PERSON_STATE, elementID, varID, varType, data));
+		RemoteManager rm = new TestRemoteManager() {
+			@Override
+			protected void mockIt() {
+				when(simState.getTopography().getPedestrianDynamicElements().getElement(1)).thenReturn(ped1);
+				when(simState.getTopography().getPedestrianDynamicElements().getElement(10)).thenReturn(null);
+			}
+		};
+		TraCICommand ret = persCmdHandler.process_setFreeFlowSpeedArray(cmd, rm);
+		testTraCICommand(ret, TraCICmd.SET_PERSON_STATE, CmdType.VALUE_SET);
+		// unknown id 10, thus no speed is set
+		checkSET_Err(ret);
+		testSetValue(ret, varID, varType, elementID, data);
+		Mockito.verify(ped1, Mockito.never()).setFreeFlowSpeed(Mockito.anyDouble());
+	}
+
 }
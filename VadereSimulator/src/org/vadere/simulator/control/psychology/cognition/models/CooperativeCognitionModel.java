@@ -37,6 +37,11 @@ public class CooperativeCognitionModel implements ICognitionModel {
         }
     }
 
+    @Override
+    public boolean isParallelizable() {
+        return true;
+    }
+
     @Override
     public void setAttributes(AttributesCognitionModel attributes) {
         this.attributes = (AttributesCooperativeCognitionModel) attributes;
@@ -57,6 +57,15 @@ public interface ICognitionModel {
 	 */
 	void update(Collection<Pedestrian> pedestrians);
 
+	/**
+	 * Returns true if {@link #update(Collection)} changes only the given pedestrians and the decision of a
+	 * pedestrian does not depend on the other pedestrians (e.g. on the self category of a neighbor).
+	 * Then, the simulation may update disjoint subsets of the pedestrians in parallel.
+	 */
+	default boolean isParallelizable() {
+		return false;
+	}
+
 	void setAttributes(AttributesCognitionModel attributes);
 
 	AttributesCognitionModel getAttributes();
@@ -50,6 +50,11 @@ public class SimpleCognitionModel implements ICognitionModel {
         }
     }
 
+    @Override
+    public boolean isParallelizable() {
+        return true;
+    }
+
     @Override
     public void setAttributes(AttributesCognitionModel attributes) {
         this.attributes = (AttributesSimpleCognitionModel) attributes;
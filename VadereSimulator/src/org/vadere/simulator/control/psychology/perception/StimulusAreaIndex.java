@@ -0,0 +1,175 @@
+package org.vadere.simulator.control.psychology.perception;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A uniform grid over the areas of the {@link org.vadere.state.psychology.perception.json.StimulusInfo}s
+ * (see {@link org.vadere.state.psychology.perception.types.Location}). Each cell holds the areas whose
+ * bounding boxes overlap the cell, i.e. for a position only the areas of one cell are tested instead of the
+ * areas of all stimulus infos. Infos without area are valid for the whole topography and match every position.
+ *
+ * <p>The infos are identified by their index in the list passed to the constructor.</p>
+ */
+public class StimulusAreaIndex {
+
+    private static final int MAX_CELLS_PER_DIMENSION = 256;
+    private static final int[] EMPTY = new int[0];
+
+    // Variables
+    private final int infoCount;
+    private final int[] globalInfos;
+    private final int[] entryInfos;
+    private final VShape[] entryShapes;
+    private final int[][] cells;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int cellsX;
+    private final int cellsY;
+
+    // Constructors
+
+    /**
+     * @param areasPerInfo the areas of each stimulus info, an empty list marks an info which is valid everywhere
+     */
+    public StimulusAreaIndex(@NotNull final List<List<VShape>> areasPerInfo) {
+        this.infoCount = areasPerInfo.size();
+
+        int globalCount = 0;
+        int entryCount = 0;
+        Rectangle2D bounds = null;
+        for (List<VShape> areas : areasPerInfo) {
+            if (areas.isEmpty()) {
+                globalCount++;
+            }
+            for (VShape area : areas) {
+                entryCount++;
+                if (bounds == null) {
+                    bounds = area.getBounds2D();
+                } else {
+                    bounds.add(area.getBounds2D());
+                }
+            }
+        }
+
+        this.globalInfos = new int[globalCount];
+        this.entryInfos = new int[entryCount];
+        this.entryShapes = new VShape[entryCount];
+        int g = 0;
+        int e = 0;
+        for (int i = 0; i < infoCount; i++) {
+            List<VShape> areas = areasPerInfo.get(i);
+            if (areas.isEmpty()) {
+                globalInfos[g++] = i;
+            }
+            for (VShape area : areas) {
+                entryInfos[e] = i;
+                entryShapes[e++] = area;
+            }
+        }
+
+        if (bounds == null) {
+            this.minX = 0;
+            this.minY = 0;
+            this.cellSize = 1;
+            this.cellsX = 0;
+            this.cellsY = 0;
+            this.cells = new int[0][];
+            return;
+        }
+
+        // about one area per cell
+        double size = Math.sqrt(bounds.getWidth() * bounds.getHeight() / entryCount);
+        size = Math.max(size, Math.max(bounds.getWidth(), bounds.getHeight()) / MAX_CELLS_PER_DIMENSION);
+        this.minX = bounds.getMinX();
+        this.minY = bounds.getMinY();
+        this.cellSize = size > 0 ? size : 1;
+        this.cellsX = (int) (bounds.getWidth() / cellSize) + 1;
+        this.cellsY = (int) (bounds.getHeight() / cellSize) + 1;
+        this.cells = new int[cellsX * cellsY][];
+
+        // the entries of a cell are sorted by the index of their info
+        int[] counts = new int[cells.length];
+        for (int entry = 0; entry < entryCount; entry++) {
+            forEachCell(entryShapes[entry].getBounds2D(), cell -> counts[cell]++);
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = counts[cell] == 0 ? EMPTY : new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int entry = 0; entry < entryCount; entry++) {
+            final int currentEntry = entry;
+            forEachCell(entryShapes[entry].getBounds2D(), cell -> cells[cell][counts[cell]++] = currentEntry);
+        }
+    }
+
+    // Getters
+    public int getInfoCount() {
+        return infoCount;
+    }
+
+    // Methods
+
+    /**
+     * Calls the consumer in ascending order for each info which has no area or which has an area
+     * containing the position. Each info is passed at most once. The filter is tested before the areas
+     * of an info are tested, i.e. it should reject inactive infos cheaply.
+     */
+    public void forEachInfoAt(@NotNull final VPoint position, @NotNull final IntPredicate filter, @NotNull final IntConsumer consumer) {
+        int[] cell = cellAt(position);
+        int g = 0;
+        int c = 0;
+        int lastInfo = -1;
+
+        while (g < globalInfos.length || c < cell.length) {
+            int globalInfo = g < globalInfos.length ? globalInfos[g] : Integer.MAX_VALUE;
+            int entry = c < cell.length ? cell[c] : -1;
+            int areaInfo = entry >= 0 ? entryInfos[entry] : Integer.MAX_VALUE;
+
+            if (globalInfo < areaInfo) {
+                g++;
+                if (filter.test(globalInfo)) {
+                    consumer.accept(globalInfo);
+                }
+            } else {
+                c++;
+                if (areaInfo != lastInfo && filter.test(areaInfo) && entryShapes[entry].contains(position)) {
+                    lastInfo = areaInfo;
+                    consumer.accept(areaInfo);
+                }
+            }
+        }
+    }
+
+    private int[] cellAt(final VPoint position) {
+        int x = (int) Math.floor((position.x - minX) / cellSize);
+        int y = (int) Math.floor((position.y - minY) / cellSize);
+        if (x < 0 || y < 0 || x >= cellsX || y >= cellsY) {
+            return EMPTY;
+        }
+        return cells[y * cellsX + x];
+    }
+
+    private void forEachCell(final Rectangle2D bounds, final IntConsumer consumer) {
+        int fromX = clamp((int) Math.floor((bounds.getMinX() - minX) / cellSize), cellsX);
+        int toX = clamp((int) Math.floor((bounds.getMaxX() - minX) / cellSize), cellsX);
+        int fromY = clamp((int) Math.floor((bounds.getMinY() - minY) / cellSize), cellsY);
+        int toY = clamp((int) Math.floor((bounds.getMaxY() - minY) / cellSize), cellsY);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                consumer.accept(y * cellsX + x);
+            }
+        }
+    }
+
+    private static int clamp(final int index, final int cells) {
+        return Math.max(0, Math.min(index, cells - 1));
+    }
+}
@@ -5,10 +5,11 @@ import org.vadere.state.psychology.perception.json.StimulusInfo;
 import org.vadere.state.psychology.perception.types.*;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.util.geometry.shapes.VPoint;
-import org.vadere.util.geometry.shapes.VShape;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The StimulusController encapsulates logic to inject stimuli
@@ -27,6 +28,20 @@ public class StimulusController {
     private List<StimulusInfo> oneTimeStimuli;
     private List<StimulusInfo> recurringStimuli;
 
+    // The stimulus infos are re-read if the list of the store is replaced or if its size changes.
+    private List<StimulusInfo> storeStimulusInfos;
+    private int storeStimulusInfosSize;
+    private boolean indexValid;
+
+    // The one-time stimuli followed by the recurring stimuli, identified by their index in the index.
+    private StimulusInfo[] stimulusInfos;
+    private StimulusAreaIndex areaIndex;
+    // The indices of the one-time stimuli sorted by their start time.
+    private int[] oneTimeStimuliByStartTime;
+
+    private double activeSimulationTime;
+    private boolean[] active;
+
 
     // Constructors
     public StimulusController(ScenarioStore scenarioStore) {
@@ -51,14 +66,17 @@ public class StimulusController {
     // Setters
     public void setScenarioStore(ScenarioStore scenarioStore) {
         this.scenarioStore = scenarioStore;
+        setCheckStimuli();
     }
 
     public void setOneTimeStimuli(List<StimulusInfo> oneTimeStimuli) {
         this.oneTimeStimuli = oneTimeStimuli;
+        this.indexValid = false;
     }
 
     public void setRecurringStimuli(List<StimulusInfo> recurringStimuli) {
         this.recurringStimuli = recurringStimuli;
+        this.indexValid = false;
     }
 
 
@@ -70,75 +88,138 @@ public class StimulusController {
 
 
     public List<Stimulus> getStimuliFiltered(double simulationTime, VPoint position, Integer pedId) {
+        updateActiveStimuli(simulationTime);
+        return getActiveStimuli(position, pedId);
+    }
 
-        setCheckStimuli();
+    public HashMap<Pedestrian, List<Stimulus>> getStimuli(double simulationTime, Collection<Pedestrian> peds) {
+        updateActiveStimuli(simulationTime);
+        return getActiveStimuli(peds);
+    }
 
-        List<Stimulus> stimuli = new ArrayList<>();
+    /**
+     * Determines the stimuli which are active at "simulationTime" and sets their timestamp. The timeframes
+     * are evaluated once per simulation time and not once per pedestrian. This method has to be called
+     * before {@link #getActiveStimuli(Collection)}.
+     */
+    public void updateActiveStimuli(double simulationTime) {
+        if (storeChanged()) {
+            setCheckStimuli();
+        }
+        if (!indexValid) {
+            buildIndex();
+        } else if (active != null && activeSimulationTime == simulationTime) {
+            return;
+        }
 
-        // Always, create an "ElapsedTime".
-        stimuli.add(new ElapsedTime(simulationTime));
+        boolean[] nextActive = new boolean[stimulusInfos.length];
 
-        List<Stimulus> activeOneTimeStimuli = getOneTimeStimuliForSimulationTime(simulationTime, position, pedId);
-        List<Stimulus> activeRecurringStimuli = getRecurringStimuliForSimulationTime(simulationTime, position, pedId);
+        // one-time stimuli which start after "simulationTime" are skipped
+        int started = countOneTimeStimuliStartedUntil(simulationTime);
+        for (int i = 0; i < started; i++) {
+            int index = oneTimeStimuliByStartTime[i];
+            nextActive[index] = oneTimeTimeframeIsActiveAtSimulationTime(stimulusInfos[index].getTimeframe(), simulationTime);
+        }
+        for (int index = oneTimeStimuliByStartTime.length; index < stimulusInfos.length; index++) {
+            nextActive[index] = timeframeIsActiveAtSimulationTime(stimulusInfos[index].getTimeframe(), simulationTime);
+        }
 
         // Set timestamp for each active stimulus.
-        activeOneTimeStimuli.stream().forEach(stimulus -> stimulus.setTime(simulationTime));
-        activeRecurringStimuli.stream().forEach((stimulus -> stimulus.setTime(simulationTime)));
-
-        stimuli.addAll(activeOneTimeStimuli);
-        stimuli.addAll(activeRecurringStimuli);
+        for (int index = 0; index < stimulusInfos.length; index++) {
+            if (nextActive[index]) {
+                stimulusInfos[index].getStimuli().forEach(stimulus -> stimulus.setTime(simulationTime));
+            }
+        }
 
-        return stimuli;
+        this.active = nextActive;
+        this.activeSimulationTime = simulationTime;
     }
 
-    public HashMap<Pedestrian, List<Stimulus>> getStimuli(double simulationTime, Collection<Pedestrian> peds) {
-
+    /**
+     * Returns the stimuli of each pedestrian at the time of the last call of {@link #updateActiveStimuli(double)}.
+     * This method does not change the controller, i.e. it can be called for disjoint sets of pedestrians
+     * in parallel.
+     */
+    public HashMap<Pedestrian, List<Stimulus>> getActiveStimuli(Collection<Pedestrian> peds) {
         HashMap<Pedestrian, List<Stimulus>> pedSpecificStimuliForTime = new HashMap<>();
         for (Pedestrian ped : peds) {
-            pedSpecificStimuliForTime.put(ped, getStimuliFiltered(simulationTime, ped.getPosition(), ped.getId()));
+            pedSpecificStimuliForTime.put(ped, getActiveStimuli(ped.getPosition(), ped.getId()));
         }
 
         return pedSpecificStimuliForTime;
     }
 
+    private List<Stimulus> getActiveStimuli(VPoint position, Integer pedId) {
+        List<Stimulus> stimuli = new ArrayList<>();
+
+        // Always, create an "ElapsedTime".
+        stimuli.add(new ElapsedTime(activeSimulationTime));
+
+        // The infos are visited in the order of the one-time stimuli followed by the recurring stimuli.
+        boolean[] activeInfos = active;
+        IntPredicate isActiveForPed = index -> activeInfos[index] && pedIsAffected(pedId, stimulusInfos[index].getSubpopulationFilter());
+        if (position == null) {
+            for (int index = 0; index < stimulusInfos.length; index++) {
+                if (isActiveForPed.test(index)) {
+                    stimuli.addAll(stimulusInfos[index].getStimuli());
+                }
+            }
+        } else {
+            areaIndex.forEachInfoAt(position, isActiveForPed, index -> stimuli.addAll(stimulusInfos[index].getStimuli()));
+        }
+
+        return stimuli;
+    }
+
     private void setCheckStimuli() {
-        oneTimeStimuli = filterOneTimeStimuli(scenarioStore.getStimulusInfoStore().getStimulusInfos());
-        recurringStimuli = filterRecurringStimuli(scenarioStore.getStimulusInfoStore().getStimulusInfos());
+        storeStimulusInfos = scenarioStore.getStimulusInfoStore().getStimulusInfos();
+        storeStimulusInfosSize = storeStimulusInfos.size();
+        oneTimeStimuli = filterOneTimeStimuli(storeStimulusInfos);
+        recurringStimuli = filterRecurringStimuli(storeStimulusInfos);
         oneTimeStimuli.stream().forEach(stimulusInfo -> throwExceptionIfTimeframeIsInvalid(stimulusInfo.getTimeframe(), false));
         recurringStimuli.stream().forEach(stimulusInfo -> throwExceptionIfTimeframeIsInvalid(stimulusInfo.getTimeframe(), true));
+        indexValid = false;
     }
 
+    private boolean storeChanged() {
+        List<StimulusInfo> currentStimulusInfos = scenarioStore.getStimulusInfoStore().getStimulusInfos();
+        return currentStimulusInfos != storeStimulusInfos || currentStimulusInfos.size() != storeStimulusInfosSize;
+    }
 
-   private List<Stimulus> getOneTimeStimuliForSimulationTime(double simulationTime, VPoint position, Integer pedId) {
-       List<Stimulus> activeStimuli = new ArrayList<>();
-
-       oneTimeStimuli.stream().filter(stimulusInfo ->
-                       oneTimeTimeframeIsActiveAtSimulationTime(stimulusInfo.getTimeframe(), simulationTime)
-                               && pedIsInSpecifiedArea(position, stimulusInfo.getLocation())
-                               && pedIsAffected(pedId, stimulusInfo.getSubpopulationFilter())
-               )
-               .forEach(stimulusInfo -> activeStimuli.addAll(stimulusInfo.getStimuli()));
-
-
-       return activeStimuli;
-
-   }
-
+    private void buildIndex() {
+        oneTimeStimuli.stream().forEach(stimulusInfo -> throwExceptionIfTimeframeIsInvalid(stimulusInfo.getTimeframe(), false));
+        recurringStimuli.stream().forEach(stimulusInfo -> throwExceptionIfTimeframeIsInvalid(stimulusInfo.getTimeframe(), true));
 
+        List<StimulusInfo> infos = new ArrayList<>(oneTimeStimuli);
+        infos.addAll(recurringStimuli);
+        stimulusInfos = infos.toArray(new StimulusInfo[0]);
 
+        oneTimeStimuliByStartTime = IntStream.range(0, oneTimeStimuli.size())
+                .boxed()
+                .sorted(Comparator.comparingDouble(index -> stimulusInfos[index].getTimeframe().getStartTime()))
+                .mapToInt(Integer::intValue)
+                .toArray();
 
-    private List<Stimulus> getRecurringStimuliForSimulationTime(double simulationTime, VPoint position, Integer pedId) {
-        List<Stimulus> activeStimuli = new ArrayList<>();
+        areaIndex = new StimulusAreaIndex(infos.stream()
+                .map(stimulusInfo -> stimulusInfo.getLocation().getAreas())
+                .collect(Collectors.toList()));
 
-        recurringStimuli.stream()
-                .filter(stimulusInfo ->
-                        timeframeIsActiveAtSimulationTime(stimulusInfo.getTimeframe(), simulationTime)
-                                && pedIsInSpecifiedArea(position, stimulusInfo.getLocation())
-                                && pedIsAffected(pedId, stimulusInfo.getSubpopulationFilter())
-                )
-                .forEach(stimulusInfo -> activeStimuli.addAll(stimulusInfo.getStimuli()));
+        active = null;
+        indexValid = true;
+    }
 
-        return activeStimuli;
+    private int countOneTimeStimuliStartedUntil(double simulationTime) {
+        int low = 0;
+        int high = oneTimeStimuliByStartTime.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (stimulusInfos[oneTimeStimuliByStartTime[middle]].getTimeframe().getStartTime() <= simulationTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
 
@@ -240,17 +321,5 @@ public class StimulusController {
         return stimulusIsActive;
     }
 
-    private boolean pedIsInSpecifiedArea(VPoint position, Location location) {
-
-        boolean stimulusIsActive = true;
-
-        List<VShape> areas = location.getAreas();
-        if (areas.size() > 0 && position != null) {
-            stimulusIsActive = location.getAreas().stream().anyMatch(area -> area.contains(position));
-        }
-        // if there is no area defined, I assume that the StimulusInfo is valid for the whole topography
-        return stimulusIsActive;
-    }
-
 
 }
@@ -51,6 +51,15 @@ public interface IPerceptionModel {
 	 *  */
 	void update(HashMap<Pedestrian, List<Stimulus>> pedSpecificStimuli);
 
+	/**
+	 * Returns true if {@link #update(HashMap)} changes only the given pedestrians and the perception of a
+	 * pedestrian does not depend on the other pedestrians. Then, the simulation may update disjoint
+	 * subsets of the pedestrians in parallel (see {@link org.vadere.state.attributes.AttributesPsychologyLayer#getParallelism()}).
+	 */
+	default boolean isParallelizable() {
+		return false;
+	}
+
 	void setAttributes(AttributesPerceptionModel attributes);
 
 	AttributesPerceptionModel getAttributes();
@@ -45,6 +45,11 @@ public class MultiPerceptionModel extends PerceptionModel {
 
     }
 
+    @Override
+    public boolean isParallelizable() {
+        return true;
+    }
+
     @Override
     public void setAttributes(AttributesPerceptionModel attributes) {
         this.attributes = (AttributesMultiPerceptionModel) attributes;
@@ -41,6 +41,11 @@ public class SimplePerceptionModel extends PerceptionModel {
         }
     }
 
+    @Override
+    public boolean isParallelizable() {
+        return true;
+    }
+
     @Override
     public void setAttributes(AttributesPerceptionModel attributes) {
         this.attributes = (AttributesSimplePerceptionModel) attributes;
@@ -1,5 +1,8 @@
 package org.vadere.simulator.control.scenarioelements;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.control.util.GroupSpawnArray;
 import org.vadere.simulator.models.DynamicElementFactory;
@@ -226,6 +229,21 @@ public class GroupSourceController extends SourceController {
 	}
 
 
+	@Override
+	public ObjectNode getCheckpointState() {
+		ObjectNode state = super.getCheckpointState();
+		ArrayNode groups = state.putArray("groupsToSpawn");
+		groupsToSpawn.forEach(groups::add);
+		return state;
+	}
+
+	@Override
+	public void restoreCheckpointState(@NotNull final JsonNode state) {
+		super.restoreCheckpointState(state);
+		groupsToSpawn.clear();
+		state.get("groupsToSpawn").forEach(groupSize -> groupsToSpawn.add(groupSize.asInt()));
+	}
+
 	@Override
 	protected boolean isQueueEmpty() {
 		return false;
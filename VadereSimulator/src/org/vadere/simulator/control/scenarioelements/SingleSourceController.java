@@ -1,5 +1,7 @@
 package org.vadere.simulator.control.scenarioelements;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.control.util.SingleSpawnArray;
 import org.vadere.simulator.models.DynamicElementFactory;
@@ -214,6 +216,19 @@ public class SingleSourceController extends SourceController {
 		return Optional.empty();
 	}
 
+	@Override
+	public ObjectNode getCheckpointState() {
+		ObjectNode state = super.getCheckpointState();
+		state.put("numberToSpawn", numberToSpawn);
+		return state;
+	}
+
+	@Override
+	public void restoreCheckpointState(@NotNull final JsonNode state) {
+		super.restoreCheckpointState(state);
+		numberToSpawn = state.get("numberToSpawn").asInt();
+	}
+
 	@Override
 	protected boolean isQueueEmpty() {
 		return numberToSpawn == 0;
@@ -1,5 +1,8 @@
 package org.vadere.simulator.control.scenarioelements;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.control.scenarioelements.listener.ControllerEventListener;
 import org.vadere.simulator.control.scenarioelements.listener.ControllerEventProvider;
 import org.vadere.simulator.models.DynamicElementFactory;
@@ -10,12 +13,15 @@ import org.vadere.state.attributes.spawner.AttributesSpawner;
 import org.vadere.state.scenario.*;
 import org.vadere.state.scenario.distribution.impl.MixedDistribution;
 import org.vadere.state.scenario.spawner.VSpawner;
-import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.geometry.ISpatialMap;
 import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.logging.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -72,7 +78,7 @@ public abstract class SourceController extends ScenarioElementController impleme
     }
 
     protected List<DynamicElement> getDynElementsAtPosition(VCircle circumCircle) {
-        LinkedCellsGrid<DynamicElement> dynElements = topography.getSpatialMap(DynamicElement.class);
+        ISpatialMap<DynamicElement> dynElements = topography.getSpatialMap(DynamicElement.class);
         return dynElements.getObjects(circumCircle.getCenter(), circumCircle.getRadius());
     }
 
@@ -201,4 +207,33 @@ public abstract class SourceController extends ScenarioElementController impleme
     public boolean isSourceFinished(double simTimeInSec) {
         return spawner.isFinished(simTimeInSec, () -> isQueueEmpty());
     }
+
+    /**
+     * Returns the spawn schedule of the source, i.e. the time of the next event, the number of agents
+     * which are spawned or still have to be spawned and the state of the random generator of the distribution,
+     * to store it in a simulation checkpoint.
+     */
+    public ObjectNode getCheckpointState() {
+        ObjectNode state = StateJsonConverter.createObjectNode();
+        state.put("id", getSourceId());
+        state.put("timeOfNextEvent", timeOfNextEvent);
+        state.put("dynamicElementsCreatedTotal", spawner.getDynamicElementsCreatedTotal());
+        state.put("remainingSpawnAgents", spawner.getRemainingSpawnAgents());
+        state.put("random", spawner.getRandomGenerator().getState());
+        return state;
+    }
+
+    /**
+     * Restores the spawn schedule returned by {@link #getCheckpointState()}.
+     */
+    public void restoreCheckpointState(@NotNull final JsonNode state) {
+        timeOfNextEvent = state.get("timeOfNextEvent").asDouble();
+        spawner.setDynamicElementsCreatedTotal(state.get("dynamicElementsCreatedTotal").asInt());
+        spawner.setRemainingSpawnAgents(state.get("remainingSpawnAgents").asInt());
+        try {
+            spawner.getRandomGenerator().setState(state.get("random").binaryValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
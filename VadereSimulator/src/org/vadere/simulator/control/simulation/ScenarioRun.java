@@ -1,5 +1,6 @@
 package org.vadere.simulator.control.simulation;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import it.unimi.dsi.fastutil.io.FastBufferedInputStream;
 
 import org.jetbrains.annotations.NotNull;
@@ -17,6 +18,7 @@ import org.vadere.simulator.control.psychology.perception.models.IPerceptionMode
 import org.vadere.simulator.control.psychology.perception.helpers.PerceptionModelBuilder;
 import org.vadere.simulator.control.psychology.perception.StimulusController;
 import org.vadere.simulator.control.scenarioelements.TargetChangerController;
+import org.vadere.simulator.models.CheckpointableModel;
 import org.vadere.simulator.models.MainModel;
 import org.vadere.simulator.models.MainModelBuilder;
 import org.vadere.simulator.models.infection.AirTransmissionModel;
@@ -28,6 +30,7 @@ import org.vadere.simulator.projects.ScenarioStore;
 import org.vadere.simulator.projects.SimulationResult;
 import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
 import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
+import org.vadere.simulator.projects.io.JsonConverter;
 import org.vadere.simulator.utils.cache.ScenarioCache;
 import org.vadere.state.psychology.perception.json.StimulusInfo;
 import org.vadere.util.io.IOUtils;
@@ -86,6 +89,11 @@ public class ScenarioRun implements Runnable {
 
 	protected SimulationResult simulationResult;
 
+	private double checkpointIntervalInSec = 0;
+	private @Nullable Path checkpointDirectory;
+	private @Nullable SimulationCheckpoint restoreCheckpoint;
+	private boolean appendOutput;
+
 	public ScenarioRun(final Scenario scenario, RunnableFinishedListener scenarioFinishedListener, Path scenarioFilePath, boolean singleStepMode, ScenarioCache scenarioCache) {
 		this(scenario, IOUtils.OUTPUT_DIR, scenarioFinishedListener, scenarioFilePath, scenarioCache);
 		this.singleStepMode = singleStepMode;
@@ -157,6 +165,8 @@ public class ScenarioRun implements Runnable {
 				final MainModel mainModel = modelBuilder.getModel();
 				final Random random = modelBuilder.getRandom();
 				final Domain domain = modelBuilder.getDomain();
+				// the seed of the simulation is part of the scenario of a checkpoint
+				final JsonNode checkpointScenario = checkpointIntervalInSec > 0 ? JsonConverter.serializeScenarioRunManagerToNode(scenario, false) : null;
 				//todo[random]: place the Random object in the context for now. This should be replaced by the meta seed.
 				VadereContext.getCtx(scenarioStore.getTopography()).put("random", random);
 
@@ -169,6 +179,9 @@ public class ScenarioRun implements Runnable {
 				// Only create output directory and write .scenario file if there is any output.
 				if (processorManager != null && !processorManager.isEmpty()) {
 					createAndSetOutputDirectory();
+					if (restoreCheckpoint != null && appendOutput) {
+						restoreCheckpoint.appendOutput(processorManager);
+					}
 					scenario.saveToOutputPath(outputPath);
 					if(floorFieldMesh != null) {
 						writeFloorFieldMeshToOutput(floorFieldMesh);
@@ -194,6 +207,19 @@ public class ScenarioRun implements Runnable {
 						processorManager, simulationResult,
 						remoteRunListeners, singleStepMode,
 						scenarioCache);
+
+				if (restoreCheckpoint != null) {
+					simulation.restore(restoreCheckpoint);
+					logger.info(String.format("Restored checkpoint at t = %.3f s.", restoreCheckpoint.getSimTimeInSec()));
+				}
+				if (checkpointScenario != null) {
+					if (!(mainModel instanceof CheckpointableModel)) {
+						logger.warn(String.format("The checkpoints do not contain the state of %s, a restored run differs from this run.",
+								mainModel.getClass().getSimpleName()));
+					}
+					Path directory = checkpointDirectory != null ? checkpointDirectory : outputPath;
+					simulation.setCheckpointWriter(new SimulationCheckpointWriter(checkpointScenario, checkpointIntervalInSec, directory));
+				}
 			}
 
 			simulation.run();
@@ -352,6 +378,35 @@ public class ScenarioRun implements Runnable {
 		return singleStepMode;
 	}
 
+	/**
+	 * Writes a {@link SimulationCheckpoint} each <tt>intervalInSec</tt> seconds of simulation time. A non-positive
+	 * interval turns checkpoints off.
+	 *
+	 * @param directory the directory of the checkpoints, the output directory of the run is used if it is null
+	 */
+	public void setCheckpointing(final double intervalInSec, @Nullable final Path directory) {
+		this.checkpointIntervalInSec = intervalInSec;
+		this.checkpointDirectory = directory;
+	}
+
+	/**
+	 * Continues the simulation from the checkpoint instead of starting it at time 0. The scenario of this run has
+	 * to be created by {@link SimulationCheckpoint#createScenario()} or from a variation of
+	 * {@link SimulationCheckpoint#getScenario()}.
+	 */
+	public void setRestoreCheckpoint(@Nullable final SimulationCheckpoint checkpoint) {
+		this.restoreCheckpoint = checkpoint;
+	}
+
+	/**
+	 * Appends the output of a run which is restored from a checkpoint to the streaming output files of the run
+	 * which wrote the checkpoint, i.e. these files contain the rows of the whole simulation. The other output files
+	 * are written to the output directory of this run.
+	 */
+	public void setAppendOutput(final boolean appendOutput) {
+		this.appendOutput = appendOutput;
+	}
+
 	public void setOutputPaths(final Path outputPath, boolean overwriteTimestampSetting){
 		if (overwriteTimestampSetting){
 			this.outputPath = outputPath;
@@ -1,5 +1,6 @@
 package org.vadere.simulator.control.simulation;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.vadere.simulator.control.factory.SourceControllerFactory;
 import org.vadere.simulator.control.psychology.cognition.models.ICognitionModel;
 import org.vadere.simulator.control.psychology.perception.StimulusController;
@@ -28,7 +29,11 @@ import org.vadere.util.logging.Logger;
 
 import java.awt.geom.Rectangle2D;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class Simulation implements ControllerProvider{
 
@@ -86,6 +91,18 @@ public class Simulation implements ControllerProvider{
 	private SimulationResult simulationResult;
 	private final StimulusController stimulusController;
 	private final ScenarioCache scenarioCache;
+	/**
+	 * The pool of the parallel update of the psychology layer, null if the layer is updated sequentially.
+	 */
+	private ForkJoinPool psychologyPool;
+	/**
+	 * Writes checkpoints of the simulation, null if no checkpoints are written.
+	 */
+	private SimulationCheckpointWriter checkpointWriter;
+	/**
+	 * The checkpoint which is restored in the pre loop, null if the simulation starts with the scenario.
+	 */
+	private SimulationCheckpoint restoredCheckpoint;
 
 
 	public Simulation(MainModel mainModel, IPerceptionModel perceptionModel,
@@ -216,6 +233,19 @@ public class Simulation implements ControllerProvider{
 			m.preLoop(simTimeInSec);
 		}
 
+		if (restoredCheckpoint != null) {
+			restoredCheckpoint.restore(topography, sourceControllers, targetChangerControllers, models, random);
+		}
+
+		if (checkpointWriter != null) {
+			checkpointWriter.preLoop(simTimeInSec);
+		}
+
+		int psychologyParallelism = scenarioStore.getAttributesPsychology().getPsychologyLayer().getParallelism();
+		if (scenarioStore.getAttributesPsychology().isUsePsychologyLayer() && psychologyParallelism != 1) {
+			psychologyPool = new ForkJoinPool(psychologyParallelism < 1 ? Runtime.getRuntime().availableProcessors() : psychologyParallelism);
+		}
+
 		for (PassiveCallback c : passiveCallbacks) {
 			c.preLoop(simTimeInSec);
 		}
@@ -232,6 +262,11 @@ public class Simulation implements ControllerProvider{
 			m.postLoop(simTimeInSec);
 		}
 
+		if (psychologyPool != null) {
+			psychologyPool.shutdown();
+			psychologyPool = null;
+		}
+
 		for (PassiveCallback c : passiveCallbacks) {
 			c.postLoop(simTimeInSec);
 		}
@@ -347,6 +382,10 @@ public class Simulation implements ControllerProvider{
 					simTimeInSec += Math.min(attributesSimulation.getSimTimeStepLength(), runTimeInSec + startTimeInSec - simTimeInSec);
 				}
 
+				if (checkpointWriter != null && isRunSimulation && checkpointWriter.isDue(simTimeInSec)) {
+					checkpointWriter.write(createCheckpoint(checkpointWriter.getScenario()), name);
+				}
+
 
 				//remove comment to fasten simulation for evacuation simulations
 				//if (topography.getElements(Pedestrian.class).size() == 0){
@@ -455,7 +494,9 @@ public class Simulation implements ControllerProvider{
 	private void updatePsychologyLayer(double simTimeInSec) {
 		Collection<Pedestrian> pedestrians = topography.getElements(Pedestrian.class);
 
-		if (scenarioStore.getAttributesPsychology().isUsePsychologyLayer()) {
+		if (scenarioStore.getAttributesPsychology().isUsePsychologyLayer() && psychologyPool != null) {
+			updatePsychologyLayerInParallel(simTimeInSec, pedestrians);
+		} else if (scenarioStore.getAttributesPsychology().isUsePsychologyLayer()) {
 
 
 			HashMap<Pedestrian, List<Stimulus>> pedSpecificStimuli = stimulusController.getStimuli(simTimeInSec, pedestrians);
@@ -469,6 +510,52 @@ public class Simulation implements ControllerProvider{
 		}
 	}
 
+	/**
+	 * Computes the stimuli of disjoint chunks of the pedestrians in parallel. The perception and cognition
+	 * models update the chunks in parallel if they are parallelizable, otherwise all pedestrians at once.
+	 */
+	private void updatePsychologyLayerInParallel(double simTimeInSec, Collection<Pedestrian> pedestrians) {
+		List<Pedestrian> pedestrianList = new ArrayList<>(pedestrians);
+		int chunkCount = Math.min(pedestrianList.size(), 4 * psychologyPool.getParallelism());
+		List<List<Pedestrian>> chunks = new ArrayList<>(chunkCount);
+		for (int i = 0; i < chunkCount; i++) {
+			chunks.add(pedestrianList.subList(i * pedestrianList.size() / chunkCount, (i + 1) * pedestrianList.size() / chunkCount));
+		}
+
+		stimulusController.updateActiveStimuli(simTimeInSec);
+		List<HashMap<Pedestrian, List<Stimulus>>> chunkStimuli = new ArrayList<>(Collections.nCopies(chunkCount, null));
+		forEachInPsychologyPool(chunkCount, i -> chunkStimuli.set(i, stimulusController.getActiveStimuli(chunks.get(i))));
+
+		if (perceptionModel.isParallelizable()) {
+			forEachInPsychologyPool(chunkCount, i -> perceptionModel.update(chunkStimuli.get(i)));
+		} else {
+			HashMap<Pedestrian, List<Stimulus>> pedSpecificStimuli = new HashMap<>();
+			chunkStimuli.forEach(pedSpecificStimuli::putAll);
+			perceptionModel.update(pedSpecificStimuli);
+		}
+
+		if (cognitionModel.isParallelizable()) {
+			forEachInPsychologyPool(chunkCount, i -> cognitionModel.update(chunks.get(i)));
+		} else {
+			cognitionModel.update(pedestrians);
+		}
+	}
+
+	private void forEachInPsychologyPool(final int n, final IntConsumer consumer) {
+		try {
+			psychologyPool.submit(() -> IntStream.range(0, n).parallel().forEach(consumer)).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		// restore interruption in order to stop simulation
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 
 
 	private void updateLocomotionLayer(double simTimeInSec) {
@@ -589,6 +676,34 @@ public class Simulation implements ControllerProvider{
 		this.startTimeInSec = startTimeInSec;
 	}
 
+	void setCheckpointWriter(SimulationCheckpointWriter checkpointWriter) {
+		this.checkpointWriter = checkpointWriter;
+	}
+
+	/**
+	 * Continues the simulation from the checkpoint, i.e. the simulation starts at the time and step of the
+	 * checkpoint and ends at the finish time of the scenario. The topography of this simulation has to contain
+	 * the pedestrians of the checkpoint (see {@link SimulationCheckpoint#createScenario()}).
+	 */
+	void restore(SimulationCheckpoint checkpoint) {
+		this.restoredCheckpoint = checkpoint;
+		this.startTimeInSec = checkpoint.getSimTimeInSec();
+		this.simTimeInSec = startTimeInSec;
+		this.runTimeInSec = Math.max(0, attributesSimulation.getFinishTime() - startTimeInSec);
+		this.step = checkpoint.getStep();
+	}
+
+	/**
+	 * Captures the state of the simulation before the next step.
+	 *
+	 * @param scenario the json tree of the simulated scenario
+	 */
+	SimulationCheckpoint createCheckpoint(JsonNode scenario) {
+		return SimulationCheckpoint.capture(scenario, topography, sourceControllers, targetChangerControllers,
+				models, simTimeInSec, step, attributesSimulation.getSimulationSeed(), random,
+				attributesSimulation.isWriteSimulationData() ? processorManager : null, simulationState);
+	}
+
 	public StimulusController getStimulusController(){
 		return stimulusController;
 	}
@@ -0,0 +1,286 @@
+package org.vadere.simulator.control.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.simulator.control.scenarioelements.SourceController;
+import org.vadere.simulator.control.scenarioelements.TargetChangerController;
+import org.vadere.simulator.models.CheckpointableModel;
+import org.vadere.simulator.models.MainModel;
+import org.vadere.simulator.models.Model;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
+import org.vadere.simulator.projects.io.JsonConverter;
+import org.vadere.state.attributes.AttributesSimulation;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.util.BinaryNodeCodec;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.logging.Logger;
+import org.vadere.util.random.RestorableRandom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A snapshot of a running {@link Simulation} between two simulation steps which can be stored in a compact
+ * binary file (see {@link BinaryNodeCodec}) and restored by {@link ScenarioRun#setRestoreCheckpoint(SimulationCheckpoint)}.
+ * The checkpoint contains the scenario with the current pedestrians as initial pedestrians, the spawn
+ * schedules of the sources, the entering and leaving times of the targets, the agents processed by target
+ * changers and the state of the models which implement {@link CheckpointableModel}.
+ *
+ * <p>
+ * The checkpoint contains the states of the random generator of the simulation and of the distributions of the
+ * sources (see {@link RestorableRandom}), i.e. a run restored from a checkpoint of an unchanged scenario continues
+ * with the same random numbers and ends with the same result as the original run, if the main model implements
+ * {@link CheckpointableModel}. Random generators which models create for themselves, e.g. of the cognition models
+ * or of the group sizes, are not part of the checkpoint. A checkpoint is immutable, therefore, it can be restored
+ * by multiple runs in parallel, e.g. to fork what-if branches of a simulation (see
+ * {@link org.vadere.simulator.entrypoints.BatchRunner}).
+ * </p>
+ */
+public class SimulationCheckpoint {
+
+	public static final String FILE_EXTENSION = ".checkpoint";
+
+	private static final Logger logger = Logger.getLogger(SimulationCheckpoint.class);
+
+	private static final int VERSION = 1;
+
+	private final ObjectNode root;
+
+	private SimulationCheckpoint(@NotNull final ObjectNode root) {
+		this.root = root;
+	}
+
+	/**
+	 * Captures the state of a simulation before the step at <tt>simTimeInSec</tt>.
+	 *
+	 * @param scenario  the json tree of the simulated scenario
+	 * @param step      the number of finished steps
+	 * @param random    the random generator of the simulation
+	 * @param processorManager  the processors of the simulation, null if the simulation writes no output
+	 * @param state     the state of the last finished step
+	 */
+	static SimulationCheckpoint capture(@NotNull final JsonNode scenario,
+	                                    @NotNull final Topography topography,
+	                                    @NotNull final Collection<SourceController> sourceControllers,
+	                                    @NotNull final Collection<TargetChangerController> targetChangerControllers,
+	                                    @NotNull final List<Model> models,
+	                                    final double simTimeInSec,
+	                                    final int step,
+	                                    final long simulationSeed,
+	                                    @NotNull final Random random,
+	                                    @Nullable final ProcessorManager processorManager,
+	                                    @Nullable final SimulationState state) {
+		ObjectNode root = StateJsonConverter.createObjectNode();
+		root.put("version", VERSION);
+		root.put("simTimeInSec", simTimeInSec);
+		root.put("step", step);
+		root.put("nextDynamicElementId", topography.peekNextDynamicElementId());
+		if (random instanceof RestorableRandom) {
+			root.put("random", ((RestorableRandom) random).getState());
+		}
+
+		ObjectNode scenarioNode = scenario.deepCopy();
+		ObjectNode vadereNode = (ObjectNode) scenarioNode.get(StateJsonConverter.SCENARIO_KEY);
+		ObjectNode attributesSimulationNode = (ObjectNode) vadereNode.get(AttributesSimulation.JSON_KEY);
+		// the seed only changes the random numbers drawn during the initialization, they are replaced by the restore
+		attributesSimulationNode.put("useFixedSeed", true);
+		attributesSimulationNode.put("fixedSeed", simulationSeed);
+		ArrayNode pedestrianNodes = ((ObjectNode) vadereNode.get("topography")).putArray("dynamicElements");
+		for (Pedestrian pedestrian : topography.getElements(Pedestrian.class)) {
+			Pedestrian copy = pedestrian.copyAsPedestrian();
+			// followers are references to other pedestrians
+			copy.setFollowers(new LinkedList<>());
+			pedestrianNodes.add(StateJsonConverter.convertValue(copy, JsonNode.class));
+		}
+		root.set("scenario", scenarioNode);
+
+		ArrayNode sourceNodes = root.putArray("sources");
+		sourceControllers.forEach(sourceController -> sourceNodes.add(sourceController.getCheckpointState()));
+
+		ArrayNode targetNodes = root.putArray("targets");
+		for (Target target : topography.getTargets()) {
+			ObjectNode targetNode = targetNodes.addObject();
+			targetNode.put("id", target.getId());
+			targetNode.set("enteringTimes", StateJsonConverter.convertValue(target.getEnteringTimes(), JsonNode.class));
+			targetNode.set("leavingTimes", StateJsonConverter.convertValue(target.getLeavingTimes(), JsonNode.class));
+		}
+
+		ArrayNode targetChangerNodes = root.putArray("targetChangers");
+		for (TargetChangerController targetChangerController : targetChangerControllers) {
+			ObjectNode targetChangerNode = targetChangerNodes.addObject();
+			targetChangerNode.put("id", targetChangerController.targetChanger.getId());
+			ArrayNode processedAgents = targetChangerNode.putArray("processedAgents");
+			targetChangerController.getProcessedAgents().keySet().stream().sorted().forEach(processedAgents::add);
+		}
+
+		ObjectNode modelNodes = root.putObject("models");
+		for (Model model : models) {
+			if (model instanceof CheckpointableModel) {
+				modelNodes.set(model.getClass().getName(), ((CheckpointableModel) model).getCheckpointState(simTimeInSec));
+			}
+		}
+
+		ArrayNode outputFileNodes = root.putArray("outputFiles");
+		if (processorManager != null && state != null) {
+			processorManager.getCheckpointStates(state).forEach(outputFileNodes::add);
+		}
+
+		return new SimulationCheckpoint(root);
+	}
+
+	/**
+	 * Restores the state of the controllers and models of a simulation which has been created from {@link #createScenario()}.
+	 * The pedestrians of the checkpoint are already part of the topography, i.e. this is called at the end of the pre loop.
+	 */
+	void restore(@NotNull final Topography topography,
+	             @NotNull final Collection<SourceController> sourceControllers,
+	             @NotNull final Collection<TargetChangerController> targetChangerControllers,
+	             @NotNull final List<Model> models,
+	             @NotNull final Random random) {
+		topography.setNextDynamicElementId(Math.max(topography.peekNextDynamicElementId(), root.get("nextDynamicElementId").asInt()));
+
+		Map<Integer, JsonNode> sourceStates = byId(root.get("sources"));
+		for (SourceController sourceController : sourceControllers) {
+			JsonNode state = sourceStates.get(sourceController.getSourceId());
+			if (state != null) {
+				sourceController.restoreCheckpointState(state);
+			}
+		}
+
+		Map<Integer, JsonNode> targetStates = byId(root.get("targets"));
+		for (Target target : topography.getTargets()) {
+			JsonNode state = targetStates.get(target.getId());
+			if (state != null) {
+				restoreTimes(target.getEnteringTimes(), state.get("enteringTimes"));
+				restoreTimes(target.getLeavingTimes(), state.get("leavingTimes"));
+			}
+		}
+
+		Map<Integer, JsonNode> targetChangerStates = byId(root.get("targetChangers"));
+		for (TargetChangerController targetChangerController : targetChangerControllers) {
+			JsonNode state = targetChangerStates.get(targetChangerController.targetChanger.getId());
+			if (state != null) {
+				for (JsonNode id : state.get("processedAgents")) {
+					Pedestrian pedestrian = topography.getPedestrianDynamicElements().getElement(id.asInt());
+					if (pedestrian != null) {
+						targetChangerController.getProcessedAgents().put(id.asInt(), pedestrian);
+					}
+				}
+			}
+		}
+
+		JsonNode modelNodes = root.get("models");
+		for (Model model : models) {
+			JsonNode state = modelNodes.get(model.getClass().getName());
+			if (model instanceof CheckpointableModel && state != null) {
+				((CheckpointableModel) model).restoreCheckpointState(state, getSimTimeInSec());
+			} else if (model instanceof MainModel) {
+				logger.warn(model.getClass().getSimpleName() + " has no state in the checkpoint, it continues with the " +
+						"state derived from the pedestrians, i.e. the result differs from the original run.");
+			}
+		}
+
+		// the pre loop and the controllers drew random numbers before, e.g. to create the pedestrians of the checkpoint
+		JsonNode randomState = root.get("random");
+		if (random instanceof RestorableRandom && randomState != null) {
+			try {
+				((RestorableRandom) random).setState(randomState.binaryValue());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Appends the output of a restored simulation to the streaming output files of the original run, these files
+	 * contain the rows up to the checkpoint. The other output files only contain the rows from the checkpoint on.
+	 */
+	public void appendOutput(@NotNull final ProcessorManager processorManager) {
+		processorManager.appendToOutputFiles(root.get("outputFiles"));
+	}
+
+	private static Map<Integer, JsonNode> byId(@NotNull final JsonNode nodes) {
+		Map<Integer, JsonNode> map = new HashMap<>();
+		nodes.forEach(node -> map.put(node.get("id").asInt(), node));
+		return map;
+	}
+
+	private static void restoreTimes(@NotNull final Map<Integer, Double> times, @NotNull final JsonNode node) {
+		times.clear();
+		Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			times.put(Integer.parseInt(field.getKey()), field.getValue().asDouble());
+		}
+	}
+
+	/**
+	 * Returns the simulation time of the first step of a restored simulation.
+	 */
+	public double getSimTimeInSec() {
+		return root.get("simTimeInSec").asDouble();
+	}
+
+	/**
+	 * Returns the number of steps which have been simulated before the checkpoint.
+	 */
+	public int getStep() {
+		return root.get("step").asInt();
+	}
+
+	/**
+	 * Returns a copy of the json tree of the scenario, e.g. to apply a {@link org.vadere.simulator.entrypoints.ScenarioVariation}.
+	 */
+	public JsonNode getScenario() {
+		return root.get("scenario").deepCopy();
+	}
+
+	/**
+	 * Creates a new scenario which can be run by a {@link ScenarioRun} restored from this checkpoint.
+	 */
+	public Scenario createScenario() throws IOException {
+		return JsonConverter.deserializeScenarioRunManagerFromNode(root.get("scenario"));
+	}
+
+	public byte[] toBytes() {
+		return BinaryNodeCodec.encode(root);
+	}
+
+	public static SimulationCheckpoint fromBytes(@NotNull final byte[] bytes) throws IOException {
+		JsonNode node = BinaryNodeCodec.decode(bytes);
+		if (!node.isObject() || node.path("version").asInt() != VERSION) {
+			throw new IOException("unsupported checkpoint version " + node.path("version"));
+		}
+		return new SimulationCheckpoint((ObjectNode) node);
+	}
+
+	/**
+	 * Writes the checkpoint to a temporary file which replaces the file afterwards, i.e. an interrupted
+	 * write does not leave a truncated checkpoint.
+	 */
+	public void write(@NotNull final Path file) throws IOException {
+		Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.write(tmpFile, toBytes());
+		Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	public static SimulationCheckpoint read(@NotNull final Path file) throws IOException {
+		return fromBytes(Files.readAllBytes(file));
+	}
+}
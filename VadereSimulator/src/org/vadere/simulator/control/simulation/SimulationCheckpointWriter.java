@@ -0,0 +1,70 @@
+package org.vadere.simulator.control.simulation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a {@link SimulationCheckpoint} of a simulation each <tt>intervalInSec</tt> seconds of simulation time
+ * into a directory. The file of a checkpoint is named by the scenario and the number of finished steps.
+ */
+public class SimulationCheckpointWriter {
+
+	private static Logger logger = Logger.getLogger(SimulationCheckpointWriter.class);
+
+	private final JsonNode scenario;
+	private final double intervalInSec;
+	private final Path directory;
+	private double timeOfNextCheckpoint;
+
+	/**
+	 * @param scenario       the json tree of the simulated scenario which is the base of each checkpoint
+	 * @param intervalInSec  the simulation time between two checkpoints
+	 * @param directory      the directory of the checkpoint files, it is created if it does not exist
+	 */
+	public SimulationCheckpointWriter(@NotNull final JsonNode scenario, final double intervalInSec, @NotNull final Path directory) {
+		if (intervalInSec <= 0) {
+			throw new IllegalArgumentException("the checkpoint interval has to be positive: " + intervalInSec);
+		}
+		this.scenario = scenario;
+		this.intervalInSec = intervalInSec;
+		this.directory = directory;
+	}
+
+	void preLoop(final double simTimeInSec) {
+		timeOfNextCheckpoint = simTimeInSec + intervalInSec;
+	}
+
+	/**
+	 * Returns true if a checkpoint has to be written before the step at <tt>simTimeInSec</tt>.
+	 */
+	boolean isDue(final double simTimeInSec) {
+		return simTimeInSec >= timeOfNextCheckpoint - 1e-7;
+	}
+
+	JsonNode getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * Writes the checkpoint. A failing write is logged and does not stop the simulation.
+	 */
+	void write(@NotNull final SimulationCheckpoint checkpoint, @NotNull final String scenarioName) {
+		while (isDue(checkpoint.getSimTimeInSec())) {
+			timeOfNextCheckpoint += intervalInSec;
+		}
+
+		Path file = directory.resolve(scenarioName + "_" + checkpoint.getStep() + SimulationCheckpoint.FILE_EXTENSION);
+		try {
+			Files.createDirectories(directory);
+			checkpoint.write(file);
+			logger.info(String.format("wrote checkpoint at t = %.3f s to %s", checkpoint.getSimTimeInSec(), file));
+		} catch (IOException e) {
+			logger.error("could not write checkpoint " + file, e);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package org.vadere.simulator.entrypoints;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.simulator.control.simulation.ScenarioRun;
+import org.vadere.simulator.control.simulation.SimulationCheckpoint;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.io.JsonConverter;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.simulator.utils.cache.SharedFloorFieldCache;
+import org.vadere.util.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the {@link ScenarioVariation}s of a base scenario, e.g. the jobs of a parameter sweep, in one JVM. The
+ * base scenario is parsed once, the variations run on a pool of worker threads and the floor fields of
+ * variations with the same topography and floor field attributes are computed only once while they fit into
+ * the memory bound of the {@link SharedFloorFieldCache}. The output of a variation is written to the directory
+ * <tt>outputDir/variationId</tt>.
+ *
+ * <p>
+ * The variations of a {@link SimulationCheckpoint} fork the simulation at the time of the checkpoint, i.e. each
+ * variation continues the checkpoint with its own parameters without simulating the time before the checkpoint.
+ * </p>
+ */
+public class BatchRunner {
+
+	private static Logger logger = Logger.getLogger(BatchRunner.class);
+
+	private final JsonNode baseScenario;
+	private final Path scenarioFilePath;
+	private final Path outputDir;
+	private final int threads;
+	private final SharedFloorFieldCache sharedCache;
+	private final SimulationCheckpoint checkpoint;
+
+	/**
+	 * @param baseScenario      the scenario which is varied
+	 * @param scenarioFilePath  the file of the base scenario, the relative cache directory of floor fields is resolved against its directory
+	 * @param outputDir         the directory which contains the output directories of the variations
+	 * @param threads           the number of variations which run in parallel (<tt>0</tt> uses all processors)
+	 */
+	public BatchRunner(@NotNull final Scenario baseScenario, @NotNull final Path scenarioFilePath, @NotNull final Path outputDir, final int threads) {
+		this(JsonConverter.serializeScenarioRunManagerToNode(baseScenario, false), null, scenarioFilePath, outputDir, threads);
+	}
+
+	/**
+	 * @param checkpoint        the checkpoint which is continued by each variation, the variations change its scenario
+	 * @param scenarioFilePath  the file of the base scenario, the relative cache directory of floor fields is resolved against its directory
+	 * @param outputDir         the directory which contains the output directories of the variations
+	 * @param threads           the number of variations which run in parallel (<tt>0</tt> uses all processors)
+	 */
+	public BatchRunner(@NotNull final SimulationCheckpoint checkpoint, @NotNull final Path scenarioFilePath, @NotNull final Path outputDir, final int threads) {
+		this(checkpoint.getScenario(), checkpoint, scenarioFilePath, outputDir, threads);
+	}
+
+	private BatchRunner(@NotNull final JsonNode baseScenario, @Nullable final SimulationCheckpoint checkpoint, @NotNull final Path scenarioFilePath, @NotNull final Path outputDir, final int threads) {
+		this.baseScenario = baseScenario;
+		this.checkpoint = checkpoint;
+		this.scenarioFilePath = scenarioFilePath;
+		this.outputDir = outputDir;
+		this.threads = threads < 1 ? Runtime.getRuntime().availableProcessors() : threads;
+		this.sharedCache = new SharedFloorFieldCache();
+	}
+
+	/**
+	 * Runs the variations and waits until all of them are finished. The variations are submitted while
+	 * they are read, i.e. the iterator may read them lazily, e.g. from the standard input. A failing
+	 * variation does not stop the other ones. A variation whose id is already used by a previous variation
+	 * is not run, its result is failed.
+	 *
+	 * @return the results of the variations in the order of the variations
+	 */
+	public List<Result> run(@NotNull final Iterator<ScenarioVariation> variations) throws InterruptedException {
+		return run(variations, variation -> variation);
+	}
+
+	/**
+	 * Runs the variations which are read from json lines (see {@link ScenarioVariation#fromJson}), like
+	 * {@link #run(Iterator)}. A line which is not a valid variation is not run, its result is failed and its id
+	 * is its position in the form <tt>#number</tt> (starting at 1).
+	 *
+	 * @return the results of the variations in the order of the lines
+	 */
+	public List<Result> runJson(@NotNull final Iterator<String> lines) throws InterruptedException {
+		return run(lines, ScenarioVariation::fromJson);
+	}
+
+	private <T> List<Result> run(@NotNull final Iterator<T> input, @NotNull final VariationReader<T> reader) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<String> order = new ArrayList<>();
+		List<Future<Result>> futures = new ArrayList<>();
+		Set<String> ids = new HashSet<>();
+		try {
+			while (input.hasNext()) {
+				String number = "#" + (order.size() + 1);
+				ScenarioVariation variation;
+				try {
+					variation = reader.read(input.next());
+				} catch (IOException | IllegalArgumentException e) {
+					logger.error(String.format("Invalid variation %s.", number), e);
+					order.add(number);
+					futures.add(CompletableFuture.completedFuture(new Result(number, null, 0, e)));
+					continue;
+				}
+
+				String id = variation.getId();
+				order.add(id);
+				if (!ids.add(id)) {
+					IllegalArgumentException e = new IllegalArgumentException("the ids of the variations have to be unique: " + id);
+					logger.error(String.format("Invalid variation %s.", id), e);
+					futures.add(CompletableFuture.completedFuture(new Result(id, null, 0, e)));
+				} else {
+					futures.add(executor.submit(() -> run(variation)));
+				}
+			}
+
+			List<Result> results = new ArrayList<>(futures.size());
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					results.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					// run(variation) catches all exceptions, i.e. this is unexpected but must not drop the other results
+					results.add(new Result(order.get(i), outputDir.resolve(order.get(i)), 0, e.getCause()));
+				}
+			}
+			return results;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Result run(final ScenarioVariation variation) {
+		long startTime = System.currentTimeMillis();
+		Path outputPath = outputDir.resolve(variation.getId());
+		ScenarioCache cache = null;
+		logger.info(String.format("run variation %s", variation.getId()));
+
+		try {
+			Scenario scenario = variation.apply(baseScenario);
+			cache = ScenarioCache.load(scenario, scenarioFilePath.toAbsolutePath().getParent(), sharedCache);
+			ScenarioRun scenarioRun = new ScenarioRun(scenario, outputPath.toString(), true, null, scenarioFilePath, cache);
+			scenarioRun.setRestoreCheckpoint(checkpoint);
+			scenarioRun.run();
+			return new Result(variation.getId(), outputPath, System.currentTimeMillis() - startTime, null);
+		} catch (Throwable e) {
+			logger.error(String.format("Error while executing variation %s.", variation.getId()), e);
+			return new Result(variation.getId(), outputPath, System.currentTimeMillis() - startTime, e);
+		} finally {
+			if (cache != null) {
+				cache.releaseSharedCache();
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface VariationReader<T> {
+		ScenarioVariation read(T input) throws IOException;
+	}
+
+	public SharedFloorFieldCache getSharedCache() {
+		return sharedCache;
+	}
+
+	/**
+	 * The result of one variation.
+	 */
+	public static class Result {
+		private final String id;
+		private final Path outputPath;
+		private final long wallTime;
+		private final Throwable error;
+
+		private Result(final String id, @Nullable final Path outputPath, final long wallTime, @Nullable final Throwable error) {
+			this.id = id;
+			this.outputPath = outputPath;
+			this.wallTime = wallTime;
+			this.error = error;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Returns the output directory of the variation, <tt>null</tt> if the variation was invalid and did not run.
+		 */
+		@Nullable
+		public Path getOutputPath() {
+			return outputPath;
+		}
+
+		/**
+		 * Returns the wall time of the variation in milliseconds.
+		 */
+		public long getWallTime() {
+			return wallTime;
+		}
+
+		public boolean isFailed() {
+			return error != null;
+		}
+
+		@Nullable
+		public Throwable getError() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %s, wall time: %.3f s", id, isFailed() ? "failed" : "finished", wallTime / 1000.0);
+		}
+	}
+}
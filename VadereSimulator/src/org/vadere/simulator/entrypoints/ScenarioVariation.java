@@ -0,0 +1,246 @@
+package org.vadere.simulator.entrypoints;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.io.JsonConverter;
+import org.vadere.state.util.StateJsonConverter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parameter variation of a base scenario, i.e. a job of a parameter sweep (see {@link BatchRunner}). The changes
+ * are applied to the json tree of the base scenario and use the keys of the SUQ controller:
+ *
+ * <ul>
+ *     <li><tt>speedDistributionMean</tt>: the unique key anywhere in the scenario,</li>
+ *     <li><tt>attributesSimulation.finishTime</tt>: the chained keys, each key is looked up breadth first in the value of the previous key,</li>
+ *     <li><tt>sources.[id==1].spawnNumber</tt>: the key of the element of a list which has the id 1.</li>
+ * </ul>
+ *
+ * A variation is read from one line of json, e.g.
+ * <tt>{"id": "run_1", "changes": {"speedDistributionMean": 1.2, "attributesSimulation.fixedSeed": 42}}</tt>.
+ */
+public class ScenarioVariation {
+
+	private static final String KEY_CHAINING = "\\.";
+
+	private final String id;
+	private final Map<String, JsonNode> changes;
+
+	public ScenarioVariation(@NotNull final String id, @NotNull final Map<String, JsonNode> changes) {
+		if (id.isEmpty() || id.contains("/") || id.contains("\\") || id.equals(".") || id.equals("..")) {
+			throw new IllegalArgumentException("the id of a variation has to be a valid directory name: " + id);
+		}
+		this.id = id;
+		this.changes = Collections.unmodifiableMap(new LinkedHashMap<>(changes));
+	}
+
+	/**
+	 * Reads a variation from json with the fields <tt>id</tt> and <tt>changes</tt>.
+	 */
+	public static ScenarioVariation fromJson(@NotNull final String json) throws IOException {
+		JsonNode node = StateJsonConverter.getMapper().readTree(json);
+		if (node == null || !node.has("id")) {
+			throw new IOException("a variation requires an id: " + json);
+		}
+
+		Map<String, JsonNode> changes = new LinkedHashMap<>();
+		if (node.has("changes")) {
+			Iterator<Map.Entry<String, JsonNode>> it = node.get("changes").fields();
+			while (it.hasNext()) {
+				Map.Entry<String, JsonNode> entry = it.next();
+				changes.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return new ScenarioVariation(node.get("id").asText(), changes);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public Map<String, JsonNode> getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Creates the scenario of this variation. The json tree of the base scenario is not changed, the name of
+	 * the created scenario is the name of the base scenario followed by the id of the variation.
+	 *
+	 * @param baseScenario the json tree of the base scenario (see {@link JsonConverter#serializeScenarioRunManagerToNode})
+	 */
+	public Scenario apply(@NotNull final JsonNode baseScenario) throws IOException {
+		ObjectNode scenario = baseScenario.deepCopy();
+		for (Map.Entry<String, JsonNode> change : changes.entrySet()) {
+			setValue(scenario, change.getKey(), change.getValue());
+		}
+		scenario.put("name", baseScenario.get("name").asText() + "_" + id);
+		return JsonConverter.deserializeScenarioRunManagerFromNode(scenario);
+	}
+
+	/**
+	 * Replaces the value of the key (see {@link ScenarioVariation}) by the value. Only values and lists
+	 * can be replaced, i.e. the key has to point to an existing value or list.
+	 */
+	public static void setValue(@NotNull final JsonNode root, @NotNull final String key, @NotNull final JsonNode value) {
+		Location location = locate(root, key);
+		if (location.getValue().isObject()) {
+			throw new IllegalArgumentException("the key " + key + " does not point to a value but to an object.");
+		}
+		location.parent.set(location.fieldName, value);
+	}
+
+	public static JsonNode getValue(@NotNull final JsonNode root, @NotNull final String key) {
+		return locate(root, key).getValue();
+	}
+
+	private static Location locate(final JsonNode root, final String key) {
+		int open = key.indexOf('[');
+		if (open < 0) {
+			return locateChainedKeys(root, key);
+		}
+
+		int close = key.indexOf(']', open);
+		if (close < 0 || open == 0 || close == key.length() - 1) {
+			throw new IllegalArgumentException("invalid selection in key " + key);
+		}
+
+		JsonNode list = locateChainedKeys(root, stripSeparator(key.substring(0, open))).getValue();
+		if (!list.isArray()) {
+			throw new IllegalArgumentException("the selection of key " + key + " requires a list.");
+		}
+		JsonNode element = select((ArrayNode) list, key.substring(open + 1, close));
+		return locate(element, stripSeparator(key.substring(close + 1)));
+	}
+
+	private static String stripSeparator(final String key) {
+		String result = key.startsWith(".") ? key.substring(1) : key;
+		return result.endsWith(".") ? result.substring(0, result.length() - 1) : result;
+	}
+
+	private static JsonNode select(final ArrayNode list, final String selection) {
+		String[] condition = selection.split("==");
+		if (condition.length != 2) {
+			throw new IllegalArgumentException("only selections of the form [key==value] are supported: " + selection);
+		}
+
+		JsonNode selected = null;
+		for (JsonNode element : list) {
+			Location location = findUnique(element, condition[0].trim());
+			if (location != null && location.getValue().asText().equals(condition[1].trim())) {
+				if (selected != null) {
+					throw new IllegalArgumentException("multiple elements match the selection " + selection);
+				}
+				selected = element;
+			}
+		}
+
+		if (selected == null) {
+			throw new IllegalArgumentException("no element matches the selection " + selection);
+		}
+		return selected;
+	}
+
+	private static Location locateChainedKeys(final JsonNode root, final String key) {
+		String[] keys = key.split(KEY_CHAINING);
+		JsonNode node = root;
+		for (int i = 0; i < keys.length - 1; i++) {
+			Location location = findBreadthFirst(node, keys[i]);
+			if (location == null) {
+				throw new IllegalArgumentException("the key " + keys[i] + " of " + key + " does not exist.");
+			}
+			node = location.getValue();
+		}
+
+		Location location = findUnique(node, keys[keys.length - 1]);
+		if (location == null) {
+			throw new IllegalArgumentException("the key " + key + " does not exist.");
+		}
+		return location;
+	}
+
+	/**
+	 * Returns the location of the key which is closest to the node. Lists are not searched.
+	 */
+	private static Location findBreadthFirst(final JsonNode node, final String key) {
+		List<ObjectNode> level = new ArrayList<>();
+		if (node.isObject()) {
+			level.add((ObjectNode) node);
+		}
+
+		while (!level.isEmpty()) {
+			Location found = null;
+			List<ObjectNode> nextLevel = new ArrayList<>();
+			for (ObjectNode parent : level) {
+				if (parent.has(key)) {
+					if (found != null) {
+						throw new IllegalArgumentException("the key " + key + " is not unique.");
+					}
+					found = new Location(parent, key);
+				}
+				parent.elements().forEachRemaining(child -> {
+					if (child.isObject()) {
+						nextLevel.add((ObjectNode) child);
+					}
+				});
+			}
+
+			if (found != null) {
+				return found;
+			}
+			level = nextLevel;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the location of the key which has to be unique in the node. Lists are not searched.
+	 */
+	private static Location findUnique(final JsonNode node, final String key) {
+		Location found = null;
+		LinkedList<ObjectNode> stack = new LinkedList<>();
+		if (node.isObject()) {
+			stack.push((ObjectNode) node);
+		}
+
+		while (!stack.isEmpty()) {
+			ObjectNode parent = stack.pop();
+			if (parent.has(key)) {
+				if (found != null) {
+					throw new IllegalArgumentException("the key " + key + " is not unique.");
+				}
+				found = new Location(parent, key);
+			}
+			parent.elements().forEachRemaining(child -> {
+				if (child.isObject()) {
+					stack.push((ObjectNode) child);
+				}
+			});
+		}
+		return found;
+	}
+
+	private static class Location {
+		private final ObjectNode parent;
+		private final String fieldName;
+
+		private Location(final ObjectNode parent, final String fieldName) {
+			this.parent = parent;
+			this.fieldName = fieldName;
+		}
+
+		private JsonNode getValue() {
+			return parent.get(fieldName);
+		}
+	}
+}
@@ -5,6 +5,7 @@ public enum SubCommand {
 	PROJECT_RUN("project-run"),
 	SCENARO_RUN("scenario-run"),
 	SUQ("suq"),
+	SUQ_BATCH("suq-batch"),
 	MIGRATE("migrate"),
 	UTILS("utils");
 
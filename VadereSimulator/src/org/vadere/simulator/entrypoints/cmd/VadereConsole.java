@@ -8,6 +8,7 @@ import org.vadere.util.version.Version;
 import org.vadere.simulator.entrypoints.cmd.commands.MigrationSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.ProjectRunSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.ScenarioRunSubCommand;
+import org.vadere.simulator.entrypoints.cmd.commands.SuqBatchSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.SuqSubCommand;
 import org.vadere.simulator.entrypoints.cmd.commands.UtilsSubCommand;
 import org.vadere.simulator.utils.scenariochecker.ScenarioChecker;
@@ -82,6 +83,18 @@ public class VadereConsole {
 				.choices(ScenarioChecker.CHECKER_ON, ScenarioChecker.CHECKER_OFF)
 				.setDefault(ScenarioChecker.CHECKER_OFF)
 				.help("Turn Scenario Checker on or off.");
+		projectRunOpt.addArgument("--threads")
+				.required(false)
+				.type(Integer.class)
+				.dest("threads")
+				.setDefault(1)
+				.help("Number of scenarios which run in parallel (0 uses all processors). Floor fields are shared between the runs.");
+		projectRunOpt.addArgument("--continue-on-error")
+				.required(false)
+				.action(Arguments.storeTrue())
+				.dest("continue-on-error")
+				.setDefault(false)
+				.help("Run all scenarios even if a scenario fails. By default the scenarios which did not start are skipped after the first failure.");
 
 		// Run Scenario
 		Subparser scenarioRun = subparsers
@@ -116,6 +129,28 @@ public class VadereConsole {
 				.choices(ScenarioChecker.CHECKER_OFF, ScenarioChecker.CHECKER_OFF)
 				.setDefault(ScenarioChecker.CHECKER_ON)
 				.help("Turn Scenario Checker on or off.");
+		scenarioRunOpt.addArgument("--checkpoint-interval")
+				.required(false)
+				.type(Double.class)
+				.dest("checkpoint-interval")
+				.setDefault(0.0)
+				.help("Write a checkpoint of the simulation each given seconds of simulation time (0 writes no checkpoints).");
+		scenarioRunOpt.addArgument("--checkpoint-dir")
+				.required(false)
+				.type(String.class)
+				.dest("checkpoint-dir")
+				.help("Directory of the checkpoints. The output directory of the run is used by default.");
+		scenarioRunOpt.addArgument("--restore-from")
+				.required(false)
+				.type(String.class)
+				.dest("restore-from")
+				.help("Continue the simulation from a checkpoint file. The scenario is taken from the checkpoint, the scenario file is used to locate meshes and caches.");
+		scenarioRunOpt.addArgument("--append-output")
+				.required(false)
+				.action(Arguments.storeTrue())
+				.dest("append-output")
+				.setDefault(false)
+				.help("Append the output of a run continued by --restore-from to the streaming output files of the run which wrote the checkpoint.");
 
 		// Run SUQ
 		Subparser suqRun = subparsers
@@ -140,6 +175,48 @@ public class VadereConsole {
 				.dest("scenario-file")
 				.help("Scenario files to run.");
 
+		// Run SUQ batch
+		Subparser suqBatchRun = subparsers
+				.addParser(SubCommand.SUQ_BATCH.getCmdName(), false)
+				.help("Run parameter variations of a scenario file in one process.")
+				.setDefault("func", new SuqBatchSubCommand());
+		var suqBatchRunReq = suqBatchRun.addArgumentGroup("required arguments");
+		var suqBatchRunOpt = suqBatchRun.addArgumentGroup("optional arguments");
+		addManualHelp(suqBatchRunOpt);
+
+		suqBatchRunOpt.addArgument("--output-dir", "-o")
+				.required(false)
+				.setDefault("output")
+				.dest("output-dir") // set name in namespace
+				.type(String.class)
+				.help("Supply different output directory path to use. Each variation writes to the subdirectory named by its id.");
+
+		suqBatchRunOpt.addArgument("--variation-file", "-v")
+				.required(false)
+				.setDefault("-")
+				.dest("variation-file")
+				.type(String.class)
+				.help("File with one variation per line, e.g. {\"id\": \"run_1\", \"changes\": {\"speedDistributionMean\": 1.2}}. Use - to read from the standard input.");
+
+		suqBatchRunOpt.addArgument("--threads")
+				.required(false)
+				.type(Integer.class)
+				.dest("threads")
+				.setDefault(1)
+				.help("Number of variations which run in parallel (0 uses all processors).");
+
+		suqBatchRunOpt.addArgument("--restore-from")
+				.required(false)
+				.type(String.class)
+				.dest("restore-from")
+				.help("Fork the variations from a checkpoint file, i.e. the variations change the scenario of the checkpoint and continue the simulation from it.");
+
+		suqBatchRunReq.addArgument("--scenario-file", "-f")
+				.required(true)
+				.type(String.class)
+				.dest("scenario-file")
+				.help("Scenario file which is varied.");
+
 
 		// Run Migration Assistant
 		Subparser migrationAssistant = subparsers
@@ -8,20 +8,33 @@ import org.vadere.simulator.entrypoints.cmd.SubCommandRunner;
 import org.vadere.simulator.projects.Scenario;
 import org.vadere.simulator.control.simulation.ScenarioRun;
 import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.simulator.utils.cache.SharedFloorFieldCache;
 import org.vadere.util.io.IOUtils;
 import org.vadere.util.logging.Logger;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class ProjectRunSubCommand implements SubCommandRunner {
 	private final static Logger logger = Logger.getLogger(ProjectRunSubCommand.class);
-
+	private final static long MEMORY_SAMPLING_INTERVAL_MS = 100;
 
 	@Override
 	public void run(Namespace ns, ArgumentParser parser) throws Exception {
@@ -61,25 +74,157 @@ public class ProjectRunSubCommand implements SubCommandRunner {
 			throw new IOException("no scenarios found in project");
 		}
 
-		int i = 0;
+		int threads = ns.getInt("threads") == null ? 1 : ns.getInt("threads");
+		if (threads < 1) {
+			threads = Runtime.getRuntime().availableProcessors();
+		}
+		// by default the first failing scenario stops the project run, i.e. the scenarios which did not start are skipped
+		boolean continueOnError = ns.getBoolean("continue-on-error") != null && ns.getBoolean("continue-on-error");
+		AtomicBoolean stop = new AtomicBoolean(false);
+
+		List<Scenario> scenarios = new ArrayList<>();
 		for (String scenarioFileName : scenarioFileNames) {
-			i++;
-			logger.info(String.format("%d/%d Running VADERE on %s...",i, scenarioFileNames.size(), scenarioFileName));
+			scenarios.add(ScenarioFactory.createVadereWithProjectDirectory(projectDirectory.toFile().toString(), scenarioFileName));
+		}
 
-			try {
-				Scenario scenario = ScenarioFactory.createVadereWithProjectDirectory(
-						projectDirectory.toFile().toString(),scenarioFileName);
-				ScenarioCache cache = ScenarioCache.load(scenario, scenarioFilePath.toAbsolutePath().getParent());
-				new ScenarioRun(scenario, projectDirectory.resolve(IOUtils.OUTPUT_DIR).toString(), null, projectDirectory.resolve(IOUtils.OUTPUT_DIR), cache).run();
-
-			} catch (Throwable e) {
-				logger.error(String.format("Error while executing scenario %d/%d %s. Resume with next scenario.", i, scenarioFileNames.size(), scenarioFileName));
-				System.exit(-1);
+		// the name of a scenario identifies its simulation context and its output directory
+		if (threads > 1) {
+			Set<String> names = new HashSet<>();
+			for (Scenario scenario : scenarios) {
+				if (!names.add(scenario.getName())) {
+					throw new IOException("scenario names have to be unique to run them in parallel: " + scenario.getName());
+				}
 			}
 		}
 
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+		List<RunStatistics> statistics = new ArrayList<>();
+		for (int i = 0; i < scenarios.size(); i++) {
+			statistics.add(new RunStatistics(scenarioFileNames.get(i)));
+		}
 
+		ScheduledExecutorService memorySampler = startMemorySampler(statistics);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		logger.info(String.format("run %d scenarios with %d thread(s) ...", scenarios.size(), threads));
+		try {
+			List<Future<?>> runs = new ArrayList<>();
+			for (int i = 0; i < scenarios.size(); i++) {
+				final int index = i;
+				runs.add(executor.submit(() -> {
+					if (stop.get()) {
+						statistics.get(index).skipped = true;
+						return;
+					}
+					runScenario(index, scenarios, statistics.get(index), projectDirectory, scenarioFilePath, sharedCache);
+					if (statistics.get(index).failed && !continueOnError) {
+						stop.set(true);
+					}
+				}));
+			}
 
+			for (Future<?> run : runs) {
+				run.get();
+			}
+		} finally {
+			executor.shutdown();
+			memorySampler.shutdownNow();
+		}
 
+		logger.info(String.format("shared floor field cache: %d floor field(s) computed or loaded, %d reused, %d evicted",
+				sharedCache.getMisses(), sharedCache.getHits(), sharedCache.getEvictions()));
+		boolean failed = false;
+		for (RunStatistics runStatistics : statistics) {
+			logger.info(runStatistics.toString());
+			failed |= runStatistics.failed;
+		}
+
+		if (failed) {
+			logger.error(stop.get() ? "a scenario failed, the scenarios which did not start were skipped (see --continue-on-error)."
+					: "at least one scenario failed.");
+			System.exit(-1);
+		}
+	}
+
+	private void runScenario(final int index, final List<Scenario> scenarios, final RunStatistics runStatistics,
+	                         final Path projectDirectory, final Path scenarioFilePath, final SharedFloorFieldCache sharedCache) {
+		Scenario scenario = scenarios.get(index);
+		logger.info(String.format("%d/%d Running VADERE on %s...", index + 1, scenarios.size(), runStatistics.scenarioFileName));
+
+		ScenarioCache cache = null;
+		runStatistics.start();
+		try {
+			cache = ScenarioCache.load(scenario, scenarioFilePath.toAbsolutePath().getParent(), sharedCache);
+			new ScenarioRun(scenario, projectDirectory.resolve(IOUtils.OUTPUT_DIR).toString(), null, projectDirectory.resolve(IOUtils.OUTPUT_DIR), cache).run();
+		} catch (Throwable e) {
+			runStatistics.failed = true;
+			logger.error(String.format("Error while executing scenario %d/%d %s.", index + 1, scenarios.size(), runStatistics.scenarioFileName), e);
+		} finally {
+			runStatistics.stop();
+			if (cache != null) {
+				cache.releaseSharedCache();
+			}
+		}
+	}
+
+	/**
+	 * Samples the used heap memory and updates the peak of all running scenarios. If scenarios run in
+	 * parallel, the peak is the peak of the whole JVM during the run.
+	 */
+	private ScheduledExecutorService startMemorySampler(final List<RunStatistics> statistics) {
+		MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "memory-sampler");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sampler.scheduleAtFixedRate(() -> {
+			long used = memoryMXBean.getHeapMemoryUsage().getUsed();
+			for (RunStatistics runStatistics : statistics) {
+				runStatistics.sample(used);
+			}
+		}, 0, MEMORY_SAMPLING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+		return sampler;
+	}
+
+	private static class RunStatistics {
+		private final String scenarioFileName;
+		private final AtomicLong peakHeapMemory;
+		private volatile boolean running;
+		private volatile boolean failed;
+		private volatile boolean skipped;
+		private long startTime;
+		private long wallTime;
+
+		private RunStatistics(final String scenarioFileName) {
+			this.scenarioFileName = scenarioFileName;
+			this.peakHeapMemory = new AtomicLong(0);
+		}
+
+		private void start() {
+			startTime = System.currentTimeMillis();
+			running = true;
+			sample(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+		}
+
+		private void stop() {
+			sample(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+			running = false;
+			wallTime = System.currentTimeMillis() - startTime;
+		}
+
+		private void sample(final long usedHeapMemory) {
+			if (running) {
+				peakHeapMemory.accumulateAndGet(usedHeapMemory, Math::max);
+			}
+		}
+
+		@Override
+		public String toString() {
+			if (skipped) {
+				return String.format("%s: skipped", scenarioFileName);
+			}
+			return String.format("%s: %s, wall time: %.3f s, peak heap memory: %d MB", scenarioFileName,
+					failed ? "failed" : "finished", wallTime / 1000.0, peakHeapMemory.get() / (1024 * 1024));
+		}
 	}
 }
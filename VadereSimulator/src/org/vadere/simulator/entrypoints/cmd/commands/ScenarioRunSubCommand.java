@@ -7,6 +7,7 @@ import org.vadere.simulator.entrypoints.ScenarioFactory;
 import org.vadere.simulator.entrypoints.cmd.SubCommandRunner;
 import org.vadere.simulator.projects.Scenario;
 import org.vadere.simulator.control.simulation.ScenarioRun;
+import org.vadere.simulator.control.simulation.SimulationCheckpoint;
 import org.vadere.simulator.utils.scenariochecker.ConsoleScenarioCheckerMessageFormatter;
 import org.vadere.simulator.utils.scenariochecker.ScenarioChecker;
 import org.vadere.simulator.utils.scenariochecker.ScenarioCheckerMessage;
@@ -63,10 +64,17 @@ public class ScenarioRunSubCommand implements SubCommandRunner {
 		}
 
 		try {
-			Scenario scenario = ScenarioFactory.createScenarioWithScenarioFilePath(scenarioFile);
+			String restoreFrom = ns.getString("restore-from");
+			SimulationCheckpoint checkpoint = restoreFrom != null ? SimulationCheckpoint.read(Paths.get(restoreFrom)) : null;
+			Scenario scenario = checkpoint != null ? checkpoint.createScenario() : ScenarioFactory.createScenarioWithScenarioFilePath(scenarioFile);
 			if (checkScenario(scenario, scenarioCheckerSwitch)){
 				ScenarioCache cache = ScenarioCache.load(scenario, scenarioFile.toAbsolutePath().getParent());
-				new ScenarioRun(scenario, outputDir.toFile().toString() , overrideTimeStepSetting, null, scenarioFile, cache).run();
+				ScenarioRun scenarioRun = new ScenarioRun(scenario, outputDir.toFile().toString() , overrideTimeStepSetting, null, scenarioFile, cache);
+				String checkpointDir = ns.getString("checkpoint-dir");
+				scenarioRun.setCheckpointing(ns.getDouble("checkpoint-interval"), checkpointDir != null ? Paths.get(checkpointDir) : null);
+				scenarioRun.setRestoreCheckpoint(checkpoint);
+				scenarioRun.setAppendOutput(ns.getBoolean("append-output"));
+				scenarioRun.run();
 			} else {
 				System.exit(-1);
 			}
@@ -0,0 +1,86 @@
+package org.vadere.simulator.entrypoints.cmd.commands;
+
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import org.vadere.simulator.control.simulation.SimulationCheckpoint;
+import org.vadere.simulator.entrypoints.BatchRunner;
+import org.vadere.simulator.entrypoints.ScenarioFactory;
+import org.vadere.simulator.entrypoints.ScenarioVariation;
+import org.vadere.simulator.entrypoints.cmd.SubCommandRunner;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.util.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Runs the parameter variations of one scenario in one JVM (see {@link BatchRunner}). The variations are read
+ * line by line (see {@link ScenarioVariation}) from a file or the standard input. If a checkpoint is given, the
+ * variations change the scenario of the checkpoint and continue the simulation from it.
+ */
+public class SuqBatchSubCommand implements SubCommandRunner {
+	private final static Logger logger = Logger.getLogger(SuqBatchSubCommand.class);
+
+	@Override
+	public void run(Namespace ns, ArgumentParser parser) throws Exception {
+		Path outputDir = Paths.get(ns.getString("output-dir"));
+		if (!outputDir.toFile().exists()){
+			if ( ! outputDir.toFile().mkdirs() ) {
+				logger.error("Could not create all necessary directories: " + outputDir.toFile().toString());
+				System.exit(-1);
+			} else {
+				logger.info("Created output directory: " + outputDir.toAbsolutePath().toFile().toString());
+			}
+		} else {
+			logger.info("Use output directory: " + outputDir.toAbsolutePath().toFile().toString());
+		}
+
+		Path scenarioFile = Paths.get(ns.getString("scenario-file"));
+		if (!scenarioFile.toFile().exists() || !scenarioFile.toFile().isFile()){
+			logger.error("scenario-file does not exist, is not a regular file or you do not have read permissions: "
+					+ scenarioFile.toFile().toString());
+			System.exit(-1);
+		}
+
+		String variationFile = ns.getString("variation-file");
+		String restoreFrom = ns.getString("restore-from");
+		BatchRunner batchRunner;
+		if (restoreFrom != null) {
+			SimulationCheckpoint checkpoint = SimulationCheckpoint.read(Paths.get(restoreFrom));
+			batchRunner = new BatchRunner(checkpoint, scenarioFile, outputDir, ns.getInt("threads"));
+		} else {
+			Scenario scenario = ScenarioFactory.createScenarioWithScenarioFilePath(scenarioFile);
+			batchRunner = new BatchRunner(scenario, scenarioFile, outputDir, ns.getInt("threads"));
+		}
+
+		List<BatchRunner.Result> results;
+		try (BufferedReader reader = variationFile.equals("-")
+				? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+				: Files.newBufferedReader(Paths.get(variationFile), StandardCharsets.UTF_8)) {
+			Iterator<String> variations = reader.lines()
+					.filter(line -> !line.isBlank())
+					.iterator();
+			results = batchRunner.runJson(variations);
+		}
+
+		logger.info(String.format("shared floor field cache: %d floor field(s) computed or loaded, %d reused",
+				batchRunner.getSharedCache().getMisses(), batchRunner.getSharedCache().getHits()));
+		boolean failed = false;
+		for (BatchRunner.Result result : results) {
+			logger.info(result.toString());
+			failed |= result.isFailed();
+		}
+
+		if (failed) {
+			logger.error("at least one variation failed.");
+			System.exit(-1);
+		}
+	}
+}
@@ -38,6 +38,7 @@ public class UtilsSubCommand implements SubCommandRunner {
 		methods.put("getHash", Pair.of("[-i: file, -o: ignored]", this::getHash));
 		methods.put("binCache", Pair.of("[-i: file, -o: directory]",this::calculateBinCache));
 		methods.put("txtCache", Pair.of("[-i: file, -o: directory]",this::calculateTextCache));
+		methods.put("tiledCache", Pair.of("[-i: file, -o: directory]",this::calculateTiledCache));
 	}
 
 	public String[] methodsString(){
@@ -96,6 +97,10 @@ public class UtilsSubCommand implements SubCommandRunner {
 		calculateCache(ns, parser, CacheType.TXT_CACHE);
 	}
 
+	private void calculateTiledCache(Namespace ns, ArgumentParser parser) throws Exception{
+		calculateCache(ns, parser, CacheType.TILED_CACHE);
+	}
+
 
 	/**
 	 * 	Recalculated cache and save to given location. This method does not lookup any preexisting
@@ -0,0 +1,25 @@
+package org.vadere.simulator.models;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A model with a state which is not contained in the topography, e.g. the step lengths and event times of
+ * the pedestrians of the {@link org.vadere.simulator.models.osm.OptimalStepsModel}. The state is stored in a
+ * simulation checkpoint (see {@link org.vadere.simulator.control.simulation.SimulationCheckpoint}). Models
+ * which do not implement this interface continue a checkpoint with the state they derive from the
+ * pedestrians of the topography.
+ */
+public interface CheckpointableModel {
+
+	/**
+	 * Returns the state of the model at the end of a simulation step, i.e. before the step at <tt>simTimeInSec</tt>.
+	 */
+	JsonNode getCheckpointState(double simTimeInSec);
+
+	/**
+	 * Restores the state returned by {@link #getCheckpointState(double)}. This is called after {@link Model#preLoop(double)},
+	 * i.e. the pedestrians of the checkpoint are already part of the topography.
+	 */
+	void restoreCheckpointState(@NotNull JsonNode state, double simTimeInSec);
+}
@@ -20,11 +20,15 @@ import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VShape;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 @ModelClass(isMainModel = true)
 public class BehaviouralHeuristicsModel implements MainModel {
@@ -54,6 +58,8 @@ public class BehaviouralHeuristicsModel implements MainModel {
 	private Topography topography;
 	private double lastSimTimeInSec;
 	private PriorityQueue<PedestrianBHM> pedestrianEventsQueue;
+	private double maxPedestrianRadius;
+	private ForkJoinPool pool;
 
 	public BehaviouralHeuristicsModel() {
 		this.pedestrianEventsQueue = new PriorityQueue<>(100, new ComparatorPedestrianBHM());
@@ -105,11 +111,24 @@ public class BehaviouralHeuristicsModel implements MainModel {
 	}
 
 	private PedestrianBHM createElement(VPoint position, @NotNull final AttributesAgent pedAttributes) {
-		PedestrianBHM pedestrian = new PedestrianBHM(topography, pedAttributes, attributesBHM, random, potentialFieldTarget);
+		// in parallel each pedestrian draws from its own generator, i.e. the results do not depend on the threads
+		Random pedestrianRandom = isParallel() ? new Random(random.nextLong()) : random;
+		PedestrianBHM pedestrian = new PedestrianBHM(topography, pedAttributes, attributesBHM, pedestrianRandom, potentialFieldTarget);
 		pedestrian.setPosition(position);
+		pedestrian.setMaxPedestrianRadius(() -> maxPedestrianRadius);
+		maxPedestrianRadius = Math.max(maxPedestrianRadius, pedestrian.getRadius());
 		return pedestrian;
 	}
 
+	/**
+	 * Returns true if the steps are computed in parallel (see {@link AttributesBHM#getParallelism()}). Reconsidering
+	 * old targets changes the target of a pedestrian which other pedestrians read, therefore it requires the
+	 * sequential update.
+	 */
+	private boolean isParallel() {
+		return attributesBHM.getParallelism() != 1 && !attributesBHM.isReconsiderOldTargets();
+	}
+
 	@Override
 	public VShape getDynamicElementRequiredPlace(@NotNull final VPoint position) {
 		return new VCircle(position, new AttributesAgent(attributesPedestrian, -1).getRadius()+new AttributesBHM().getSpaceToKeep());
@@ -118,11 +137,20 @@ public class BehaviouralHeuristicsModel implements MainModel {
 	@Override
 	public void preLoop(final double simTimeInSec) {
 		this.lastSimTimeInSec = simTimeInSec;
+		if (isParallel()) {
+			int parallelism = attributesBHM.getParallelism();
+			pool = new ForkJoinPool(parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism);
+		}
 	}
 
 
 	@Override
-	public void postLoop(double simTimeInSec) {}
+	public void postLoop(double simTimeInSec) {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
 
 	@Override
 	public void update(final double simTimeInSec) {
@@ -132,6 +160,17 @@ public class BehaviouralHeuristicsModel implements MainModel {
 			ped.clearFootSteps();
 		}
 
+		// the radius of a pedestrian might have been changed
+		maxPedestrianRadius = 0;
+		for (PedestrianBHM ped : pedestrianEventsQueue) {
+			maxPedestrianRadius = Math.max(maxPedestrianRadius, ped.getRadius());
+		}
+
+		if (pool != null) {
+			updateParallel(simTimeInSec);
+			return;
+		}
+
 		// event driven update
 		if (!pedestrianEventsQueue.isEmpty()) {
 			while (pedestrianEventsQueue.peek().getTimeOfNextStep() < simTimeInSec) {
@@ -153,7 +192,61 @@ public class BehaviouralHeuristicsModel implements MainModel {
 				}
 			}
 		}
-		topography.setRecomputeCells(true);
+	}
+
+	/**
+	 * Updates the pedestrians in rounds: the steps of all pedestrians whose next step starts before
+	 * <tt>simTimeInSec</tt> are planned in parallel on the basis of the same positions (see
+	 * {@link PedestrianBHM#planStep(double)}). Afterwards, the steps are performed in the order of their time
+	 * and the id of the pedestrians, thus the result does not depend on the number of threads. Two pedestrians
+	 * of a round might plan the same free position, therefore each planned position is tested again against the
+	 * pedestrians which already moved (see {@link PedestrianBHM#performStep(boolean)}).
+	 */
+	private void updateParallel(final double simTimeInSec) {
+		List<PedestrianBHM> round = new ArrayList<>();
+		boolean[] planned = new boolean[0];
+
+		while (!pedestrianEventsQueue.isEmpty() && pedestrianEventsQueue.peek().getTimeOfNextStep() < simTimeInSec) {
+			round.clear();
+			while (!pedestrianEventsQueue.isEmpty() && pedestrianEventsQueue.peek().getTimeOfNextStep() < simTimeInSec) {
+				PedestrianBHM ped = pedestrianEventsQueue.poll();
+				if (ped.hasNextTarget()) {
+					round.add(ped);
+				}
+			}
+			round.sort(Comparator.comparingDouble(PedestrianBHM::getTimeOfNextStep).thenComparingInt(PedestrianBHM::getId));
+
+			if (planned.length < round.size()) {
+				planned = new boolean[round.size()];
+			}
+			boolean[] plannedSteps = planned;
+			try {
+				pool.submit(() -> IntStream.range(0, round.size()).parallel()
+						.forEach(i -> plannedSteps[i] = round.get(i).planStep(simTimeInSec))).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				pedestrianEventsQueue.addAll(round);
+				return;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException(e.getCause());
+			}
+
+			for (int i = 0; i < round.size(); i++) {
+				PedestrianBHM ped = round.get(i);
+				if (plannedSteps[i]) {
+					ped.performStep(true);
+				}
+
+				Target target = topography.getTarget(ped.getNextTargetId());
+
+				if (!(target.getShape().contains(ped.getPosition()) && target.isAbsorbing())) {
+					pedestrianEventsQueue.add(ped);
+				}
+			}
+		}
 	}
 
 	@Override
@@ -23,6 +23,7 @@ import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 
 import java.util.*;
+import java.util.function.DoubleSupplier;
 
 public class PedestrianBHM extends Pedestrian {
 
@@ -35,7 +36,9 @@ public class PedestrianBHM extends Pedestrian {
 	private final double stepLength;
 
 	private double durationNextStep;
+	private double startTimeOfStep;
 	private double timeOfNextStep;
+	private boolean stepPlanned;
 	private VPoint nextPosition;
 	private VPoint lastPosition;
 	private VPoint targetDirection;
@@ -50,6 +53,7 @@ public class PedestrianBHM extends Pedestrian {
 	private int remainCounter;
 	private transient @Nullable IPotentialFieldTarget potentialFieldTarget;
 	private transient TargetDirection targetDirectionStrategy;
+	private transient @Nullable DoubleSupplier maxPedestrianRadius;
 
 	public PedestrianBHM(Topography topography, AttributesAgent attributesPedestrian,
 	                     AttributesBHM attributesBHM, Random random) {
@@ -151,6 +155,19 @@ public class PedestrianBHM extends Pedestrian {
 	 * Updates the pedestrian. Changes the object's state!
 	 */
 	public void update(double currentTimeInSec) {
+		if (planStep(currentTimeInSec)) {
+			performStep();
+		}
+	}
+
+	/**
+	 * Computes the next position of the pedestrian (first part of {@link #update(double)}). This changes the
+	 * state of the pedestrian which is not read by other pedestrians, i.e. the position and velocity remain
+	 * unchanged. Therefore, the steps of multiple pedestrians can be planned concurrently.
+	 *
+	 * @return true if the step has to be performed by {@link #performStep()}
+	 */
+	boolean planStep(double currentTimeInSec) {
 		if (attributesBHM.isVaryingBehaviour()) {
 			setEvasionStrategy();
 		}
@@ -158,34 +175,58 @@ public class PedestrianBHM extends Pedestrian {
 		// for the first step after creation, timeOfNextStep has to be initialized
 		if (getTimeOfNextStep() == INVALID_NEXT_EVENT_TIME) {
 			timeOfNextStep = currentTimeInSec;
-			return;
+			return false;
 		}
 
 		durationNextStep = stepLength / getFreeFlowSpeed();
 
-		double startTimeStep = timeOfNextStep;
-		double endTimeStep = timeOfNextStep + durationNextStep;
-		timeOfNextStep = endTimeStep;
+		startTimeOfStep = timeOfNextStep;
+		timeOfNextStep = startTimeOfStep + durationNextStep;
 
 		SelfCategory selfCategory = getSelfCategory();
 
-		VPoint position = getPosition();
 		if (selfCategory == SelfCategory.TARGET_ORIENTED) {
 			updateTargetDirection();
 			nextPosition = navigation.getNavigationPosition();
-			makeStep();
+			stepPlanned = true;
 		} else if (selfCategory == SelfCategory.WAIT) {
 			// do nothing
+			stepPlanned = false;
 		} else if (selfCategory == SelfCategory.EVADE) {
 			INavigation evasionNavigation = new NavigationEvasion();
 			evasionNavigation.initialize(this, topography, null);
 			nextPosition = evasionNavigation.getNavigationPosition();
-			makeStep();
+			stepPlanned = true;
 		} else {
 			throw new IllegalArgumentException("Unsupported SelfCategory: " + selfCategory);
 		}
+		return true;
+	}
+
+	/**
+	 * Moves the pedestrian to the position computed by {@link #planStep(double)} (second part of
+	 * {@link #update(double)}) and records the foot step.
+	 */
+	void performStep() {
+		performStep(false);
+	}
+
+	/**
+	 * Like {@link #performStep()}, but if <tt>checkCollision</tt> is true the planned position is tested again
+	 * against the current positions of the other pedestrians. This is required if other pedestrians moved after
+	 * the step was planned (see {@link BehaviouralHeuristicsModel}), the pedestrian stays at its position if the
+	 * planned position is occupied in the meantime.
+	 */
+	void performStep(final boolean checkCollision) {
+		VPoint position = getPosition();
+		if (stepPlanned) {
+			if (checkCollision && !nextPosition.equals(position) && collidesWithPedestrian(nextPosition, 0)) {
+				nextPosition = position;
+			}
+			makeStep();
+		}
 
-		FootStep currentFootstep = new FootStep(position, getPosition(), startTimeStep, endTimeStep);
+		FootStep currentFootstep = new FootStep(position, getPosition(), startTimeOfStep, timeOfNextStep);
 		getTrajectory().add(currentFootstep);
 		getFootstepHistory().add(currentFootstep);
 	}
@@ -207,6 +248,11 @@ public class PedestrianBHM extends Pedestrian {
 			this.lastPosition = getPosition();
 			setPosition(nextPosition);
 
+			// keep the spatial map up to date, it is used for the collision tests of the other pedestrians
+			if (topography.getElement(Pedestrian.class, getId()) == this) {
+				topography.moveElement(this, currentPosition);
+			}
+
 			// compute velocity by forward difference
 			setVelocity(new Vector2D(nextPosition.x - currentPosition.x,
 					nextPosition.y - currentPosition.y).multiply(1.0 / durationNextStep));
@@ -318,7 +364,16 @@ public class PedestrianBHM extends Pedestrian {
 	 */
 	public boolean collidesWithPedestrian(VPoint position, double spaceToKeep) {
 
-		for (Pedestrian other : topography.getElements(Pedestrian.class)) {
+		Collection<Pedestrian> others;
+		if (maxPedestrianRadius == null) {
+			others = topography.getElements(Pedestrian.class);
+		} else {
+			// only pedestrians closer than the sum of the radii can collide
+			others = topography.getSpatialMap(Pedestrian.class)
+					.getObjects(position, getRadius() + maxPedestrianRadius.getAsDouble() + spaceToKeep);
+		}
+
+		for (Pedestrian other : others) {
 			if (other.getId() != getId()) {
 
 				double distance = position.distance(other.getPosition()) -
@@ -333,6 +388,16 @@ public class PedestrianBHM extends Pedestrian {
 		return false;
 	}
 
+	/**
+	 * Sets the upper bound of the radii of all pedestrians of the topography which allows
+	 * {@link #collidesWithPedestrian(VPoint, double)} to query the spatial map of the topography
+	 * instead of testing all pedestrians. The spatial map has to be up to date, i.e. all pedestrians
+	 * have to be moved by {@link Topography#moveElement}.
+	 */
+	void setMaxPedestrianRadius(@Nullable final DoubleSupplier maxPedestrianRadius) {
+		this.maxPedestrianRadius = maxPedestrianRadius;
+	}
+
 	/**
 	 * Check collisions on the path.
 	 */
@@ -407,16 +472,15 @@ public class PedestrianBHM extends Pedestrian {
 
 	/**
 	 * This does not check collisions on the path, just collisions with position!
+	 * The obstacles are returned in the order of {@link Topography#getObstacles()}.
 	 */
 	public List<Obstacle> detectObstacleProximity(@NotNull VPoint position, double proximity) {
 
-		Collection<Obstacle> obstacles = topography.getObstacles();
+		List<Obstacle> obstacles = topography.getObstacles();
 		List<Obstacle> result = new LinkedList<>();
 
-		for (Obstacle obstacle : obstacles) {
- 			if (obstacle.getShape().distance(position) < proximity) {
-				result.add(obstacle);
-			}
+		for (int i : findObstacles(position, proximity)) {
+			result.add(obstacles.get(i));
 		}
 
 		return result;
@@ -424,13 +488,14 @@ public class PedestrianBHM extends Pedestrian {
 
 	Optional<Obstacle> detectClosestObstacleProximity(@NotNull final VPoint position, double proximity) {
 
-		Collection<Obstacle> obstacles = topography.getObstacles();
+		List<Obstacle> obstacles = topography.getObstacles();
 		Obstacle obs = null;
 		double minDistance = Double.MAX_VALUE;
 
-		for (Obstacle obstacle : obstacles) {
+		for (int i : findObstacles(position, proximity)) {
+			Obstacle obstacle = obstacles.get(i);
 			double distance = obstacle.getShape().distance(position);
-			if (distance < proximity && distance < minDistance) {
+			if (distance < minDistance) {
 				obs = obstacle;
 				minDistance = distance;
 			}
@@ -438,7 +503,28 @@ public class PedestrianBHM extends Pedestrian {
 		return Optional.ofNullable(obs);
 	}
 
+	/**
+	 * Returns the (sorted) indices of the obstacles whose distance to the position is smaller than proximity.
+	 * Only the obstacles near the position are tested (see {@link Topography#getObstacleBoundsIndex()}).
+	 */
+	private int[] findObstacles(@NotNull final VPoint position, final double proximity) {
+		List<Obstacle> obstacles = topography.getObstacles();
+		int[][] result = new int[][] {new int[4]};
+		int[] count = new int[1];
+
+		topography.getObstacleBoundsIndex().forEachCandidate(position.x, position.y, proximity, i -> {
+			if (obstacles.get(i).getShape().distance(position) < proximity) {
+				if (count[0] == result[0].length) {
+					result[0] = Arrays.copyOf(result[0], 2 * count[0]);
+				}
+				result[0][count[0]++] = i;
+			}
+		});
 
+		int[] sorted = Arrays.copyOf(result[0], count[0]);
+		Arrays.sort(sorted);
+		return sorted;
+	}
 
 	// Java nuisance...
 
@@ -2,6 +2,7 @@ package org.vadere.simulator.models.gnm;
 
 import org.vadere.simulator.models.ode.AbstractModelEquations;
 import org.vadere.simulator.models.ode.ODEModel;
+import org.vadere.simulator.models.ode.SnapshotAgentPotential;
 import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.util.geometry.shapes.VCircle;
@@ -9,15 +10,9 @@ import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.math.MathUtil;
-import org.vadere.util.parallel.AParallelWorker;
-import org.vadere.util.parallel.AParallelWorker.Work;
-import org.vadere.util.parallel.CountableParallelWorker;
 import org.vadere.util.parallel.IAsyncComputable;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 /**
  * The equations of the Gradient Navigation Model.
@@ -40,70 +35,28 @@ public class GNMEquations extends AbstractModelEquations<Pedestrian> implements
 	public void computeDerivatives(final double t, final double[] y,
 			final double[] yDot) {
 
-		// update the pedestrian positions in the topography to the ones computed in the integrator
-		ODEModel.updateElementPositions(Pedestrian.class, t, topography, this, y);
-
-		// create workers for each pedestrian
-		List<AParallelWorker<Double[]>> workers = new ArrayList<AParallelWorker<Double[]>>();
-
-		// loop over all persons and compute the next step
-		int personCounter = 0; // used for arrays, not identical to personID!
-		for (final Pedestrian pedestrian : elements) {
-			AParallelWorker<Double[]> w = new CountableParallelWorker<Double[]>(
-					personCounter, new Work<Double[]>() {
-						private int ID;
-
-						@Override
-						public Double[] call() throws Exception {
-							computeSinglePerson(pedestrian, getWorkerID(), t,
-									y, yDot);
-							return null;
-						}
-
-						@Override
-						public void setID(int ID) {
-							this.ID = ID;
-						}
-
-						@Override
-						public int getWorkerID() {
-							return this.ID;
-						}
-					});
-			personCounter++;
-			workers.add(w);
-			w.start();
+		if (!updateSnapshot(y)) {
+			// update the pedestrian positions in the topography to the ones computed in the integrator
+			ODEModel.updateElementPositions(Pedestrian.class, t, topography, this, y);
 		}
 
-		// finish the work
-		for (AParallelWorker<Double[]> worker : workers) {
-			try {
-				worker.finish();
-			} catch (ExecutionException e) {
-				logger.error(e);
-				e.printStackTrace();
-			} catch (InterruptedException e) {
-				// Necessary in order to tell Simulation the thread has been
-				// interrupted.
-				// TODO [priority=low] [task=refactoring] Hack, other solution?
-				Thread.currentThread().interrupt();
-				break;
-			}
-		}
+		// compute the persons in chunks, personCounter is used for arrays, not identical to personID!
+		forEachPerson((otherPeds, personCounter) -> computeSinglePerson(elements.get(personCounter), personCounter, t, y, yDot, otherPeds));
 	}
 
 	/**
 	 * Computes yDot for a single person given by personID. This is computed
-	 * asynchronously by an {@link AParallelWorker}.
+	 * asynchronously for chunks of persons (see {@link #forEachPerson}).
 	 * 
 	 * @param currentPed
 	 * @param personCounter
 	 * @param t
 	 * @param y
 	 * @param yDot
+	 * @param otherPeds the list for the close pedestrians, reused for all persons of the chunk
 	 */
 	private void computeSinglePerson(Pedestrian currentPed, int personCounter,
-			double t, double[] y, double[] yDot) {
+			double t, double[] y, double[] yDot, List<Agent> otherPeds) {
 		double[] position = new double[2];
 		double[] speed = new double[2];
 		double[] grad_field = new double[2];
@@ -120,11 +73,14 @@ public class GNMEquations extends AbstractModelEquations<Pedestrian> implements
 		// ///////////////////////////////////////
 		// generate gradients
 
-		VCircle relevantArea = new VCircle(
-				new VPoint(position[0], position[1]), 0.01);
-		Collection<? extends Agent> otherPeds = pedestrianGradientProvider
-				.getRelevantAgents(relevantArea, currentPed, topography);
-		otherPeds.remove(currentPed);
+		if (snapshot == null) {
+			VCircle relevantArea = new VCircle(
+					new VPoint(position[0], position[1]), 0.01);
+			otherPeds.clear();
+			pedestrianGradientProvider
+					.getRelevantAgents(relevantArea, currentPed, topography, otherPeds);
+			otherPeds.remove(currentPed);
+		}
 
 		// get the static gradient
 		if (currentPed.hasNextTarget()) {
@@ -144,14 +100,26 @@ public class GNMEquations extends AbstractModelEquations<Pedestrian> implements
 		} else {
 			// viewing direction is a combination of all other peds in the
 			// vincinity
-			for (Agent p : otherPeds) {
-				viewing_direction[0] += p.getPosition().x - position[0];
-				viewing_direction[1] += p.getPosition().y - position[1];
+			if (snapshot != null) {
+				double radius = ((SnapshotAgentPotential) pedestrianGradientProvider).getRelevantRadius();
+				snapshot.forEachNeighbor(position[0], position[1], radius, j -> {
+					if (j != personCounter) {
+						viewing_direction[0] += snapshot.getX(j) - position[0];
+						viewing_direction[1] += snapshot.getY(j) - position[1];
+					}
+				});
+			} else {
+				for (Agent p : otherPeds) {
+					viewing_direction[0] += p.getPosition().x - position[0];
+					viewing_direction[1] += p.getPosition().y - position[1];
+				}
 			}
 			MathUtil.normalize(viewing_direction);
 		}
-		currentPed.setVelocity(new Vector2D(viewing_direction[0],
-				viewing_direction[1]));
+		if (snapshot == null) {
+			currentPed.setVelocity(new Vector2D(viewing_direction[0],
+					viewing_direction[1]));
+		}
 
 		// get the gradient for obstacles
 		Vector2D grad_obstacles = obstacleGradientProvider
@@ -159,11 +127,19 @@ public class GNMEquations extends AbstractModelEquations<Pedestrian> implements
 						position[1]), currentPed);
 
 		// get the gradient for pedestrians
-		Vector2D grad_pedestrians = pedestrianGradientProvider
-				.getAgentPotentialGradient(new VPoint(position[0],
-						position[1]), new Vector2D(viewing_direction[0],
-								viewing_direction[1]),
-						currentPed, otherPeds);
+		Vector2D grad_pedestrians;
+		if (snapshot != null) {
+			double[] gradient = new double[2];
+			((SnapshotAgentPotential) pedestrianGradientProvider).getAgentPotentialGradient(personCounter,
+					position[0], position[1], viewing_direction[0], viewing_direction[1], snapshot, gradient);
+			grad_pedestrians = new Vector2D(gradient[0], gradient[1]);
+		} else {
+			grad_pedestrians = pedestrianGradientProvider
+					.getAgentPotentialGradient(new VPoint(position[0],
+							position[1]), new Vector2D(viewing_direction[0],
+									viewing_direction[1]),
+							currentPed, otherPeds);
+		}
 
 		// combine gradients
 		Vector2D totalDynamicGradient = new Vector2D(0, 0)
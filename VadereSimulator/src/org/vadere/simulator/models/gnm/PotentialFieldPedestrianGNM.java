@@ -2,6 +2,8 @@ package org.vadere.simulator.models.gnm;
 
 import org.vadere.annotation.factories.models.ModelClass;
 import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.ode.SnapshotAgentPotential;
+import org.vadere.simulator.models.ode.StageSnapshot;
 import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.state.attributes.Attributes;
@@ -16,12 +18,13 @@ import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.math.MathUtil;
 
+import java.awt.geom.Point2D;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
 @ModelClass
-public class PotentialFieldPedestrianGNM implements PotentialFieldAgent {
+public class PotentialFieldPedestrianGNM implements PotentialFieldAgent, SnapshotAgentPotential {
 
 	private AttributesPotentialGNM attributes;
 
@@ -49,14 +52,7 @@ public class PotentialFieldPedestrianGNM implements PotentialFieldAgent {
 	                                          Collection<? extends Agent> closePedestrians) {
 
 		double[] completeGrad = new double[2];
-		double[] grad = new double[2];
-		double[] pedDistance = new double[2];
-		double distance;
-		double pot;
-		double visiblePortion;
-		double phi;
 		double[] x = new double[] {pos.getX(), pos.getY()};
-		double[] x2 = new double[2];
 		double[] v = new double[] {velocity.x, velocity.y};
 
 		for (Agent otherPedestrian : closePedestrians) {
@@ -64,38 +60,72 @@ public class PotentialFieldPedestrianGNM implements PotentialFieldAgent {
 				continue;
 			}
 
-			distance = otherPedestrian.getPosition().distance(pos);
-			x2[0] = otherPedestrian.getPosition().x;
-			x2[1] = otherPedestrian.getPosition().y;
-
-			pedDistance[0] = x[0] - x2[0];
-			pedDistance[1] = x[1] - x2[1];
-
-			// include h_epsilon to avoid strange behaviour when peds step exactly on top of each
-			// other
-			if (distance < GeometryUtils.DOUBLE_EPS) {
-				pot = 0;
-			} else {
-				pot = attributes.getPedestrianBodyPotential()
-						* MathUtil.cutExp(distance,
-								attributes.getPedestrianRecognitionDistance());
+			addAgentPotentialGradient(x, v, otherPedestrian.getPosition().x, otherPedestrian.getPosition().y, completeGrad);
+		}
+
+		return new Vector2D(completeGrad[0], completeGrad[1]);
+	}
+
+	@Override
+	public double getRelevantRadius() {
+		// see getRelevantAgents
+		return attributes.getPedestrianRecognitionDistance();
+	}
+
+	@Override
+	public void getAgentPotentialGradient(int index, double x, double y, double vx, double vy,
+			StageSnapshot snapshot, double[] gradient) {
+		double[] pos = new double[] {x, y};
+		double[] v = new double[] {vx, vy};
+		gradient[0] = 0;
+		gradient[1] = 0;
+
+		snapshot.forEachNeighbor(x, y, getRelevantRadius(), j -> {
+			if (j != index) {
+				addAgentPotentialGradient(pos, v, snapshot.getX(j), snapshot.getY(j), gradient);
 			}
+		});
+	}
 
-			// compute the visible portion of ped i
-			visiblePortion = MathUtil.visiblePortion(x, v, x2);
+	/**
+	 * Adds the repulsion of the other pedestrian at (otherX, otherY) to the gradient at x.
+	 */
+	private void addAgentPotentialGradient(double[] x, double[] v, double otherX, double otherY, double[] completeGrad) {
+		double[] grad = new double[2];
+		double[] pedDistance = new double[2];
+		double distance;
+		double pot;
+		double visiblePortion;
+		double phi;
+		double[] x2 = new double[] {otherX, otherY};
 
-			// compute and normalize the gradient length to the
-			// potential
-			phi = Math.atan2(pedDistance[1], pedDistance[0]);
-			grad[0] = -Math.cos(phi) * pot * visiblePortion;
-			grad[1] = -Math.sin(phi) * pot * visiblePortion;
+		distance = Point2D.distance(x2[0], x2[1], x[0], x[1]);
 
-			// add to total gradient at x
-			completeGrad[0] += grad[0];
-			completeGrad[1] += grad[1];
+		pedDistance[0] = x[0] - x2[0];
+		pedDistance[1] = x[1] - x2[1];
+
+		// include h_epsilon to avoid strange behaviour when peds step exactly on top of each
+		// other
+		if (distance < GeometryUtils.DOUBLE_EPS) {
+			pot = 0;
+		} else {
+			pot = attributes.getPedestrianBodyPotential()
+					* MathUtil.cutExp(distance,
+							attributes.getPedestrianRecognitionDistance());
 		}
 
-		return new Vector2D(completeGrad[0], completeGrad[1]);
+		// compute the visible portion of ped i
+		visiblePortion = MathUtil.visiblePortion(x, v, x2);
+
+		// compute and normalize the gradient length to the
+		// potential
+		phi = Math.atan2(pedDistance[1], pedDistance[0]);
+		grad[0] = -Math.cos(phi) * pot * visiblePortion;
+		grad[1] = -Math.sin(phi) * pot * visiblePortion;
+
+		// add to total gradient at x
+		completeGrad[0] += grad[0];
+		completeGrad[1] += grad[1];
 	}
 
 	@Override
@@ -113,4 +143,12 @@ public class PotentialFieldPedestrianGNM implements PotentialFieldAgent {
 
 		return closePedestrians;
 	}
+
+	@Override
+	public void getRelevantAgents(VCircle relevantArea, Agent pedestrian,
+			Topography scenario, Collection<? super Agent> result) {
+		scenario.getSpatialMap(Pedestrian.class)
+				.getObjects(relevantArea.getCenter(),
+						attributes.getPedestrianRecognitionDistance(), result);
+	}
 }
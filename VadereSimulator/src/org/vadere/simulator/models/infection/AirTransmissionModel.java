@@ -14,15 +14,23 @@ import org.vadere.state.attributes.scenario.AttributesAgent;
 import org.vadere.state.attributes.scenario.AttributesDroplets;
 import org.vadere.state.health.AirTransmissionModelHealthStatus;
 import org.vadere.state.scenario.*;
+import org.vadere.util.geometry.CompactLinkedCellsGrid;
+import org.vadere.util.geometry.GeometryUtils;
+import org.vadere.util.geometry.ISpatialMap;
 import org.vadere.util.geometry.shapes.VLine;
 import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 
 import java.awt.geom.Rectangle2D;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * AirTransmissionModel describes the transmission of pathogen from one
@@ -45,6 +53,14 @@ import java.util.stream.Collectors;
  *     <li>The <code>AirTransmissionModel</code> deletes aerosol clouds and
  *     droplets once they have reached a minimum pathogen concentration.</li>
  * </ul>
+ * <p>
+ *     The pedestrians exposed to an aerosol cloud or droplets are found by the spatial map of the
+ *     pedestrians, i.e. only the pedestrians inside the bounding circle of the shape are tested. If
+ *     {@link AttributesAirTransmissionModel#getParallelism()} is not 1, the aerosol clouds, the exposed
+ *     pedestrians of each aerosol cloud and droplets and the absorption of each pedestrian are updated in
+ *     parallel. Each pedestrian absorbs the pathogen of the aerosol clouds and droplets in the same order
+ *     as in the sequential update, thus the results do not depend on the parallelism.
+ * </p>
  */
 @ModelClass
 public class AirTransmissionModel extends AbstractExposureModel {
@@ -61,6 +77,16 @@ public class AirTransmissionModel extends AbstractExposureModel {
 	private Map<Integer, Double> nextDropletsExhalationTime;
 	protected static final double MIN_PED_STEP_LENGTH = 0.1;
 
+	/**
+	 * The cell size of the snapshot of the breathing in pedestrians which is queried by the parallel update.
+	 */
+	private static final double SNAPSHOT_CELL_SIZE = 2;
+
+	/**
+	 * The pool of the parallel update, null if the model is updated sequentially.
+	 */
+	private ForkJoinPool forkJoinPool;
+
 	/**
 	 * Key that is used for initializeVadereContext in ScenarioRun
 	 */
@@ -91,13 +117,23 @@ public class AirTransmissionModel extends AbstractExposureModel {
 		this.viewingDirections = new HashMap<>();
 		this.lastPedestrianPositions = new HashMap<>();
 		this.nextDropletsExhalationTime = new HashMap<>();
+
+		int parallelism = attrAirTransmissionModel.getParallelism();
+		if (parallelism != 1) {
+			this.forkJoinPool = new ForkJoinPool(parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism);
+		}
 	}
 
 	@Override
 	public void preLoop(double simTimeInSec) {}
 
 	@Override
-	public void postLoop(double simTimeInSec) {}
+	public void postLoop(double simTimeInSec) {
+		if (forkJoinPool != null) {
+			forkJoinPool.shutdown();
+			forkJoinPool = null;
+		}
+	}
 
 	@Override
 	public void update(double simTimeInSec) {
@@ -223,16 +259,18 @@ public class AirTransmissionModel extends AbstractExposureModel {
 	public void updateAerosolCloudsPathogenLoad(double simTimeInSec) {
 		double lambda = exponentialDecayFactor / attrAirTransmissionModel.getAerosolCloudHalfLife();
 
-		Collection<AerosolCloud> allAerosolClouds = topography.getAerosolClouds();
-		for (AerosolCloud aerosolCloud : allAerosolClouds) {
+		List<AerosolCloud> allAerosolClouds = topography.getAerosolClouds();
+		forEach(allAerosolClouds.size(), i -> {
+			AerosolCloud aerosolCloud = allAerosolClouds.get(i);
 			double t = simTimeInSec - aerosolCloud.getCreationTime();
 			aerosolCloud.setCurrentPathogenLoad(attrAirTransmissionModel.getAerosolCloudInitialPathogenLoad() * Math.exp(-lambda * t));
-		}
+		});
 	}
 
 	public void updateAerosolCloudsExtent() {
-		Collection<AerosolCloud> allAerosolClouds = topography.getAerosolClouds();
-		for (AerosolCloud aerosolCloud : allAerosolClouds) {
+		List<AerosolCloud> allAerosolClouds = topography.getAerosolClouds();
+		forEach(allAerosolClouds.size(), i -> {
+			AerosolCloud aerosolCloud = allAerosolClouds.get(i);
 			double deltaRadius = 0.0;
 
 			/*
@@ -255,7 +293,7 @@ public class AirTransmissionModel extends AbstractExposureModel {
 		}
 
 			aerosolCloud.increaseShape(deltaRadius);
-		}
+		});
 	}
 
 	/**
@@ -296,38 +334,23 @@ public class AirTransmissionModel extends AbstractExposureModel {
 	}
 
 	protected void updatePedestriansExposureToAerosolClouds() {
-		Collection<Pedestrian> breathingInPeds = topography.getPedestrianDynamicElements()
-				.getElements()
-				.stream()
-				.filter(p -> p.<AirTransmissionModelHealthStatus>getHealthStatus().isBreathingIn())
-				.collect(Collectors.toSet());
-
 		// Agents absorb pathogen continuously but simulation is discrete. Therefore, the absorption during inhalation
 		// must be divided into absorption for each sim step:
 		double inhalationPeriodLength = attrAirTransmissionModel.getPedestrianRespiratoryCyclePeriod() / 2.0;
 		double aerosolAbsorptionRatePerSimStep = attrAirTransmissionModel.getAerosolCloudAbsorptionRate() * (simTimeStepLength / inhalationPeriodLength);
 
-		Collection<AerosolCloud> allAerosolClouds = topography.getAerosolClouds();
-		for (AerosolCloud aerosolCloud : allAerosolClouds) {
-			Collection<Pedestrian> breathingInPedsInAerosolCloud = breathingInPeds
-					.stream()
-					.filter(p -> aerosolCloud.getShape().contains(p.getPosition()))
-					.collect(Collectors.toSet());
-
-			for (Pedestrian ped : breathingInPedsInAerosolCloud) {
-				double deltaDegreeOfExposure = aerosolCloud.getPathogenConcentration() * aerosolAbsorptionRatePerSimStep;
-				updatePedestrianDegreeOfExposure(ped, deltaDegreeOfExposure);
-			}
+		List<AerosolCloud> allAerosolClouds = topography.getAerosolClouds();
+		double[] deltaDegreesOfExposure = new double[allAerosolClouds.size()];
+		List<VShape> shapes = new ArrayList<>(allAerosolClouds.size());
+		for (int i = 0; i < allAerosolClouds.size(); i++) {
+			AerosolCloud aerosolCloud = allAerosolClouds.get(i);
+			deltaDegreesOfExposure[i] = aerosolCloud.getPathogenConcentration() * aerosolAbsorptionRatePerSimStep;
+			shapes.add(aerosolCloud.getShape());
 		}
+		updatePedestriansExposure(shapes, deltaDegreesOfExposure);
 	}
 
 	protected void updatePedestriansExposureToDroplets() {
-		Collection<Pedestrian> breathingInPeds = topography.getPedestrianDynamicElements()
-				.getElements()
-				.stream()
-				.filter(p -> p.<AirTransmissionModelHealthStatus>getHealthStatus().isBreathingIn())
-				.collect(Collectors.toSet());
-
 		/*
 		 * Agents absorb pathogen continuously but simulation is discrete. Therefore, the absorption during inhalation
 		 * must be divided into absorption for each sim step:
@@ -340,17 +363,105 @@ public class AirTransmissionModel extends AbstractExposureModel {
 		 * to. In contrast to intake of pathogen from aerosol clouds, we do not consider concentrations (for simplicity
 		 * or to avoid further assumptions on pathogen distribution within droplets).
 		 */
-		Collection<Droplets> allDroplets = topography.getDroplets();
-		for (Droplets droplets : allDroplets) {
-			Collection<Pedestrian> breathingInPedsInDroplets = breathingInPeds
-					.stream()
-					.filter(p -> droplets.getShape().contains(p.getPosition()))
-					.collect(Collectors.toSet());
-
-			for (Pedestrian ped : breathingInPedsInDroplets) {
-				double deltaDegreeOfExposure = attrAirTransmissionModel.getDropletsPathogenLoad() * dropletsAbsorptionRatePerSimStep;
-				updatePedestrianDegreeOfExposure(ped, deltaDegreeOfExposure);
+		List<Droplets> allDroplets = topography.getDroplets();
+		double[] deltaDegreesOfExposure = new double[allDroplets.size()];
+		List<VShape> shapes = new ArrayList<>(allDroplets.size());
+		for (int i = 0; i < allDroplets.size(); i++) {
+			deltaDegreesOfExposure[i] = attrAirTransmissionModel.getDropletsPathogenLoad() * dropletsAbsorptionRatePerSimStep;
+			shapes.add(allDroplets.get(i).getShape());
+		}
+		updatePedestriansExposure(shapes, deltaDegreesOfExposure);
+	}
+
+	/**
+	 * Increases the degree of exposure of each breathing in pedestrian inside the shape <tt>i</tt> by
+	 * <tt>deltaDegreesOfExposure[i]</tt>. A pedestrian inside multiple shapes absorbs the pathogen in
+	 * the order of the shapes.
+	 */
+	private void updatePedestriansExposure(final List<VShape> shapes, final double[] deltaDegreesOfExposure) {
+		if (forkJoinPool == null) {
+			for (int i = 0; i < shapes.size(); i++) {
+				for (Pedestrian ped : getBreathingInPedestriansInside(topography.getSpatialMap(Pedestrian.class), shapes.get(i))) {
+					updatePedestrianDegreeOfExposure(ped, deltaDegreesOfExposure[i]);
+				}
+			}
+			return;
+		}
+
+		// the spatial map of the topography might synchronize its queries, therefore, the parallel queries use a
+		// snapshot of the breathing in pedestrians which is queried concurrently without a lock
+		ISpatialMap<Pedestrian> breathingInPedestrians = new CompactLinkedCellsGrid<>(new VRectangle(topography.getBounds()), SNAPSHOT_CELL_SIZE);
+		for (Pedestrian ped : topography.getPedestrianDynamicElements().getElements()) {
+			if (ped.<AirTransmissionModelHealthStatus>getHealthStatus().isBreathingIn()) {
+				breathingInPedestrians.addObject(ped);
+			}
+		}
+
+		List<List<Pedestrian>> exposedPedestrians = new ArrayList<>(Collections.nCopies(shapes.size(), null));
+		if (!forEach(shapes.size(), i -> exposedPedestrians.set(i, getBreathingInPedestriansInside(breathingInPedestrians, shapes.get(i))))) {
+			return;
+		}
+
+		// the exposures of each pedestrian in the order of the shapes
+		Map<Pedestrian, List<Integer>> exposures = new LinkedHashMap<>();
+		for (int i = 0; i < shapes.size(); i++) {
+			for (Pedestrian ped : exposedPedestrians.get(i)) {
+				exposures.computeIfAbsent(ped, p -> new ArrayList<>()).add(i);
+			}
+		}
+
+		List<Map.Entry<Pedestrian, List<Integer>>> entries = new ArrayList<>(exposures.entrySet());
+		forEach(entries.size(), k -> {
+			Pedestrian ped = entries.get(k).getKey();
+			for (int i : entries.get(k).getValue()) {
+				updatePedestrianDegreeOfExposure(ped, deltaDegreesOfExposure[i]);
 			}
+		});
+	}
+
+	/**
+	 * Returns the breathing in pedestrians of the spatial map inside the shape. Only the pedestrians inside
+	 * the bounding circle of the shape are tested.
+	 */
+	private List<Pedestrian> getBreathingInPedestriansInside(final ISpatialMap<Pedestrian> pedestrianMap, final VShape shape) {
+		Rectangle2D bounds = shape.getBounds2D();
+		VPoint center = new VPoint(bounds.getCenterX(), bounds.getCenterY());
+		// the spatial map excludes objects at exactly the radius
+		double radius = 0.5 * Math.sqrt(bounds.getWidth() * bounds.getWidth() + bounds.getHeight() * bounds.getHeight()) + GeometryUtils.DOUBLE_EPS;
+
+		List<Pedestrian> pedestrians = new ArrayList<>();
+		pedestrianMap.forEachObject(center, radius, ped -> {
+			if (ped.<AirTransmissionModelHealthStatus>getHealthStatus().isBreathingIn() && shape.contains(ped.getPosition())) {
+				pedestrians.add(ped);
+			}
+		});
+		return pedestrians;
+	}
+
+	/**
+	 * Calls the consumer for 0, ..., n-1, in parallel if the model has a fork join pool.
+	 *
+	 * @return false if the thread was interrupted while waiting for the pool, i.e. the consumer might not
+	 *         have been called for all indices
+	 */
+	private boolean forEach(final int n, final IntConsumer consumer) {
+		if (forkJoinPool == null) {
+			for (int i = 0; i < n; i++) {
+				consumer.accept(i);
+			}
+			return true;
+		}
+
+		try {
+			forkJoinPool.submit(() -> IntStream.range(0, n).parallel().forEach(consumer)).get();
+			return true;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+		// restore interruption in order to stop simulation
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
 		}
 	}
 
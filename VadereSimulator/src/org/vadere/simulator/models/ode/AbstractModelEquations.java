@@ -1,14 +1,19 @@
 package org.vadere.simulator.models.ode;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
 
 import org.apache.commons.math3.ode.FirstOrderDifferentialEquations;
 import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
 import org.vadere.simulator.models.potential.fields.PotentialFieldObstacle;
+import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.DynamicElement;
 import org.vadere.state.scenario.Topography;
 import org.vadere.simulator.models.potential.solver.gradients.GradientProvider;
@@ -17,7 +22,12 @@ import org.vadere.simulator.models.potential.solver.gradients.GradientProvider;
  * Abstract model equations for an ODE based model of pedestrian motion.
  * Implements the apache {@link FirstOrderDifferentialEquations} interface and
  * can thus be used with their integrator methods.
- * 
+ *
+ * If the pedestrian potential is a {@link SnapshotAgentPotential}, the neighbors of
+ * the persons at a stage of the integrator are read from a {@link StageSnapshot} of
+ * the solution vector, i.e. the agents of the topography are not moved at each stage.
+ * The right hand side of the persons is computed in chunks on the pool set by
+ * {@link #setPool(ForkJoinPool)}.
  */
 public abstract class AbstractModelEquations<T extends DynamicElement> implements
 		FirstOrderDifferentialEquations {
@@ -28,6 +38,17 @@ public abstract class AbstractModelEquations<T extends DynamicElement> implement
 	protected List<T> elements;
 	protected Map<Integer, Integer> IDmapping;
 	protected Topography topography;
+	/**
+	 * The snapshot of the current stage, null if the pedestrian potential requires the agents of the topography.
+	 */
+	protected StageSnapshot snapshot;
+	private final StageSnapshot stageSnapshot = new StageSnapshot();
+	private ForkJoinPool pool;
+
+	/**
+	 * The minimal number of persons of a chunk which is computed by one task.
+	 */
+	private static final int MIN_CHUNK_SIZE = 32;
 
 	/**
 	 * The dimensions for each person, i.e. position (x,y), speed / velocity...
@@ -45,7 +66,7 @@ public abstract class AbstractModelEquations<T extends DynamicElement> implement
 	}
 
 	public void setElements(Collection<T> elements) {
-		this.elements = new LinkedList<>(elements);
+		this.elements = new ArrayList<>(elements);
 		this.Npersons = elements.size();
 		this.IDmapping = new HashMap<Integer, Integer>();
 
@@ -104,4 +125,63 @@ public abstract class AbstractModelEquations<T extends DynamicElement> implement
 		return this.IDmapping.get(id);
 	}
 
+	/**
+	 * Sets the pool on which the right hand side is computed, null computes it sequentially.
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Updates {@link #snapshot} to the given solution vector of the current stage.
+	 *
+	 * @return false if the pedestrian potential requires the agents of the topography, i.e. they have to be
+	 *         moved to the positions of the solution vector
+	 */
+	protected boolean updateSnapshot(double[] y) {
+		if (pedestrianGradientProvider instanceof SnapshotAgentPotential && !topography.hasTeleporter()) {
+			stageSnapshot.update(y, this, Npersons, ((SnapshotAgentPotential) pedestrianGradientProvider).getRelevantRadius());
+			snapshot = stageSnapshot;
+			return true;
+		}
+		snapshot = null;
+		return false;
+	}
+
+	/**
+	 * Calls the consumer for each person counter, in chunks of consecutive persons on the pool. Each chunk owns a
+	 * list which is passed to the consumer for all persons of the chunk, i.e. the consumer can clear and reuse it
+	 * for the agents close to its person instead of allocating a new collection per person.
+	 */
+	protected void forEachPerson(ObjIntConsumer<List<Agent>> consumer) {
+		if (pool == null || Npersons <= MIN_CHUNK_SIZE) {
+			List<Agent> buffer = new ArrayList<>();
+			for (int i = 0; i < Npersons; i++) {
+				consumer.accept(buffer, i);
+			}
+			return;
+		}
+
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, Npersons / (4 * pool.getParallelism()) + 1);
+		int chunks = (Npersons + chunkSize - 1) / chunkSize;
+		try {
+			pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+				List<Agent> buffer = new ArrayList<>();
+				int end = Math.min(Npersons, (chunk + 1) * chunkSize);
+				for (int i = chunk * chunkSize; i < end; i++) {
+					consumer.accept(buffer, i);
+				}
+			})).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		// Necessary in order to tell Simulation the thread has been interrupted.
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 }
@@ -0,0 +1,23 @@
+package org.vadere.simulator.models.ode;
+
+import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
+
+/**
+ * A {@link PotentialFieldAgent} whose gradient can be computed from the positions and velocities of a
+ * {@link StageSnapshot} instead of the agents of the topography. ODE models use this to evaluate the
+ * right hand side of all persons in parallel without moving the agents at every stage of the integrator.
+ */
+public interface SnapshotAgentPotential {
+
+	/**
+	 * Returns the radius around a person in which other persons contribute to the gradient.
+	 */
+	double getRelevantRadius();
+
+	/**
+	 * Computes the gradient at (x, y) of the person with the given index of the snapshot, which moves with
+	 * velocity (vx, vy), caused by all other persons of the snapshot which are closer than
+	 * {@link #getRelevantRadius()}. The gradient is stored in <tt>gradient</tt>.
+	 */
+	void getAgentPotentialGradient(int index, double x, double y, double vx, double vy, StageSnapshot snapshot, double[] gradient);
+}
@@ -0,0 +1,182 @@
+package org.vadere.simulator.models.ode;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The positions and velocities of all persons at one stage of the integrator, i.e. of one evaluation of
+ * the right hand side, read from the solution vector <tt>y</tt>. The persons are sorted into a grid
+ * (counting sort, the persons of a cell are stored consecutively) such that the neighbors of a person
+ * can be found without moving the persons in the spatial map of the topography. The arrays are reused
+ * by the next stage.
+ *
+ * <p>The snapshot is built by one thread and can be read by many threads afterwards.</p>
+ */
+public class StageSnapshot {
+
+	private int size;
+	private double[] positionX = new double[0];
+	private double[] positionY = new double[0];
+	private double[] velocityX = new double[0];
+	private double[] velocityY = new double[0];
+
+	private double minX;
+	private double minY;
+	private double cellSize;
+	private int cellsX;
+	private int cellsY;
+	/**
+	 * the start index of each cell in <tt>cellPersons</tt>, has length #cells + 1.
+	 */
+	private int[] cellStart = new int[1];
+	/**
+	 * the persons sorted by their cells.
+	 */
+	private int[] cellPersons = new int[0];
+	private int[] personCells = new int[0];
+
+	private final double[] buffer = new double[2];
+
+	/**
+	 * Reads the positions and velocities of the persons from the solution vector and sorts the persons
+	 * into a grid with the given cell size.
+	 *
+	 * @param solution  the solution vector of the current stage
+	 * @param equations the equations which define the layout of the solution vector
+	 * @param size      the number of persons
+	 * @param cellSize  the side length of a cell, usually the largest query radius
+	 */
+	public void update(@NotNull final double[] solution, @NotNull final AbstractModelEquations<?> equations, final int size, final double cellSize) {
+		if (positionX.length < size) {
+			positionX = new double[size];
+			positionY = new double[size];
+			velocityX = new double[size];
+			velocityY = new double[size];
+			cellPersons = new int[size];
+			personCells = new int[size];
+		}
+		this.size = size;
+
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		minX = Double.POSITIVE_INFINITY;
+		minY = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			equations.getPosition(i, solution, buffer);
+			positionX[i] = buffer[0];
+			positionY[i] = buffer[1];
+			equations.getVelocity(i, solution, buffer);
+			velocityX[i] = buffer[0];
+			velocityY[i] = buffer[1];
+
+			minX = Math.min(minX, positionX[i]);
+			minY = Math.min(minY, positionY[i]);
+			maxX = Math.max(maxX, positionX[i]);
+			maxY = Math.max(maxY, positionY[i]);
+		}
+
+		if (size == 0 || !Double.isFinite(maxX - minX) || !Double.isFinite(maxY - minY)) {
+			// one cell which contains all persons
+			minX = 0;
+			minY = 0;
+			this.cellSize = Double.POSITIVE_INFINITY;
+			cellsX = 1;
+			cellsY = 1;
+		} else {
+			// at most about four cells per person, even if the persons are far apart
+			double side = cellSize > 0 ? cellSize : 1.0;
+			long maxCells = 4L * size + 64;
+			while (((long) ((maxX - minX) / side) + 1) * ((long) ((maxY - minY) / side) + 1) > maxCells) {
+				side *= 2;
+			}
+			this.cellSize = side;
+			cellsX = (int) ((maxX - minX) / side) + 1;
+			cellsY = (int) ((maxY - minY) / side) + 1;
+		}
+
+		int cells = cellsX * cellsY;
+		if (cellStart.length < cells + 1) {
+			cellStart = new int[cells + 1];
+		} else {
+			Arrays.fill(cellStart, 0, cells + 1, 0);
+		}
+
+		// counting sort: first the end of each cell, then the start by filling the cells from their end,
+		// i.e. the persons of a cell are sorted by their index
+		for (int i = 0; i < size; i++) {
+			personCells[i] = cellIndex(cellX(positionX[i]), cellY(positionY[i]));
+			cellStart[personCells[i]]++;
+		}
+		for (int cell = 1; cell < cells; cell++) {
+			cellStart[cell] += cellStart[cell - 1];
+		}
+		cellStart[cells] = size;
+		for (int i = size - 1; i >= 0; i--) {
+			cellPersons[--cellStart[personCells[i]]] = i;
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double getX(final int i) {
+		return positionX[i];
+	}
+
+	public double getY(final int i) {
+		return positionY[i];
+	}
+
+	public double getVelocityX(final int i) {
+		return velocityX[i];
+	}
+
+	public double getVelocityY(final int i) {
+		return velocityY[i];
+	}
+
+	/**
+	 * Calls the consumer for each person (including the person at the position) whose distance to the
+	 * position is smaller than the radius.
+	 */
+	public void forEachNeighbor(final double x, final double y, final double radius, @NotNull final IntConsumer consumer) {
+		int fromX = cellX(x - radius);
+		int toX = cellX(x + radius);
+		int fromY = cellY(y - radius);
+		int toY = cellY(y + radius);
+		double radiusSq = radius * radius;
+
+		for (int cy = fromY; cy <= toY; cy++) {
+			for (int cx = fromX; cx <= toX; cx++) {
+				int cell = cellIndex(cx, cy);
+				for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+					int j = cellPersons[k];
+					double dx = positionX[j] - x;
+					double dy = positionY[j] - y;
+					if (dx * dx + dy * dy < radiusSq) {
+						consumer.accept(j);
+					}
+				}
+			}
+		}
+	}
+
+	private int cellX(final double x) {
+		return clamp((int) Math.floor((x - minX) / cellSize), cellsX);
+	}
+
+	private int cellY(final double y) {
+		return clamp((int) Math.floor((y - minY) / cellSize), cellsY);
+	}
+
+	private int cellIndex(final int cx, final int cy) {
+		return cy * cellsX + cx;
+	}
+
+	private static int clamp(final int index, final int cells) {
+		return Math.max(0, Math.min(index, cells - 1));
+	}
+}
@@ -81,9 +81,7 @@ public class OSMBehaviorController {
 
         } else {
             pedestrian.setPosition(nextPosition);
-            synchronized (topography) {
-                topography.moveElement(pedestrian, currentPosition);
-            }
+            moveElement(pedestrian, topography, currentPosition);
 
             // compute velocity by forward difference
             Vector2D pedVelocity = new Vector2D(nextPosition.x - currentPosition.x, nextPosition.y - currentPosition.y).multiply(1.0 / stepTime);
@@ -109,12 +107,25 @@ public class OSMBehaviorController {
 	    pedestrian.getFootstepHistory().removeLast();
 
 	    pedestrian.setPosition(footStep.getStart());
-	    synchronized (topography) {
-		    topography.moveElement(pedestrian, footStep.getEnd());
-	    }
+	    moveElement(pedestrian, topography, footStep.getEnd());
 	    pedestrian.setVelocity(new Vector2D(0, 0));
     }
 
+	/**
+	 * Informs the topography that the pedestrian, whose position is already set, moved away from
+	 * <tt>oldPosition</tt>. Update schemes which have to control the order in which the
+	 * topography changes (e.g. to be reproducible) can override this method.
+	 *
+	 * @param pedestrian    the agent which position is already set
+	 * @param topography    the topography
+	 * @param oldPosition   the position of the agent known by the topography
+	 */
+	protected void moveElement(@NotNull final PedestrianOSM pedestrian, @NotNull final Topography topography, @NotNull final VPoint oldPosition) {
+		synchronized (topography) {
+			topography.moveElement(pedestrian, oldPosition);
+		}
+	}
+
     public void wait(PedestrianOSM pedestrian, Topography topography, double timeStepInSec) {
         double stepStartTime = pedestrian.getTimeOfNextStep();
         double stepEndTime = stepStartTime + timeStepInSec;
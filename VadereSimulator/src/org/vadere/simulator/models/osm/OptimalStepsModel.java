@@ -1,5 +1,8 @@
 package org.vadere.simulator.models.osm;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.jetbrains.annotations.NotNull;
 import org.vadere.annotation.factories.models.ModelClass;
 import org.vadere.simulator.control.factory.GroupSourceControllerFactory;
@@ -24,6 +27,7 @@ import org.vadere.state.scenario.DynamicElement;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.scenario.Topography;
 import org.vadere.state.types.UpdateType;
+import org.vadere.state.util.StateJsonConverter;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VShape;
 import org.vadere.util.logging.Logger;
@@ -33,7 +37,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 @ModelClass(isMainModel = true)
-public class OptimalStepsModel implements MainModel, PotentialFieldModel {
+public class OptimalStepsModel implements MainModel, PotentialFieldModel, CheckpointableModel {
 
 	private final static Logger logger = Logger.getLogger(OptimalStepsModel.class);
 
@@ -211,7 +215,7 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 						}
 						);
 			*/}
-			default: return UpdateSchemeOSM.create(attributesOSM.getUpdateType(), topography, random, getPotentialFieldAgent().getMaximalInfluenceRadius());
+			default: return UpdateSchemeOSM.create(attributesOSM.getUpdateType(), topography, random, getPotentialFieldAgent().getMaximalInfluenceRadius(), attributesOSM.getParallelism());
 		}
 	}
 
@@ -232,6 +236,34 @@ public class OptimalStepsModel implements MainModel, PotentialFieldModel {
 		lastSimTimeInSec = simTimeInSec;
 	}
 
+	@Override
+	public JsonNode getCheckpointState(final double simTimeInSec) {
+		ObjectNode state = StateJsonConverter.createObjectNode();
+		ArrayNode pedestrians = state.putArray("pedestrians");
+		for (PedestrianOSM pedestrian : domain.getTopography().getElements(PedestrianOSM.class)) {
+			pedestrians.add(pedestrian.getCheckpointState());
+		}
+		return state;
+	}
+
+	/**
+	 * Restores the state of the pedestrians and reinserts them into the update scheme since their event
+	 * times have changed.
+	 */
+	@Override
+	public void restoreCheckpointState(@NotNull final JsonNode state, final double simTimeInSec) {
+		Topography topography = domain.getTopography();
+		for (JsonNode pedestrianState : state.get("pedestrians")) {
+			Pedestrian pedestrian = topography.getPedestrianDynamicElements().getElement(pedestrianState.get("id").asInt());
+			if (pedestrian instanceof PedestrianOSM) {
+				updateSchemeOSM.elementRemoved(pedestrian);
+				((PedestrianOSM) pedestrian).restoreCheckpointState(pedestrianState);
+				updateSchemeOSM.elementAdded(pedestrian);
+			}
+		}
+		lastSimTimeInSec = simTimeInSec;
+	}
+
 	/**
 	 * At the moment, all pedestrians inherit position from "this.attributesPedestian"!
 	 */
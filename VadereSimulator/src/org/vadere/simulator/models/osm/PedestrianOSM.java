@@ -1,5 +1,8 @@
 package org.vadere.simulator.models.osm;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.models.StepSizeAdjuster;
@@ -21,6 +24,7 @@ import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.scenario.Stairs;
 import org.vadere.state.scenario.Topography;
+import org.vadere.state.util.StateJsonConverter;
 ;
 
 import java.util.*;
@@ -33,8 +37,8 @@ public class PedestrianOSM extends Pedestrian {
 	private final AttributesOSM attributesOSM;
 	private final transient StepCircleOptimizer stepCircleOptimizer;
 	private final transient Topography topography;
-	private final double stepLength;
-	private final double stepDeviation;
+	private double stepLength;
+	private double stepDeviation;
 	private final double minStepLength;
 
 	private transient IPotentialFieldTarget potentialFieldTarget;
@@ -57,6 +61,8 @@ public class PedestrianOSM extends Pedestrian {
 	private double timeOfNextStep;
 
 	private transient Collection<? extends Agent> relevantPedestrians;
+	// reused by refreshRelevantPedestrians, i.e. the spatial map query does not allocate a new list each step
+	private final transient List<Agent> closePedestrians = new ArrayList<>();
 
 	// calculated by (current position - last position)/(period of time).
 	private double speedByAbsoluteDistance;
@@ -301,6 +307,15 @@ public class PedestrianOSM extends Pedestrian {
 		return combinedPotentialStrategy.getValue(newPos, this, relevantPedestrians);
 	}
 
+	/**
+	 * Evaluates the combined potential at the first <tt>n</tt> positions <tt>(xs[i], ys[i])</tt> (e.g. all
+	 * candidates of the step circle) at once and writes the results into <tt>potentials</tt>. The relevant
+	 * pedestrians of the current step are used for all positions.
+	 */
+	public void getPotentials(final double[] xs, final double[] ys, final int n, final double[] potentials) {
+		combinedPotentialStrategy.getValues(xs, ys, n, this, relevantPedestrians, potentials);
+	}
+
 	public void clearStrides() {
 		strides.clear();
 	}
@@ -360,7 +375,9 @@ public class PedestrianOSM extends Pedestrian {
 
 	public void refreshRelevantPedestrians() {
 		VCircle reachableArea = new VCircle(getPosition(), getFreeFlowStepSize());
-		setRelevantPedestrians(potentialFieldPedestrian.getRelevantAgents(reachableArea, this, getTopography()));
+		closePedestrians.clear();
+		potentialFieldPedestrian.getRelevantAgents(reachableArea, this, getTopography(), closePedestrians);
+		setRelevantPedestrians(closePedestrians);
 	}
 
 
@@ -430,6 +447,37 @@ public class PedestrianOSM extends Pedestrian {
 		return new PedestrianOSM(this);
 	}
 
+	/**
+	 * Returns the state of this pedestrian which is not contained in a plain {@link Pedestrian}, i.e. the
+	 * randomly drawn step length, the event time and the positions of the current step.
+	 */
+	ObjectNode getCheckpointState() {
+		ObjectNode state = StateJsonConverter.createObjectNode();
+		state.put("id", getId());
+		state.put("stepDeviation", stepDeviation);
+		state.put("stepLength", stepLength);
+		state.put("timeOfNextStep", timeOfNextStep);
+		state.set("lastPosition", StateJsonConverter.convertValue(lastPosition, JsonNode.class));
+		state.set("nextPosition", StateJsonConverter.convertValue(nextPosition, JsonNode.class));
+		ArrayNode strideNodes = state.putArray("strides");
+		for (Pair<Double, Double> stride : strides) {
+			strideNodes.addArray().add(stride.getLeft()).add(stride.getRight());
+		}
+		return state;
+	}
+
+	void restoreCheckpointState(@NotNull final JsonNode state) {
+		stepDeviation = state.get("stepDeviation").asDouble();
+		stepLength = state.get("stepLength").asDouble();
+		timeOfNextStep = state.get("timeOfNextStep").asDouble();
+		lastPosition = StateJsonConverter.convertValue(state.get("lastPosition"), VPoint.class);
+		nextPosition = StateJsonConverter.convertValue(state.get("nextPosition"), VPoint.class);
+		strides.clear();
+		for (JsonNode stride : state.get("strides")) {
+			strides.add(Pair.of(stride.get(0).asDouble(), stride.get(1).asDouble()));
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "id = " + getId() + " memory " + super.toString();
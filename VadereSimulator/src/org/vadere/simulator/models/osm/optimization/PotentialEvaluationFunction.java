@@ -5,14 +5,11 @@ import org.apache.commons.math.analysis.MultivariateRealFunction;
 import org.apache.commons.math.analysis.UnivariateRealFunction;
 import org.apache.commons.math3.analysis.MultivariateFunction;
 import org.vadere.simulator.models.osm.PedestrianOSM;
-import org.vadere.state.scenario.Obstacle;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.util.geometry.shapes.VLine;
+import org.vadere.util.geometry.ShapeSegmentGrid;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.logging.Logger;
 
-import java.util.List;
-
 /**
  * The Class PotentialEvaluationFunction.
  * 
@@ -137,11 +134,9 @@ public class PotentialEvaluationFunction implements UnivariateRealFunction,
 		double result = 100000;
 		// TODO: this is a dirty hack, fix it!
 		if (pedestrian.getAttributesOSM().isSeeSmallWalls()) {
-			List<Obstacle> obstacles = pedestrian.getTopography().getObstacles();
-			for (Obstacle obstacle : obstacles) {
-				if (obstacle.getShape().intersects(new VLine(pedPos, newPos)))
-					return result;
-			}
+			// only the obstacle edges near the step are tested
+			if (pedestrian.getTopography().getObstacleSegmentIndex().intersects(pedPos.x, pedPos.y, newPos.x, newPos.y))
+				return result;
 		}
 
 		final double sqx = (newPos.x-pedPos.x)*(newPos.x-pedPos.x); // Math.pow(newPos.x - pedPos.x, 2)
@@ -162,6 +157,63 @@ public class PotentialEvaluationFunction implements UnivariateRealFunction,
 		return result;
 	}
 
+	/**
+	 * Returns the values of the aggregated potential for the first n positions
+	 * (xs[i], ys[i]). The results are equal to the results of
+	 * {@link #value(double[])} but the potentials of all valid positions are
+	 * evaluated by one call of {@link PedestrianOSM#getPotentials}.
+	 *
+	 * @param xs
+	 *        the x-coordinates of the relevant positions
+	 * @param ys
+	 *        the y-coordinates of the relevant positions
+	 * @param n
+	 *        the number of positions
+	 * @param potentials
+	 *        the array (of length at least n) for the potential values
+	 */
+	public void values(final double[] xs, final double[] ys, final int n, final double[] potentials) {
+		final VPoint pedPos = pedestrian.getPosition();
+		final ShapeSegmentGrid obstacleSegments = pedestrian.getAttributesOSM().isSeeSmallWalls() ?
+				pedestrian.getTopography().getObstacleSegmentIndex() : null;
+		final double sqss = stepSize * stepSize;
+		final double tolInsideCircle = 0.00001;
+
+		// positions (and their indices) inside the step circle
+		final double[] validXs = new double[n];
+		final double[] validYs = new double[n];
+		final int[] validIndices = new int[n];
+		int m = 0;
+
+		for (int i = 0; i < n; i++) {
+			// Large value, do not consider point when minimizing
+			potentials[i] = 100000;
+
+			if (obstacleSegments != null && obstacleSegments.intersects(pedPos.x, pedPos.y, xs[i], ys[i])) {
+				continue;
+			}
+			counter++;
+
+			final double sqx = (xs[i]-pedPos.x)*(xs[i]-pedPos.x);
+			final double sqy = (ys[i]-pedPos.y)*(ys[i]-pedPos.y);
+			if (sqx + sqy <= sqss + tolInsideCircle) {
+				validXs[m] = xs[i];
+				validYs[m] = ys[i];
+				validIndices[m] = i;
+				m++;
+			}
+		}
+
+		if (m > 0) {
+			final double[] validPotentials = new double[m];
+			pedestrian.getPotentials(validXs, validYs, m, validPotentials);
+			for (int j = 0; j < m; j++) {
+				potentials[validIndices[j]] = validPotentials[j];
+			}
+			evaluationCounter += m;
+		}
+	}
+
 	/**
 	 * Returns the value of the aggregated potential. Auxiliary method for
 	 * optimization.
@@ -71,7 +71,8 @@ public class StepCircleOptimizerBrent extends StepCircleOptimizer {
 				newMinimum = optimizer.optimize(potentialEvaluationFunction,
 						GoalType.MINIMIZE, 0, 2 * Math.PI, 2 * Math.PI / bound
 								* (counter + randOffset));
-				newMinimumValue = potentialEvaluationFunction.value(newMinimum);
+				// the optimizer already evaluated its optimum, thus the value is not evaluated again
+				newMinimumValue = optimizer.getFunctionValue();
 
 				counter++;
 
@@ -52,18 +52,23 @@ public class StepCircleOptimizerDiscrete extends StepCircleOptimizer {
 		VPoint nextPos = curPos.clone();
 		double curPosPotential = pedestrian.getPotential(curPos);
 		double potential = curPosPotential;
-		double currentPotential;
 
-		for (VPoint currentPosition : positions) {
-			try {
-				currentPotential = potentialEvaluationFunction.getPotential(currentPosition);
+		// evaluate all candidates at once
+		int n = positions.size();
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		double[] potentials = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = positions.get(i).x;
+			ys[i] = positions.get(i).y;
+		}
 
-				if(currentPotential < potential) {
-					potential = currentPotential;
-					nextPos = currentPosition;
-				}
-			} catch (Exception e) {
-				Logger.getLogger(StepCircleOptimizerDiscrete.class).error("Potential evaluation threw an error: " + e.getMessage());
+		potentialEvaluationFunction.values(xs, ys, n, potentials);
+
+		for (int i = 0; i < n; i++) {
+			if(potentials[i] < potential) {
+				potential = potentials[i];
+				nextPos = positions.get(i);
 			}
 		}
 
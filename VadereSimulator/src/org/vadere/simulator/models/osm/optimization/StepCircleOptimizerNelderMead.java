@@ -3,6 +3,7 @@ package org.vadere.simulator.models.osm.optimization;
 import org.apache.commons.math.ConvergenceException;
 import org.apache.commons.math.FunctionEvaluationException;
 import org.apache.commons.math.optimization.GoalType;
+import org.apache.commons.math.optimization.RealPointValuePair;
 import org.apache.commons.math.optimization.direct.NelderMead;
 import org.vadere.simulator.models.osm.PedestrianOSM;
 import org.vadere.util.geometry.shapes.VCircle;
@@ -63,9 +64,11 @@ public class StepCircleOptimizerNelderMead extends StepCircleOptimizer {
 			double[][] simplex = new double[][] {{0, 0}, {step, step}, {step, -step}};
 			optimizer.setStartConfiguration(simplex);
 			optimizer.setConvergenceChecker(new NelderMeadConvergenceChecker());
-			newMinimum = optimizer.optimize(potentialEvaluationFunction, GoalType.MINIMIZE, position).getPoint();
+			// the optimizer already evaluated its optimum, thus the value is not evaluated again
+			RealPointValuePair optimum = optimizer.optimize(potentialEvaluationFunction, GoalType.MINIMIZE, position);
 			//logger.info("["+0+","+0+"],["+step+","+step+"],["+step+","+(-step)+")]");
-			newMinimumValue = potentialEvaluationFunction.value(newMinimum);
+			newMinimum = optimum.getPoint();
+			newMinimumValue = optimum.getValue();
 			int counter = 0;
 
 			if ((minimumValue > newMinimumValue && Math.abs(minimumValue - newMinimumValue) > threshold)) {
@@ -107,9 +110,10 @@ public class StepCircleOptimizerNelderMead extends StepCircleOptimizer {
 				optimizer.setStartConfiguration(simplex);
 
 				optimizer.setConvergenceChecker(new NelderMeadConvergenceChecker());
-				newMinimum = optimizer.optimize(potentialEvaluationFunction,
-						GoalType.MINIMIZE, newPosition).getPoint();
-				newMinimumValue = potentialEvaluationFunction.value(newMinimum);
+				optimum = optimizer.optimize(potentialEvaluationFunction,
+						GoalType.MINIMIZE, newPosition);
+				newMinimum = optimum.getPoint();
+				newMinimumValue = optimum.getValue();
 
 				counter++;
 
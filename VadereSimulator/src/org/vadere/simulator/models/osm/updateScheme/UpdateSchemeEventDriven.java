@@ -22,10 +22,14 @@ public class UpdateSchemeEventDriven implements UpdateSchemeOSM {
 	private final OSMBehaviorController osmBehaviorController;
 
 	public UpdateSchemeEventDriven(@NotNull final Topography topography) {
+		this(topography, new OSMBehaviorController());
+	}
+
+	protected UpdateSchemeEventDriven(@NotNull final Topography topography, @NotNull final OSMBehaviorController osmBehaviorController) {
 		this.topography = topography;
 		this.pedestrianEventsQueue = new PriorityQueue<>(100, new ComparatorPedestrianOSM());
 		this.pedestrianEventsQueue.addAll(topography.getElements(PedestrianOSM.class));
-		this.osmBehaviorController = new OSMBehaviorController();
+		this.osmBehaviorController = osmBehaviorController;
 	}
 
 	@Override
@@ -59,9 +63,9 @@ public class UpdateSchemeEventDriven implements UpdateSchemeOSM {
 			PedestrianOSM candidate = osmBehaviorController.findSwapCandidate(pedestrian, topography);
 
 			if (candidate != null) {
-				pedestrianEventsQueue.remove(candidate);
+				removeEvent(candidate);
 				osmBehaviorController.swapPedestrians(pedestrian, candidate, topography);
-				pedestrianEventsQueue.add(candidate);
+				addEvent(candidate);
 			} else {
 				osmBehaviorController.makeStepToTarget(pedestrian, topography);
 			}
@@ -85,20 +89,38 @@ public class UpdateSchemeEventDriven implements UpdateSchemeOSM {
 		}
 	}
 
+	/**
+	 * Adds the next event of the pedestrian to the event queue.
+	 *
+	 * @param pedestrian the pedestrian
+	 */
+	protected void addEvent(@NotNull final PedestrianOSM pedestrian) {
+		pedestrianEventsQueue.add(pedestrian);
+	}
+
+	/**
+	 * Removes the next event of the pedestrian from the event queue.
+	 *
+	 * @param pedestrian the pedestrian
+	 */
+	protected void removeEvent(@NotNull final PedestrianOSM pedestrian) {
+		pedestrianEventsQueue.remove(pedestrian);
+	}
+
 	@Override
 	public void elementRemoved(@NotNull final Pedestrian element) {
-		pedestrianEventsQueue.remove(element);
+		removeEvent((PedestrianOSM) element);
 	}
 
 	@Override
 	public void elementAdded(final Pedestrian element) {
-		pedestrianEventsQueue.add((PedestrianOSM) element);
+		addEvent((PedestrianOSM) element);
 	}
 
 	/**
 	 * Compares the time of the next possible move.
 	 */
-	private class ComparatorPedestrianOSM implements Comparator<PedestrianOSM> {
+	protected static class ComparatorPedestrianOSM implements Comparator<PedestrianOSM> {
 		@Override
 		public int compare(PedestrianOSM ped1, PedestrianOSM ped2) {
 			int timeCompare = Double.compare(ped1.getTimeOfNextStep(), ped2.getTimeOfNextStep());
@@ -1,59 +1,102 @@
 package org.vadere.simulator.models.osm.updateScheme;
 
 import org.jetbrains.annotations.NotNull;
-import org.vadere.meshing.mesh.gen.IncrementalTriangulation;
-import org.vadere.meshing.mesh.gen.MeshPanel;
-import org.vadere.meshing.mesh.gen.PFace;
-import org.vadere.meshing.mesh.gen.PHalfEdge;
-import org.vadere.meshing.mesh.gen.PMesh;
-import org.vadere.meshing.mesh.gen.PVertex;
-import org.vadere.meshing.mesh.inter.IIncrementalTriangulation;
-import org.vadere.meshing.utils.io.IOUtils;
+import org.vadere.simulator.models.osm.OSMBehaviorController;
 import org.vadere.simulator.models.osm.PedestrianOSM;
 import org.vadere.state.scenario.Topography;
-import org.vadere.util.geometry.LinkedCellsGrid;
-import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.logging.Logger;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
+/**
+ * A parallel version of the {@link UpdateSchemeEventDriven}, see PhD thesis of B. Zoennchen (p. 63). The topography is
+ * covered by a grid of cells with an edge length such that two agents which are at least two cells apart can not
+ * influence each other within one step. Events of such agents are independent and can be processed in parallel.
+ *
+ * The grid is divided into strips of cells (regions) and each region has its own event queue. In each round the regions
+ * are processed in two half-rounds (even and odd regions). Every region has a width of two cells and regions of the same
+ * parity are one region apart, therefore the active regions do never touch the same cells. Each active region polls its
+ * events which are due in the order of time and id and locks the 3x3 cell neighbourhood of each polled agent. An agent
+ * is only updated if its own cell is not locked by an earlier event. The locks are stamps in a persistent array, i.e.
+ * no lock has to be released or reallocated. All selected agents of all active regions are updated on a work-stealing
+ * {@link ForkJoinPool}.
+ *
+ * To be reproducible, the moves of the agents are not reported to the topography (i.e. the spatial data structure) while
+ * agents are updated in parallel. Instead they are collected and applied in the order of the agent ids after all agents
+ * of a half-round are updated. This is valid since independent agents do not see each other. The regions depend on the
+ * grid only, not on the number of threads, thus the result is the same for any number of threads.
+ *
+ * Note that the events are not processed in the global order of time and id of the {@link UpdateSchemeEventDriven}.
+ * Inside a region the order is kept, but the even regions are processed before the odd regions. Therefore, a later
+ * event of an agent near a region border might be processed before an earlier event of a neighbouring agent on the
+ * other side of the border, i.e. the trajectories differ from the ones of the sequential event driven update.
+ */
 public class UpdateSchemeEventDrivenParallel extends UpdateSchemeEventDriven {
 
 	private final static Logger logger = Logger.getLogger(UpdateSchemeEventDrivenParallel.class);
 
-	static {
-		logger.setDebug();
-	}
+	/**
+	 * the number of cells of a region across the strips, the minimal width which avoids conflicts between active regions.
+	 * It does not depend on the number of threads, i.e. the regions and the result do not change with the number of threads.
+	 */
+	private static final int REGION_WIDTH = 2;
 
 	private final Topography topography;
-	private LinkedCellsGrid<PedestrianOSM> linkedCellsGrid;
-	private boolean[][] locked;
-	private double pedestrianPotentialWidth;
-	private int iteration = 0;
-	private BufferedWriter bufferedWriter;
+	private final double pedestrianPotentialWidth;
+	private final ForkJoinPool forkJoinPool;
+	private final Map<PedestrianOSM, VPoint> deferredMoves;
+	private final Comparator<PedestrianOSM> eventComparator;
 
 	private double sideLength = -1;
+	private int gridWidth;
+	private int gridHeight;
+	private boolean stripsAlongX;
+	private int[] lockStamps;
+	private int stamp;
+
+	private VRectangle bounds;
+	private PriorityQueue<PedestrianOSM>[] regionQueues;
+	private List<PedestrianOSM>[] selected;
+	private List<PedestrianOSM>[] notSelected;
+	private Map<PedestrianOSM, Integer> regionOf;
+	private List<PedestrianOSM> updateAbleAgents;
+
+	public UpdateSchemeEventDrivenParallel(@NotNull final Topography topography, final double pedestrianPotentialWidth, final int parallelism) {
+		this(topography, pedestrianPotentialWidth, parallelism, new ConcurrentHashMap<>());
+	}
 
-	public UpdateSchemeEventDrivenParallel(@NotNull final Topography topography, @NotNull final double pedestrianPotentialWidth) {
-		super(topography);
+	private UpdateSchemeEventDrivenParallel(@NotNull final Topography topography, final double pedestrianPotentialWidth, final int parallelism,
+	                                        @NotNull final Map<PedestrianOSM, VPoint> deferredMoves) {
+		super(topography, new OSMBehaviorController() {
+			@Override
+			protected void moveElement(@NotNull final PedestrianOSM pedestrian, @NotNull final Topography topography, @NotNull final VPoint oldPosition) {
+				// keep the position which is known by the topography if the agent moves multiple times
+				deferredMoves.putIfAbsent(pedestrian, oldPosition);
+			}
+		});
 		this.topography = topography;
 		this.pedestrianPotentialWidth = pedestrianPotentialWidth;
+		this.forkJoinPool = new ForkJoinPool(parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism);
+		this.deferredMoves = deferredMoves;
+		this.eventComparator = new ComparatorPedestrianOSM();
+		this.regionOf = new HashMap<>();
+		this.updateAbleAgents = new ArrayList<>();
 	}
 
 	@Override
 	public void update(final double timeStepInSec, final double currentTimeInSec) {
-		topography.getElements(PedestrianOSM.class).parallelStream().forEach(pedestrianOSM -> pedestrianOSM.clearStrides());
+		clearStrides(topography);
 
 		double maxStepSize = topography.getElements(PedestrianOSM.class).parallelStream().mapToDouble(ped -> ped.getDesiredStepSize()).max().orElse(0);
 		double maxDesiredSpeed = topography.getElements(PedestrianOSM.class).parallelStream().mapToDouble(ped -> ped.getDesiredSpeed()).max().orElse(0);
@@ -62,53 +105,186 @@ public class UpdateSchemeEventDrivenParallel extends UpdateSchemeEventDriven {
 		// this formula is slightly different than the formula in the PhD of B. Zoennchen (p. 63, eq. 5.3)
 		// bit it is a good approximation
 		double sideLength = (2.0 * stepSize + pedestrianPotentialWidth);
-		//logger.debug("initial grid with a grid edge length equal to " + sideLength);
 
-		int nCells = 0;
-		int counter = 1;
+		// larger cells are still valid, therefore the regions are only rebuilt if the cells become too small
+		if(sideLength > this.sideLength) {
+			initRegions(sideLength);
+		}
+
+		if(regionQueues == null) {
+			return;
+		}
+
+		// agents which were added before the regions were initialized
+		while (!pedestrianEventsQueue.isEmpty()) {
+			addEvent(pedestrianEventsQueue.poll());
+		}
+
+		int rounds = 0;
+		int updates = 0;
 		// event driven update ignores time credits
-		do {
-			linkedCellsGrid = new LinkedCellsGrid<>(new VRectangle(topography.getBounds()), sideLength);
-			locked = new boolean[linkedCellsGrid.getGridWidth()][linkedCellsGrid.getGridHeight()];
-			nCells = linkedCellsGrid.getGridWidth() * linkedCellsGrid.getGridHeight();
-			List<PedestrianOSM> updateAbleAgents = new LinkedList<>();
-			List<PedestrianOSM> notUpdateAbleAgents = new LinkedList<>();
-
-			while (!pedestrianEventsQueue.isEmpty() && pedestrianEventsQueue.peek().getTimeOfNextStep() < currentTimeInSec) {
-				PedestrianOSM ped = pedestrianEventsQueue.poll();
-				int[] gridPos = linkedCellsGrid.gridPos(ped.getPosition());
-
-				// lock cell of the agent
-				if(!locked[gridPos[0]][gridPos[1]]) {
-					updateAbleAgents.add(ped);
-					//ped.updateCount = counter;
-				} else {
-					notUpdateAbleAgents.add(ped);
-					//ped.updateCount = -1;
+		while (hasEventsBefore(currentTimeInSec)) {
+			for(int parity = 0; parity <= 1; parity++) {
+				updates += updateRegions(parity, timeStepInSec, currentTimeInSec);
+			}
+			rounds++;
+		}
+		logger.debug("rounds: " + rounds + ", updates: " + updates + ", regions: " + regionQueues.length + ", cells: " + (gridWidth * gridHeight) + ", sideLen:" + sideLength);
+	}
+
+	/**
+	 * Processes one half-round, i.e. all regions with the same parity.
+	 *
+	 * @return the number of updated agents
+	 */
+	private int updateRegions(final int parity, final double timeStepInSec, final double currentTimeInSec) {
+		stamp++;
+		int nActive = (regionQueues.length - parity + 1) / 2;
+
+		// (1) select independent agents, every region only locks its own cells and the cells of its adjacent (inactive) regions
+		runParallel(nActive, i -> selectAgents(2 * i + parity, currentTimeInSec));
+
+		updateAbleAgents.clear();
+		for(int i = 0; i < nActive; i++) {
+			updateAbleAgents.addAll(selected[2 * i + parity]);
+		}
+
+		// (2) update all selected agents in parallel
+		runParallel(updateAbleAgents.size(), i -> update(updateAbleAgents.get(i), timeStepInSec, currentTimeInSec));
+
+		// (3) apply the moves in a deterministic order
+		if(!deferredMoves.isEmpty()) {
+			List<PedestrianOSM> movedAgents = new ArrayList<>(deferredMoves.keySet());
+			movedAgents.sort(Comparator.comparingInt(ped -> ped.getId()));
+			for(PedestrianOSM ped : movedAgents) {
+				topography.moveElement(ped, deferredMoves.get(ped));
+			}
+			deferredMoves.clear();
+		}
+
+		// (4) re-schedule the events of the updated agents, they might have changed their region
+		for(int i = 0; i < nActive; i++) {
+			int region = 2 * i + parity;
+			for(PedestrianOSM ped : selected[region]) {
+				addEvent(ped);
+			}
+			selected[region].clear();
+		}
+
+		return updateAbleAgents.size();
+	}
+
+	private void selectAgents(final int region, final double currentTimeInSec) {
+		PriorityQueue<PedestrianOSM> queue = regionQueues[region];
+		while (!queue.isEmpty() && queue.peek().getTimeOfNextStep() < currentTimeInSec) {
+			PedestrianOSM ped = queue.poll();
+			int col = col(ped.getPosition());
+			int row = row(ped.getPosition());
+
+			if(lockStamps[row * gridWidth + col] != stamp) {
+				selected[region].add(ped);
+			} else {
+				notSelected[region].add(ped);
+			}
+
+			// lock the neighbourhood, an agent which was not selected locks it as well since its event is earlier
+			for(int y = Math.max(0, row - 1); y <= Math.min(gridHeight - 1, row + 1); y++) {
+				for(int x = Math.max(0, col - 1); x <= Math.min(gridWidth - 1, col + 1); x++) {
+					lockStamps[y * gridWidth + x] = stamp;
 				}
+			}
+		}
 
-				// lock neighbours
-				for(int y = -1; y <= 1; y++) {
-					for(int x = -1; x <= 1; x++) {
-						int col = Math.min(locked.length-1, Math.max(0, gridPos[0]+x));
-						int row = Math.min(locked[0].length-1, Math.max(0, gridPos[1]+y));
-						locked[col][row] = true;
-					}
+		// agents which are not updated stay where they are, i.e. in this region
+		queue.addAll(notSelected[region]);
+		notSelected[region].clear();
+	}
+
+	private boolean hasEventsBefore(final double currentTimeInSec) {
+		for(PriorityQueue<PedestrianOSM> queue : regionQueues) {
+			if(!queue.isEmpty() && queue.peek().getTimeOfNextStep() < currentTimeInSec) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void initRegions(final double sideLength) {
+		List<PedestrianOSM> agents = new ArrayList<>(regionOf.keySet());
+
+		this.sideLength = sideLength;
+		this.bounds = new VRectangle(topography.getBounds());
+		this.gridWidth = Math.max(1, (int) Math.ceil(bounds.getWidth() / sideLength));
+		this.gridHeight = Math.max(1, (int) Math.ceil(bounds.getHeight() / sideLength));
+		this.stripsAlongX = gridWidth >= gridHeight;
+		this.lockStamps = new int[gridWidth * gridHeight];
+		this.stamp = 0;
+
+		int cells = stripsAlongX ? gridWidth : gridHeight;
+		int nRegions = (cells + REGION_WIDTH - 1) / REGION_WIDTH;
+
+		this.regionQueues = new PriorityQueue[nRegions];
+		this.selected = new List[nRegions];
+		this.notSelected = new List[nRegions];
+		for(int i = 0; i < nRegions; i++) {
+			regionQueues[i] = new PriorityQueue<>(100, eventComparator);
+			selected[i] = new ArrayList<>();
+			notSelected[i] = new ArrayList<>();
+		}
+
+		regionOf.clear();
+		for(PedestrianOSM ped : agents) {
+			addEvent(ped);
+		}
+	}
+
+	private int col(@NotNull final VPoint pos) {
+		return Math.min(gridWidth - 1, Math.max(0, (int) ((pos.getX() - bounds.getMinX()) / sideLength)));
+	}
+
+	private int row(@NotNull final VPoint pos) {
+		return Math.min(gridHeight - 1, Math.max(0, (int) ((pos.getY() - bounds.getMinY()) / sideLength)));
+	}
+
+	private int region(@NotNull final VPoint pos) {
+		return (stripsAlongX ? col(pos) : row(pos)) / REGION_WIDTH;
+	}
+
+	private void runParallel(final int n, @NotNull final IntConsumer consumer) {
+		// the selection and the update of a half-round have to be finished before the moves are applied
+		UpdateSchemeOSM.runOnPool(forkJoinPool, () -> IntStream.range(0, n).parallel().forEach(consumer));
+	}
+
+	@Override
+	protected void addEvent(@NotNull final PedestrianOSM pedestrian) {
+		if(regionQueues == null) {
+			super.addEvent(pedestrian);
+		} else {
+			// events might be re-scheduled concurrently, e.g. if two agents swap their positions
+			synchronized (this) {
+				int region = region(pedestrian.getPosition());
+				regionQueues[region].add(pedestrian);
+				regionOf.put(pedestrian, region);
+			}
+		}
+	}
+
+	@Override
+	protected void removeEvent(@NotNull final PedestrianOSM pedestrian) {
+		synchronized (this) {
+			super.removeEvent(pedestrian);
+			if(regionQueues != null) {
+				Integer region = regionOf.remove(pedestrian);
+				if(region != null) {
+					regionQueues[region].remove(pedestrian);
 				}
 			}
+		}
+	}
 
-			//logger.debug("not updated " + notUpdateAbleAgents.size() + " " + counter + ".");
-			updateAbleAgents.parallelStream().forEach(ped -> {
-				//logger.info(ped.getTimeOfNextStep());
-				//System.out.println(ped.getId());
-				update(ped, timeStepInSec, currentTimeInSec);
-			});
-
-			pedestrianEventsQueue.addAll(notUpdateAbleAgents);
-			pedestrianEventsQueue.addAll(updateAbleAgents);
-			counter++;
-		} while (!pedestrianEventsQueue.isEmpty() && pedestrianEventsQueue.peek().getTimeOfNextStep() < currentTimeInSec);
-		iteration++;
-		logger.debug("rounds: " + counter + ", #peds: " + topography.getPedestrianDynamicElements().getElements().size() + ", cells: " + nCells + ", sideLen:" + sideLength);
+	@Override
+	public void shutdown() {
+		forkJoinPool.shutdown();
 	}
 }
@@ -23,6 +23,8 @@ import org.vadere.util.opencl.OpenCLException;
 import org.vadere.simulator.models.potential.solver.calculators.EikonalSolver;
 
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 public interface UpdateSchemeOSM extends DynamicElementRemoveListener<Pedestrian>, DynamicElementAddListener<Pedestrian> {
 
@@ -46,16 +48,18 @@ public interface UpdateSchemeOSM extends DynamicElementRemoveListener<Pedestrian
 			@NotNull final UpdateType updateType,
 			@NotNull final Topography topography,
 			final Random random,
-			final double maxAgentPotentialInfluenceRadius) {
+			final double maxAgentPotentialInfluenceRadius,
+			final int parallelism) {
 		switch (updateType) {
 			case SEQUENTIAL: return new UpdateSchemeSequential(topography);
 			case PARALLEL: return new UpdateSchemeParallel(topography);
 			case EVENT_DRIVEN: return new UpdateSchemeEventDriven(topography);
 			case SHUFFLE: return new UpdateSchemeShuffle(topography, random);
+			case PARALLEL_FORK_JOIN: return new UpdateSchemeParallelForkJoin(topography, parallelism, Math.max(1.0, 2.0 * maxAgentPotentialInfluenceRadius));
 			//TODO: magic number!
 			case EVENT_DRIVEN_PARALLEL:
 			case EVENT_DRIVEN_CL:
-				return new UpdateSchemeEventDrivenParallel(topography, maxAgentPotentialInfluenceRadius);
+				return new UpdateSchemeEventDrivenParallel(topography, maxAgentPotentialInfluenceRadius, parallelism);
 			default: throw new IllegalArgumentException(updateType + " is not supported.");
 		}
 	}
@@ -125,4 +129,25 @@ public interface UpdateSchemeOSM extends DynamicElementRemoveListener<Pedestrian
 	default void shutdown() {
 
 	}
+
+	/**
+	 * Runs the task on the pool and waits until it is finished. If a worker fails, the agents of the task are
+	 * only partly updated and the simulation can not continue, therefore the exception of the worker is rethrown.
+	 * If the waiting thread is interrupted, the interruption is restored in order to stop the simulation.
+	 *
+	 * @param pool  the pool of a parallel update scheme
+	 * @param task  the task, e.g. a parallel stream over all agents of one phase
+	 */
+	static void runOnPool(@NotNull final ForkJoinPool pool, @NotNull final Runnable task) {
+		try {
+			pool.submit(task).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
 }
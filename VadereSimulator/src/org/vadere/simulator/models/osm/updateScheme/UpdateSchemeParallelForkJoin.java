@@ -0,0 +1,252 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.models.osm.OSMBehaviorController;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.state.psychology.cognition.SelfCategory;
+import org.vadere.state.psychology.perception.types.ElapsedTime;
+import org.vadere.state.scenario.Agent;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.logging.Logger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A work-stealing variant of the {@link UpdateSchemeParallel}. The semantic of the update is exactly the same, i.e. all
+ * events which start within the time span of <tt>currentTimeInSec</tt> - <tt>timeStepInSec</tt> and <tt>currentTimeInSec</tt>
+ * will be performed in parallel on the bases of the situation at <tt>currentTimeInSec</tt> - <tt>timeStepInSec</tt> and
+ * conflicts are resolved by the time of the next step and the agent id.
+ *
+ * The difference lies in the scheduling: instead of submitting one task per agent and phase, the agents are sorted
+ * by the cell of a coarse grid they are contained in (row-major, ties are broken by the id) and split into a small number
+ * of spatially coherent chunks. Each phase ({@link CallMethod#SEEK}, {@link CallMethod#MOVE}, {@link CallMethod#CONFLICTS}
+ * and {@link CallMethod#STEPS}) processes these chunks on a {@link ForkJoinPool} and acts as a barrier for the next phase.
+ * The state of an agent inside the update is stored in flat arrays indexed by its position in the sorted order such that
+ * no synchronized sets are required.
+ */
+public class UpdateSchemeParallelForkJoin implements UpdateSchemeOSM {
+
+	private static Logger logger = Logger.getLogger(UpdateSchemeParallelForkJoin.class);
+
+	/**
+	 * the number of chunks per thread, more than one chunk per thread enables work-stealing.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	/**
+	 * the minimal number of agents of a chunk, small chunks are not worth the scheduling overhead.
+	 */
+	private static final int MIN_CHUNK_SIZE = 16;
+
+	private final Topography topography;
+	private final ForkJoinPool forkJoinPool;
+	private final OSMBehaviorController osmBehaviorController;
+	private final double cellSize;
+
+	private PedestrianOSM[] pedestrians;
+
+	/**
+	 * marks an agent that will move in the time span.
+	 */
+	private boolean[] moves;
+
+	/**
+	 * marks an agent which is allowed to keep its step i.e. which has no conflict.
+	 */
+	private boolean[] keeps;
+
+	private int[] chunkOffsets;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param topography    the topography
+	 * @param parallelism   the number of threads, if it is smaller than 1 the number of available processors is used
+	 * @param cellSize      the side length of the grid cells used to build spatially coherent chunks of agents
+	 */
+	public UpdateSchemeParallelForkJoin(@NotNull final Topography topography, final int parallelism, final double cellSize) {
+		this.topography = topography;
+		this.forkJoinPool = new ForkJoinPool(parallelism < 1 ? Runtime.getRuntime().availableProcessors() : parallelism);
+		this.osmBehaviorController = new OSMBehaviorController();
+		this.cellSize = cellSize;
+		this.pedestrians = new PedestrianOSM[0];
+		this.moves = new boolean[0];
+		this.keeps = new boolean[0];
+		this.chunkOffsets = new int[]{0};
+		logger.debug("parallel fork join update scheme using " + forkJoinPool.getParallelism() + " threads.");
+	}
+
+	@Override
+	public void update(double timeStepInSec, double currentTimeInSec) {
+		clearStrides(topography);
+		partition();
+
+		boolean anyMoves;
+		do {
+			Arrays.fill(moves, false);
+			Arrays.fill(keeps, false);
+			CallMethod[] callMethods = {CallMethod.SEEK, CallMethod.MOVE, CallMethod.CONFLICTS, CallMethod.STEPS};
+
+			for (CallMethod callMethod : callMethods) {
+				long ms = 0;
+				if(callMethod == CallMethod.SEEK) {
+					ms = System.currentTimeMillis();
+				}
+
+				runPhase(callMethod, timeStepInSec, currentTimeInSec);
+
+				if(callMethod == CallMethod.SEEK) {
+					ms = System.currentTimeMillis() - ms;
+					logger.debug("runtime for next step computation = " + ms + " [ms]");
+				}
+			}
+
+			anyMoves = false;
+			for(boolean move : moves) {
+				if(move) {
+					anyMoves = true;
+					break;
+				}
+			}
+		} while (anyMoves);
+	}
+
+	/**
+	 * Sorts all agents by the grid cell containing them and splits the sorted agents into chunks of
+	 * (almost) equal size.
+	 */
+	private void partition() {
+		Collection<PedestrianOSM> elements = topography.getElements(PedestrianOSM.class);
+		VRectangle bounds = new VRectangle(topography.getBounds());
+		int gridWidth = Math.max(1, (int) Math.ceil(bounds.getWidth() / cellSize));
+
+		pedestrians = elements.toArray(new PedestrianOSM[0]);
+		Arrays.sort(pedestrians, Comparator
+				.comparingLong((PedestrianOSM ped) -> cellIndex(ped, bounds, gridWidth))
+				.thenComparingInt(ped -> ped.getId()));
+
+		if(moves.length != pedestrians.length) {
+			moves = new boolean[pedestrians.length];
+			keeps = new boolean[pedestrians.length];
+		}
+
+		int maxChunks = Math.max(1, forkJoinPool.getParallelism() * CHUNKS_PER_THREAD);
+		int nChunks = Math.max(1, Math.min(maxChunks, pedestrians.length / MIN_CHUNK_SIZE));
+		chunkOffsets = new int[nChunks + 1];
+		for(int i = 0; i <= nChunks; i++) {
+			chunkOffsets[i] = (int)((long)pedestrians.length * i / nChunks);
+		}
+	}
+
+	private long cellIndex(@NotNull final PedestrianOSM pedestrian, @NotNull final VRectangle bounds, final int gridWidth) {
+		long col = Math.max(0, (long) ((pedestrian.getPosition().getX() - bounds.getMinX()) / cellSize));
+		long row = Math.max(0, (long) ((pedestrian.getPosition().getY() - bounds.getMinY()) / cellSize));
+		return row * gridWidth + col;
+	}
+
+	private void runPhase(@NotNull final CallMethod callMethod, final double timeStepInSec, final double currentTimeInSec) {
+		// waiting for all chunks makes the phase a barrier for the next phase
+		UpdateSchemeOSM.runOnPool(forkJoinPool, () -> IntStream.range(0, chunkOffsets.length - 1).parallel().forEach(chunk -> {
+			for(int i = chunkOffsets[chunk]; i < chunkOffsets[chunk + 1]; i++) {
+				update(i, timeStepInSec, currentTimeInSec, callMethod);
+			}
+		}));
+	}
+
+	private void update(final int index, final double timeStepInSec, final double currentTimeInSec, @NotNull final CallMethod callMethod) {
+		PedestrianOSM pedestrian = pedestrians[index];
+
+		// At the moment no other events are supported for the parallel update scheme!
+		assert pedestrian.getMostImportantStimulus() instanceof ElapsedTime && pedestrian.getSelfCategory() == SelfCategory.TARGET_ORIENTED;
+		switch (callMethod) {
+			case SEEK:
+				updateParallelSeek(index, currentTimeInSec);
+				break;
+			case MOVE:
+				updateParallelMove(index, timeStepInSec);
+				break;
+			case CONFLICTS:
+				updateParallelConflicts(index);
+				break;
+			case STEPS:
+				updateParallelSteps(index);
+				break;
+			default:
+				throw new UnsupportedOperationException();
+		}
+	}
+
+	private void updateParallelSeek(final int index, final double currentTimeInSec) {
+		PedestrianOSM pedestrian = pedestrians[index];
+		if (pedestrian.getTimeOfNextStep() == Pedestrian.INVALID_NEXT_EVENT_TIME) {
+			pedestrian.setTimeOfNextStep(currentTimeInSec);
+			return;
+		}
+
+		if (pedestrian.getTimeOfNextStep() < currentTimeInSec) {
+			pedestrian.updateNextPosition();
+			moves[index] = true;
+		}
+	}
+
+	private void updateParallelMove(final int index, final double timeStepInSec) {
+		if (moves[index]) {
+			osmBehaviorController.makeStep(pedestrians[index], topography, timeStepInSec);
+		}
+	}
+
+	/**
+	 * Resolves conflicts: If there is any overlapping pedestrian with a smaller time of the next step (or the same time
+	 * and a smaller id), the step of the pedestrian will be reverted in the {@link CallMethod#STEPS} phase.
+	 *
+	 * @param index the index of the pedestrian for which a rollback might be performed.
+	 */
+	private void updateParallelConflicts(final int index) {
+		if (moves[index]) {
+			PedestrianOSM pedestrian = pedestrians[index];
+			pedestrian.refreshRelevantPedestrians();
+			double timeOfNextEvent = pedestrian.getTimeOfNextStep();
+
+			for (Agent ped : pedestrian.getRelevantPedestrians()) {
+				if (!ped.equals(pedestrian) && ped.getRadius() + pedestrian.getRadius() > ped.getPosition().distance(pedestrian.getPosition())) {
+					double otherTimeOfNextEvent = ((PedestrianOSM) ped).getTimeOfNextStep();
+
+					if (otherTimeOfNextEvent < timeOfNextEvent
+							|| (otherTimeOfNextEvent == timeOfNextEvent && ped.getId() < pedestrian.getId())) {
+						return;
+					}
+				}
+			}
+
+			keeps[index] = true;
+		}
+	}
+
+	private void updateParallelSteps(final int index) {
+		if(moves[index]) {
+			PedestrianOSM pedestrian = pedestrians[index];
+			if(keeps[index]) {
+				pedestrian.setTimeOfNextStep(pedestrian.getTimeOfNextStep() + pedestrian.getDurationNextStep());
+			} else {
+				osmBehaviorController.undoStep(pedestrian, topography);
+			}
+		}
+	}
+
+	@Override
+	public void elementAdded(Pedestrian element) {}
+
+	@Override
+	public void elementRemoved(Pedestrian element) {}
+
+	@Override
+	public void shutdown() {
+		forkJoinPool.shutdown();
+	}
+}
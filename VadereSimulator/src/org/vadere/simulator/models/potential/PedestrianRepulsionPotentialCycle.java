@@ -125,6 +125,13 @@ public class PedestrianRepulsionPotentialCycle implements
 				pedestrian, scenario);
 	}
 
+	@Override
+	public void getRelevantAgents(VCircle relevantArea, Agent pedestrian,
+			Topography scenario, Collection<? super Agent> result) {
+		potentialFieldPedestrian.getRelevantAgents(relevantArea, pedestrian,
+				scenario, result);
+	}
+
 	@Override
 	public void initialize(List<Attributes> attributesList, Domain domain,
 	                       AttributesAgent attributesPedestrian, Random random) {
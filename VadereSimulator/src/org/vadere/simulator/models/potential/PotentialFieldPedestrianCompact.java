@@ -82,7 +82,18 @@ public class PotentialFieldPedestrianCompact implements PotentialFieldAgent {
 
 		// select pedestrians within recognition distance
 		return scenario.getSpatialMap(Pedestrian.class)
-				.getObjects(stepDisc.getCenter(), stepDisc.getRadius() + this.width + pedestrian.getRadius() + attributes.getVisionFieldRadius());
+				.getObjects(stepDisc.getCenter(), getRelevantRadius(stepDisc, pedestrian));
+	}
+
+	@Override
+	public void getRelevantAgents(@NotNull final VCircle stepDisc, Agent pedestrian,
+			Topography scenario, Collection<? super Agent> result) {
+		scenario.getSpatialMap(Pedestrian.class)
+				.getObjects(stepDisc.getCenter(), getRelevantRadius(stepDisc, pedestrian), result);
+	}
+
+	private double getRelevantRadius(@NotNull final VCircle stepDisc, Agent pedestrian) {
+		return stepDisc.getRadius() + this.width + pedestrian.getRadius() + attributes.getVisionFieldRadius();
 	}
 
 	@Override
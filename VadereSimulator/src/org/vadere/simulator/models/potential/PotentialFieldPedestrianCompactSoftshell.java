@@ -12,6 +12,7 @@ import org.vadere.state.scenario.Pedestrian;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.Vector2D;
 
 import java.util.Collection;
@@ -62,6 +63,13 @@ public class PotentialFieldPedestrianCompactSoftshell implements PotentialFieldA
 		return closePedestrians;
 	}
 
+	@Override
+	public void getRelevantAgents(VCircle maxStepCircle, Agent pedestrian,
+			Topography scenario, Collection<? super Agent> result) {
+		scenario.getSpatialMap(Pedestrian.class).getObjects(maxStepCircle.getCenter(),
+				this.personalWidth + maxStepCircle.getRadius() + pedestrian.getRadius(), result);
+	}
+
 
 	public double getPersonalWidth() { return personalWidth; }
 	public void setPersonalWidth(final double personalWidth) { this.personalWidth = personalWidth; }
@@ -81,14 +89,19 @@ public class PotentialFieldPedestrianCompactSoftshell implements PotentialFieldA
 
 	public double getAgentPotential(IPoint pos, Agent pedestrian,
 	                                Agent otherPedestrian, double height, double width) {
+		return getAgentPotential(pos.getX(), pos.getY(), pedestrian, otherPedestrian.getPosition(), otherPedestrian.getRadius(), height, width);
+	}
 
-		double radii = pedestrian.getRadius() + otherPedestrian.getRadius(); // 2* r_p (sivers-2016b)
+	private double getAgentPotential(double x, double y, Agent pedestrian,
+	                                 VPoint otherPosition, double otherRadius, double height, double width) {
+
+		double radii = pedestrian.getRadius() + otherRadius; // 2* r_p (sivers-2016b)
 		double potential = 0;
-		double distanceSq = otherPedestrian.getPosition().distanceSq(pos);
+		double distanceSq = otherPosition.distanceSq(x, y);
 		double maxDistanceSq = (Math.max(width, intimateWidth)  + radii) * (Math.max(width, intimateWidth)  + radii);
 
 		if (distanceSq < maxDistanceSq) {
-			double distance = otherPedestrian.getPosition().distance(pos); // Euclidean distance d_j(x) between agent j and position x
+			double distance = otherPosition.distance(x, y); // Euclidean distance d_j(x) between agent j and position x
 
 			int intPower = this.attributes.getIntimateSpacePower(); // b_p
 			int perPower = this.attributes.getPersonalSpacePower(); // not defined in sivers-2016b (perPower = 1)
@@ -159,6 +172,35 @@ public class PotentialFieldPedestrianCompactSoftshell implements PotentialFieldA
 		return potential;
 	}
 
+	@Override
+	public void getAgentPotentials(double[] xs, double[] ys, int n, Agent pedestrian,
+			Collection<? extends Agent> otherPedestrians, double[] potentials) {
+		getAgentPotentials(xs, ys, n, pedestrian, otherPedestrians, getHeight(), getPersonalWidth(), potentials);
+	}
+
+	/**
+	 * Computes the potential of the other agents at the first n positions (xs[i], ys[i]) with the given
+	 * height and personal space width. The neighbours are the outer loop, thus each neighbour is looked
+	 * up once, and the potentials of the neighbours are added in the same order as by
+	 * {@link #getAgentPotential(IPoint, Agent, Collection)}.
+	 */
+	public void getAgentPotentials(double[] xs, double[] ys, int n, Agent pedestrian,
+			Collection<? extends Agent> otherPedestrians, double height, double width, double[] potentials) {
+		for (int i = 0; i < n; i++) {
+			potentials[i] = 0;
+		}
+
+		for (Agent neighbor : otherPedestrians) {
+			if (neighbor.getId() != pedestrian.getId()) {
+				VPoint position = neighbor.getPosition();
+				double radius = neighbor.getRadius();
+				for (int i = 0; i < n; i++) {
+					potentials[i] += getAgentPotential(xs[i], ys[i], pedestrian, position, radius, height, width);
+				}
+			}
+		}
+	}
+
 	@Override
 	public Vector2D getAgentPotentialGradient(IPoint pos,
 			Vector2D velocity, Agent pedestrian,
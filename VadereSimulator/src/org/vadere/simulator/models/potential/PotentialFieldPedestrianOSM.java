@@ -80,6 +80,14 @@ public class PotentialFieldPedestrianOSM implements PotentialFieldAgent {
 						attributes.getPedestrianRecognitionDistance());
 	}
 
+	@Override
+	public void getRelevantAgents(VCircle relevantArea, Agent pedestrian,
+			Topography topography, Collection<? super Agent> result) {
+		topography.getSpatialMap(Pedestrian.class)
+				.getObjects(relevantArea.getCenter(),
+						attributes.getPedestrianRecognitionDistance(), result);
+	}
+
 	@Override
 	public Vector2D getAgentPotentialGradient(IPoint pos,
 			Vector2D velocity, Agent pedestrian,
@@ -2,6 +2,7 @@ package org.vadere.simulator.models.potential.combinedPotentials;
 
  import org.vadere.state.scenario.Agent;
  import org.vadere.util.geometry.shapes.IPoint;
+ import org.vadere.util.geometry.shapes.VPoint;
 
  import java.util.Collection;
 
@@ -31,4 +32,16 @@ public interface ICombinedPotentialStrategy {
      */
     public double getValue(IPoint newPos, Agent thisAgent, Collection<? extends Agent> otherAgents);
 
+    /**
+     * Get the combined potential at the first n positions (xs[i], ys[i]), e.g. all candidates
+     * of the step circle. The results are equal to the results of
+     * {@link #getValue(IPoint, Agent, Collection)} but implementations may evaluate the
+     * target potential for all positions in one pass.
+     */
+    default void getValues(double[] xs, double[] ys, int n, Agent thisAgent, Collection<? extends Agent> otherAgents, double[] potentials) {
+        for (int i = 0; i < n; i++) {
+            potentials[i] = getValue(new VPoint(xs[i], ys[i]), thisAgent, otherAgents);
+        }
+    }
+
 }
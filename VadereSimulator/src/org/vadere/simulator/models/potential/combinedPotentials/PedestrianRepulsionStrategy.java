@@ -10,6 +10,7 @@ import org.vadere.state.psychology.perception.types.DistanceRecommendation;
 import org.vadere.state.psychology.perception.types.Stimulus;
 import org.vadere.state.scenario.Agent;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.Collection;
 
@@ -54,6 +55,25 @@ public class PedestrianRepulsionStrategy implements ICombinedPotentialStrategy {
         return targetPotential + agentPotential + obstaclePotential;
     }
 
+    @Override
+    public void getValues(double[] xs, double[] ys, int n, Agent pedestrian, Collection<? extends Agent> otherAgents, double[] potentials) {
+        double socialDistance = getSocialDistance((PedestrianOSM) pedestrian);
+        if (!isSocialDistanceInRange(socialDistance)) {
+            throw new RuntimeException("Social distance must be in range [1.25, 2.0]. Got " + socialDistance);
+        }
+
+        potentialFieldTarget.getPotentials(xs, ys, n, pedestrian, potentials);
+        double[] agentPotentials = new double[n];
+        ((PotentialFieldPedestrianCompactSoftshell) potentialFieldAgent).getAgentPotentials(xs, ys, n, pedestrian, otherAgents,
+                getHeightFromSocialDistance(socialDistance), getPersonalSpaceFromSocialDistance(socialDistance), agentPotentials);
+
+        for (int i = 0; i < n; i++) {
+            double obstaclePotential = potentialFieldObstacle.getObstaclePotential(new VPoint(xs[i], ys[i]), pedestrian);
+
+            potentials[i] = potentials[i] + agentPotentials[i] + obstaclePotential;
+        }
+    }
+
     private double getSocialDistancingAgentPotential(final IPoint pos, final Agent pedestrian, final Collection<? extends Agent> otherAgents, final double socialDistance) {
         double agentPotential = 0.0;
         for (Agent neighbor : otherAgents) {
@@ -5,6 +5,7 @@ import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
 import org.vadere.simulator.models.potential.fields.PotentialFieldObstacle;
 import org.vadere.state.scenario.Agent;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.Collection;
 
@@ -30,4 +31,17 @@ public class TargetAttractionStrategy implements ICombinedPotentialStrategy {
 
         return targetPotential + agentPotential + obstaclePotential;
     }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, int n, Agent thisAgent, Collection<? extends Agent> otherAgents, double[] potentials) {
+        potentialFieldTarget.getPotentials(xs, ys, n, thisAgent, potentials);
+        double[] agentPotentials = new double[n];
+        potentialFieldAgent.getAgentPotentials(xs, ys, n, thisAgent, otherAgents, agentPotentials);
+
+        for (int i = 0; i < n; i++) {
+            double obstaclePotential = potentialFieldObstacle.getObstaclePotential(new VPoint(xs[i], ys[i]), thisAgent);
+
+            potentials[i] = potentials[i] + agentPotentials[i] + obstaclePotential;
+        }
+    }
 }
@@ -5,6 +5,7 @@ import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
 import org.vadere.simulator.models.potential.fields.PotentialFieldObstacle;
 import org.vadere.state.scenario.Agent;
 import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.Collection;
 
@@ -37,4 +38,23 @@ public class TargetRepulsionStrategy implements ICombinedPotentialStrategy {
 
         return targetPotential + agentPotential + obstaclePotential;
     }
+
+    @Override
+    public void getValues(double[] xs, double[] ys, int n, Agent thisAgent, Collection<? extends Agent> otherAgents, double[] potentials) {
+        potentialFieldTarget.getPotentials(xs, ys, n, thisAgent, potentials);
+        double[] agentPotentials = new double[n];
+        potentialFieldAgent.getAgentPotentials(xs, ys, n, thisAgent, otherAgents, agentPotentials);
+
+        for (int i = 0; i < n; i++) {
+            double targetPotential = potentials[i];
+
+            if (targetPotential != Double.MAX_VALUE) {
+                targetPotential *= -1;
+            }
+
+            double obstaclePotential = potentialFieldObstacle.getObstaclePotential(new VPoint(xs[i], ys[i]), thisAgent);
+
+            potentials[i] = targetPotential + agentPotentials[i] + obstaclePotential;
+        }
+    }
 }
@@ -46,4 +46,21 @@ public interface IPotentialFieldTarget extends IPotentialField, Model {
 	Function<Agent, IMesh<?, ?, ?>> getDiscretization();
 
 	double getPotential(@NotNull final IPoint pos, final int targetId);
+
+	/**
+	 * Evaluates the target potential of the agent at the first <tt>n</tt> positions <tt>(xs[i], ys[i])</tt>, e.g.
+	 * all candidates of the step circle, and writes the results into <tt>potentials</tt>. The results are equal to
+	 * the results of {@link #getPotential(IPoint, Agent)}.
+	 *
+	 * @param xs            the x-coordinates of the positions
+	 * @param ys            the y-coordinates of the positions
+	 * @param n             the number of positions
+	 * @param agent         the agent for which the potential will be evaluated
+	 * @param potentials    the array (of length at least n) for the results
+	 */
+	default void getPotentials(@NotNull final double[] xs, @NotNull final double[] ys, final int n, @NotNull final Agent agent, @NotNull final double[] potentials) {
+		for (int i = 0; i < n; i++) {
+			potentials[i] = getPotential(new VPoint(xs[i], ys[i]), agent);
+		}
+	}
 }
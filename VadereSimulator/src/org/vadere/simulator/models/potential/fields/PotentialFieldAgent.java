@@ -9,6 +9,7 @@ import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.reflection.DynamicClassInstantiator;
@@ -51,12 +52,39 @@ public interface PotentialFieldAgent extends Model {
 	Collection<? extends Agent> getRelevantAgents(VCircle relevantArea,
 			Agent pedestrian, Topography topography);
 
+	/**
+	 * Adds the pedestrians of {@link #getRelevantAgents(VCircle, Agent, Topography)}
+	 * to the result, i.e. the caller can clear and reuse the collection for each
+	 * query instead of allocating a new one.
+	 *
+	 * @param result the collection to which the relevant pedestrians are added
+	 */
+	default void getRelevantAgents(VCircle relevantArea, Agent pedestrian,
+			Topography topography, Collection<? super Agent> result) {
+		result.addAll(getRelevantAgents(relevantArea, pedestrian, topography));
+	}
+
 	double getAgentPotential(IPoint pos, Agent pedestrian,
 	                         Agent otherPedestrian);
 
 	double getAgentPotential(IPoint pos, Agent pedestrian,
 			Collection<? extends Agent> otherAgents);
 
+	/**
+	 * Computes the potential of the other agents at the first n positions (xs[i], ys[i]),
+	 * e.g. all candidates of the step circle. The results are equal to the results of
+	 * {@link #getAgentPotential(IPoint, Agent, Collection)} but implementations may loop
+	 * over the other agents once for all positions.
+	 *
+	 * @param potentials the array (of length at least n) for the potential values
+	 */
+	default void getAgentPotentials(double[] xs, double[] ys, int n, Agent pedestrian,
+			Collection<? extends Agent> otherAgents, double[] potentials) {
+		for (int i = 0; i < n; i++) {
+			potentials[i] = getAgentPotential(new VPoint(xs[i], ys[i]), pedestrian, otherAgents);
+		}
+	}
+
 	Vector2D getAgentPotentialGradient(IPoint pos,
 			Vector2D velocity, Agent pedestrian,
 			Collection<? extends Agent> otherAgents);
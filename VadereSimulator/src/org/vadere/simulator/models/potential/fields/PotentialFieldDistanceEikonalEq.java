@@ -45,8 +45,10 @@ public class PotentialFieldDistanceEikonalEq implements IPotentialField {
 										   @NotNull final VRectangle bounds,
 										   @NotNull final AttributesFloorField attributesFloorField,
 										   @NotNull final ScenarioCache cache) {
+		// in single precision the solver computes on the rounded potentials, see AttributesFloorField#singlePrecision
 		cellGrid = new CellGrid(bounds.getWidth(),
-				bounds.getHeight(), attributesFloorField.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
+				bounds.getHeight(), attributesFloorField.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY(),
+				attributesFloorField.isSinglePrecision());
 
 		boolean isInitialized = false;
 		logger.info("solve floor field (PotentialFieldDistanceEikonalEq)");
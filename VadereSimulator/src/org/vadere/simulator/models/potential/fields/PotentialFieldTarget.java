@@ -20,6 +20,7 @@ import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.math.MathUtil;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -183,6 +184,56 @@ public class PotentialFieldTarget implements IPotentialFieldTarget {
 		return getPotential(pos, targetId, null);
 	}
 
+	/**
+	 * Evaluates the target potential for all positions in one pass: the target, its shape and the
+	 * {@link EikonalSolver} are looked up once and the positions which are neither inside the target nor
+	 * inside an obstacle are passed to the solver at once. The results are equal to the results of
+	 * {@link #getPotential(IPoint, Agent)}.
+	 */
+	@Override
+	public void getPotentials(@NotNull final double[] xs, @NotNull final double[] ys, final int n, @NotNull final Agent agent, @NotNull final double[] potentials) {
+		if (!agent.hasNextTarget()) {
+			Arrays.fill(potentials, 0, n, 0.0);
+			return;
+		}
+
+		int targetId = agent.getNextTargetId();
+		Topography topography = domain.getTopography();
+		VShape targetShape = topography.getTarget(targetId).getShape();
+		Optional<EikonalSolver> optEikonalSolver = getSolver(targetId);
+
+		// positions (and their indices) for which the floor field has to be sampled
+		double[] solverXs = new double[n];
+		double[] solverYs = new double[n];
+		int[] solverIndices = new int[n];
+		int m = 0;
+
+		for (int i = 0; i < n; i++) {
+			VPoint pos = new VPoint(xs[i], ys[i]);
+			if (targetShape.contains(pos)) {
+				potentials[i] = 0.0;
+			} else if (topography.distanceToObstacle(pos, agent) <= 0) {
+				potentials[i] = Double.MAX_VALUE;
+			} else if (!optEikonalSolver.isPresent()) {
+				logger.error("no target potential field for target = " + targetId + ", was found!");
+				potentials[i] = 0.0;
+			} else {
+				solverXs[m] = xs[i];
+				solverYs[m] = ys[i];
+				solverIndices[m] = i;
+				m++;
+			}
+		}
+
+		if (m > 0) {
+			double[] solverPotentials = new double[m];
+			optEikonalSolver.get().getPotentials(solverXs, solverYs, m, agent, solverPotentials);
+			for (int j = 0; j < m; j++) {
+				potentials[solverIndices[j]] = solverPotentials[j];
+			}
+		}
+	}
+
 	/**
 	 * Updates a specific potential field (defined by (targetId, targetShapes)) if it is:
 	 * - dynamic
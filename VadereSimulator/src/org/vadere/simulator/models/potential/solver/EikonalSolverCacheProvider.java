@@ -36,7 +36,7 @@ public class EikonalSolverCacheProvider extends EikonalSolverProvider {
 		 */
 		boolean isInitialized = false;
 		logger.info("solve floor field");
-		if (attributesPotential.isUseCachedFloorField() && cache.isNotEmpty()){
+		if ((attributesPotential.isUseCachedFloorField() || cache.isShared()) && cache.isNotEmpty()){
 			long ms = System.currentTimeMillis();
 			ICacheObject cacheObject = cache.getCacheForTarget(targetId);
 			if (cacheObject.readable()){
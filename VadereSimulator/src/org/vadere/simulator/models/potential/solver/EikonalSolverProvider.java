@@ -95,8 +95,10 @@ public abstract class EikonalSolverProvider  {
 		 * Use a regular grid based method.
 		 */
 		if(createMethod.isUsingCellGrid()) {
+			// in single precision the solver computes on the rounded potentials, see AttributesFloorField#singlePrecision
 			CellGrid cellGrid = new CellGrid(bounds.getWidth(), bounds.getHeight(),
-					attributesPotential.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY());
+					attributesPotential.getPotentialFieldResolution(), new CellState(), bounds.getMinX(), bounds.getMinY(),
+					attributesPotential.isSinglePrecision());
 
 			if (createMethod != EikonalSolverType.NONE) {
 				for (VShape shape : targetShapes) {
@@ -138,7 +140,9 @@ public abstract class EikonalSolverProvider  {
 					eikonalSolver = new EikonalSolverFSM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
 					break;
 				default:
-					eikonalSolver = new EikonalSolverFMM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
+					EikonalSolverFMM eikonalSolverFMM = new EikonalSolverFMM(cellGrid, distFunc, isHighAccuracyFM, timeCost, attributesPotential.getObstacleGridPenalty(), attributesPotential.getTargetAttractionStrength());
+					eikonalSolverFMM.setIncrementalUpdate(attributesPotential.isIncrementalUpdate());
+					eikonalSolver = eikonalSolverFMM;
 			}
 		} else {
 			if(domain.getFloorFieldMesh() != null) {
@@ -70,6 +70,23 @@ public interface EikonalSolver {
 		return getPotential(x, y);
 	}
 
+	/**
+	 * Evaluates the potential at the first <tt>n</tt> positions <tt>(xs[i], ys[i])</tt> and writes the results
+	 * into <tt>potentials</tt>. The result is equal to calling {@link #getPotential(double, double, Object)} for
+	 * each position, implementations may sample their discretization in one pass.
+	 *
+	 * @param xs            the x-coordinates of the positions
+	 * @param ys            the y-coordinates of the positions
+	 * @param n             the number of positions
+	 * @param caller        the caller, e.g. the agent
+	 * @param potentials    the array (of length at least n) for the results
+	 */
+	default void getPotentials(final double[] xs, final double[] ys, final int n, final Object caller, final double[] potentials) {
+		for (int i = 0; i < n; i++) {
+			potentials[i] = getPotential(xs[i], ys[i], caller);
+		}
+	}
+
 	default boolean isHighAccuracy() {
 		return true;
 	}
@@ -36,4 +36,12 @@ public abstract class AGridEikonalSolver implements GridEikonalSolver {
 		return getPotential(potentialField, pos, unknownPenalty, weight);
 	}
 
+	@Override
+	public void getPotentials(final double[] xs, final double[] ys, final int n, final Object caller, final double[] potentials) {
+		final CellGrid grid = potentialField;
+		for (int i = 0; i < n; i++) {
+			potentials[i] = getPotential(grid, xs[i], ys[i], unknownPenalty, weight);
+		}
+	}
+
 }
@@ -51,9 +51,9 @@ class ComparatorPotentialFieldValue implements Comparator<Point> {
 		// return (int)Math.signum( grid.getValue( p1 ).potential -
 		// grid.getValue( p2 ).potential );
 		/* Return -1 if p1.pot < p2.pot. */
-		if (grid.getValue(p1).potential < grid.getValue(p2).potential) {
+		if (grid.getPotential(p1) < grid.getPotential(p2)) {
 			return -1;
-		} else if (grid.getValue(p1).potential > grid.getValue(p2).potential) {
+		} else if (grid.getPotential(p1) > grid.getPotential(p2)) {
 			return 1;
 		}
 
@@ -9,6 +9,7 @@ import org.vadere.util.math.IDistanceFunction;
 import org.vadere.util.math.MathUtil;
 
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.stream.Collectors;
@@ -18,6 +19,13 @@ import java.util.stream.Collectors;
  * of the fast marching algorithm. The potential field is static and therefor
  * not updated by update() (see PotentialFieldInitializerFastMarchingAdaptive).
  * Hence, the initializer may be used to realize static floor fields.
+ *
+ * If incremental updates are enabled (see {@link #setIncrementalUpdate(boolean)}) a dynamic
+ * floor field is not recomputed from scratch by update(). Instead the time costs of all cells
+ * are compared with the costs of the last solve and only the cells which depend on changed
+ * costs are recomputed (raise), starting from their unchanged neighbors. Cells whose travel
+ * time decreases are reopened while marching (lower). If too many costs changed, the whole
+ * floor field is recomputed.
  * 
  */
 public class EikonalSolverFMM extends AGridEikonalSolver {
@@ -35,6 +43,36 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 	protected long runtime = 0;
 	private int updates = 0;
 
+	/**
+	 * if more than this fraction of the cells has to be recomputed, the whole floor field is recomputed.
+	 */
+	private static final double MAX_INCREMENTAL_FRACTION = 0.25;
+
+	/**
+	 * the relative tolerance for reopening a reached cell during an incremental update.
+	 */
+	private static final double LOWER_TOLERANCE = 1.0E-10;
+
+	private static final int[] NEIGHBOR_X = {1, -1, 0, 0};
+	private static final int[] NEIGHBOR_Y = {0, 0, 1, -1};
+
+	private boolean incrementalUpdate = false;
+	private boolean isIncrementalRun = false;
+
+	/** the time costs of the cells (x + y * numPointsX) of the last solve, only used by incremental updates */
+	private double[] costs;
+
+	/** the cells recomputed by an incremental update and their travel times before the update */
+	private boolean[] invalid;
+	private int[] invalidCells;
+	private int numberOfInvalidCells;
+	private double[] previousPotentials;
+
+	/** statistics of the last update */
+	private long lastUpdateRuntime = 0;
+	private int lastUpdateChangedCells = 0;
+	private int lastUpdateRecomputedCells = 0;
+
     /**
      * Initializes the FM potential calculator with a time cost function F > 0.
      */
@@ -47,7 +85,7 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
             final double weight) {
         super(potentialField, unknownPenalty, weight);
         this.cellGrid = potentialField;
-        this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag == PathFindingTag.Target).collect(Collectors.toList());
+        this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getTag(p) == PathFindingTag.Target).collect(Collectors.toList());
         this.distFunc = distFunc;
         this.isHighAccuracy = isHighAccuracy;
         this.narrowBand = new PriorityQueue<>(50, new ComparatorPotentialFieldValue(potentialField));
@@ -76,8 +114,9 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		long ms = System.currentTimeMillis();
 		while (!narrowBand.isEmpty()) {
 			Point tmpPoint = narrowBand.poll();
-			cellGrid.getValue(tmpPoint).tag = PathFindingTag.Reached;
+			cellGrid.setTag(tmpPoint, PathFindingTag.Reached);
 			setNeighborDistances(tmpPoint);
+			lastUpdateRecomputedCells++;
 		}
 		long runTime = System.currentTimeMillis() - ms;
 		logger.debug("fmm on the gird run time = " + runTime + ", #updates = " + updates);
@@ -91,9 +130,9 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 	private void furtherRun(final Point point) {
 		Point tmpPoint;
 		while (!narrowBand.isEmpty()
-				&& cellGrid.getValue(point).tag == PathFindingTag.Undefined) {
+				&& cellGrid.getTag(point) == PathFindingTag.Undefined) {
 			tmpPoint = narrowBand.poll();
-			cellGrid.getValue(tmpPoint).tag = PathFindingTag.Reached;
+			cellGrid.setTag(tmpPoint, PathFindingTag.Reached);
 			setNeighborDistances(tmpPoint);
 		}
 	}
@@ -103,22 +142,237 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		// logger.info("other-runtime: " + (System.currentTimeMillis() - runtime));
 		long ms = System.currentTimeMillis();
 		if (needsUpdate()) {
+			long ns = System.nanoTime();
+			lastUpdateChangedCells = 0;
+			lastUpdateRecomputedCells = 0;
 			timeCostFunction.update();
-			resetDynamicPotentialField();
-			solve();
+			boolean incremental = incrementalUpdate && updateIncremental();
+			if (!incremental) {
+				resetDynamicPotentialField();
+				solve();
+			}
+			lastUpdateRuntime = System.nanoTime() - ns;
+			logger.debug((incremental ? "incremental" : "full") + " fmm update run time = " + (lastUpdateRuntime / 1.0E6)
+					+ " [ms], #changed cells = " + lastUpdateChangedCells + ", #recomputed cells = " + lastUpdateRecomputedCells);
 		}
 		// logger.info("ffm-runtime: " + (System.currentTimeMillis() - ms));
 		runtime = System.currentTimeMillis();
 	}
 
+	/**
+	 * Enables or disables incremental updates of dynamic floor fields, see {@link EikonalSolverFMM}.
+	 *
+	 * @param incrementalUpdate true if only the cells affected by changed time costs should be recomputed
+	 */
+	public void setIncrementalUpdate(final boolean incrementalUpdate) {
+		this.incrementalUpdate = incrementalUpdate;
+		this.costs = null;
+	}
+
+	public boolean isIncrementalUpdate() {
+		return incrementalUpdate;
+	}
+
+	/**
+	 * Returns the run time of the last update in nanoseconds.
+	 */
+	public long getLastUpdateRuntime() {
+		return lastUpdateRuntime;
+	}
+
+	/**
+	 * Returns the number of cells whose time cost changed at the last update, 0 if the costs were not compared.
+	 */
+	public int getLastUpdateChangedCells() {
+		return lastUpdateChangedCells;
+	}
+
+	/**
+	 * Returns the number of cells which were reached (i.e. recomputed) by the last update.
+	 */
+	public int getLastUpdateRecomputedCells() {
+		return lastUpdateRecomputedCells;
+	}
+
+	/**
+	 * Updates the floor field by recomputing only the cells which depend on changed time costs.
+	 *
+	 * @return false if the whole floor field has to be recomputed, i.e. if there are no costs of a
+	 *         previous solve or if too many cells are affected
+	 */
+	private boolean updateIncremental() {
+		int numPointsX = cellGrid.getNumPointsX();
+		int numPointsY = cellGrid.getNumPointsY();
+		int numberOfCells = numPointsX * numPointsY;
+		int maxCells = (int) (MAX_INCREMENTAL_FRACTION * numberOfCells);
+		boolean initialized = costs != null;
+
+		if (!initialized) {
+			costs = new double[numberOfCells];
+			invalid = new boolean[numberOfCells];
+			invalidCells = new int[numberOfCells];
+			previousPotentials = new double[numberOfCells];
+		}
+
+		// compare the costs with the costs of the last solve, the changed cells are the seeds of the invalid region
+		numberOfInvalidCells = 0;
+		boolean tooManyChanges = false;
+		for (int y = 0; y < numPointsY; y++) {
+			for (int x = 0; x < numPointsX; x++) {
+				PathFindingTag tag = cellGrid.getTag(x, y);
+				if (tag == PathFindingTag.Obstacle || tag == PathFindingTag.Target) {
+					continue;
+				}
+				int i = x + y * numPointsX;
+				double cost = timeCostFunction.costAt(cellGrid.pointToCoord(x, y));
+				if (cost != costs[i]) {
+					costs[i] = cost;
+					lastUpdateChangedCells++;
+					if (initialized && numberOfInvalidCells < maxCells) {
+						addInvalidCell(i);
+					} else {
+						tooManyChanges = true;
+					}
+				}
+			}
+		}
+
+		if (!initialized || tooManyChanges) {
+			clearInvalidCells();
+			return false;
+		}
+
+		if (numberOfInvalidCells == 0) {
+			return true;
+		}
+
+		// raise: invalidate all cells whose travel time was computed from an invalid cell. Cells which
+		// were not computed from an invalid cell but get a smaller travel time are reopened while marching.
+		for (int k = 0; k < numberOfInvalidCells && numberOfInvalidCells <= maxCells; k++) {
+			int i = invalidCells[k];
+			int x = i % numPointsX;
+			int y = i / numPointsX;
+			for (int d = 0; d < 4; d++) {
+				int dx = NEIGHBOR_X[d];
+				int dy = NEIGHBOR_Y[d];
+				if (!cellGrid.isValidPoint(x + dx, y + dy)) {
+					continue;
+				}
+
+				int j = i + dx + dy * numPointsX;
+				if (!invalid[j] && usesNeighbor(x + dx, y + dy, -dx, -dy)) {
+					addInvalidCell(j);
+				}
+
+				// high accuracy: the second neighbor on the axis may use this cell as well
+				int h = j + dx + dy * numPointsX;
+				if (isHighAccuracy && cellGrid.isValidPoint(x + 2 * dx, y + 2 * dy) && !invalid[h]
+						&& cellGrid.getPotential(x, y) < cellGrid.getPotential(x + dx, y + dy)
+						&& usesNeighbor(x + 2 * dx, y + 2 * dy, -dx, -dy)) {
+					addInvalidCell(h);
+				}
+			}
+		}
+
+		if (numberOfInvalidCells > maxCells) {
+			clearInvalidCells();
+			return false;
+		}
+
+		int size = numberOfInvalidCells;
+		for (int k = 0; k < size; k++) {
+			int i = invalidCells[k];
+			cellGrid.setValue(i % numPointsX, i / numPointsX, Double.MAX_VALUE, PathFindingTag.Undefined);
+		}
+
+		// the valid neighbors of the invalid region are the initial narrow band
+		for (int k = 0; k < size; k++) {
+			int i = invalidCells[k];
+			for (Point neighbor : cellGrid.getLegitNeumannNeighborhood(new Point(i % numPointsX, i / numPointsX))) {
+				if (!invalid[neighbor.x + neighbor.y * numPointsX]) {
+					PathFindingTag tag = cellGrid.getTag(neighbor);
+					if (tag == PathFindingTag.Target) {
+						setTargetNeighborsDistances(neighbor);
+					} else if (tag == PathFindingTag.Reached) {
+						// the neighbor keeps its travel time (or gets a smaller one) but it is reached again in the correct order
+						addInvalidCell(neighbor.x + neighbor.y * numPointsX);
+						cellGrid.setTag(neighbor, PathFindingTag.Reachable);
+						narrowBand.add(neighbor);
+					}
+				}
+			}
+		}
+
+		isIncrementalRun = true;
+		while (!narrowBand.isEmpty()) {
+			Point tmpPoint = narrowBand.poll();
+			cellGrid.setTag(tmpPoint, PathFindingTag.Reached);
+			setNeighborDistances(tmpPoint);
+			lastUpdateRecomputedCells++;
+		}
+		isIncrementalRun = false;
+
+		clearInvalidCells();
+		return true;
+	}
+
+	private void addInvalidCell(final int i) {
+		invalid[i] = true;
+		invalidCells[numberOfInvalidCells++] = i;
+		int numPointsX = cellGrid.getNumPointsX();
+		previousPotentials[i] = cellGrid.getPotential(i % numPointsX, i / numPointsX);
+	}
+
+	/**
+	 * Returns true if the travel time of the point decreased by the current incremental update. Only
+	 * those points can decrease the travel time of reached neighbors.
+	 */
+	private boolean isLowered(final Point point) {
+		int i = point.x + point.y * cellGrid.getNumPointsX();
+		return invalid[i] && cellGrid.getPotential(point) < previousPotentials[i] * (1.0 - LOWER_TOLERANCE);
+	}
+
+	/**
+	 * Returns true if the travel time of the cell (x, y) may have been computed (see computeGodunovDifference)
+	 * from its neighbor (x + dx, y + dy). A neighbor is not used if it is not the smaller neighbor on its axis
+	 * or if the smaller neighbor on the other axis is smaller by more than the travel time through the cell.
+	 */
+	private boolean usesNeighbor(final int x, final int y, final int dx, final int dy) {
+		PathFindingTag tag = cellGrid.getTag(x, y);
+		if (tag == PathFindingTag.Obstacle || tag == PathFindingTag.Target) {
+			return false;
+		}
+
+		double neighborPotential = getPotentialAt(x + dx, y + dy);
+		if (!(neighborPotential < cellGrid.getPotential(x, y)) || getPotentialAt(x - dx, y - dy) < neighborPotential) {
+			return false;
+		}
+
+		double otherPotential = Math.min(getPotentialAt(x + dy, y + dx), getPotentialAt(x - dy, y - dx));
+		double distance = cellGrid.getResolution() * costs[x + y * cellGrid.getNumPointsX()];
+		return otherPotential == Double.MAX_VALUE || neighborPotential - otherPotential < distance * (1.0 + LOWER_TOLERANCE);
+	}
+
+	private double getPotentialAt(final int x, final int y) {
+		return cellGrid.isValidPoint(x, y) ? cellGrid.getPotential(x, y) : Double.MAX_VALUE;
+	}
+
+	private void clearInvalidCells() {
+		for (int k = 0; k < numberOfInvalidCells; k++) {
+			invalid[invalidCells[k]] = false;
+		}
+	}
+
 	protected void resetDynamicPotentialField() {
-		for (CellState data : cellGrid.getRawBuffer()) {
-			data.potential = Double.MAX_VALUE;
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				PathFindingTag tag = cellGrid.getTag(x, y);
 
-			if (data.tag == PathFindingTag.Reached) {
-				data.tag = PathFindingTag.Undefined;
-			} else if (data.tag == PathFindingTag.Target) {
-				data.potential = 0.0;
+				if (tag == PathFindingTag.Reached) {
+					cellGrid.setValue(x, y, Double.MAX_VALUE, PathFindingTag.Undefined);
+				} else {
+					cellGrid.setPotential(x, y, tag == PathFindingTag.Target ? 0.0 : Double.MAX_VALUE);
+				}
 			}
 		}
 	}
@@ -140,22 +394,34 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 
 	protected void setNeighborDistances(final Point point) {
 		List<Point> neighbors = MathUtil.getNeumannNeighborhood(point);
+		boolean isLowered = isIncrementalRun && isLowered(point);
 		double distance;
 
 		for (Point neighbor : neighbors) {
 			if (cellGrid.isValidPoint(neighbor)) {
-				if (cellGrid.getValue(neighbor).tag == PathFindingTag.Undefined) {
-					distance = computeGodunovDifference(neighbor, cellGrid);
+				if (cellGrid.getTag(neighbor) == PathFindingTag.Undefined) {
+					distance = computeDistance(neighbor, point);
 					updates++;
-					cellGrid.setValue(neighbor, new CellState(distance,
-							PathFindingTag.Reachable));
+					cellGrid.setValue(neighbor, distance, PathFindingTag.Reachable);
 					narrowBand.add(neighbor);
-				} else if (cellGrid.getValue(neighbor).tag == PathFindingTag.Reachable) {
-					distance = computeGodunovDifference(neighbor, cellGrid);
+				} else if (cellGrid.getTag(neighbor) == PathFindingTag.Reachable) {
+					distance = computeDistance(neighbor, point);
 					updates++;
-					if (distance < cellGrid.getValue(neighbor).potential) {
+					if (distance < cellGrid.getPotential(neighbor)) {
 						narrowBand.remove(neighbor);
-						cellGrid.getValue(neighbor).potential = distance;
+						cellGrid.setPotential(neighbor, distance);
+						narrowBand.add(neighbor);
+					}
+				} else if (isLowered && cellGrid.getTag(neighbor) == PathFindingTag.Reached) {
+					// lower: the travel time of a reached cell decreased, thus it has to be reached again
+					distance = computeDistance(neighbor, point);
+					updates++;
+					if (distance < cellGrid.getPotential(neighbor) * (1.0 - LOWER_TOLERANCE)) {
+						int i = neighbor.x + neighbor.y * cellGrid.getNumPointsX();
+						if (!invalid[i]) {
+							addInvalidCell(i);
+						}
+						cellGrid.setValue(neighbor.x, neighbor.y, distance, PathFindingTag.Reachable);
 						narrowBand.add(neighbor);
 					}
 				}
@@ -163,15 +429,47 @@ public class EikonalSolverFMM extends AGridEikonalSolver {
 		}
 	}
 
+	/**
+	 * Computes the travel time of a neighbor of the reached point. During an incremental update the
+	 * reached cells with a larger travel time than the point are ignored, since they would not be
+	 * reached yet by a full run and using them would result in a too small travel time.
+	 */
+	private double computeDistance(final Point neighbor, final Point point) {
+		if (!isIncrementalRun) {
+			return computeGodunovDifference(neighbor, cellGrid);
+		}
+
+		double front = cellGrid.getPotential(point);
+		List<Point> hidden = null;
+		for (Point p : cellGrid.getLegitNeumannNeighborhood(neighbor)) {
+			if (cellGrid.getTag(p) == PathFindingTag.Reached && cellGrid.getPotential(p) > front) {
+				cellGrid.setTag(p, PathFindingTag.Undefined);
+				if (hidden == null) {
+					hidden = new ArrayList<>(4);
+				}
+				hidden.add(p);
+			}
+		}
+
+		double distance = computeGodunovDifference(neighbor, cellGrid);
+
+		if (hidden != null) {
+			for (Point p : hidden) {
+				cellGrid.setTag(p, PathFindingTag.Reached);
+			}
+		}
+		return distance;
+	}
+
 	protected void setTargetNeighborsDistances(final Point point) {
 		List<Point> neighbors = cellGrid.getLegitNeumannNeighborhood(point);
 
 		for (Point neighbor : neighbors) {
-			if (cellGrid.getValue(neighbor).tag == PathFindingTag.Undefined) {
+			if (cellGrid.getTag(neighbor) == PathFindingTag.Undefined) {
 				double distance = Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor)));
 				double timeCost = timeCostFunction.costAt(cellGrid.pointToCoord(neighbor));
 				double potential = distance / timeCost;
-				cellGrid.setValue(neighbor, new CellState(potential, PathFindingTag.Reachable));
+				cellGrid.setValue(neighbor, potential, PathFindingTag.Reachable);
 				narrowBand.add(neighbor);
 			}
 		}
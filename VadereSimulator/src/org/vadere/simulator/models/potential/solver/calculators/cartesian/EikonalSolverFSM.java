@@ -45,7 +45,7 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 	    this.distFunc = distFunc;
 		this.timeCostFunction = timeCostFunction;
 		this.isHighAccuracy = isHighAccuracy;
-		this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag == PathFindingTag.Target).collect(Collectors.toList());
+		this.targetPoints = cellGrid.pointStream().filter(p -> cellGrid.getTag(p) == PathFindingTag.Target).collect(Collectors.toList());
 		this.cellGrid = cellGrid;
 
 		if (targetPoints.size() == 0) {
@@ -81,9 +81,9 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 		// set distances of the target neighbor points
 		targetPoints.stream()
 				.flatMap(p -> cellGrid.getLegitNeumannNeighborhood(p).stream())
-				.filter(neighbor -> cellGrid.getValue(neighbor).tag != PathFindingTag.Obstacle)
+				.filter(neighbor -> cellGrid.getTag(neighbor) != PathFindingTag.Obstacle)
 				.forEach(neighbor -> {
-					cellGrid.setValue(neighbor, new CellState(Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor))), PathFindingTag.NARROW));
+					cellGrid.setValue(neighbor, Math.max(0, -distFunc.apply(cellGrid.pointToCoord(neighbor))), PathFindingTag.NARROW);
 				});
 	}
 
@@ -104,9 +104,9 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 				for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
 					Point point = new Point(x, y);
 					if (isRelevant(point)) {
-						double p = cellGrid.getValue(point).potential;
+						double p = cellGrid.getPotential(point);
 						double q = Math.min(computeGodunovDifference(point, cellGrid, Direction.ANY), p);
-						cellGrid.getValue(point).potential = q;
+						cellGrid.setPotential(point, q);
 
 						if (Math.abs(q - p) > EPSILON) {
 							allFrozen = false;
@@ -120,9 +120,9 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 				for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
 					Point point = new Point(x, y);
 					if (isRelevant(point)) {
-						double p = cellGrid.getValue(point).potential;
+						double p = cellGrid.getPotential(point);
 						double q = Math.min(computeGodunovDifference(point, cellGrid, Direction.ANY), p);
-						cellGrid.getValue(point).potential = q;
+						cellGrid.setPotential(point, q);
 
 						if (Math.abs(q - p) > EPSILON) {
 							allFrozen = false;
@@ -136,9 +136,9 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 				for (int x = cellGrid.getNumPointsX() - 1; x >= 0; x--) {
 					Point point = new Point(x, y);
 					if (isRelevant(point)) {
-						double p = cellGrid.getValue(point).potential;
+						double p = cellGrid.getPotential(point);
 						double q = Math.min(computeGodunovDifference(point, cellGrid, Direction.ANY), p);
-						cellGrid.getValue(point).potential = q;
+						cellGrid.setPotential(point, q);
 
 						if (Math.abs(q - p) > EPSILON) {
 							allFrozen = false;
@@ -152,9 +152,9 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 				for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
 					Point point = new Point(x, y);
 					if (isRelevant(point)) {
-						double p = cellGrid.getValue(point).potential;
+						double p = cellGrid.getPotential(point);
 						double q = Math.min(computeGodunovDifference(point, cellGrid, Direction.ANY), p);
-						cellGrid.getValue(point).potential = q;
+						cellGrid.setPotential(point, q);
 
 						if (Math.abs(q - p) > EPSILON) {
 							allFrozen = false;
@@ -171,7 +171,7 @@ public class EikonalSolverFSM extends AGridEikonalSolver {
 	}
 
 	private boolean isRelevant(final Point point) {
-		return cellGrid.getValue(point).tag != PathFindingTag.Target && cellGrid.getValue(point).tag != PathFindingTag.Obstacle;
+		return cellGrid.getTag(point) != PathFindingTag.Target && cellGrid.getTag(point) != PathFindingTag.Obstacle;
 	}
 
 	@Override
@@ -112,6 +112,7 @@ public class Queue implements DynamicElementRemoveListener<Pedestrian>, DynamicE
 			topography.getTargets().removeIf(target -> target.getId() == this.queueTailId);
 			polytopes.forEach(polytope -> topography.getTargets()
 					.add(new TargetQueue(new AttributesTarget(polytope, queueTailId))));
+			topography.staticElementsChanged();
 		}
 	}
 
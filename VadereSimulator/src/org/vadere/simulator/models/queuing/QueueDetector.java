@@ -75,12 +75,12 @@ public class QueueDetector extends EikonalSolverFMM {
             int y = p.y;
 
             VPoint point = cellGrid.pointToCoord(x, y);
-            if (cellGrid.getValue(x, y).tag != PathFindingTag.Target
+            if (cellGrid.getTag(x, y) != PathFindingTag.Target
                     && filter.getFilteredValue(point.x, point.y) <= QUEUE_DENSITY) {
-                cellGrid.getValue(x, y).tag = PathFindingTag.Obstacle;
-            } else if (cellGrid.getValue(x, y).tag != PathFindingTag.Target) {
+                cellGrid.setTag(x, y, PathFindingTag.Obstacle);
+            } else if (cellGrid.getTag(x, y) != PathFindingTag.Target) {
                 // System.out.println("found:" + point);
-                cellGrid.getValue(x, y).tag = PathFindingTag.Undefined;
+                cellGrid.setTag(x, y, PathFindingTag.Undefined);
             }
         });
         orderedPoints.clear();
@@ -2,6 +2,8 @@ package org.vadere.simulator.models.sfm;
 
 import org.vadere.annotation.factories.models.ModelClass;
 import org.vadere.simulator.models.Model;
+import org.vadere.simulator.models.ode.SnapshotAgentPotential;
+import org.vadere.simulator.models.ode.StageSnapshot;
 import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
 import org.vadere.simulator.projects.Domain;
 import org.vadere.state.attributes.Attributes;
@@ -14,12 +16,13 @@ import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.Vector2D;
 import org.vadere.util.math.MathUtil;
 
+import java.awt.geom.Point2D;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
 
 @ModelClass
-public class PotentialFieldPedestrianSFM implements PotentialFieldAgent {
+public class PotentialFieldPedestrianSFM implements PotentialFieldAgent, SnapshotAgentPotential {
 
 	private AttributesPotentialSFM attributes;
 
@@ -47,66 +50,91 @@ public class PotentialFieldPedestrianSFM implements PotentialFieldAgent {
 			Collection<? extends Agent> closePedestrians) {
 
 		double[] completeGrad = new double[2];
+		double[] x = new double[] {pos.getX(), pos.getY()};
+		double[] v = new double[] {velocity.x, velocity.y};
+
+		for (Agent otherPedestrian : closePedestrians) {
+			if (otherPedestrian == pedestrian) {
+				continue;
+			}
+
+			addAgentPotentialGradient(x, v, otherPedestrian.getPosition().x, otherPedestrian.getPosition().y,
+					otherPedestrian.getVelocity().x, otherPedestrian.getVelocity().y, completeGrad);
+		}
+
+		return new Vector2D(completeGrad[0], completeGrad[1]);
+	}
+
+	@Override
+	public double getRelevantRadius() {
+		// see getRelevantAgents
+		return attributes.getPedestrianRecognitionDistance() + 3;
+	}
+
+	@Override
+	public void getAgentPotentialGradient(int index, double x, double y, double vx, double vy,
+			StageSnapshot snapshot, double[] gradient) {
+		double[] pos = new double[] {x, y};
+		double[] v = new double[] {vx, vy};
+		gradient[0] = 0;
+		gradient[1] = 0;
+
+		snapshot.forEachNeighbor(x, y, getRelevantRadius(), j -> {
+			if (j != index) {
+				addAgentPotentialGradient(pos, v, snapshot.getX(j), snapshot.getY(j),
+						snapshot.getVelocityX(j), snapshot.getVelocityY(j), gradient);
+			}
+		});
+	}
+
+	/**
+	 * Adds the repulsion of the other pedestrian at (x2, y2) with velocity (v2x, v2y) to the gradient at x.
+	 */
+	private void addAgentPotentialGradient(double[] x, double[] v, double x2, double y2,
+			double v2x, double v2y, double[] completeGrad) {
 		double[] grad = new double[2];
 		double[] pedDistance = new double[2];
 		double distance;
 		double pot;
 		double phi;
-		double[] x = new double[] {pos.getX(), pos.getY()};
-		double[] x2 = new double[2];
-		double[] v = new double[] {velocity.x, velocity.y};
-		double[] v2 = new double[2];
 		double b;
 		double stepLength2;
 		double dt = 0.2; // constant for step length
 		double c = 0.5; // constant for weight when other pedestrian is not in line of sight
 		double viewingAngle = Math.PI * 100 / 180;
 
-		for (Agent otherPedestrian : closePedestrians) {
-			if (otherPedestrian == pedestrian) {
-				continue;
-			}
-
-			distance = otherPedestrian.getPosition().distance(pos);
-			x2[0] = otherPedestrian.getPosition().x;
-			x2[1] = otherPedestrian.getPosition().y;
-
-			pedDistance[0] = x[0] - x2[0];
-			pedDistance[1] = x[1] - x2[1];
+		distance = Point2D.distance(x2, y2, x[0], x[1]);
 
-			v2[0] = otherPedestrian.getVelocity().x;
-			v2[1] = otherPedestrian.getVelocity().y;
+		pedDistance[0] = x[0] - x2;
+		pedDistance[1] = x[1] - y2;
 
-			// MathUtil.normalize(v2);
+		// MathUtil.normalize(v2);
 
-			stepLength2 = otherPedestrian.getVelocity().getLength() * dt;
+		stepLength2 = Math.sqrt(v2x * v2x + v2y * v2y) * dt;
 
-			double distance2 = MathUtil.norm2(new double[] {
-					pedDistance[0] - dt * v2[0],
-					pedDistance[1] - dt * v2[1]});
-			b = 0.5 * Math.sqrt(Math.pow(distance + distance2, 2) - stepLength2
-					* stepLength2);
+		double distance2 = MathUtil.norm2(new double[] {
+				pedDistance[0] - dt * v2x,
+				pedDistance[1] - dt * v2y});
+		b = 0.5 * Math.sqrt(Math.pow(distance + distance2, 2) - stepLength2
+				* stepLength2);
 
-			pot = attributes.getPedestrianBodyPotential()
-					* Math.exp(-b
-							/ attributes.getPedestrianRecognitionDistance());
+		pot = attributes.getPedestrianBodyPotential()
+				* Math.exp(-b
+						/ attributes.getPedestrianRecognitionDistance());
 
-			// compute and normalize the gradient length to the
-			// potential
-			phi = Math.atan2(pedDistance[1], pedDistance[0]);
+		// compute and normalize the gradient length to the
+		// potential
+		phi = Math.atan2(pedDistance[1], pedDistance[0]);
 
-			grad[0] = -Math.cos(phi) * pot;
-			grad[1] = -Math.sin(phi) * pot;
+		grad[0] = -Math.cos(phi) * pot;
+		grad[1] = -Math.sin(phi) * pot;
 
-			// line of sight
-			double visibility = visibility(c, grad, v, viewingAngle);
+		// line of sight
+		double visibility = visibility(c, grad, v, viewingAngle);
 
-			// add to total gradient at x
-			completeGrad[0] += grad[0] * visibility;
-			completeGrad[1] += grad[1] * visibility;
-		}
-
-		return new Vector2D(completeGrad[0], completeGrad[1]);
+		// add to total gradient at x
+		completeGrad[0] += grad[0] * visibility;
+		completeGrad[1] += grad[1] * visibility;
 	}
 
 	private double visibility(double c, double[] fvec, double[] v, double phi) {
@@ -140,6 +168,15 @@ public class PotentialFieldPedestrianSFM implements PotentialFieldAgent {
 		return closePedestrians;
 	}
 
+	@Override
+	public void getRelevantAgents(VCircle relevantArea, Agent center,
+			Topography scenario, Collection<? super Agent> result) {
+		// the same distance as above
+		scenario.getSpatialMap(Agent.class)
+				.getObjects(relevantArea.getCenter(),
+						attributes.getPedestrianRecognitionDistance() + 3, result);
+	}
+
 	@Override
 	public void preLoop(double simTimeInSec) {
 		// TODO Auto-generated method stub
@@ -1,12 +1,10 @@
 package org.vadere.simulator.models.sfm;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 import org.vadere.simulator.models.ode.AbstractModelEquations;
 import org.vadere.simulator.models.ode.ODEModel;
+import org.vadere.simulator.models.ode.SnapshotAgentPotential;
 import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.Pedestrian;
 import org.vadere.util.geometry.shapes.Vector2D;
@@ -14,9 +12,6 @@ import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.math.MathUtil;
-import org.vadere.util.parallel.AParallelWorker;
-import org.vadere.util.parallel.AParallelWorker.Work;
-import org.vadere.util.parallel.CountableParallelWorker;
 import org.vadere.util.parallel.IAsyncComputable;
 
 /**
@@ -54,70 +49,28 @@ public class SFMEquations extends AbstractModelEquations<Pedestrian> implements
 	@Override
 	public void computeDerivatives(final double t, double[] y, final double[] yDot) {
 
-
-		// update the pedestrian positions in the topography to the ones computed in the integrator
-		ODEModel.updateElementPositions(Pedestrian.class, t, topography, this, y);
-
-		// create workers for each pedestrian
-		List<AParallelWorker<Double[]>> workers = new ArrayList<AParallelWorker<Double[]>>();
-
-		// loop over all persons and compute the next step
-		int personCounter = 0; // used for arrays, not identical to personID!
-		for (final Pedestrian pedestrian : elements) {
-			AParallelWorker<Double[]> w = new CountableParallelWorker<Double[]>(
-					personCounter, new Work<Double[]>() {
-						private int ID;
-
-						@Override
-						public Double[] call() throws Exception {
-							computeSinglePerson(pedestrian, getWorkerID(), t,
-									y, yDot);
-							return null;
-						}
-
-						@Override
-						public void setID(int ID) {
-							this.ID = ID;
-						}
-
-						@Override
-						public int getWorkerID() {
-							return this.ID;
-						}
-					});
-			personCounter++;
-			workers.add(w);
-			w.start();
+		if (!updateSnapshot(y)) {
+			// update the pedestrian positions in the topography to the ones computed in the integrator
+			ODEModel.updateElementPositions(Pedestrian.class, t, topography, this, y);
 		}
 
-		// finish the work
-		for (AParallelWorker<Double[]> worker : workers) {
-			try {
-				worker.finish();
-			} catch (ExecutionException e) {
-				logger.error(e);
-				e.printStackTrace();
-			} catch (InterruptedException e) {
-				// Necessary in order to tell Simulation the thread has been
-				// interrupted.
-				// TODO [priority=low] [task=refactoring] Hack, other solution?
-				Thread.currentThread().interrupt();
-				break;
-			}
-		}
+		// compute the persons in chunks, personCounter is used for arrays, not identical to personID!
+		forEachPerson((otherPedestrians, personCounter) -> computeSinglePerson(elements.get(personCounter), personCounter, t, y, yDot, otherPedestrians));
 	}
 
 	/**
 	 * Computes yDot for a single person given by personID. This is computed
-	 * asynchronously by an {@link AParallelWorker}.
+	 * asynchronously for chunks of persons (see {@link #forEachPerson}).
 	 *
 	 * @param currentPed
 	 * @param personCounter
 	 * @param t
 	 * @param y
 	 * @param yDot
+	 * @param otherPedestrians the list for the close pedestrians, reused for all persons of the chunk
 	 */
-	private void computeSinglePerson(Pedestrian currentPed, int personCounter, double t, double[] y, double[] yDot) {
+	private void computeSinglePerson(Pedestrian currentPed, int personCounter, double t, double[] y, double[] yDot,
+			List<Agent> otherPedestrians) {
 		double[] position = new double[2];
 		double[] velocity = new double[2];
 		double[] positionDot = new double[2];
@@ -171,12 +124,20 @@ public class SFMEquations extends AbstractModelEquations<Pedestrian> implements
 		Vector2D obstacleGradient = obstacleGradientProvider
 				.getObstaclePotentialGradient(pos, currentPed);
 		// get the dynamic gradient for pedestrians
-		Collection<? extends Agent> otherPedestrians = pedestrianGradientProvider
-				.getRelevantAgents(new VCircle(pos, 0.1), currentPed,
-						topography);
-		Vector2D pedestrianGradient = pedestrianGradientProvider
-				.getAgentPotentialGradient(pos, vel, currentPed,
-						otherPedestrians);
+		Vector2D pedestrianGradient;
+		if (snapshot != null) {
+			double[] grad_pedestrians = new double[2];
+			((SnapshotAgentPotential) pedestrianGradientProvider).getAgentPotentialGradient(
+					personCounter, position[0], position[1], velocity[0], velocity[1], snapshot, grad_pedestrians);
+			pedestrianGradient = new Vector2D(grad_pedestrians[0], grad_pedestrians[1]);
+		} else {
+			otherPedestrians.clear();
+			pedestrianGradientProvider.getRelevantAgents(new VCircle(pos, 0.1), currentPed,
+					topography, otherPedestrians);
+			pedestrianGradient = pedestrianGradientProvider
+					.getAgentPotentialGradient(pos, vel, currentPed,
+							otherPedestrians);
+		}
 
 		// get ped speed and acceleration data
 		double v0 = currentPed.getFreeFlowSpeed();
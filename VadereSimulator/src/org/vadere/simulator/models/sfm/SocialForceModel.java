@@ -26,9 +26,9 @@ import org.vadere.state.scenario.Target;
 import org.vadere.state.types.GradientProviderType;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VShape;
-import org.vadere.util.parallel.ParallelWorkerUtil;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 @ModelClass(isMainModel = true)
 public class SocialForceModel extends ODEModel<Pedestrian, AttributesAgent> implements PotentialFieldModel {
@@ -40,6 +40,7 @@ public class SocialForceModel extends ODEModel<Pedestrian, AttributesAgent> impl
 	private PotentialFieldObstacle potentialFieldObstacle;
 	private PotentialFieldAgent potentialFieldPedestrian;
 	private List<Model> models = new LinkedList<>();
+	private ForkJoinPool pool;
 
 
 	@Deprecated
@@ -130,15 +131,19 @@ public class SocialForceModel extends ODEModel<Pedestrian, AttributesAgent> impl
 	@Override
 	public void preLoop(final double state) {
 		super.preLoop(state);
-		// setup thread pool if it is not setup already
-		int WORKERS_COUNT = 16;// pedestrians.keySet().size();
-		ParallelWorkerUtil.setup(WORKERS_COUNT);
+		// the pool belongs to this model, i.e. scenarios which run in parallel do not share it
+		pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		equations.setPool(pool);
 	}
 
 	@Override
 	public void postLoop(final double simTimeInSec) {
 		super.postLoop(simTimeInSec);
-		ParallelWorkerUtil.shutdown();
+		equations.setPool(null);
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
 	}
 
 	@Override
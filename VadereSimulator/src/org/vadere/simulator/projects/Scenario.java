@@ -12,6 +12,8 @@ import org.vadere.state.attributes.AttributesPsychology;
 import org.vadere.state.attributes.AttributesSimulation;
 import org.vadere.state.attributes.scenario.AttributesAgent;
 import org.vadere.state.scenario.Topography;
+import org.vadere.state.util.BinaryNodeCodec;
+import org.vadere.state.util.StateJsonConverter;
 import org.vadere.util.io.IOUtils;
 import org.vadere.util.logging.Logger;
 import org.vadere.util.reflection.VadereClassNotFoundException;
@@ -40,8 +42,9 @@ public class Scenario {
 	private ScenarioStore scenarioStore;
 	private ScenarioStore simulationScenarioStore;
 	private DataProcessingJsonManager dataProcessingJsonManager;
-	private String savedStateSerialized;
-	private String currentStateSerialized;
+	/** binary snapshots (see {@link BinaryNodeCodec}) of the saved and the current state for change detection */
+	private byte[] savedState;
+	private byte[] currentState;
 	private boolean simulationRunning;	// manage which copy of ScenarioStore is currently used.
 
 
@@ -85,21 +88,29 @@ public class Scenario {
 	}
 
 	public void saveChanges() { // get's called by VadereProject.saveChanges on init
-		savedStateSerialized = JsonConverter.serializeScenarioRunManager(this);
-		currentStateSerialized = savedStateSerialized;
+		savedState = JsonConverter.serializeScenarioRunManagerToSnapshot(this);
+		currentState = savedState;
 	}
 
 	public boolean hasUnsavedChanges() {
-		return !savedStateSerialized.equals(currentStateSerialized);
+		return !Arrays.equals(savedState, currentState);
 	}
 
 	public void updateCurrentStateSerialized() {
-		currentStateSerialized = JsonConverter.serializeScenarioRunManager(this);
+		currentState = JsonConverter.serializeScenarioRunManagerToSnapshot(this);
 	}
 
 	public String getDiff() {
-		String currentStateSerialized = JsonConverter.serializeScenarioRunManager(this);
-		if (!savedStateSerialized.equals(currentStateSerialized)) {
+		byte[] state = JsonConverter.serializeScenarioRunManagerToSnapshot(this);
+		if (!Arrays.equals(savedState, state)) {
+			String savedStateSerialized;
+			String currentStateSerialized;
+			try {
+				savedStateSerialized = StateJsonConverter.serializeJsonNode(BinaryNodeCodec.decode(savedState));
+				currentStateSerialized = StateJsonConverter.serializeJsonNode(BinaryNodeCodec.decode(state));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
 			StringBuilder diff = new StringBuilder();
 			List<String> original = new ArrayList<>(Arrays.asList(savedStateSerialized.split("\n")));
 			List<String> revised = new ArrayList<>(Arrays.asList(currentStateSerialized.split("\n")));
@@ -183,7 +194,7 @@ public class Scenario {
 
 	public void discardChanges() {
 		try {
-			Scenario srm = JsonConverter.deserializeScenarioRunManager(savedStateSerialized);
+			Scenario srm = JsonConverter.deserializeScenarioRunManagerFromSnapshot(savedState);
 			// not all necessary! only the ones that could have changed
 			scenarioStore = srm.scenarioStore;
 			dataProcessingJsonManager = srm.dataProcessingJsonManager;
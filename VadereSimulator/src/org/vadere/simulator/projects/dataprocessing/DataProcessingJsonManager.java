@@ -11,6 +11,7 @@ import org.vadere.simulator.models.MainModel;
 import org.vadere.simulator.projects.dataprocessing.outputfile.NoDataKeyOutputFile;
 import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile;
 import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFileFactory;
+import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFileFormat;
 import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
 import org.vadere.simulator.projects.dataprocessing.processor.DataProcessorFactory;
 import org.vadere.simulator.projects.dataprocessing.store.DataProcessorStore;
@@ -44,10 +45,12 @@ public class DataProcessingJsonManager {
 	private static final String FILENAME_KEY = "filename";
 	private static final String FILE_PROCESSORS_KEY = "processors";
 	private static final String SEPARATOR_KEY = "separator";
+	private static final String FORMAT_KEY = "format";
 	private static final String PROCESSORID_KEY = "id";
 	private static final String ATTRIBUTESTYPE_KEY = "attributesType";
 	private static final String TIMESTAMP_KEY = "isTimestamped";
 	private static final String WRITEMETA_KEY = "isWriteMetaData";
+	private static final String STREAMING_WINDOW_KEY = "streamingWindow";
 	public static ObjectWriter writer;
 	private static ObjectMapper mapper;
 
@@ -63,6 +66,14 @@ public class DataProcessingJsonManager {
 	private boolean isTimestamped;
 	private boolean isWriteMetaData;
 
+	/**
+	 * The number of time steps the rows of time step based output files are kept in memory before they are written
+	 * and removed from their processors. Processors of such files must not be used by other processors which require
+	 * older values or all values at the end of the simulation. If it is smaller than 1 (default), all output files
+	 * are written at the end of the simulation.
+	 */
+	private int streamingWindow;
+
 	public DataProcessingJsonManager() {
 		this.outputFiles = new ArrayList<>();
 		this.dataProcessors = new ArrayList<>();
@@ -84,6 +95,11 @@ public class DataProcessingJsonManager {
 			node.put(SEPARATOR_KEY, separator);
 		}
 
+		// the format is optional, i.e. existing scenario files do not change
+		if (outputFile.getFormat() != OutputFileFormat.TEXT) {
+			node.put(FORMAT_KEY, outputFile.getFormat().name());
+		}
+
 		return node;
 	}
 
@@ -153,6 +169,11 @@ public class DataProcessingJsonManager {
 			manager.setWriteMetaData(writeMetaData.asBoolean());
 		}
 
+		JsonNode streamingWindow = node.get(STREAMING_WINDOW_KEY);
+		if (streamingWindow != null) {
+			manager.setStreamingWindow(streamingWindow.asInt());
+		}
+
 		return manager;
 	}
 
@@ -253,6 +274,14 @@ public class DataProcessingJsonManager {
 		this.isWriteMetaData = isWriteMetaData;
 	}
 
+	public int getStreamingWindow() {
+		return streamingWindow;
+	}
+
+	public void setStreamingWindow(int streamingWindow) {
+		this.streamingWindow = streamingWindow;
+	}
+
 	public String serialize() throws JsonProcessingException {
 		return writer.writeValueAsString(serializeToNode());
 	}
@@ -278,6 +307,11 @@ public class DataProcessingJsonManager {
 		main.put(TIMESTAMP_KEY, this.isTimestamped);
 		main.put(WRITEMETA_KEY, this.isWriteMetaData);
 
+		// streaming is optional, i.e. existing scenario files do not change
+		if (this.streamingWindow > 0) {
+			main.put(STREAMING_WINDOW_KEY, this.streamingWindow);
+		}
+
 		return main;
 	}
 
@@ -286,6 +320,7 @@ public class DataProcessingJsonManager {
 
 		for (OutputFile f : outputFiles) {
 			f.setWriteMetaData(isWriteMetaData()); // allow to write meta data
+			f.setStreamingWindow(getStreamingWindow());
 		}
 
 		return new ProcessorManager(dataProcessors, outputFiles, mainModel, topography);
@@ -1,19 +1,31 @@
 package org.vadere.simulator.projects.dataprocessing;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.tools.ant.BuildEvent;
 import org.vadere.simulator.control.simulation.SimulationState;
 import org.vadere.simulator.models.MainModel;
 import org.vadere.simulator.projects.SimulationResult;
 import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile;
 import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+import org.vadere.simulator.projects.dataprocessing.processor.VoronoiService;
 import org.vadere.state.scenario.MeasurementArea;
 import org.vadere.state.scenario.Topography;
+import org.vadere.util.logging.Logger;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Mario Teixeira Parente
@@ -21,12 +33,17 @@ import java.util.Map;
 
 public class ProcessorManager {
 
+	private static final Logger logger = Logger.getLogger(ProcessorManager.class);
+
 	private MainModel mainModel;
 	private final Topography topography;
 
 	private Map<Integer, DataProcessor<?, ?>> processorMap;
 	private List<OutputFile<?>> outputFiles;
 	private SimulationResult simulationResult;
+	private Set<Integer> streamedProcessorIds;
+	private final Set<Integer> referencedProcessorIds;
+	private final VoronoiService voronoiService;
 
 	public ProcessorManager(List<DataProcessor<?, ?>> dataProcessors,
 							List<OutputFile<?>> outputFiles, MainModel mainModel,
@@ -35,6 +52,8 @@ public class ProcessorManager {
 		this.topography = topography;
 
 		this.outputFiles = outputFiles;
+		this.voronoiService = new VoronoiService();
+		this.referencedProcessorIds = new HashSet<>();
 
 		this.processorMap = new LinkedHashMap<>();
 		for (DataProcessor<?, ?> proc : dataProcessors)
@@ -51,7 +70,34 @@ public class ProcessorManager {
 		outputFiles.forEach(file -> file.init(processorMap));
 	}
 
+	/**
+	 * Returns the ids of all processors which values can be removed after they are written, i.e. processors
+	 * which are used by exactly one output file, which is streaming, and which are not referenced by another
+	 * processor. A referenced processor keeps all its values, since e.g. the {@link
+	 * org.vadere.simulator.projects.dataprocessing.processor.PedestrianVelocityProcessor} reads positions of
+	 * time steps which might already be written.
+	 */
+	private Set<Integer> getStreamedProcessorIds() {
+		Set<Integer> streamedIds = new HashSet<>();
+		Set<Integer> requiredIds = new HashSet<>(referencedProcessorIds);
+		for (OutputFile<?> file : outputFiles) {
+			for (Integer id : file.getProcessorIds()) {
+				// a second file might write the rows later, i.e. the values are required until the end
+				if (!file.isStreaming() || !streamedIds.add(id)) {
+					requiredIds.add(id);
+				}
+			}
+		}
+		streamedIds.removeAll(requiredIds);
+		return streamedIds;
+	}
+
+	/**
+	 * Returns the processor with the given id or null if there is no such processor. The values of the returned
+	 * processor are not removed by streaming output files, since the caller might read them at any time.
+	 */
 	public DataProcessor<?, ?> getProcessor(int id) {
+		referencedProcessorIds.add(id);
 		return this.processorMap.getOrDefault(id, null);
 	}
 
@@ -70,16 +116,99 @@ public class ProcessorManager {
 		return measurementArea;
 	}
 
+	/**
+	 * Returns the Voronoi diagrams of the current step which are shared by all processors.
+	 */
+	public VoronoiService getVoronoiService() {
+		return voronoiService;
+	}
+
 	public MainModel getMainModel() {
 		return mainModel;
 	}
 
 	public void preLoop(final SimulationState state) {
 		this.processorMap.values().forEach(proc -> proc.preLoop(state));
+		this.voronoiService.clear();
+		this.streamedProcessorIds = null;
 	}
 
 	public void update(final SimulationState state) {
 		this.processorMap.values().forEach(proc -> proc.update(state));
+		voronoiService.clear();
+		writeFinishedRows(state);
+	}
+
+	/**
+	 * Writes the rows of all streaming output files which left the streaming window and removes the written values
+	 * from processors which are not used by any other output file.
+	 */
+	@SuppressWarnings("unchecked")
+	private void writeFinishedRows(final SimulationState state) {
+		if (streamedProcessorIds == null) {
+			streamedProcessorIds = getStreamedProcessorIds();
+		}
+
+		this.outputFiles.forEach(file -> file.writeFinishedRows(state.getStep(), state.getSimTimeInSec()));
+
+		// all files are written first, since a processor might be used by multiple streaming files
+		for (OutputFile<?> file : outputFiles) {
+			if (file.isStreaming()) {
+				for (Integer id : file.getProcessorIds()) {
+					DataProcessor processor = processorMap.get(id);
+					if (processor != null && streamedProcessorIds.contains(id)) {
+						((OutputFile) file).removeFinishedRows(processor);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the rows of all streaming output files up to the given state and returns the states of these files, i.e.
+	 * a run restored from a simulation checkpoint of this state can append its rows to the files (see
+	 * {@link #appendToOutputFiles(JsonNode)}).
+	 */
+	public List<ObjectNode> getCheckpointStates(final SimulationState state) {
+		List<ObjectNode> states = new ArrayList<>();
+		for (OutputFile<?> file : outputFiles) {
+			ObjectNode fileState = file.getCheckpointState(state.getStep(), state.getSimTimeInSec());
+			if (fileState != null) {
+				states.add(fileState);
+			}
+		}
+		return states;
+	}
+
+	/**
+	 * Appends the rows of the output files to the files of an original run, the states of these files are returned by
+	 * {@link #getCheckpointStates(SimulationState)}. The other output files are written to the output directory of this
+	 * run and only contain the rows from the checkpoint on. This has to be called after {@link #setOutputFiles(String)}.
+	 */
+	public void appendToOutputFiles(final JsonNode states) {
+		Map<String, JsonNode> statesByName = new HashMap<>();
+		states.forEach(state -> statesByName.put(state.get("fileName").asText(), state));
+
+		for (OutputFile<?> file : outputFiles) {
+			JsonNode state = statesByName.get(file.getFileName());
+			Path path = state != null ? Paths.get(state.get("path").asText()) : null;
+			if (path != null && Files.isRegularFile(path) && size(path) >= state.get("size").asLong()) {
+				file.setAbsoluteFileName(path.toString());
+				file.setAppendToFileSize(state.get("size").asLong());
+				logger.info("Append to " + path);
+			} else {
+				logger.warn(String.format("There is no output of the original run for %s, the file only contains the rows from the checkpoint on.",
+						file.getFileName()));
+			}
+		}
+	}
+
+	private static long size(final Path path) {
+		try {
+			return Files.size(path);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	public void postLoop(final SimulationState state) {
@@ -17,4 +17,14 @@ public class EventTimeOutputFile extends OutputFile<EventTimeKey> {
     public String[] toStrings(final EventTimeKey key) {
         return new String[] {Double.toString(key.getSimTime())};
     }
+
+    @Override
+    protected boolean isStreamable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isFinished(final EventTimeKey key, final int step, final double simTimeInSec) {
+        return key.getSimTime() <= simTimeInSec;
+    }
 }
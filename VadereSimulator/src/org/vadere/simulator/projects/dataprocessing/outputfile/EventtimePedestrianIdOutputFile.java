@@ -17,4 +17,14 @@ public class EventtimePedestrianIdOutputFile extends OutputFile<EventtimePedestr
 	public String[] toStrings(final EventtimePedestrianIdKey key) {
 		return new String[] {Integer.toString(key.getPedestrianId()), Double.toString(key.getSimtime())};
 	}
+
+	@Override
+	protected boolean isStreamable() {
+		return true;
+	}
+
+	@Override
+	protected boolean isFinished(final EventtimePedestrianIdKey key, final int step, final double simTimeInSec) {
+		return key.getSimtime() <= simTimeInSec;
+	}
 }
@@ -2,22 +2,31 @@
 
 package org.vadere.simulator.projects.dataprocessing.outputfile;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
 import org.vadere.simulator.projects.dataprocessing.datakey.DataKey;
 import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
 import org.vadere.simulator.projects.dataprocessing.writer.VadereWriter;
 import org.vadere.simulator.projects.dataprocessing.writer.VadereWriterFactory;
+import org.vadere.state.util.StateJsonConverter;
 import org.vadere.util.logging.Logger;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,6 +37,15 @@ import java.util.stream.Stream;
  * This class knows all the data processors of which the data should be saved. It writes the data
  * with the specified <tt>separator</tt> sign into a file specified by <tt>filename</tt>.
  *
+ * By default all rows are written at the end of the simulation. Output files which keys are ordered by the
+ * time step or the simulation time (see {@link #isStreamable()}) can be streamed instead: if the streaming window
+ * is set to <tt>n</tt> &gt; 0, the rows of the time step <tt>t - n</tt> are written after the processors are updated
+ * at time step <tt>t</tt>. The order of the rows is the same in both cases. A streaming output file collects the keys
+ * put into its processors ordered by time and writes the finished prefix, i.e. the cost of a time step is
+ * proportional to the new rows.
+ *
+ * The rows are written as text by default, see {@link OutputFileFormat} for the alternatives.
+ *
  * @param <K> key type
  * @author Mario Teixeira Parente
  */
@@ -57,6 +75,7 @@ public abstract class OutputFile<K extends DataKey<K>> {
 	private boolean isWriteMetaData;
 
 	private String separator;
+	private OutputFileFormat format;
 
 	// Check also the PostVis where there is a dependency
 	public final static String headerProcSep = "-";
@@ -65,12 +84,52 @@ public abstract class OutputFile<K extends DataKey<K>> {
 	private VadereWriterFactory writerFactory;
 	private VadereWriter writer;
 
+	/**
+	 * The number of time steps the rows are kept before they are written, if the output file is streamable.
+	 * If it is smaller than 1 all rows are written at the end of the simulation.
+	 */
+	private int streamingWindow;
+
+	/**
+	 * The simulation times of the last time steps which are not yet finished.
+	 */
+	private final ArrayDeque<Double> streamingSimTimes;
+
+	/**
+	 * The keys of a streaming output file which are not yet written, ordered by time.
+	 */
+	private final TreeSet<K> pendingKeys;
+
+	/**
+	 * The keys which are written by the last call of {@link #writeFinishedRows(int, double)} or which are put after
+	 * their rows were written, i.e. the keys {@link #removeFinishedRows(DataProcessor)} removes.
+	 */
+	private final List<K> finishedKeys;
+	private final List<K> lateKeys;
+	private final Consumer<K> pendingKeyListener;
+	private boolean hasFinishedRows;
+	private int finishedStep;
+	private double finishedSimTimeInSec;
+
+	/**
+	 * The size of an existing file to which the rows are appended, i.e. the rows of a run restored from a
+	 * simulation checkpoint continue the file of the original run. It is negative if a new file is written.
+	 */
+	private long appendToFileSize;
+
 	protected OutputFile(final String... dataIndices) {
 		this.dataIndices = dataIndices;
 		this.isAddedProcessors = false;  // init method has to be called
         this.isWriteMetaData = false;
 		this.dataProcessors = new ArrayList<>();
 		this.writerFactory = VadereWriterFactory.getFileWriterFactory();
+		this.format = OutputFileFormat.TEXT;
+		this.streamingSimTimes = new ArrayDeque<>();
+		this.pendingKeys = new TreeSet<>();
+		this.finishedKeys = new ArrayList<>();
+		this.lateKeys = new ArrayList<>();
+		this.pendingKeyListener = this::addPendingKey;
+		this.appendToFileSize = -1;
 	}
 
 	public void setAbsoluteFileName(final String fileName) {
@@ -81,6 +140,10 @@ public abstract class OutputFile<K extends DataKey<K>> {
 	    this.isWriteMetaData = isWriteMetaData;
     }
 
+	public void setStreamingWindow(int streamingWindow) {
+		this.streamingWindow = streamingWindow;
+	}
+
 	public void setRelativeFileName(final String fileName) {
 		this.fileName = fileName;
 	}
@@ -93,6 +156,16 @@ public abstract class OutputFile<K extends DataKey<K>> {
 	    this.separator = separator;
 	}
 
+	public OutputFileFormat getFormat() {
+		return this.format;
+	}
+
+	public void setFormat(final OutputFileFormat format) {
+		this.format = format;
+		this.writerFactory = format == OutputFileFormat.BINARY ?
+				VadereWriterFactory.getBinaryFileWriterFactory() : VadereWriterFactory.getFileWriterFactory();
+	}
+
 	@SuppressWarnings("unchecked")
 	public void init(final Map<Integer, DataProcessor<?, ?>> processorMap) {
 		this.dataProcessors.clear();
@@ -102,31 +175,218 @@ public abstract class OutputFile<K extends DataKey<K>> {
 		});
 
 		this.isAddedProcessors = true;
+		resetStreaming();
+
+		if (isStreaming()) {
+			dataProcessors.forEach(p -> p.addKeyListener(pendingKeyListener));
+		}
+	}
+
+	private void addPendingKey(final K key) {
+		if (hasFinishedRows && isFinished(key, finishedStep, finishedSimTimeInSec)) {
+			// the row is already written
+			lateKeys.add(key);
+		} else {
+			pendingKeys.add(key);
+		}
+	}
+
+	/**
+	 * Returns true if any processor has a value for the key, processors might remove keys which they put before.
+	 */
+	private boolean hasRow(final K key) {
+		for (DataProcessor<K, ?> dataProcessor : dataProcessors) {
+			if (dataProcessor.hasValue(key)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
+	/**
+	 * Writes all rows which are not yet written by {@link #writeFinishedRows(int, double)} and closes the file.
+	 */
 	public void write() {
 		if (!isEmpty()) {
 			logger.info("Absolute file name" + absoluteFileName);
-			try (VadereWriter out = writerFactory.create(absoluteFileName)) {
+			try (VadereWriter out = hasFinishedRows ? writer : openWriter()) {
+
+				if (isStreaming()) {
+					for (K key : pendingKeys) {
+						if (hasRow(key)) {
+							printRow(key);
+						}
+					}
+				} else {
+					this.dataProcessors.stream().flatMap(p -> p.getKeys().stream())
+							.distinct().sorted()
+							.forEach(key -> printRow(key));
+				}
 
-			    this.writer = out;
+				out.flush();
+			} catch (IOException e) {
+				logger.error(e.getMessage());
+				throw new UncheckedIOException(e);
+			} finally {
+				resetStreaming();
+			}
+		}
+	}
 
-				if(this.isWriteMetaData){
-					printMetaData();
-				}
+	/**
+	 * Writes the rows of the time step which left the streaming window, i.e. <tt>step - streamingWindow</tt>,
+	 * if this output file is streaming. The file stays open until {@link #write()} is called at the end of the
+	 * simulation.
+	 *
+	 * @param step          the current time step
+	 * @param simTimeInSec  the simulation time of the current time step
+	 */
+	public void writeFinishedRows(final int step, final double simTimeInSec) {
+		if (!isStreaming()) {
+			return;
+		}
 
-				printHeader();
+		streamingSimTimes.addLast(simTimeInSec);
+		if (streamingSimTimes.size() <= streamingWindow) {
+			return;
+		}
 
-				this.dataProcessors.stream().flatMap(p -> p.getKeys().stream())
-						.distinct().sorted()
-						.forEach(key -> printRow(key));
+		writeRowsUntil(step - streamingWindow, streamingSimTimes.pollFirst());
+	}
 
-				out.flush();
+	private void writeRowsUntil(final int newFinishedStep, final double newFinishedSimTimeInSec) {
+		if (!hasFinishedRows) {
+			writer = openWriter();
+		}
+
+		finishedKeys.clear();
+		finishedKeys.addAll(lateKeys);
+		lateKeys.clear();
+
+		// the keys are ordered by time, i.e. the finished rows are a prefix of the pending keys
+		while (!pendingKeys.isEmpty() && isFinished(pendingKeys.first(), newFinishedStep, newFinishedSimTimeInSec)) {
+			K key = pendingKeys.pollFirst();
+			if (hasRow(key)) {
+				printRow(key);
+			}
+			finishedKeys.add(key);
+		}
+
+		writer.flush();
+
+		finishedStep = newFinishedStep;
+		finishedSimTimeInSec = newFinishedSimTimeInSec;
+		hasFinishedRows = true;
+	}
+
+	/**
+	 * Writes all rows up to the given time step if this output file is streaming and returns its name, its path and its
+	 * size, i.e. a run restored from a simulation checkpoint at this time step can append its rows to the file (see
+	 * {@link #setAppendToFileSize(long)}). The rows of the streaming window are written early, a value which a processor
+	 * changes afterwards is not written. Returns null if the rows are written at the end of the simulation, the binary
+	 * format writes the rows in blocks and is not supported either.
+	 *
+	 * @param step          the last finished time step
+	 * @param simTimeInSec  the simulation time of the last finished time step
+	 */
+	public ObjectNode getCheckpointState(final int step, final double simTimeInSec) {
+		if (!isStreaming() || format != OutputFileFormat.TEXT) {
+			return null;
+		}
+
+		// the window starts again, i.e. the next rows are written after the next streamingWindow time steps
+		streamingSimTimes.clear();
+		writeRowsUntil(step, simTimeInSec);
+
+		ObjectNode state = StateJsonConverter.createObjectNode();
+		state.put("fileName", getFileName());
+		state.put("path", absoluteFileName);
+		try {
+			state.put("size", Files.size(Paths.get(absoluteFileName)));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return state;
+	}
+
+	/**
+	 * Appends the rows to the existing file of an original run instead of writing a new file. The file is truncated
+	 * to the given size first, it is the size which {@link #getCheckpointState(int, double)} returned, i.e. the rows
+	 * the original run wrote after the checkpoint are removed.
+	 */
+	public void setAppendToFileSize(final long fileSize) {
+		this.appendToFileSize = fileSize;
+	}
+
+	/**
+	 * Removes the values of all rows which are already written from the given processor. This must only be called for
+	 * processors which are not required by any other output file or processor afterwards.
+	 *
+	 * @param dataProcessor a processor of this output file
+	 */
+	public void removeFinishedRows(final DataProcessor<K, ?> dataProcessor) {
+		if (hasFinishedRows) {
+			dataProcessor.removeKeys(finishedKeys);
+		}
+	}
+
+	/**
+	 * Returns true if the rows of this output file are written during the simulation.
+	 */
+	public boolean isStreaming() {
+		return streamingWindow > 0 && isStreamable() && !isEmpty();
+	}
+
+	/**
+	 * Returns true if the keys are ordered by the time step or the simulation time first, i.e. all rows up to some time
+	 * can be written before the rows of later times are known. Subclasses which return true have to
+	 * implement {@link #isFinished(DataKey, int, double)}.
+	 */
+	protected boolean isStreamable() {
+		return false;
+	}
+
+	/**
+	 * Returns true if the key belongs to a time step smaller or equal to <tt>step</tt> or to a simulation time
+	 * smaller or equal to <tt>simTimeInSec</tt>, depending on the key type.
+	 *
+	 * @param key           the key of a row
+	 * @param step          the last finished time step
+	 * @param simTimeInSec  the simulation time of the last finished time step
+	 */
+	protected boolean isFinished(final K key, final int step, final double simTimeInSec) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support streaming.");
+	}
+
+	private VadereWriter openWriter() {
+		if (appendToFileSize >= 0) {
+			try (FileChannel channel = FileChannel.open(Paths.get(absoluteFileName), StandardOpenOption.WRITE)) {
+				channel.truncate(appendToFileSize);
 			} catch (IOException e) {
-				logger.error(e.getMessage());
 				throw new UncheckedIOException(e);
 			}
+			// the meta data and the header are already written
+			this.writer = writerFactory.createAppending(absoluteFileName);
+			return this.writer;
 		}
+
+		this.writer = writerFactory.create(absoluteFileName);
+
+		// the binary format contains the types of the columns, i.e. there is no need for meta data
+		if(this.isWriteMetaData && format == OutputFileFormat.TEXT){
+			printMetaData();
+		}
+
+		printHeader();
+		return this.writer;
+	}
+
+	private void resetStreaming() {
+		this.streamingSimTimes.clear();
+		this.pendingKeys.clear();
+		this.finishedKeys.clear();
+		this.lateKeys.clear();
+		this.hasFinishedRows = false;
 	}
 
 	public boolean isEmpty() {
@@ -267,7 +527,7 @@ public abstract class OutputFile<K extends DataKey<K>> {
 
 
 	private void writeLine(VadereWriter out, final List<String> fields) {
-		out.println(String.join(this.separator, fields));
+		out.printRow(fields, this.separator);
 	}
 
 	/**
@@ -0,0 +1,15 @@
+package org.vadere.simulator.projects.dataprocessing.outputfile;
+
+/**
+ * The format in which an {@link OutputFile} writes its rows.
+ *
+ * <ul>
+ *     <li>{@link #TEXT}: one line per row, the columns are separated by the separator of the output file.</li>
+ *     <li>{@link #BINARY}: a binary columnar format, see
+ *     {@link org.vadere.simulator.projects.dataprocessing.writer.VadereBinaryFileWriter}, which can be read back
+ *     without parsing any text, see {@link org.vadere.simulator.projects.io.BinaryTableReader}.</li>
+ * </ul>
+ */
+public enum OutputFileFormat {
+	TEXT, BINARY
+}
@@ -14,4 +14,14 @@ public class TimestepIdDataOutputFile extends OutputFile<TimestepIdDataKey> {
     public String[] toStrings(final TimestepIdDataKey key) {
         return new String[] { Integer.toString(key.getTimestep()), Integer.toString(key.getId()) };
     }
+
+    @Override
+    protected boolean isStreamable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isFinished(final TimestepIdDataKey key, final int step, final double simTimeInSec) {
+        return key.getTimestep() <= step;
+    }
 }
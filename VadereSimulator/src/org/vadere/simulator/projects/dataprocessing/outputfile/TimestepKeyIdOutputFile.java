@@ -15,4 +15,13 @@ public class TimestepKeyIdOutputFile extends OutputFile<TimestepFaceIdKey> {
 		return new String[] { Integer.toString(key.getTimeStep()), Integer.toString(key.getFaceId()) };
 	}
 
+	@Override
+	protected boolean isStreamable() {
+		return true;
+	}
+
+	@Override
+	protected boolean isFinished(final TimestepFaceIdKey key, final int step, final double simTimeInSec) {
+		return key.getTimeStep() <= step;
+	}
 }
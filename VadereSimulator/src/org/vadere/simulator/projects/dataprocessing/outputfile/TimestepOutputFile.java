@@ -13,4 +13,14 @@ public class TimestepOutputFile extends OutputFile<TimestepKey> {
     public TimestepOutputFile() {
         super("timeStep");
     }
+
+    @Override
+    protected boolean isStreamable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isFinished(final TimestepKey key, final int step, final double simTimeInSec) {
+        return key.getTimestep() <= step;
+    }
 }
@@ -18,4 +18,14 @@ public class TimestepPedestrianIdOutputFile extends OutputFile<TimestepPedestria
 	public String[] toStrings(final TimestepPedestrianIdKey key) {
 		return new String[] { Integer.toString(key.getTimestep()), Integer.toString(key.getPedestrianId()) };
 	}
+
+	@Override
+	protected boolean isStreamable() {
+		return true;
+	}
+
+	@Override
+	protected boolean isFinished(final TimestepPedestrianIdKey key, final int step, final double simTimeInSec) {
+		return key.getTimestep() <= step;
+	}
 }
@@ -14,4 +14,14 @@ public class TimestepPedestrianIdOverlapOutputFile extends OutputFile<TimestepPe
 	public String[] toStrings(final TimestepPedestrianIdOverlapKey key){
 		return key.toStrings();
 	}
+
+	@Override
+	protected boolean isStreamable() {
+		return true;
+	}
+
+	@Override
+	protected boolean isFinished(final TimestepPedestrianIdOverlapKey key, final int step, final double simTimeInSec) {
+		return key.getTimeStep() <= step;
+	}
 }
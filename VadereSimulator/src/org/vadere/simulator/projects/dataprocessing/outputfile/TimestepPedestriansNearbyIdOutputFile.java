@@ -15,4 +15,14 @@ public class TimestepPedestriansNearbyIdOutputFile extends OutputFile<TimestepPe
 	public String[] toStrings(final TimestepPedestriansNearbyIdKey key){
 		return key.toStrings();
 	}
+
+	@Override
+	protected boolean isStreamable() {
+		return true;
+	}
+
+	@Override
+	protected boolean isFinished(final TimestepPedestriansNearbyIdKey key, final int step, final double simTimeInSec) {
+		return key.getTimeStep() <= step;
+	}
 }
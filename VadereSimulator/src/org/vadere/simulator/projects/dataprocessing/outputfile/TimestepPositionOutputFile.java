@@ -13,4 +13,14 @@ public class TimestepPositionOutputFile extends OutputFile<TimestepPositionKey>
     public String[] toStrings(TimestepPositionKey key) {
         return new String[] { Integer.toString(key.getTimeStep()), Double.toString(key.getPosition().x), Double.toString(key.getPosition().y) };
     }
+
+    @Override
+    protected boolean isStreamable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isFinished(final TimestepPositionKey key, final int step, final double simTimeInSec) {
+        return key.getTimeStep() <= step;
+    }
 }
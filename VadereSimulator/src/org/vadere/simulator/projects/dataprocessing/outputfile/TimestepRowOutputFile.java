@@ -13,4 +13,14 @@ public class TimestepRowOutputFile extends OutputFile<TimestepRowKey> {
     public String[] toStrings(TimestepRowKey key) {
         return new String[] { Integer.toString(key.getTimeStep()), Integer.toString(key.getRow()) };
     }
+
+    @Override
+    protected boolean isStreamable() {
+        return true;
+    }
+
+    @Override
+    protected boolean isFinished(final TimestepRowKey key, final int step, final double simTimeInSec) {
+        return key.getTimeStep() <= step;
+    }
 }
@@ -2,14 +2,10 @@ package org.vadere.simulator.projects.dataprocessing.processor;
 
 import org.jetbrains.annotations.NotNull;
 import org.vadere.simulator.control.simulation.SimulationState;
-import org.vadere.state.scenario.Agent;
 import org.vadere.state.scenario.MeasurementArea;
-import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.voronoi.Face;
-import org.vadere.util.voronoi.VoronoiDiagram;
 
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -21,19 +17,25 @@ import java.util.List;
 public class AreaDensityVoronoiAlgorithm extends AreaDensityAlgorithm {
     private VRectangle measurementArea;
     private VRectangle voronoiArea;
+    private final VoronoiService voronoiService;
 
     public AreaDensityVoronoiAlgorithm(final MeasurementArea measurementArea, final MeasurementArea voronoiArea) {
+        this(measurementArea, voronoiArea, new VoronoiService());
+    }
+
+    public AreaDensityVoronoiAlgorithm(final MeasurementArea measurementArea, final MeasurementArea voronoiArea, @NotNull final VoronoiService voronoiService) {
         super("areaVoronoi");
 
         this.measurementArea = measurementArea.asVRectangle();
         this.voronoiArea = voronoiArea.asVRectangle();
+        this.voronoiService = voronoiService;
     }
 
     @Override
     public double getDensity(final SimulationState state) {
 
         // compute everything
-        List<Face> faces = generateFaces(state);
+        List<Face> faces = voronoiService.getFaces(state, voronoiArea);
 
         double area = 0.0;
         int pedCount = 0;
@@ -46,16 +48,4 @@ public class AreaDensityVoronoiAlgorithm extends AreaDensityAlgorithm {
         }
         return pedCount > 0 ? pedCount / area : 0;
     }
-
-    private List<Face> generateFaces(@NotNull final SimulationState state) {
-        VoronoiDiagram voronoiDiagram = new VoronoiDiagram(this.voronoiArea);
-
-        // convert pedestrians to positions
-        List<VPoint> pedestrianPositions = Agent.getPositions(state.getTopography().getElements(Agent.class));
-        voronoiDiagram.computeVoronoiDiagram(pedestrianPositions);
-
-        // compute everything
-        List<Face> faces = voronoiDiagram.getFaces();
-        return faces == null ? Collections.emptyList() : faces;
-    }
 }
@@ -9,10 +9,13 @@ import org.vadere.simulator.projects.dataprocessing.datakey.DataKey;
 import org.vadere.state.attributes.processor.AttributesProcessor;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Base class for data processors.
@@ -42,6 +45,7 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 
 	private String[] headers;
 	private Map<K, V> data;
+	private final Set<Consumer<K>> keyListeners;
 
 	private int lastStep;
 	private K lastKey;
@@ -55,6 +59,7 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 	protected DataProcessor(final String... headers) {
 		this.headers = headers;
 		this.data = new TreeMap<>(); // TreeMap to avoid sorting data later
+		this.keyListeners = new LinkedHashSet<>();
 
 		this.lastStep = 0;
 		this.stopSimBeforeSimFinish = false;
@@ -117,12 +122,40 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 	protected void putValue(final K key, final V value) {
 		this.lastKey = key;
 		this.data.put(key, value);
+		for (Consumer<K> keyListener : keyListeners) {
+			keyListener.accept(key);
+		}
+	}
+
+	/**
+	 * Adds a listener which is called with the key of each value put into the data, e.g. to collect the rows a
+	 * streaming output file has to write without iterating over all keys. Adding the same listener twice has no effect.
+	 */
+	public void addKeyListener(final Consumer<K> keyListener) {
+		this.keyListeners.add(keyListener);
 	}
 
 	protected void removeKey(final K key) {
 		this.data.remove(key);
 	}
 
+	/**
+	 * Removes the values of all keys which match the filter, e.g. values which are already written by a streaming
+	 * output file.
+	 */
+	public void removeKeys(final Predicate<K> filter) {
+		this.data.keySet().removeIf(filter);
+	}
+
+	/**
+	 * Removes the values of the given keys, e.g. values which are already written by a streaming output file.
+	 */
+	public void removeKeys(final Collection<K> keys) {
+		for (K key : keys) {
+			this.data.remove(key);
+		}
+	}
+
 	public void preLoop(final SimulationState state) { data.clear(); }
 
 	protected abstract void doUpdate(final SimulationState state);
@@ -158,6 +191,7 @@ public abstract class DataProcessor<K extends DataKey<K>, V> {
 
 	public void init(final ProcessorManager manager){
 		this.data.clear();
+		this.keyListeners.clear();
 		this.lastStep = 0;
 	}
 
@@ -22,8 +22,8 @@ public class FootStepGroupSizeProcessor extends DataProcessor<EventtimePedestria
 			CentroidGroupModel model = (CentroidGroupModel)m;
 			model.getGroupsById().forEach((gId, group) -> {	// for each group
 				group.getMembers().forEach(ped -> {			// for each member in group
-					ped.getTrajectory().getFootSteps().forEach(fs -> {
-						this.putValue(new EventtimePedestrianIdKey(fs.getStartTime(), ped.getId()), group.getSize());
+					ped.getTrajectory().view().forEachFootStep((startX, startY, endX, endY, startTime, endTime) -> {
+						this.putValue(new EventtimePedestrianIdKey(startTime, ped.getId()), group.getSize());
 					});
 				});
 			});
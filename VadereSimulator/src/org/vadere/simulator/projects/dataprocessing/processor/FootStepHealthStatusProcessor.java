@@ -5,9 +5,8 @@ import org.vadere.simulator.control.simulation.SimulationState;
 import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
 import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianIdKey;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.simulation.FootStep;
+import org.vadere.state.simulation.VTrajectory;
 
-import java.util.LinkedList;
 import java.util.Locale;
 
 /**
@@ -25,14 +24,13 @@ public class FootStepHealthStatusProcessor extends DataProcessor<EventtimePedest
     @Override
     protected void doUpdate(final SimulationState state) {
         for (Pedestrian pedestrian : state.getTopography().getElements(Pedestrian.class)) {
-            LinkedList<FootStep> footSteps = pedestrian.getTrajectory().clone().getFootSteps();
+            VTrajectory footSteps = pedestrian.getTrajectory();
 
 
             String healthStatusAsString = healthStatusToString(pedestrian);
 
-            for (FootStep footStep : footSteps) {
-                putValue(new EventtimePedestrianIdKey(footStep.getStartTime(), pedestrian.getId()), healthStatusAsString);
-            }
+            footSteps.view().forEachFootStep((startX, startY, endX, endY, startTime, endTime) ->
+                    putValue(new EventtimePedestrianIdKey(startTime, pedestrian.getId()), healthStatusAsString));
         }
     }
 
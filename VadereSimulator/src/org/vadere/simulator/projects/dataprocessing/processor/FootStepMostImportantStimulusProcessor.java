@@ -6,7 +6,6 @@ import org.vadere.simulator.control.simulation.SimulationState;
 import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianIdKey;
 import org.vadere.state.psychology.cognition.SelfCategory;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.simulation.FootStep;
 import org.vadere.state.simulation.VTrajectory;
 
 import java.util.ArrayList;
@@ -31,9 +30,8 @@ public class FootStepMostImportantStimulusProcessor extends DataProcessor<Eventt
 		for(Pedestrian p : pedestrians){
 			VTrajectory traj = p.getTrajectory();
 			String mostImportantStimulus = p.getMostImportantStimulus().toStringForOutputProcessor();
-			for(FootStep fs : traj.getFootSteps()){
-				this.putValue(new EventtimePedestrianIdKey(fs.getStartTime(), p.getId()), mostImportantStimulus);
-			}
+			traj.view().forEachFootStep((startX, startY, endX, endY, startTime, endTime) ->
+					this.putValue(new EventtimePedestrianIdKey(startTime, p.getId()), mostImportantStimulus));
 		}
 	}
 
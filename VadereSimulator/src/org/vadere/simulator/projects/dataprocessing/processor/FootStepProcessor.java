@@ -10,7 +10,6 @@ import org.vadere.state.simulation.FootStep;
 import org.vadere.state.simulation.VTrajectory;
 
 import java.util.Arrays;
-import java.util.LinkedList;
 
 /**
  * <p>During one time step a pedestrian my move multiple times which is saved by {@link Pedestrian#getTrajectory()}, i.e.
@@ -37,7 +36,7 @@ public class FootStepProcessor extends DataProcessor<EventtimePedestrianIdKey, F
     @Override
     protected void doUpdate(final SimulationState state) {
         for (Pedestrian pedestrian : state.getTopography().getElements(Pedestrian.class)) {
-            LinkedList<FootStep> footSteps = pedestrian.getTrajectory().clone().getFootSteps();
+            VTrajectory footSteps = pedestrian.getTrajectory();
 
             for (FootStep fs : footSteps) {
                 putValue(new EventtimePedestrianIdKey(fs.getStartTime(), pedestrian.getId()), fs);
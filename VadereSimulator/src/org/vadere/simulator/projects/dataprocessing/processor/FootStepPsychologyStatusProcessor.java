@@ -8,9 +8,7 @@ import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianI
 import org.vadere.state.psychology.PsychologyStatus;
 import org.vadere.state.psychology.perception.ThreatMemory;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.simulation.FootStep;
-
-import java.util.LinkedList;
+import org.vadere.state.simulation.VTrajectory;
 
 /**
  * Log {@link Pedestrian}'s current {@link PsychologyStatus} except its {@link ThreatMemory}.
@@ -27,13 +25,12 @@ public class FootStepPsychologyStatusProcessor extends DataProcessor<EventtimePe
 	@Override
 	protected void doUpdate(final SimulationState state) {
 		for (Pedestrian pedestrian : state.getTopography().getElements(Pedestrian.class)) {
-			LinkedList<FootStep> footSteps = pedestrian.getTrajectory().clone().getFootSteps();
+			VTrajectory footSteps = pedestrian.getTrajectory();
 
 			String psychologyStatus = psychologyStatusToString(pedestrian);
 
-			for (FootStep footStep : footSteps) {
-				putValue(new EventtimePedestrianIdKey(footStep.getStartTime(), pedestrian.getId()), psychologyStatus);
-			}
+			footSteps.view().forEachFootStep((startX, startY, endX, endY, startTime, endTime) ->
+					putValue(new EventtimePedestrianIdKey(startTime, pedestrian.getId()), psychologyStatus));
 		}
 	}
 
@@ -8,7 +8,6 @@ import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianI
 import org.vadere.simulator.projects.dataprocessing.datakey.PedestrianIdKey;
 import org.vadere.state.psychology.cognition.SelfCategory;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.simulation.FootStep;
 import org.vadere.state.simulation.VTrajectory;
 
 import java.util.*;
@@ -40,7 +39,7 @@ public class FootStepSelfCategoryProcessor extends DataProcessor<EventtimePedest
 			 * If not, these two self categories are not visualized in the post-visualization.
 			 * */
 			if ( (selfCat == SelfCategory.WAIT) || (selfCat == SelfCategory.CHANGE_TARGET) ) {
-				if (traj.getFootSteps().size() == 0) {
+				if (traj.isEmpty()) {
 					if (state.getStep() == 1){
 						this.putValue(new EventtimePedestrianIdKey(state.getSimTimeInSec(), p.getId()), selfCategoryString);
 					}
@@ -51,9 +50,8 @@ public class FootStepSelfCategoryProcessor extends DataProcessor<EventtimePedest
 			}
 
 
-			for(FootStep fs : traj.getFootSteps()){
-				this.putValue(new EventtimePedestrianIdKey(fs.getStartTime(), p.getId()), selfCategoryString);
-			}
+			traj.view().forEachFootStep((startX, startY, endX, endY, startTime, endTime) ->
+					this.putValue(new EventtimePedestrianIdKey(startTime, p.getId()), selfCategoryString));
 		}
 	}
 
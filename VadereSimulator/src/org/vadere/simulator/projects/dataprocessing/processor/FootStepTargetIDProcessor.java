@@ -6,11 +6,9 @@ import org.vadere.simulator.projects.dataprocessing.datakey.EventtimePedestrianI
 import org.vadere.simulator.projects.dataprocessing.processor.util.ModelFilter;
 import org.vadere.state.psychology.cognition.SelfCategory;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.simulation.FootStep;
 import org.vadere.util.logging.Logger;
 
 import java.util.Collection;
-import java.util.LinkedList;
 
 @DataProcessorClass()
 public class FootStepTargetIDProcessor extends DataProcessor<EventtimePedestrianIdKey, Integer> implements ModelFilter {
@@ -24,8 +22,8 @@ public class FootStepTargetIDProcessor extends DataProcessor<EventtimePedestrian
 	@Override
 	protected void doUpdate(SimulationState state) {
 		Collection<Pedestrian> peds = state.getTopography().getElements(Pedestrian.class);
-		peds.forEach(p -> p.getTrajectory().getFootSteps().forEach(fs -> {
-			this.putValue(new EventtimePedestrianIdKey(fs.getStartTime(), p.getId()), !p.hasNextTarget() ? -1 : p.getNextTargetId());
+		peds.forEach(p -> p.getTrajectory().view().forEachFootStep((startX, startY, endX, endY, startTime, endTime) -> {
+			this.putValue(new EventtimePedestrianIdKey(startTime, p.getId()), !p.hasNextTarget() ? -1 : p.getNextTargetId());
 		}));
 	}
 }
\ No newline at end of file
@@ -36,7 +36,8 @@ public class FundamentalDiagramEProcessor extends AreaDataProcessor<Pair<Double,
 		sumVoronoiAlgorithm = new SumVoronoiAlgorithm(
 				key -> pedestrianVelocityProcessor.getValue(key),
 				measurementArea,
-				voronoiMeasurementArea);
+				voronoiMeasurementArea,
+				manager.getVoronoiService());
 	}
 
 	@Override
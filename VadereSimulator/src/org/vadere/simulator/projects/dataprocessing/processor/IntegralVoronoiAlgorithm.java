@@ -12,11 +12,9 @@ import org.vadere.util.geometry.shapes.VPolygon;
 import org.vadere.util.geometry.shapes.VRectangle;
 import org.vadere.util.voronoi.Face;
 import org.vadere.util.voronoi.HalfEdge;
-import org.vadere.util.voronoi.VoronoiDiagram;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
@@ -32,19 +30,25 @@ public class IntegralVoronoiAlgorithm extends AreaDensityAlgorithm implements IA
     private VPolygon measurementAreaPolygon;
     private VRectangle voronoiArea;
     private final Function<TimestepPedestrianIdKey, Double> agentVelocityFunc;
+    private final VoronoiService voronoiService;
 
     public IntegralVoronoiAlgorithm(@NotNull final Function<TimestepPedestrianIdKey, Double> agentVelocityFunc, @NotNull final MeasurementArea measurementArea, @NotNull final MeasurementArea voronoiMeasurementArea) {
+        this(agentVelocityFunc, measurementArea, voronoiMeasurementArea, new VoronoiService());
+    }
+
+    public IntegralVoronoiAlgorithm(@NotNull final Function<TimestepPedestrianIdKey, Double> agentVelocityFunc, @NotNull final MeasurementArea measurementArea, @NotNull final MeasurementArea voronoiMeasurementArea, @NotNull final VoronoiService voronoiService) {
         super("areaVoronoi");
 
         this.measurementArea = measurementArea.asVRectangle();
         this.measurementAreaPolygon = new VPolygon(measurementArea.getShape());
         this.voronoiArea = voronoiMeasurementArea.asVRectangle();
         this.agentVelocityFunc = agentVelocityFunc;
+        this.voronoiService = voronoiService;
     }
 
     @Override
     public double getDensity(final SimulationState state) {
-        List<Face> faces = generateFaces(state);
+        List<Face> faces = voronoiService.getFaces(state, voronoiArea);
 
 	    double area = 0.0;
         for (Face face : faces) {
@@ -72,21 +76,9 @@ public class IntegralVoronoiAlgorithm extends AreaDensityAlgorithm implements IA
 	    return null;
     }
 
-    private List<Face> generateFaces(@NotNull final SimulationState state) {
-	    VoronoiDiagram voronoiDiagram = new VoronoiDiagram(this.voronoiArea);
-
-	    // convert pedestrians to positions
-	    List<VPoint> pedestrianPositions = Agent.getPositions(state.getTopography().getElements(Agent.class));
-	    voronoiDiagram.computeVoronoiDiagram(pedestrianPositions);
-
-	    // compute everything
-	    List<Face> faces = voronoiDiagram.getFaces();
-	    return faces == null ? Collections.emptyList() : faces;
-    }
-
 	@Override
 	public double getVelocity(SimulationState state) {
-		List<Face> faces = generateFaces(state);
+		List<Face> faces = voronoiService.getFaces(state, voronoiArea);
 
 		double velocity = 0.0;
 		for (Face face : faces) {
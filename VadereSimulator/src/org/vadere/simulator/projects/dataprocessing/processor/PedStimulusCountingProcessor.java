@@ -62,7 +62,7 @@ public class PedStimulusCountingProcessor extends DataProcessor<TimestepKey, Inf
 
 		int numberPedsInformed = (int) peds.stream().filter(p -> filter_by_stimuli.test(p)).count();
 		// assumption: only one stimulus is provided
-		int numberPedsAll = (int) peds.stream().filter(p-> p.getFootstepHistory().getFootSteps().size() > 1).count();
+		int numberPedsAll = (int) peds.stream().filter(p-> p.getFootstepHistory().size() > 1).count();
 
 		numberPedsAll = Math.max(numberPedsAll,numberPedsInformed);
 		InformationDegree informationDegree =  new InformationDegree(numberPedsInformed, numberPedsAll);
@@ -8,8 +8,7 @@ import org.vadere.simulator.projects.dataprocessing.datakey.OverlapData;
 import org.vadere.simulator.projects.dataprocessing.datakey.TimestepPedestrianIdOverlapKey;
 import org.vadere.state.scenario.DynamicElement;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.scenario.Topography;
-import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.util.geometry.ISpatialMap;
 import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.Collection;
@@ -42,11 +41,13 @@ public class PedestrianOverlapProcessor extends DataProcessor<TimestepPedestrian
 			minDist = pedRadius * 2;
 		}
 		int timeStep = state.getStep();
+		// the spatial map of dynamic elements is rebuilt for each call, therefore it is only requested once
+		ISpatialMap<DynamicElement> dynElements = state.getTopography().getSpatialMap(DynamicElement.class);
 		for (Pedestrian ped : peds) {
 			// get all Pedestrians with at most pedRadius*2.5 distance away
 			// this reduces the amount of overlap tests
 			VPoint pedPos = ped.getPosition();
-			List<DynamicElement> neighbours = getDynElementsAtPosition(state.getTopography(), ped.getPosition(), pedRadius *2.5);
+			List<DynamicElement> neighbours = getDynElementsAtPosition(dynElements, ped.getPosition(), pedRadius *2.5);
 			// collect pedIds and distance of all overlaps for the current ped in the current timestep
 			List<OverlapData> overlaps = neighbours
 					.parallelStream()
@@ -67,8 +68,7 @@ public class PedestrianOverlapProcessor extends DataProcessor<TimestepPedestrian
 		super.init(manager);
 	}
 
-	private List<DynamicElement> getDynElementsAtPosition(final Topography topography, VPoint sourcePosition, double radius) {
-		LinkedCellsGrid<DynamicElement> dynElements = topography.getSpatialMap(DynamicElement.class);
+	private List<DynamicElement> getDynElementsAtPosition(final ISpatialMap<DynamicElement> dynElements, VPoint sourcePosition, double radius) {
 		return dynElements.getObjects(sourcePosition, radius);
 	}
 
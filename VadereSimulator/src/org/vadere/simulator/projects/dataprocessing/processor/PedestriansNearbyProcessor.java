@@ -8,8 +8,7 @@ import org.vadere.simulator.projects.dataprocessing.datakey.TimestepPedestriansN
 import org.vadere.state.attributes.processor.AttributesPedestrianNearbyProcessor;
 import org.vadere.state.scenario.DynamicElement;
 import org.vadere.state.scenario.Pedestrian;
-import org.vadere.state.scenario.Topography;
-import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.util.geometry.ISpatialMap;
 import org.vadere.util.geometry.shapes.VPoint;
 
 import java.util.*;
@@ -40,11 +39,13 @@ public class PedestriansNearbyProcessor extends DataProcessor<TimestepPedestrian
         if (timeStep % sampleEveryNthStep != 0) {
             return;
         }
+        // the spatial map of dynamic elements is rebuilt for each call, therefore it is only requested once
+        ISpatialMap<DynamicElement> dynElements = state.getTopography().getSpatialMap(DynamicElement.class);
         for (Pedestrian ped : peds) {
             // get all Pedestrians with at most maxDistance away
             // this reduces the amount of overlap tests
             VPoint pedPos = ped.getPosition();
-            List<DynamicElement> dynElemNneighbours = getDynElementsAtPosition(state.getTopography(), ped.getPosition(), maxDistance);
+            List<DynamicElement> dynElemNneighbours = getDynElementsAtPosition(dynElements, ped.getPosition(), maxDistance);
             List<PedestriansNearbyData> pedsNearby = dynElemNneighbours
                     .parallelStream()
                     .filter(p -> ped.getId() != p.getId())
@@ -101,8 +102,7 @@ public class PedestriansNearbyProcessor extends DataProcessor<TimestepPedestrian
         minTimespanOfContactTimesteps = att.getMinTimespanOfContactTimesteps();
     }
 
-    private List<DynamicElement> getDynElementsAtPosition(final Topography topography, VPoint sourcePosition, double radius) {
-        LinkedCellsGrid<DynamicElement> dynElements = topography.getSpatialMap(DynamicElement.class);
+    private List<DynamicElement> getDynElementsAtPosition(final ISpatialMap<DynamicElement> dynElements, VPoint sourcePosition, double radius) {
         return dynElements.getObjects(sourcePosition, radius);
     }
 
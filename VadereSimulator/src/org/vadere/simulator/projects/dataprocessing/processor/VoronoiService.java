@@ -0,0 +1,64 @@
+package org.vadere.simulator.projects.dataprocessing.processor;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.state.scenario.Agent;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.voronoi.Face;
+import org.vadere.util.voronoi.VoronoiDiagram;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the Voronoi diagrams of the agent positions for the Voronoi based algorithms of all processors
+ * of a {@link org.vadere.simulator.projects.dataprocessing.ProcessorManager}. Each diagram is computed at most
+ * once per simulation state and Voronoi area, i.e. processors which use the same Voronoi area and an algorithm
+ * which requires the faces for the density and the velocity share one diagram. The faces of the diagrams are
+ * shared and must not be modified.
+ */
+public class VoronoiService {
+
+	private SimulationState state;
+	private List<VPoint> positions;
+	private final Map<VRectangle, List<Face>> facesByArea;
+
+	public VoronoiService() {
+		this.facesByArea = new HashMap<>();
+	}
+
+	/**
+	 * Returns the faces of the Voronoi diagram of all agent positions of the state clipped to the Voronoi area.
+	 *
+	 * @param state         the simulation state of the current step
+	 * @param voronoiArea   the rectangular area which bounds the diagram
+	 * @return the faces of the diagram, an empty list if there is no agent inside the area
+	 */
+	public List<Face> getFaces(@NotNull final SimulationState state, @NotNull final VRectangle voronoiArea) {
+		if (this.state != state) {
+			clear();
+			this.state = state;
+			this.positions = Agent.getPositions(state.getTopography().getElements(Agent.class));
+		}
+		return facesByArea.computeIfAbsent(voronoiArea, this::computeFaces);
+	}
+
+	private List<Face> computeFaces(@NotNull final VRectangle voronoiArea) {
+		VoronoiDiagram voronoiDiagram = new VoronoiDiagram(voronoiArea);
+		voronoiDiagram.computeVoronoiDiagram(positions);
+		List<Face> faces = voronoiDiagram.getFaces();
+		return faces == null ? Collections.emptyList() : faces;
+	}
+
+	/**
+	 * Releases the diagrams of the last state, this is called after all processors are updated.
+	 */
+	public void clear() {
+		state = null;
+		positions = null;
+		facesByArea.clear();
+	}
+}
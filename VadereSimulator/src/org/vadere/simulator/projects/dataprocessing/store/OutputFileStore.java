@@ -1,6 +1,7 @@
 package org.vadere.simulator.projects.dataprocessing.store;
 
 import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
+import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFileFormat;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -11,12 +12,14 @@ public class OutputFileStore {
 	private String filename;
 	private List<Integer> processors;
 	private String separator;
+	private OutputFileFormat format;
 
 	public OutputFileStore() {
 		this.separator = DataProcessingJsonManager.DEFAULT_SEPARATOR;
 		this.type = DataProcessingJsonManager.DEFAULT_OUTPUTFILE_TYPE;
 		this.processors = new ArrayList<>();
 		this.filename = DataProcessingJsonManager.DEFAULT_NAME;
+		this.format = OutputFileFormat.TEXT;
 	}
 
 	public String getType() {
@@ -61,4 +64,14 @@ public class OutputFileStore {
 			this.separator = separator;
 		}
 	}
+
+	public OutputFileFormat getFormat() {
+		return this.format;
+	}
+
+	public void setFormat(OutputFileFormat format) {
+		if (format != null) {
+			this.format = format;
+		}
+	}
 }
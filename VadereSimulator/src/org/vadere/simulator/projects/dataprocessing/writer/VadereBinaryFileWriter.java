@@ -0,0 +1,287 @@
+package org.vadere.simulator.projects.dataprocessing.writer;
+
+import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Output result of simulation as binary columnar file to the filesystem. Instead of lines of text, the rows are
+ * collected in blocks and each block is written column by column such that a reader can copy whole columns without
+ * parsing any text, see {@link org.vadere.simulator.projects.io.BinaryTableReader}.
+ *
+ * The processors write their values as text (see {@link org.vadere.simulator.projects.dataprocessing.processor.DataProcessor#toStrings})
+ * and do not declare the types of their values. Therefore, the type of a column is chosen separately for each block
+ * such that the reader reproduces the text exactly: a column is an {@link #TYPE_INT} column if all values are
+ * integers in the form of {@link Integer#toString(int)}, a {@link #TYPE_DOUBLE} column if all values are numbers in the
+ * form of {@link Double#toString(double)}, a {@link #TYPE_BOOLEAN} column if all values are <tt>true</tt> or
+ * <tt>false</tt> and a {@link #TYPE_STRING} column otherwise, e.g. for ids like <tt>007</tt> or numbers like
+ * <tt>1.50</tt>. Empty values are missing values, they are stored as {@link Integer#MIN_VALUE}, {@link Double#NaN}
+ * and {@link #BOOLEAN_MISSING}, i.e. a column containing these values as text is a {@link #TYPE_STRING} column.
+ * All numbers are written in big-endian byte order:
+ *
+ * <pre>
+ * file   := MAGIC VERSION nColumns:int name:string* block*
+ * block  := nRows:int nBytes:long column*                   (nBytes is the number of bytes of all columns)
+ * column := TYPE_INT int* | TYPE_DOUBLE double* | TYPE_BOOLEAN byte* | TYPE_STRING nWords:int word:string* index:int*
+ * string := nBytes:int utf8-byte*
+ * </pre>
+ *
+ * The first row which is written is the header. Lines written by {@link #println(String)} are split into fields by
+ * the separator of the rows, lines starting with {@link #COMMENT} (e.g. the meta data of the text format) are skipped
+ * since the binary format contains the column types.
+ */
+public class VadereBinaryFileWriter implements VadereWriter {
+
+	public static final int MAGIC = 0x56424354; // "VBCT"
+	public static final int VERSION = 1;
+
+	public static final byte TYPE_INT = 0;
+	public static final byte TYPE_DOUBLE = 1;
+	public static final byte TYPE_BOOLEAN = 2;
+	public static final byte TYPE_STRING = 3;
+
+	public static final byte BOOLEAN_FALSE = 0;
+	public static final byte BOOLEAN_TRUE = 1;
+	public static final byte BOOLEAN_MISSING = -1;
+
+	public static final String COMMENT = "#";
+
+	/**
+	 * the number of rows of a full block.
+	 */
+	static final int BLOCK_SIZE = 1 << 16;
+
+	/**
+	 * the minimal number of rows which are written by {@link #flush()}, this avoids tiny blocks if the
+	 * output file is flushed after each time step.
+	 */
+	static final int MIN_FLUSH_SIZE = 1 << 12;
+
+	private final DataOutputStream out;
+	private final List<String[]> rows;
+	private int nColumns;
+	private String separator;
+
+	public VadereBinaryFileWriter(String absoluteFileName) {
+		try {
+			this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(absoluteFileName), 1 << 16));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		this.rows = new ArrayList<>();
+		this.nColumns = -1;
+		this.separator = DataProcessingJsonManager.DEFAULT_SEPARATOR;
+	}
+
+	@Override
+	public void println(String s) {
+		if (!s.startsWith(COMMENT)) {
+			printRow(Arrays.asList(s.split(Pattern.quote(separator), -1)), separator);
+		}
+	}
+
+	@Override
+	public void printRow(List<String> fields, String separator) {
+		if (separator != null) {
+			this.separator = separator;
+		}
+
+		try {
+			if (nColumns < 0) {
+				writeHeader(fields);
+			} else {
+				if (fields.size() > nColumns) {
+					throw new IllegalArgumentException("the row " + fields + " has more than " + nColumns + " fields.");
+				}
+
+				// missing fields are missing values
+				String[] row = new String[nColumns];
+				for (int i = 0; i < nColumns; i++) {
+					row[i] = i < fields.size() ? fields.get(i) : "";
+				}
+				rows.add(row);
+
+				if (rows.size() >= BLOCK_SIZE) {
+					writeBlock();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void flush() {
+		try {
+			if (rows.size() >= MIN_FLUSH_SIZE) {
+				writeBlock();
+			}
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (nColumns < 0) {
+				writeHeader(new ArrayList<>());
+			}
+			if (!rows.isEmpty()) {
+				writeBlock();
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private void writeHeader(final List<String> names) throws IOException {
+		nColumns = names.size();
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(nColumns);
+		for (String name : names) {
+			writeString(out, name);
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream block = new DataOutputStream(bytes);
+
+		for (int col = 0; col < nColumns; col++) {
+			byte type = columnType(col);
+			block.writeByte(type);
+			switch (type) {
+				case TYPE_INT:
+					for (String[] row : rows) {
+						block.writeInt(row[col].isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(row[col]));
+					}
+					break;
+				case TYPE_DOUBLE:
+					for (String[] row : rows) {
+						block.writeDouble(row[col].isEmpty() ? Double.NaN : Double.parseDouble(row[col]));
+					}
+					break;
+				case TYPE_BOOLEAN:
+					for (String[] row : rows) {
+						block.writeByte(row[col].isEmpty() ? BOOLEAN_MISSING : Boolean.parseBoolean(row[col]) ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+					}
+					break;
+				default:
+					writeStringColumn(block, col);
+			}
+		}
+
+		block.flush();
+		out.writeInt(rows.size());
+		out.writeLong(bytes.size());
+		bytes.writeTo(out);
+		rows.clear();
+	}
+
+	/**
+	 * Writes a dictionary of all distinct values of the column followed by the indices of the values of the rows.
+	 */
+	private void writeStringColumn(final DataOutputStream block, final int col) throws IOException {
+		Map<String, Integer> indices = new HashMap<>();
+		List<String> words = new ArrayList<>();
+		int[] rowIndices = new int[rows.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			String value = rows.get(i)[col];
+			Integer index = indices.get(value);
+			if (index == null) {
+				index = words.size();
+				indices.put(value, index);
+				words.add(value);
+			}
+			rowIndices[i] = index;
+		}
+
+		block.writeInt(words.size());
+		for (String word : words) {
+			writeString(block, word);
+		}
+		for (int index : rowIndices) {
+			block.writeInt(index);
+		}
+	}
+
+	private byte columnType(final int col) {
+		boolean isInt = true;
+		boolean isDouble = true;
+		boolean isBoolean = true;
+		boolean hasValues = false;
+
+		for (String[] row : rows) {
+			String value = row[col];
+			if (value.isEmpty()) {
+				continue;
+			}
+
+			hasValues = true;
+			isBoolean = isBoolean && (value.equals("true") || value.equals("false"));
+			isInt = isInt && isInt(value);
+			isDouble = isDouble && isDouble(value);
+
+			if (!isInt && !isDouble && !isBoolean) {
+				return TYPE_STRING;
+			}
+		}
+
+		if (!hasValues) {
+			return TYPE_STRING;
+		} else if (isBoolean) {
+			return TYPE_BOOLEAN;
+		} else if (isInt) {
+			return TYPE_INT;
+		} else {
+			return isDouble ? TYPE_DOUBLE : TYPE_STRING;
+		}
+	}
+
+	/**
+	 * Returns true if the value is stored as an int without changing its text, e.g. <tt>007</tt> or <tt>+7</tt> are
+	 * no ints. {@link Integer#MIN_VALUE} indicates a missing value.
+	 */
+	static boolean isInt(final String value) {
+		try {
+			int parsed = Integer.parseInt(value);
+			return parsed != Integer.MIN_VALUE && Integer.toString(parsed).equals(value);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns true if the value is stored as a double without changing its text, e.g. <tt>1.50</tt> or <tt>1</tt> are
+	 * no doubles. {@link Double#NaN} indicates a missing value.
+	 */
+	static boolean isDouble(final String value) {
+		try {
+			double parsed = Double.parseDouble(value);
+			return !Double.isNaN(parsed) && Double.toString(parsed).equals(value);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static void writeString(final DataOutputStream out, final String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
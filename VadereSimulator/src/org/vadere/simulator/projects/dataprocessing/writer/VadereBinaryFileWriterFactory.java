@@ -0,0 +1,12 @@
+package org.vadere.simulator.projects.dataprocessing.writer;
+
+public class VadereBinaryFileWriterFactory extends VadereWriterFactory {
+
+	public VadereBinaryFileWriterFactory() {
+	}
+
+	@Override
+	public VadereWriter create(String path) {
+		return new VadereBinaryFileWriter(path);
+	}
+}
@@ -15,8 +15,12 @@ public class VadereFileWriter implements VadereWriter {
 	PrintWriter w;
 
 	public VadereFileWriter(String absoluteFileName) {
+		this(absoluteFileName, false);
+	}
+
+	public VadereFileWriter(String absoluteFileName, boolean append) {
 		try {
-			this.w = new PrintWriter(new FileWriter(absoluteFileName));
+			this.w = new PrintWriter(new FileWriter(absoluteFileName, append));
 		} catch (IOException e) {
 			throw new UncheckedIOException(e);
 		}
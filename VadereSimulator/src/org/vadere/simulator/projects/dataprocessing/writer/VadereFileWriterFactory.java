@@ -9,4 +9,9 @@ public class VadereFileWriterFactory extends VadereWriterFactory {
 	public VadereWriter create(String path) {
 		return new VadereFileWriter(path);
 	}
+
+	@Override
+	public VadereWriter createAppending(String path) {
+		return new VadereFileWriter(path, true);
+	}
 }
@@ -1,6 +1,7 @@
 package org.vadere.simulator.projects.dataprocessing.writer;
 
 import java.io.Closeable;
+import java.util.List;
 
 /**
  * Output result of simulation
@@ -12,4 +13,14 @@ public interface VadereWriter extends Closeable {
 	void println(String s);
 
 	void flush();
+
+	/**
+	 * Writes one row of an output file, the first row is the header.
+	 *
+	 * @param fields    the fields of the row
+	 * @param separator the separator of the output file
+	 */
+	default void printRow(List<String> fields, String separator) {
+		println(String.join(separator, fields));
+	}
 }
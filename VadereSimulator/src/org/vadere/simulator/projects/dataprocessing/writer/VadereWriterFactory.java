@@ -10,6 +10,18 @@ public abstract class VadereWriterFactory {
 		return new VadereStringWriterFactory();
 	}
 
+	public static VadereBinaryFileWriterFactory getBinaryFileWriterFactory() {
+		return new VadereBinaryFileWriterFactory();
+	}
+
 	public abstract VadereWriter create(String path);
 
+	/**
+	 * Creates a writer which appends to the existing file, e.g. to continue the output of a simulation
+	 * restored from a checkpoint.
+	 */
+	public VadereWriter createAppending(String path) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support appending.");
+	}
+
 }
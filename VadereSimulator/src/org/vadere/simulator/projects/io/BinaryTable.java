@@ -0,0 +1,334 @@
+package org.vadere.simulator.projects.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereBinaryFileWriter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import tech.tablesaw.api.BooleanColumn;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+/**
+ * A read-only view of an output file written in the binary columnar format of the {@link VadereBinaryFileWriter}
+ * which is opened by {@link BinaryTableReader#open()}. The blocks of the file are memory-mapped and indexed once,
+ * the values are read from the mapped buffers on access, i.e. opening a table does not copy any column.
+ *
+ * <p>
+ * The type of a column is given by the file: if the type of a column differs between blocks, integers are widened
+ * to doubles and all other combinations are strings. {@link Column#getString(int)} returns the text of a value as it
+ * was written, independent of the type of the column.
+ * </p>
+ */
+public class BinaryTable {
+
+	private final String name;
+	private final String[] names;
+	private final byte[] types;
+	private final Block[] blocks;
+
+	/**
+	 * the index of the first row of each block followed by the number of rows.
+	 */
+	private final int[] rowOffsets;
+
+	/**
+	 * A block of rows, the offsets point to the values of the columns inside the mapped buffer.
+	 */
+	static class Block {
+		private final ByteBuffer buffer;
+		private final int nRows;
+		private final byte[] types;
+		private final int[] valueOffsets;
+		private final int[] dictionaryOffsets;
+		private final String[][] dictionaries;
+
+		Block(@NotNull final ByteBuffer buffer, final int nRows, @NotNull final byte[] types,
+		      @NotNull final int[] valueOffsets, @NotNull final int[] dictionaryOffsets) {
+			this.buffer = buffer;
+			this.nRows = nRows;
+			this.types = types;
+			this.valueOffsets = valueOffsets;
+			this.dictionaryOffsets = dictionaryOffsets;
+			this.dictionaries = new String[types.length][];
+		}
+
+		private synchronized String[] getDictionary(final int col) {
+			if (dictionaries[col] == null) {
+				int offset = dictionaryOffsets[col];
+				String[] words = new String[buffer.getInt(offset)];
+				offset += Integer.BYTES;
+				for (int i = 0; i < words.length; i++) {
+					byte[] bytes = new byte[buffer.getInt(offset)];
+					offset += Integer.BYTES;
+					buffer.get(offset, bytes);
+					offset += bytes.length;
+					words[i] = new String(bytes, StandardCharsets.UTF_8);
+				}
+				dictionaries[col] = words;
+			}
+			return dictionaries[col];
+		}
+
+		private int getInt(final int col, final int row) {
+			return buffer.getInt(valueOffsets[col] + row * Integer.BYTES);
+		}
+
+		private double getDouble(final int col, final int row) {
+			return buffer.getDouble(valueOffsets[col] + row * Double.BYTES);
+		}
+
+		private byte getBoolean(final int col, final int row) {
+			return buffer.get(valueOffsets[col] + row);
+		}
+
+		private String getWord(final int col, final int row) {
+			return getDictionary(col)[buffer.getInt(valueOffsets[col] + row * Integer.BYTES)];
+		}
+
+		private boolean isMissing(final int col, final int row) {
+			switch (types[col]) {
+				case VadereBinaryFileWriter.TYPE_INT:
+					return getInt(col, row) == Integer.MIN_VALUE;
+				case VadereBinaryFileWriter.TYPE_DOUBLE:
+					return Double.isNaN(getDouble(col, row));
+				case VadereBinaryFileWriter.TYPE_BOOLEAN:
+					return getBoolean(col, row) == VadereBinaryFileWriter.BOOLEAN_MISSING;
+				default:
+					return getWord(col, row).isEmpty();
+			}
+		}
+
+		private String getString(final int col, final int row) {
+			if (isMissing(col, row)) {
+				return "";
+			}
+			switch (types[col]) {
+				case VadereBinaryFileWriter.TYPE_INT:
+					return Integer.toString(getInt(col, row));
+				case VadereBinaryFileWriter.TYPE_DOUBLE:
+					return Double.toString(getDouble(col, row));
+				case VadereBinaryFileWriter.TYPE_BOOLEAN:
+					return Boolean.toString(getBoolean(col, row) == VadereBinaryFileWriter.BOOLEAN_TRUE);
+				default:
+					return getWord(col, row);
+			}
+		}
+	}
+
+	BinaryTable(@NotNull final String name, @NotNull final String[] names, @NotNull final List<Block> blocks) {
+		this.name = name;
+		this.names = names;
+		this.blocks = blocks.toArray(new Block[0]);
+		this.rowOffsets = new int[this.blocks.length + 1];
+		for (int i = 0; i < this.blocks.length; i++) {
+			rowOffsets[i + 1] = rowOffsets[i] + this.blocks[i].nRows;
+		}
+
+		this.types = new byte[names.length];
+		for (int col = 0; col < names.length; col++) {
+			byte type = this.blocks.length == 0 ? VadereBinaryFileWriter.TYPE_STRING : this.blocks[0].types[col];
+			for (Block block : this.blocks) {
+				byte blockType = block.types[col];
+				if (blockType != type) {
+					type = isNumber(type) && isNumber(blockType) ? VadereBinaryFileWriter.TYPE_DOUBLE : VadereBinaryFileWriter.TYPE_STRING;
+				}
+			}
+			types[col] = type;
+		}
+	}
+
+	private static boolean isNumber(final byte type) {
+		return type == VadereBinaryFileWriter.TYPE_INT || type == VadereBinaryFileWriter.TYPE_DOUBLE;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int rowCount() {
+		return rowOffsets[blocks.length];
+	}
+
+	public int columnCount() {
+		return names.length;
+	}
+
+	public List<String> columnNames() {
+		return Collections.unmodifiableList(Arrays.asList(names));
+	}
+
+	public Column column(final int col) {
+		if (col < 0 || col >= names.length) {
+			throw new IndexOutOfBoundsException("column " + col + " of " + names.length + " columns");
+		}
+		return new Column(col);
+	}
+
+	public Column column(@NotNull final String columnName) {
+		for (int col = 0; col < names.length; col++) {
+			if (names[col].equals(columnName)) {
+				return new Column(col);
+			}
+		}
+		throw new IllegalArgumentException("there is no column " + columnName + " in " + name);
+	}
+
+	private int blockOf(final int row) {
+		if (row < 0 || row >= rowCount()) {
+			throw new IndexOutOfBoundsException("row " + row + " of " + rowCount() + " rows");
+		}
+		int index = Arrays.binarySearch(rowOffsets, row);
+		// blocks are never empty, i.e. the row offsets are distinct
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Copies all values into a {@link Table}, this is the same table which is read from the text format except that
+	 * the column types are not guessed but given by the file.
+	 */
+	public Table toTable() {
+		Table table = Table.create(name);
+		for (int col = 0; col < names.length; col++) {
+			table.addColumns(toColumn(col));
+		}
+		return table;
+	}
+
+	private tech.tablesaw.columns.Column<?> toColumn(final int col) {
+		int nRows = rowCount();
+		switch (types[col]) {
+			case VadereBinaryFileWriter.TYPE_INT: {
+				int[] values = new int[nRows];
+				for (int i = 0; i < blocks.length; i++) {
+					ByteBuffer buffer = blocks[i].buffer.duplicate().position(blocks[i].valueOffsets[col]);
+					buffer.asIntBuffer().get(values, rowOffsets[i], blocks[i].nRows);
+				}
+				return IntColumn.create(names[col], values);
+			}
+			case VadereBinaryFileWriter.TYPE_DOUBLE: {
+				double[] values = new double[nRows];
+				for (int i = 0; i < blocks.length; i++) {
+					Block block = blocks[i];
+					if (block.types[col] == VadereBinaryFileWriter.TYPE_INT) {
+						for (int row = 0; row < block.nRows; row++) {
+							int value = block.getInt(col, row);
+							values[rowOffsets[i] + row] = value == Integer.MIN_VALUE ? Double.NaN : value;
+						}
+					} else {
+						ByteBuffer buffer = block.buffer.duplicate().position(block.valueOffsets[col]);
+						buffer.asDoubleBuffer().get(values, rowOffsets[i], block.nRows);
+					}
+				}
+				return DoubleColumn.create(names[col], values);
+			}
+			case VadereBinaryFileWriter.TYPE_BOOLEAN: {
+				BooleanColumn column = BooleanColumn.create(names[col]);
+				for (Block block : blocks) {
+					for (int row = 0; row < block.nRows; row++) {
+						byte value = block.getBoolean(col, row);
+						if (value == VadereBinaryFileWriter.BOOLEAN_MISSING) {
+							column.appendMissing();
+						} else {
+							column.append(value == VadereBinaryFileWriter.BOOLEAN_TRUE);
+						}
+					}
+				}
+				return column;
+			}
+			default: {
+				String[] values = new String[nRows];
+				for (int i = 0; i < blocks.length; i++) {
+					for (int row = 0; row < blocks[i].nRows; row++) {
+						values[rowOffsets[i] + row] = blocks[i].getString(col, row);
+					}
+				}
+				return StringColumn.create(names[col], values);
+			}
+		}
+	}
+
+	/**
+	 * A view of one column, the values are read from the mapped blocks on each access.
+	 */
+	public class Column {
+
+		private final int col;
+
+		private Column(final int col) {
+			this.col = col;
+		}
+
+		public String name() {
+			return names[col];
+		}
+
+		/**
+		 * Returns the type of the column, see {@link VadereBinaryFileWriter#TYPE_INT} and the other types.
+		 */
+		public byte type() {
+			return types[col];
+		}
+
+		public int size() {
+			return rowCount();
+		}
+
+		public boolean isMissing(final int row) {
+			int block = blockOf(row);
+			return blocks[block].isMissing(col, row - rowOffsets[block]);
+		}
+
+		/**
+		 * Returns the value of an int column, a missing value is {@link Integer#MIN_VALUE}.
+		 */
+		public int getInt(final int row) {
+			if (types[col] != VadereBinaryFileWriter.TYPE_INT) {
+				throw new IllegalStateException(names[col] + " is not an int column.");
+			}
+			int block = blockOf(row);
+			return blocks[block].getInt(col, row - rowOffsets[block]);
+		}
+
+		/**
+		 * Returns the value of an int or double column, a missing value is {@link Double#NaN}.
+		 */
+		public double getDouble(final int row) {
+			if (!isNumber(types[col])) {
+				throw new IllegalStateException(names[col] + " is not a number column.");
+			}
+			int block = blockOf(row);
+			int blockRow = row - rowOffsets[block];
+			if (blocks[block].types[col] == VadereBinaryFileWriter.TYPE_INT) {
+				int value = blocks[block].getInt(col, blockRow);
+				return value == Integer.MIN_VALUE ? Double.NaN : value;
+			}
+			return blocks[block].getDouble(col, blockRow);
+		}
+
+		/**
+		 * Returns the value of a boolean column, a missing value is <tt>false</tt>, see {@link #isMissing(int)}.
+		 */
+		public boolean getBoolean(final int row) {
+			if (types[col] != VadereBinaryFileWriter.TYPE_BOOLEAN) {
+				throw new IllegalStateException(names[col] + " is not a boolean column.");
+			}
+			int block = blockOf(row);
+			return blocks[block].getBoolean(col, row - rowOffsets[block]) == VadereBinaryFileWriter.BOOLEAN_TRUE;
+		}
+
+		/**
+		 * Returns the text of the value as it was written, a missing value is the empty string.
+		 */
+		public String getString(final int row) {
+			int block = blockOf(row);
+			return blocks[block].getString(col, row - rowOffsets[block]);
+		}
+	}
+}
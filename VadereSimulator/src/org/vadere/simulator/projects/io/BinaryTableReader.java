@@ -0,0 +1,180 @@
+package org.vadere.simulator.projects.io;
+
+import org.vadere.simulator.projects.dataprocessing.writer.VadereBinaryFileWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import tech.tablesaw.api.Table;
+
+/**
+ * Reads an output file written in the binary columnar format of the {@link VadereBinaryFileWriter}.
+ * {@link #open()} memory-maps the file block by block and returns a lazy {@link BinaryTable} without copying any
+ * column, i.e. large files are opened instantly. {@link #readFile()} copies the columns in bulk into the same
+ * {@link Table} which is read from the text format, except that the column types are not guessed but given by the file.
+ */
+public class BinaryTableReader {
+
+	private final Path filePath;
+
+	public BinaryTableReader(final Path filePath) {
+		this.filePath = filePath;
+	}
+
+	/**
+	 * Tests whether the file starts with the magic number of the binary format.
+	 *
+	 * @param filePath the path to the file
+	 * @return true if the file is written in the binary format, false otherwise
+	 */
+	public static boolean isBinaryTable(final Path filePath) {
+		try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+			channel.read(magic);
+			return !magic.hasRemaining() && magic.getInt(0) == VadereBinaryFileWriter.MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Opens the file as a {@link BinaryTable} which reads the values from the memory-mapped blocks on access. Only the
+	 * header and the headers of the blocks are read, each block is mapped separately since a mapped region is
+	 * limited to 2 GB.
+	 */
+	public BinaryTable open() throws IOException {
+		try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+			final long size = channel.size();
+
+			// (1) header
+			ByteBuffer header = read(channel, 0, 3 * Integer.BYTES);
+			if (header == null || header.getInt() != VadereBinaryFileWriter.MAGIC) {
+				throw new IOException(filePath + " is not a binary output file.");
+			}
+			int version = header.getInt();
+			if (version != VadereBinaryFileWriter.VERSION) {
+				throw new IOException("unsupported version " + version + " of the binary output file " + filePath);
+			}
+
+			long position = header.limit();
+			String[] names = new String[header.getInt()];
+			for (int i = 0; i < names.length; i++) {
+				ByteBuffer length = read(channel, position, Integer.BYTES);
+				ByteBuffer bytes = length == null ? null : read(channel, position + Integer.BYTES, length.getInt());
+				if (bytes == null) {
+					throw new IOException("the header of the binary output file " + filePath + " is truncated.");
+				}
+				names[i] = StandardCharsets.UTF_8.decode(bytes).toString();
+				position += Integer.BYTES + bytes.limit();
+			}
+
+			// (2) index the blocks
+			List<BinaryTable.Block> blocks = new ArrayList<>();
+			final int blockHeaderBytes = Integer.BYTES + Long.BYTES;
+			while (position < size) {
+				ByteBuffer blockHeader = read(channel, position, blockHeaderBytes);
+				if (blockHeader == null) {
+					throw new IOException("the binary output file " + filePath + " is truncated.");
+				}
+				int blockRows = blockHeader.getInt();
+				long blockBytes = blockHeader.getLong();
+				position += blockHeaderBytes;
+
+				if (blockRows < 0 || blockBytes < 0 || position + blockBytes > size) {
+					throw new IOException("the binary output file " + filePath + " is truncated.");
+				}
+				if (blockBytes > Integer.MAX_VALUE) {
+					throw new IOException("the block at " + position + " of the binary output file " + filePath + " exceeds 2 GB.");
+				}
+
+				MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, blockBytes);
+				if (blockRows > 0) {
+					blocks.add(indexBlock(block, blockRows, names.length));
+				}
+				position += blockBytes;
+			}
+
+			return new BinaryTable(filePath.getFileName().toString(), names, blocks);
+		}
+	}
+
+	/**
+	 * Reads the whole file into a {@link Table}, see {@link BinaryTable#toTable()}.
+	 */
+	public Table readFile() throws IOException {
+		return open().toTable();
+	}
+
+	/**
+	 * Reads <tt>nBytes</tt> at the position of the file, returns null if the file ends before.
+	 */
+	private static ByteBuffer read(final FileChannel channel, final long position, final int nBytes) throws IOException {
+		if (nBytes < 0 || position + nBytes > channel.size()) {
+			return null;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(nBytes);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				return null;
+			}
+		}
+		return buffer.flip();
+	}
+
+	/**
+	 * Finds the offsets of the columns of a block without reading their values.
+	 */
+	private BinaryTable.Block indexBlock(final ByteBuffer block, final int nRows, final int nColumns) throws IOException {
+		byte[] types = new byte[nColumns];
+		int[] valueOffsets = new int[nColumns];
+		int[] dictionaryOffsets = new int[nColumns];
+		try {
+			int offset = 0;
+			for (int col = 0; col < nColumns; col++) {
+				byte type = block.get(offset);
+				offset++;
+				types[col] = type;
+				switch (type) {
+					case VadereBinaryFileWriter.TYPE_INT:
+						valueOffsets[col] = offset;
+						offset = Math.addExact(offset, Math.multiplyExact(nRows, Integer.BYTES));
+						break;
+					case VadereBinaryFileWriter.TYPE_DOUBLE:
+						valueOffsets[col] = offset;
+						offset = Math.addExact(offset, Math.multiplyExact(nRows, Double.BYTES));
+						break;
+					case VadereBinaryFileWriter.TYPE_BOOLEAN:
+						valueOffsets[col] = offset;
+						offset = Math.addExact(offset, nRows);
+						break;
+					case VadereBinaryFileWriter.TYPE_STRING: {
+						dictionaryOffsets[col] = offset;
+						int nWords = block.getInt(offset);
+						offset += Integer.BYTES;
+						for (int i = 0; i < nWords; i++) {
+							offset = Math.addExact(offset, Integer.BYTES + block.getInt(offset));
+						}
+						valueOffsets[col] = offset;
+						offset = Math.addExact(offset, Math.multiplyExact(nRows, Integer.BYTES));
+						break;
+					}
+					default:
+						throw new IOException("unknown column type " + type + " in the binary output file " + filePath);
+				}
+				if (offset > block.limit()) {
+					throw new IOException("the binary output file " + filePath + " is corrupt.");
+				}
+			}
+		} catch (IndexOutOfBoundsException | ArithmeticException e) {
+			throw new IOException("the binary output file " + filePath + " is corrupt.", e);
+		}
+		return new BinaryTable.Block(block, nRows, types, valueOffsets, dictionaryOffsets);
+	}
+}
@@ -250,9 +250,12 @@ public final class ColumnNames {
 	}
 
 	public boolean hasDuplicates(@NotNull final Table dataFrame) {
+		return hasDuplicates(dataFrame.columnNames());
+	}
+
+	public boolean hasDuplicates(@NotNull final List<String> columnNames) {
 		for(Set<String> possibleHeaders : keys) {
 			int count = 0;
-			List<String> columnNames = dataFrame.columnNames();
 			for (int index = 0; index < columnNames.size(); index++) {
 				String headerName = columnNames.get(index).split(OutputFile.headerProcSep)[0];
 				if (possibleHeaders.contains(headerName)) {
@@ -85,7 +85,7 @@ public abstract class IOOutput {
 	private static boolean testTrajectories (final VadereProject project, final File directory) {
 		try {
 			TrajectoryReader reader = new TrajectoryReader(getPathToOutputFile(project, directory.getName(), IOUtils.TRAJECTORY_FILE_EXTENSION));
-			reader.readFile();
+			reader.checkFile();
 			return true;
 
 		} catch (IOException | VadereClassNotFoundException e) {
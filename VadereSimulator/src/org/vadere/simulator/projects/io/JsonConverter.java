@@ -11,6 +11,7 @@ import org.vadere.simulator.projects.ScenarioStore;
 import org.vadere.simulator.projects.dataprocessing.DataProcessingJsonManager;
 import org.vadere.state.psychology.perception.json.StimulusInfoStore;
 import org.vadere.state.scenario.Topography;
+import org.vadere.state.util.BinaryNodeCodec;
 import org.vadere.state.util.StateJsonConverter;
 import org.vadere.util.reflection.DynamicClassInstantiator;
 
@@ -127,9 +128,23 @@ public class JsonConverter {
 		return vadereNode;
 	}
 
+	/**
+	 * Returns a binary snapshot of the scenario (see {@link BinaryNodeCodec}), e.g. to detect changes
+	 * or to restore the scenario later without parsing its json text.
+	 */
+	public static byte[] serializeScenarioRunManagerToSnapshot(Scenario scenarioRunManager) {
+		return BinaryNodeCodec.encode(serializeScenarioRunManagerToNode(scenarioRunManager, false));
+	}
+
+	public static Scenario deserializeScenarioRunManagerFromSnapshot(byte[] snapshot) throws IOException {
+		return deserializeScenarioRunManagerFromNode(BinaryNodeCodec.decode(snapshot));
+	}
+
 	public static Scenario cloneScenarioRunManager(Scenario original) throws IOException {
-		JsonNode clone = serializeScenarioRunManagerToNode(original, false);
-		return deserializeScenarioRunManagerFromNode(clone);
+		Scenario clone = new Scenario(cloneScenarioStore(original.getScenarioStore()));
+		clone.setDataProcessingJsonManager(DataProcessingJsonManager.deserializeFromNode(original.getDataProcessingJsonManager().serializeToNode()));
+		clone.saveChanges();
+		return clone;
 	}
 
 	public static ScenarioStore cloneScenarioStore(ScenarioStore scenarioStore) throws IOException {
@@ -137,7 +152,6 @@ public class JsonConverter {
 
 		ObjectNode attributesPsychologyNode = StateJsonConverter.serializeAttributesPsychologyToNode(scenarioStore.getAttributesPsychology());
 		ObjectNode attributesModelNode = StateJsonConverter.serializeAttributesModelToNode(scenarioStore.getAttributesList());
-		ObjectNode topographyNode = StateJsonConverter.serializeTopographyToNode(scenarioStore.getTopography());
 		ObjectNode stimulusNode = StateJsonConverter.serializeStimuliToNode(scenarioStore.getStimulusInfoStore());
 		JsonNode stimulusInfosArrayNode = stimulusNode.get("stimulusInfos");
 
@@ -150,7 +164,7 @@ public class JsonConverter {
 				StateJsonConverter.deserializeAttributesListFromNode(attributesModelNode),
 				StateJsonConverter.deserializeAttributesSimulationFromNode(attributesSimulationNode),
 				StateJsonConverter.deserializeAttributesPsychologyFromNode(attributesPsychologyNode),
-				StateJsonConverter.deserializeTopographyFromNode(topographyNode),
+				StateJsonConverter.copyTopography(scenarioStore.getTopography()),
 				StateJsonConverter.deserializeStimuliFromArrayNode(stimulusNode)
 				);
 	}
@@ -3,9 +3,12 @@ package org.vadere.simulator.projects.io;
 import org.vadere.simulator.projects.dataprocessing.outputfile.OutputFile;
 import org.vadere.simulator.projects.dataprocessing.processor.FootStepProcessor;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 
 import tech.tablesaw.api.Table;
 import tech.tablesaw.io.csv.CsvReadOptions;
@@ -26,6 +29,10 @@ import tech.tablesaw.io.csv.CsvReadOptions;
  *      groupId [optional].
  * The order of the rows (expect for the first row / header) can be arbitrary.
  * Columns has to be separated by {@link TrajectoryReader#SPLITTER} and {@link OutputFile#headerProcSep}.
+ * Output files written in the binary format (see {@link org.vadere.simulator.projects.dataprocessing.outputfile.OutputFileFormat})
+ * are detected by their first bytes and read by the {@link BinaryTableReader}. {@link #readFile()} copies all columns
+ * into a {@link Table} in both cases, since the postvisualization works on tables, {@link #checkFile()} only reads the
+ * header.
  */
 public class TrajectoryReader {
 
@@ -38,12 +45,38 @@ public class TrajectoryReader {
 	}
 
 	public Table readFile() throws IOException {
-		CsvReadOptions options = CsvReadOptions.builder(trajectoryFilePath.toFile()).separator(SPLITTER).header(true).build();
-		dataFrame = Table.read().usingOptions(options);
+		if(BinaryTableReader.isBinaryTable(trajectoryFilePath)) {
+			dataFrame = new BinaryTableReader(trajectoryFilePath).readFile();
+		} else {
+			CsvReadOptions options = CsvReadOptions.builder(trajectoryFilePath.toFile()).separator(SPLITTER).header(true).build();
+			dataFrame = Table.read().usingOptions(options);
+		}
 		ColumnNames columnNames = ColumnNames.getInstance();
 		if(columnNames.hasDuplicates(dataFrame)) {
 			throw new IOException("The header of table " + dataFrame + " is contains duplicates which can lead to unwanted side effects");
 		}
 		return dataFrame;
 	}
+
+	/**
+	 * Checks the header of the file like {@link #readFile()} without reading the rows, a binary file is opened as a
+	 * lazy {@link BinaryTable}.
+	 */
+	public void checkFile() throws IOException {
+		List<String> names;
+		if(BinaryTableReader.isBinaryTable(trajectoryFilePath)) {
+			names = new BinaryTableReader(trajectoryFilePath).open().columnNames();
+		} else {
+			try (BufferedReader reader = Files.newBufferedReader(trajectoryFilePath)) {
+				String header = reader.readLine();
+				if (header == null) {
+					throw new IOException(trajectoryFilePath + " is empty.");
+				}
+				names = Arrays.asList(header.split(String.valueOf(SPLITTER)));
+			}
+		}
+		if(ColumnNames.getInstance().hasDuplicates(names)) {
+			throw new IOException("The header of " + trajectoryFilePath + " contains duplicates which can lead to unwanted side effects");
+		}
+	}
 }
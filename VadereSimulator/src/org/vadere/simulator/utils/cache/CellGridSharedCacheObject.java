@@ -0,0 +1,103 @@
+package org.vadere.simulator.utils.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.logging.Logger;
+
+/**
+ * A cache object of a {@link SharedFloorFieldCache} entry. If the shared cache does not contain the floor field,
+ * the cache object falls back to the cache object of the file system (e.g. {@link CellGridBinaryCacheObject}) and
+ * puts the loaded or computed floor field into the shared cache.
+ */
+public class CellGridSharedCacheObject implements ICellGridCacheObject {
+
+	private static Logger logger = Logger.getLogger(CellGridSharedCacheObject.class);
+
+	private final String key;
+	private final SharedFloorFieldCache sharedCache;
+	private final ICacheObject<CellGrid> fallback;
+
+	private boolean requested;
+	private boolean claimed;
+	private CellGrid grid;
+
+	public CellGridSharedCacheObject(@NotNull final String key, @NotNull final SharedFloorFieldCache sharedCache, @NotNull final ICacheObject<CellGrid> fallback) {
+		this.key = key;
+		this.sharedCache = sharedCache;
+		this.fallback = fallback;
+		this.requested = false;
+		this.claimed = false;
+	}
+
+	private void request() {
+		if (!requested) {
+			requested = true;
+			grid = sharedCache.getOrClaim(key);
+			if (grid == null) {
+				// the shared cache moved the entry from unclaimed to claimed for this object
+				claimed = true;
+			}
+		}
+	}
+
+	@Override
+	public void initializeObjectFromCache(CellGrid object) throws CacheException {
+		request();
+		if (grid != null) {
+			logger.infof("read shared cache: %s", key);
+			object.setValues(grid);
+		} else {
+			try {
+				fallback.initializeObjectFromCache(object);
+			} catch (CacheException e) {
+				release();
+				throw e;
+			}
+			put(object);
+		}
+	}
+
+	@Override
+	public void persistObject(CellGrid object) throws CacheException {
+		put(object);
+		if (fallback.writable()) {
+			fallback.persistObject(object);
+		}
+	}
+
+	private void put(CellGrid object) {
+		sharedCache.put(key, object);
+		claimed = false;
+	}
+
+	/**
+	 * Releases the claim of the shared cache entry if the floor field was neither loaded nor computed.
+	 */
+	public void release() {
+		if (claimed) {
+			sharedCache.release(key);
+			claimed = false;
+		}
+	}
+
+	@Override
+	public boolean readable() {
+		request();
+		return grid != null || fallback.readable();
+	}
+
+	@Override
+	public boolean writable() {
+		return true;
+	}
+
+	@Override
+	public String getCacheLocation() {
+		return "shared floor field cache (" + fallback.getCacheLocation() + ")";
+	}
+
+	@Override
+	public String getCacheIdentifier() {
+		return fallback.getCacheIdentifier();
+	}
+}
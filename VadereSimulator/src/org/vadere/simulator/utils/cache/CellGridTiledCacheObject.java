@@ -0,0 +1,53 @@
+package org.vadere.simulator.utils.cache;
+
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellGridTileStore;
+import org.vadere.util.logging.Logger;
+
+import java.io.File;
+
+/**
+ * A cell grid cache stored in a {@link CellGridTileStore}: the cache location is the index of the grid and the
+ * (compressed) tiles are shared by all grids of the store. Loading the cache only reads the index, the tiles are
+ * loaded when the floor field accesses them for the first time.
+ */
+public class CellGridTiledCacheObject extends AbstractCacheObject implements ICellGridCacheObject {
+
+	private static Logger logger = Logger.getLogger(CellGridTiledCacheObject.class);
+
+	private final CellGridTileStore tileStore;
+
+	public CellGridTiledCacheObject(String cacheIdentifier, File cacheLocation, CellGridTileStore tileStore) {
+		super(cacheIdentifier, cacheLocation, null);
+		this.tileStore = tileStore;
+	}
+
+	@Override
+	public void initializeObjectFromCache(CellGrid object) throws CacheException {
+		try {
+			logger.infof("read cache: %s", getCacheLocation());
+			object.setTileLoader(tileStore.open(cacheLocation.toPath(), object.getNumPointsX(), object.getNumPointsY()));
+		} catch (Exception e) {
+			throw new CacheException("Cannot load tiled cache", e);
+		}
+	}
+
+	@Override
+	public void persistObject(CellGrid object) throws CacheException {
+		try {
+			tileStore.write(object, cacheLocation.toPath());
+		} catch (Exception e) {
+			logger.error("cannot save cache " + cacheLocation.getAbsolutePath(), e);
+		}
+	}
+
+	@Override
+	public boolean readable() {
+		return cacheLocation != null && cacheLocation.isFile();
+	}
+
+	@Override
+	public String getCacheLocation() {
+		return cacheLocation.getAbsolutePath();
+	}
+}
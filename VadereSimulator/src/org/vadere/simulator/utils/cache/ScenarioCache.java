@@ -9,6 +9,8 @@ import org.vadere.state.types.CacheType;
 import org.vadere.state.types.EikonalSolverType;
 import org.vadere.state.util.StateJsonConverter;
 import org.vadere.util.config.VadereConfig;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellGridTileStore;
 import org.vadere.util.logging.Logger;
 
 import java.io.ByteArrayInputStream;
@@ -27,6 +29,8 @@ public class ScenarioCache {
 	private static final String Distance_FF = "_distanceFF_";
 	private static final String txt_sufix = ".txt";
 	private static final String bin_sufix = ".ffcache";
+	private static final String tiled_sufix = ".fftiles";
+	private static final String TILE_DIR_NAME = "tiles";
 
 	private boolean empty;
 	final private Scenario scenario;
@@ -35,13 +39,25 @@ public class ScenarioCache {
 
 	private HashMap<String, ICacheObject> cacheMap = new HashMap<>();
 	private String hash;
+	private CellGridTileStore tileStore;
+	private SharedFloorFieldCache sharedCache;
 
 	public static ScenarioCache empty(){
 		return new ScenarioCache();
 	}
 
 	public static ScenarioCache load(final Scenario scenario, Path cacheParentDir){
-		return new ScenarioCache(scenario, cacheParentDir);
+		return new ScenarioCache(scenario, cacheParentDir, null);
+	}
+
+	/**
+	 * Loads the cache of the scenario and looks up the floor fields in the shared cache before
+	 * the file system is used (see {@link SharedFloorFieldCache}). Floor fields of scenarios which
+	 * do not use cached floor fields are shared in memory only. The claims of the shared cache
+	 * have to be released by {@link #releaseSharedCache()} after the simulation run.
+	 */
+	public static ScenarioCache load(final Scenario scenario, Path cacheParentDir, SharedFloorFieldCache sharedCache){
+		return new ScenarioCache(scenario, cacheParentDir, sharedCache);
 	}
 
 	public static String getHash(final Scenario scenario){
@@ -86,9 +102,10 @@ public class ScenarioCache {
 		return ret.toAbsolutePath();
 	}
 
-	private ScenarioCache(Scenario scenario, Path cacheParentDir){
+	private ScenarioCache(Scenario scenario, Path cacheParentDir, SharedFloorFieldCache sharedCache){
 		this.empty = scenario == null;
 		this.scenario = scenario;
+		this.sharedCache = sharedCache;
 
 		if (!empty){
 			Topography topography = scenario.getTopography();
@@ -101,7 +118,8 @@ public class ScenarioCache {
 				this.attFF = attFF;
 				this.hash = StateJsonConverter.getFloorFieldHash(topography, attFF);
 				this.cachePath = resolveCachePath(cacheParentDir, attFF.getCacheDir()); //cacheParentDir.resolve(CACHE_DIR_NAME).resolve(attFF.getCacheDir());
-				empty = !attFF.isUseCachedFloorField(); // deactivate cache object if caching is not active.
+				// deactivate cache object if caching is not active. The shared cache supports cell grids only.
+				empty = !attFF.isUseCachedFloorField() && (sharedCache == null || !attFF.getCreateMethod().isUsingCellGrid());
 				if (!empty)
 					findCacheOnFileSystem();
 
@@ -127,15 +145,27 @@ public class ScenarioCache {
 
 		File file;
 		if (eikType.isUsingCellGrid()){
-			if(cacheType == CacheType.TXT_CACHE){
+			if (!attFF.isUseCachedFloorField()) {
+				// only the shared cache is used
+				cacheMap.put(cacheIdentifier, ICacheObject.empty(cacheIdentifier));
+			} else if(cacheType == CacheType.TXT_CACHE){
 				file = buildCsvCachePath(cacheIdentifier).toFile();
 				cacheMap.put(cacheIdentifier, new CellGridTxtCacheObject(cacheIdentifier, file));
+			} else if (cacheType == CacheType.TILED_CACHE) {
+				file = buildTiledCachePath(cacheIdentifier).toFile();
+				cacheMap.put(cacheIdentifier, new CellGridTiledCacheObject(cacheIdentifier, file, getTileStore()));
 			} else {
 				file = buildBinCachePath(cacheIdentifier).toFile();
 				cacheMap.put(cacheIdentifier, new CellGridBinaryCacheObject(cacheIdentifier, file));
 			}
+
+			if (sharedCache != null) {
+				ICacheObject<CellGrid> fallback = cacheMap.get(cacheIdentifier);
+				String key = SharedFloorFieldCache.toKey(hash, cacheIdentifier);
+				cacheMap.put(cacheIdentifier, new CellGridSharedCacheObject(key, sharedCache, fallback));
+			}
 		} else {
-			if(cacheType == CacheType.TXT_CACHE){
+			if(attFF.isUseCachedFloorField() && cacheType == CacheType.TXT_CACHE){
 				file = buildCsvCachePath(cacheIdentifier).toFile();
 				cacheMap.put(cacheIdentifier, new MeshTxtCacheObject(cacheIdentifier, file));
 			}
@@ -150,6 +180,16 @@ public class ScenarioCache {
 		return cachePath.resolve(hash +  floorFieldIdentifier + bin_sufix);
 	}
 
+	private Path buildTiledCachePath(String floorFieldIdentifier){
+		return cachePath.resolve(hash +  floorFieldIdentifier + tiled_sufix);
+	}
+
+	private CellGridTileStore getTileStore(){
+		if (tileStore == null)
+			tileStore = new CellGridTileStore(cachePath.resolve(TILE_DIR_NAME));
+		return tileStore;
+	}
+
 	public String targetToIdentifier(int targetId){
 		return TARGET_FF + targetId;
 	}
@@ -172,7 +212,7 @@ public class ScenarioCache {
 				logger.infof("csv cache loaded for identifier: %s", cacheIdentifier);
 				break;
 			default:
-				throw new IllegalStateException("Must be either CSV or BIN cache");
+				throw new IllegalStateException("Must be either CSV or BIN cache (" + attFF.getCacheType() + " cannot be provided via a stream)");
 		}
 		return this;
 	}
@@ -202,6 +242,22 @@ public class ScenarioCache {
 
 
 
+	/**
+	 * Releases the claims of floor fields of the shared cache which were neither loaded nor computed,
+	 * e.g. because the simulation run failed.
+	 */
+	public void releaseSharedCache(){
+		for (ICacheObject cacheObject : cacheMap.values()) {
+			if (cacheObject instanceof CellGridSharedCacheObject) {
+				((CellGridSharedCacheObject) cacheObject).release();
+			}
+		}
+	}
+
+	public boolean isShared() {
+		return sharedCache != null;
+	}
+
 	public boolean isEmpty() {
 		return empty;
 	}
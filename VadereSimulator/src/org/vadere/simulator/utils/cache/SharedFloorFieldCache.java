@@ -0,0 +1,194 @@
+package org.vadere.simulator.utils.cache;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.logging.Logger;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory cache of floor fields which is shared by multiple scenario runs, e.g. the runs of a
+ * project which are executed in parallel. The floor fields are identified by their content key, i.e. the
+ * floor field hash of the scenario ({@link ScenarioCache#getHash}) and the cache identifier of the floor
+ * field, thus scenarios with the same topography and floor field attributes share their floor fields.
+ *
+ * <p>
+ * The first run which requests a floor field claims it and has to compute (or load) and {@link #put} it.
+ * All other runs which request the same floor field in the meantime wait for it instead of computing it
+ * again. If the claiming run fails it has to {@link #release} its claim. The cached grids are private copies,
+ * i.e. they are never changed by a run.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by the memory of its grids. If a new floor field exceeds the bound, the least
+ * recently used floor fields are evicted, i.e. a later run computes or loads them again. The floor field
+ * which was put last is never evicted by its own put, thus a single floor field larger than the bound is
+ * still shared.
+ * </p>
+ */
+public class SharedFloorFieldCache {
+
+	private static Logger logger = Logger.getLogger(SharedFloorFieldCache.class);
+
+	private final ConcurrentHashMap<String, CompletableFuture<CellGrid>> entries;
+	private final AtomicInteger hits;
+	private final AtomicInteger misses;
+	private final AtomicInteger evictions;
+
+	private final long maxBytes;
+	/** The sizes in bytes of the floor fields which were put, in access order. Guards {@link #bytes}. */
+	private final LinkedHashMap<String, Long> sizes;
+	private long bytes;
+
+	/**
+	 * Creates a cache which is bounded by a quarter of the maximal heap size.
+	 */
+	public SharedFloorFieldCache() {
+		this(Runtime.getRuntime().maxMemory() / 4);
+	}
+
+	/**
+	 * @param maxBytes the maximal memory of the cached floor fields in bytes
+	 */
+	public SharedFloorFieldCache(final long maxBytes) {
+		this.entries = new ConcurrentHashMap<>();
+		this.hits = new AtomicInteger(0);
+		this.misses = new AtomicInteger(0);
+		this.evictions = new AtomicInteger(0);
+		this.maxBytes = maxBytes;
+		this.sizes = new LinkedHashMap<>(16, 0.75f, true);
+		this.bytes = 0;
+	}
+
+	/**
+	 * Returns the memory of the potentials and tags of the grid in bytes.
+	 */
+	public static long getSize(@NotNull final CellGrid grid) {
+		return (long) grid.getNumPointsX() * grid.getNumPointsY() * ((grid.isSinglePrecision() ? Float.BYTES : Double.BYTES) + 1);
+	}
+
+	public static String toKey(@NotNull final String hash, @NotNull final String cacheIdentifier) {
+		return hash + cacheIdentifier;
+	}
+
+	/**
+	 * Returns the floor field of the key. If there is no floor field, the caller claims it and null is
+	 * returned, i.e. the caller has to {@link #put} or {@link #release} it. If another caller has claimed
+	 * the floor field, this method waits until it is put or released. In the latter case the caller tries
+	 * to claim the floor field again, i.e. null is returned if and only if the caller holds the claim.
+	 */
+	@Nullable
+	public CellGrid getOrClaim(@NotNull final String key) {
+		while (true) {
+			CompletableFuture<CellGrid> claim = new CompletableFuture<>();
+			CompletableFuture<CellGrid> entry = entries.putIfAbsent(key, claim);
+			if (entry == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+
+			CellGrid grid = entry.join();
+			if (grid != null) {
+				hits.incrementAndGet();
+				synchronized (sizes) {
+					// marks the floor field as recently used
+					sizes.get(key);
+				}
+				return grid;
+			}
+			// the claim was released, i.e. the entry was removed before it was completed
+		}
+	}
+
+	/**
+	 * Puts a copy of the floor field into the cache and wakes up all callers which wait for it. If the cached
+	 * floor fields exceed the memory bound, the least recently used ones are evicted.
+	 */
+	public void put(@NotNull final String key, @NotNull final CellGrid grid) {
+		CellGrid copy = new CellGrid(grid);
+		synchronized (sizes) {
+			CompletableFuture<CellGrid> entry = entries.computeIfAbsent(key, k -> new CompletableFuture<>());
+			if (!entry.complete(copy)) {
+				entries.put(key, CompletableFuture.completedFuture(copy));
+			}
+			Long previous = sizes.put(key, getSize(copy));
+			bytes += getSize(copy) - (previous != null ? previous : 0);
+			evict(key);
+		}
+		logger.infof("shared floor field cache: stored %s", key);
+	}
+
+	/**
+	 * Removes the least recently used floor fields except the given one until the cache is within its bound.
+	 * Callers which already received an evicted grid keep it, claims are never evicted.
+	 */
+	private void evict(@NotNull final String keep) {
+		Iterator<Map.Entry<String, Long>> iterator = sizes.entrySet().iterator();
+		while (bytes > maxBytes && iterator.hasNext()) {
+			Map.Entry<String, Long> eldest = iterator.next();
+			if (!eldest.getKey().equals(keep)) {
+				iterator.remove();
+				bytes -= eldest.getValue();
+				entries.remove(eldest.getKey());
+				evictions.incrementAndGet();
+				logger.infof("shared floor field cache: evicted %s", eldest.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Releases the claim of the key if the floor field was not put, i.e. the next caller claims it again.
+	 */
+	public void release(@NotNull final String key) {
+		CompletableFuture<CellGrid> entry = entries.get(key);
+		if (entry != null && !entry.isDone()) {
+			entries.remove(key, entry);
+			entry.complete(null);
+		}
+	}
+
+	public boolean contains(@NotNull final String key) {
+		CompletableFuture<CellGrid> entry = entries.get(key);
+		return entry != null && entry.isDone() && entry.join() != null;
+	}
+
+	public int size() {
+		return (int) entries.values().stream().filter(entry -> entry.isDone() && entry.join() != null).count();
+	}
+
+	/**
+	 * Returns the number of requests which were answered by the cache (including requests waiting for a claim).
+	 */
+	public int getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of requests which claimed a floor field, i.e. the number of computed or loaded floor fields.
+	 */
+	public int getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns the number of floor fields which were evicted to keep the cache within its memory bound.
+	 */
+	public int getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Returns the memory of the cached floor fields in bytes (see {@link #getSize(CellGrid)}).
+	 */
+	public long getBytes() {
+		synchronized (sizes) {
+			return bytes;
+		}
+	}
+}
@@ -22,7 +22,7 @@ import org.vadere.state.attributes.scenario.SourceTestAttributesBuilder;
 import org.vadere.state.attributes.spawner.AttributesSpawner;
 import org.vadere.state.scenario.*;
 import org.vadere.state.util.StateJsonConverter;
-import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.util.geometry.ISpatialMap;
 import org.vadere.util.geometry.shapes.VCircle;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VRectangle;
@@ -558,7 +558,7 @@ public class GroupSourceControllerTest extends TestSourceControllerUsingConstant
 		topography.addElement(pedA);
 		topography.addElement(pedB);
 
-		LinkedCellsGrid grid = topography.getSpatialMap(DynamicElement.class);
+		ISpatialMap grid = topography.getSpatialMap(DynamicElement.class);
 
 		VCircle center = source.getShape().getCircumCircle();
 		List<VPoint> inSource = grid.getObjects(center.getCenter(), center.getRadius());
@@ -508,6 +508,74 @@ public class StimulusControllerTest {
 
     }
 
+    @Test
+    public void getStimuliReturnsStimuliOfTheAreasContainingThePedestrianInOrder() {
+        Random random = new Random(1);
+        List<StimulusInfo> stimulusInfos = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            boolean recurring = i % 3 == 0;
+            Timeframe timeframe = recurring ? new Timeframe(i % 7, i % 7 + 2, true, 1) : new Timeframe(i % 5, i % 5 + 3, false, 0);
+            StimulusInfo stimulusInfo = getStimulusInfo(timeframe, new Wait(), new Threat());
+            if (i % 10 != 0) {
+                List<VShape> areas = new ArrayList<>();
+                areas.add(new VCircle(new VPoint(random.nextDouble() * 100, random.nextDouble() * 50), 0.5 + random.nextDouble() * 5));
+                if (i % 4 == 0) {
+                    areas.add(new VRectangle(random.nextDouble() * 100, random.nextDouble() * 50, 10, 3));
+                }
+                stimulusInfo.setLocation(new Location(areas));
+            }
+            stimulusInfos.add(stimulusInfo);
+        }
+
+        StimulusController stimulusController = new StimulusController(getScenarioStore(getStimulusInfoStore(stimulusInfos)));
+        List<Pedestrian> pedestrians = createPedestrians(300);
+        pedestrians.forEach(ped -> ped.setPosition(new VPoint(random.nextDouble() * 110 - 5, random.nextDouble() * 60 - 5)));
+
+        for (double simulationTime : new double[]{0.0, 1.5, 4.0, 9.25}) {
+            HashMap<Pedestrian, List<Stimulus>> pedSpecificStimuli = stimulusController.getStimuli(simulationTime, pedestrians);
+
+            for (Pedestrian ped : pedestrians) {
+                List<Stimulus> expected = new ArrayList<>();
+                for (StimulusInfo stimulusInfo : stimulusController.getOneTimeStimuli()) {
+                    if (StimulusController.oneTimeTimeframeIsActiveAtSimulationTime(stimulusInfo.getTimeframe(), simulationTime)
+                            && isInArea(ped.getPosition(), stimulusInfo.getLocation())) {
+                        expected.addAll(stimulusInfo.getStimuli());
+                    }
+                }
+                for (StimulusInfo stimulusInfo : stimulusController.getRecurringStimuli()) {
+                    if (StimulusController.timeframeIsActiveAtSimulationTime(stimulusInfo.getTimeframe(), simulationTime)
+                            && isInArea(ped.getPosition(), stimulusInfo.getLocation())) {
+                        expected.addAll(stimulusInfo.getStimuli());
+                    }
+                }
+
+                List<Stimulus> actual = pedSpecificStimuli.get(ped);
+                assertEquals(ElapsedTime.class, actual.get(0).getClass());
+                assertEquals(expected, actual.subList(1, actual.size()));
+                assertTimeStamp(actual, simulationTime);
+            }
+        }
+    }
+
+    @Test
+    public void getStimuliDetectsStimulusInfosAddedToTheStore() {
+        StimulusInfoStore store = getStimulusInfoStore(new ArrayList<>());
+        StimulusController stimulusController = new StimulusController(getScenarioStore(store));
+        assertEquals(1, stimulusController.getStimuliFilteredTimeOnly(1.0).size());
+
+        StimulusInfo stimulusInfo = getStimulusInfo(new Timeframe(0, 5, false, 0), new Wait());
+        stimulusInfo.setLocation(new Location(new VCircle(new VPoint(0, 0), 1)));
+        store.getStimulusInfos().add(stimulusInfo);
+
+        assertEquals(2, stimulusController.getStimuliFiltered(1.0, new VPoint(0.5, 0), 1).size());
+        assertEquals(1, stimulusController.getStimuliFiltered(1.0, new VPoint(2, 0), 1).size());
+        assertEquals(1, stimulusController.getOneTimeStimuli().size());
+    }
+
+    private boolean isInArea(VPoint position, Location location) {
+        return location.getAreas().isEmpty() || location.getAreas().stream().anyMatch(area -> area.contains(position));
+    }
+
 
 
 
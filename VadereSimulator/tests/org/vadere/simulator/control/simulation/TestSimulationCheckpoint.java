@@ -0,0 +1,142 @@
+package org.vadere.simulator.control.simulation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vadere.simulator.entrypoints.ScenarioFactory;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestSimulationCheckpoint {
+
+	private Path scenarioFile;
+	private Scenario scenario;
+
+	@BeforeEach
+	public void init() throws URISyntaxException, IOException {
+		scenarioFile = Paths.get(getClass().getResource("/data/simpleProject/scenarios/test_postvis.scenario").toURI());
+		scenario = ScenarioFactory.createScenarioWithScenarioFilePath(scenarioFile);
+		scenario.getAttributesSimulation().setFinishTime(16.0);
+		scenario.getAttributesSimulation().setVisualizationEnabled(false);
+	}
+
+	/**
+	 * Records the pedestrians at the end of a run.
+	 */
+	private static class FinalState implements PassiveCallback {
+		private Domain domain;
+		private final Map<Integer, VPoint> positions = new TreeMap<>();
+		private int nextDynamicElementId;
+		private double simTimeInSec;
+
+		@Override
+		public void preLoop(double simTimeInSec) {}
+
+		@Override
+		public void postLoop(double simTimeInSec) {
+			this.simTimeInSec = simTimeInSec;
+			nextDynamicElementId = domain.getTopography().peekNextDynamicElementId();
+			for (Pedestrian pedestrian : domain.getTopography().getElements(Pedestrian.class)) {
+				positions.put(pedestrian.getId(), pedestrian.getPosition());
+			}
+		}
+
+		@Override
+		public void preUpdate(double simTimeInSec) {}
+
+		@Override
+		public void postUpdate(double simTimeInSec) {}
+
+		@Override
+		public void setDomain(Domain domain) {
+			this.domain = domain;
+		}
+	}
+
+	private FinalState run(final Scenario scenario, final Path outputDir, final SimulationCheckpoint checkpoint) {
+		FinalState finalState = new FinalState();
+		ScenarioRun scenarioRun = new ScenarioRun(scenario, outputDir.toString(), true, null, scenarioFile, ScenarioCache.empty());
+		scenarioRun.addPassiveCallback(finalState);
+		scenarioRun.setRestoreCheckpoint(checkpoint);
+		scenarioRun.run();
+		return finalState;
+	}
+
+	/**
+	 * Runs the scenario and returns the path of its trajectory file.
+	 */
+	private Path runAndGetTrajectories(final Scenario scenario, final Path outputDir, final Path checkpointDir,
+	                                   final SimulationCheckpoint checkpoint) {
+		ScenarioRun scenarioRun = new ScenarioRun(scenario, outputDir.toString(), true, null, scenarioFile, ScenarioCache.empty());
+		scenarioRun.setCheckpointing(checkpointDir != null ? 4.0 : 0.0, checkpointDir);
+		scenarioRun.setRestoreCheckpoint(checkpoint);
+		scenarioRun.setAppendOutput(checkpoint != null);
+		scenarioRun.run();
+		return scenarioRun.getOutputPath().resolve("postvis.traj");
+	}
+
+	@Test
+	public void testRestoreContinuesTheOriginalRun(@TempDir Path outputDir) throws IOException {
+		Path checkpointDir = outputDir.resolve("checkpoints");
+		FinalState finalState = new FinalState();
+		ScenarioRun scenarioRun = new ScenarioRun(scenario, outputDir.resolve("original").toString(), true, null, scenarioFile, ScenarioCache.empty());
+		scenarioRun.addPassiveCallback(finalState);
+		scenarioRun.setCheckpointing(4.0, checkpointDir);
+		scenarioRun.run();
+
+		// checkpoints before the steps at t = 4, 8 and 12 (dt = 0.4)
+		Path checkpointFile = checkpointDir.resolve("test_postvis_20" + SimulationCheckpoint.FILE_EXTENSION);
+		assertTrue(Files.exists(checkpointFile));
+		assertTrue(Files.exists(checkpointDir.resolve("test_postvis_30" + SimulationCheckpoint.FILE_EXTENSION)));
+
+		SimulationCheckpoint checkpoint = SimulationCheckpoint.read(checkpointFile);
+		assertEquals(8.0, checkpoint.getSimTimeInSec(), 1e-9);
+		assertEquals(20, checkpoint.getStep());
+		assertArrayEquals(Files.readAllBytes(checkpointFile), SimulationCheckpoint.fromBytes(checkpoint.toBytes()).toBytes());
+		assertFalse(checkpoint.createScenario().getTopography().getInitialElements(Pedestrian.class).isEmpty());
+
+		FinalState fork1 = run(checkpoint.createScenario(), outputDir.resolve("fork1"), checkpoint);
+		FinalState fork2 = run(checkpoint.createScenario(), outputDir.resolve("fork2"), checkpoint);
+
+		assertEquals(finalState.simTimeInSec, fork1.simTimeInSec, 1e-9);
+		assertFalse(fork1.positions.isEmpty());
+		assertEquals(fork1.positions, fork2.positions);
+		assertEquals(fork1.nextDynamicElementId, fork2.nextDynamicElementId);
+		// the sources continue their schedule, i.e. the forks spawn as many pedestrians as the original run
+		assertEquals(finalState.nextDynamicElementId, fork1.nextDynamicElementId);
+		// the random generators continue with the numbers of the original run
+		assertEquals(finalState.positions, fork1.positions);
+	}
+
+	@Test
+	public void testRestoreAppendsToTheOutputOfTheOriginalRun(@TempDir Path outputDir) throws IOException {
+		scenario.getDataProcessingJsonManager().setStreamingWindow(2);
+		Path expected = runAndGetTrajectories(scenario, outputDir.resolve("expected"), null, null);
+
+		// the original run writes rows after the checkpoint, the restored run replaces them
+		Path checkpointDir = outputDir.resolve("checkpoints");
+		Path original = runAndGetTrajectories(scenario, outputDir.resolve("original"), checkpointDir, null);
+		SimulationCheckpoint checkpoint = SimulationCheckpoint.read(checkpointDir.resolve("test_postvis_20" + SimulationCheckpoint.FILE_EXTENSION));
+		Path restored = runAndGetTrajectories(checkpoint.createScenario(), outputDir.resolve("restored"), null, checkpoint);
+
+		assertFalse(Files.exists(restored));
+		assertTrue(Files.readAllLines(expected).size() > 100);
+		assertEquals(Files.readAllLines(expected), Files.readAllLines(original));
+	}
+}
@@ -0,0 +1,123 @@
+package org.vadere.simulator.entrypoints;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.io.JsonConverter;
+import org.vadere.state.util.StateJsonConverter;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestScenarioVariation {
+
+	private Path scenarioFile;
+	private Scenario scenario;
+
+	@BeforeEach
+	public void init() throws URISyntaxException, IOException {
+		scenarioFile = Paths.get(getClass().getResource("/org/vadere/simulator/entrypoints/test.scenario").toURI());
+		scenario = ScenarioFactory.createScenarioWithScenarioFilePath(scenarioFile);
+	}
+
+	private JsonNode readTree(final String json) throws IOException {
+		return StateJsonConverter.getMapper().readTree(json);
+	}
+
+	@Test
+	public void testKeys() throws IOException {
+		JsonNode root = readTree("{\"a\": {\"x\": 1, \"b\": {\"x\": 2, \"y\": 3}}, \"list\": [{\"id\": 1, \"z\": 4}, {\"id\": 2, \"z\": 5}]}");
+
+		ScenarioVariation.setValue(root, "y", readTree("6"));
+		assertEquals(6, ScenarioVariation.getValue(root, "a.b.y").asInt());
+
+		// the path keys are looked up breadth first, the last key has to be unique in the value of the path
+		ScenarioVariation.setValue(root, "b.x", readTree("8"));
+		assertEquals(1, root.get("a").get("x").asInt());
+		assertEquals(8, root.get("a").get("b").get("x").asInt());
+		assertThrows(IllegalArgumentException.class, () -> ScenarioVariation.setValue(root, "x", readTree("9")));
+		assertThrows(IllegalArgumentException.class, () -> ScenarioVariation.setValue(root, "a.x", readTree("9")));
+
+		ScenarioVariation.setValue(root, "list.[id==2].z", readTree("10"));
+		assertEquals(4, root.get("list").get(0).get("z").asInt());
+		assertEquals(10, root.get("list").get(1).get("z").asInt());
+
+		assertThrows(IllegalArgumentException.class, () -> ScenarioVariation.setValue(root, "list.[id==3].z", readTree("10")));
+		assertThrows(IllegalArgumentException.class, () -> ScenarioVariation.setValue(root, "doesNotExist", readTree("10")));
+		assertThrows(IllegalArgumentException.class, () -> ScenarioVariation.setValue(root, "b", readTree("10")));
+	}
+
+	@Test
+	public void testApply() throws IOException {
+		ScenarioVariation variation = ScenarioVariation.fromJson(
+				"{\"id\": \"run_1\", \"changes\": {\"attributesSimulation.finishTime\": 10.0, \"targets.[id==1].leavingSpeed\": 2.0}}");
+		JsonNode base = JsonConverter.serializeScenarioRunManagerToNode(scenario, false);
+		Scenario varied = variation.apply(base);
+
+		assertEquals("run_1", variation.getId());
+		assertEquals(scenario.getName() + "_run_1", varied.getName());
+		assertEquals(10.0, varied.getAttributesSimulation().getFinishTime());
+		assertEquals(2.0, varied.getTopography().getTarget(1).getAttributes().getLeavingSpeed());
+		assertEquals(200.0, ScenarioVariation.getValue(base, "attributesSimulation.finishTime").asDouble());
+	}
+
+	@Test
+	public void testInvalidId() {
+		assertThrows(IllegalArgumentException.class, () -> ScenarioVariation.fromJson("{\"id\": \"../run\"}"));
+		assertThrows(IOException.class, () -> ScenarioVariation.fromJson("{\"changes\": {}}"));
+	}
+
+	@Test
+	public void testBatchRunner(@TempDir Path outputDir) throws Exception {
+		List<ScenarioVariation> variations = List.of(
+				ScenarioVariation.fromJson("{\"id\": \"run_1\", \"changes\": {\"attributesSimulation.finishTime\": 2.0, \"speedDistributionMean\": 1.0}}"),
+				ScenarioVariation.fromJson("{\"id\": \"run_2\", \"changes\": {\"attributesSimulation.finishTime\": 2.0, \"speedDistributionMean\": 1.5}}"));
+
+		BatchRunner batchRunner = new BatchRunner(scenario, scenarioFile, outputDir, 2);
+		List<BatchRunner.Result> results = batchRunner.run(variations.iterator());
+
+		assertEquals(2, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(variations.get(i).getId(), results.get(i).getId());
+			assertFalse(results.get(i).isFailed());
+			assertTrue(Files.exists(outputDir.resolve(variations.get(i).getId()).resolve("out.txt")));
+		}
+
+		// both variations have the same topography, i.e. each floor field is computed once
+		assertTrue(batchRunner.getSharedCache().getMisses() > 0);
+		assertEquals(batchRunner.getSharedCache().getMisses(), batchRunner.getSharedCache().getHits());
+	}
+
+	@Test
+	public void testBatchRunnerContinuesAfterInvalidVariations(@TempDir Path outputDir) throws Exception {
+		List<String> lines = List.of(
+				"{\"id\": \"run_1\", \"changes\": {\"attributesSimulation.finishTime\": 2.0}}",
+				"{\"id\": \"run_2\", \"changes\": ",
+				"{\"id\": \"run_1\", \"changes\": {\"attributesSimulation.finishTime\": 3.0}}",
+				"{\"id\": \"run_3\", \"changes\": {\"doesNotExist\": 3.0}}",
+				"{\"id\": \"run_4\", \"changes\": {\"attributesSimulation.finishTime\": 2.0}}");
+
+		BatchRunner batchRunner = new BatchRunner(scenario, scenarioFile, outputDir, 2);
+		List<BatchRunner.Result> results = batchRunner.runJson(lines.iterator());
+
+		assertEquals(List.of("run_1", "#2", "run_1", "run_3", "run_4"), results.stream().map(BatchRunner.Result::getId).collect(Collectors.toList()));
+		assertEquals(List.of(false, true, true, true, false), results.stream().map(BatchRunner.Result::isFailed).collect(Collectors.toList()));
+		assertTrue(Files.exists(outputDir.resolve("run_1").resolve("out.txt")));
+		assertTrue(Files.exists(outputDir.resolve("run_4").resolve("out.txt")));
+		assertNull(results.get(1).getOutputPath());
+		assertNull(results.get(2).getOutputPath());
+	}
+}
@@ -0,0 +1,160 @@
+package org.vadere.simulator.models.bhm;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.Attributes;
+import org.vadere.state.attributes.models.AttributesBHM;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesObstacle;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.scenario.Obstacle;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BehaviouralHeuristicsModelTest {
+
+	private static final double SIM_TIME_STEP = 0.4;
+
+	private Topography topography;
+	private BehaviouralHeuristicsModel model;
+	private List<PedestrianBHM> pedestrians;
+
+	/**
+	 * Creates a corridor with a column in the middle and two groups of pedestrians which walk to the opposite
+	 * ends of the corridor, i.e. the pedestrians have to evade each other.
+	 */
+	private void createCounterFlow(final int parallelism) throws IOException {
+		topography = new Topography();
+		topography.addObstacle(new Obstacle(new AttributesObstacle(1, new VRectangle(0, 0, 10, 2))));
+		topography.addObstacle(new Obstacle(new AttributesObstacle(2, new VRectangle(0, 8, 10, 2))));
+		topography.addObstacle(new Obstacle(new AttributesObstacle(3, new VCircle(new VPoint(5, 5), 0.5))));
+		topography.addTarget(createTarget(1, new VRectangle(0, 2, 0.5, 6)));
+		topography.addTarget(createTarget(2, new VRectangle(9.5, 2, 0.5, 6)));
+
+		AttributesBHM attributesBHM = StateJsonConverter.getMapper()
+				.readValue("{\"parallelism\": " + parallelism + "}", AttributesBHM.class);
+		List<Attributes> attributes = new ArrayList<>();
+		attributes.add(attributesBHM);
+
+		model = new BehaviouralHeuristicsModel();
+		model.initialize(attributes, new Domain(topography), new AttributesAgent(), new Random(1));
+
+		pedestrians = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			for (int j = 0; j < 6; j++) {
+				AttributesAgent attributesAgent = new AttributesAgent();
+				attributesAgent.setRadius((i + j) % 3 == 0 ? 0.3 : 0.2);
+				// the left group walks to the right target and vice versa
+				boolean left = i < 3;
+				VPoint position = new VPoint((left ? 1.0 : 6.5) + 0.8 * (i % 3), 2.6 + 0.9 * j);
+				PedestrianBHM pedestrian = model.createElement(position, AttributesAgent.ID_NOT_SET, attributesAgent, Pedestrian.class);
+				LinkedList<Integer> targets = new LinkedList<>();
+				targets.add(left ? 2 : 1);
+				pedestrian.setTargets(targets);
+				topography.addElement(pedestrian);
+				pedestrians.add(pedestrian);
+			}
+		}
+	}
+
+	private static Target createTarget(final int id, final VRectangle shape) {
+		Target target = new Target(new AttributesTarget());
+		target.setShape(shape);
+		target.getAttributes().setId(id);
+		target.getAttributes().setAbsorbing(false);
+		return target;
+	}
+
+	/**
+	 * Runs the parallel update of the model and returns the positions of all pedestrians after each step. The
+	 * parallel update re-checks each planned position against the pedestrians which already moved, therefore no
+	 * pedestrian steps into another one.
+	 */
+	private List<List<VPoint>> simulate(final int steps) {
+		List<List<VPoint>> trajectories = new ArrayList<>();
+		model.preLoop(0);
+		for (int step = 1; step <= steps; step++) {
+			model.update(step * SIM_TIME_STEP);
+			trajectories.add(pedestrians.stream().map(Pedestrian::getPosition).collect(Collectors.toList()));
+			assertNoOverlaps(step);
+		}
+		model.postLoop(steps * SIM_TIME_STEP);
+		return trajectories;
+	}
+
+	private void assertNoOverlaps(final int step) {
+		for (int i = 0; i < pedestrians.size(); i++) {
+			for (int j = i + 1; j < pedestrians.size(); j++) {
+				Pedestrian ped1 = pedestrians.get(i);
+				Pedestrian ped2 = pedestrians.get(j);
+				double distance = ped1.getPosition().distance(ped2.getPosition());
+				assertTrue(distance >= ped1.getRadius() + ped2.getRadius() - 1e-6,
+						String.format("pedestrians %d and %d overlap in step %d", ped1.getId(), ped2.getId(), step));
+			}
+		}
+	}
+
+	@Test
+	public void testIndexedCollisionTestsEqualFullLoop() throws IOException {
+		createCounterFlow(1);
+		PedestrianBHM pedestrian = pedestrians.get(0);
+		Random random = new Random(0);
+
+		for (int k = 0; k < 10000; k++) {
+			VPoint position = new VPoint(10 * random.nextDouble(), 10 * random.nextDouble());
+			double spaceToKeep = 0.5 * random.nextDouble();
+			assertEquals(collidesWithPedestrian(pedestrian, position, spaceToKeep),
+					pedestrian.collidesWithPedestrian(position, spaceToKeep), position.toString());
+
+			double proximity = random.nextDouble();
+			List<Obstacle> expected = topography.getObstacles().stream()
+					.filter(obstacle -> obstacle.getShape().distance(position) < proximity)
+					.collect(Collectors.toList());
+			assertEquals(expected, pedestrian.detectObstacleProximity(position, proximity), position.toString());
+			assertEquals(topography.getObstacles().stream().anyMatch(obstacle -> obstacle.getShape().distance(position) < pedestrian.getRadius()),
+					pedestrian.collidesWithObstacle(position), position.toString());
+		}
+	}
+
+	/**
+	 * The loop over all pedestrians which was used before the spatial map.
+	 */
+	private boolean collidesWithPedestrian(final PedestrianBHM pedestrian, final VPoint position, final double spaceToKeep) {
+		Collection<Pedestrian> others = topography.getElements(Pedestrian.class);
+		for (Pedestrian other : others) {
+			if (other.getId() != pedestrian.getId()
+					&& position.distance(other.getPosition()) - other.getRadius() - pedestrian.getRadius() - spaceToKeep < 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void testParallelUpdateIsIndependentOfThreadsAndHasNoOverlaps() throws IOException {
+		createCounterFlow(2);
+		List<List<VPoint>> expected = simulate(50);
+
+		// parallelism 1 is the sequential update, thus it draws different random numbers
+		for (int parallelism : new int[] {3, 4, 8}) {
+			createCounterFlow(parallelism);
+			assertEquals(expected, simulate(50), "parallelism " + parallelism);
+		}
+	}
+}
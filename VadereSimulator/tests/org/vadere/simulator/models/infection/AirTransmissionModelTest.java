@@ -530,6 +530,104 @@ public class AirTransmissionModelTest {
         return pedestrian;
     }
 
+    @Test
+    public void testUpdatePedestriansExposureEqualsBruteForce() {
+        List<Pedestrian> pedestrians = createCrowd(airTransmissionModel, new Random(1));
+        airTransmissionModel.updatePedestriansExposureToAerosolClouds();
+        airTransmissionModel.updatePedestriansExposureToDroplets();
+
+        double inhalationPeriodLength = airTransmissionModel.attrAirTransmissionModel.getPedestrianRespiratoryCyclePeriod() / 2.0;
+        double aerosolAbsorptionRate = airTransmissionModel.attrAirTransmissionModel.getAerosolCloudAbsorptionRate() * (SIM_TIME_STEP_LENGTH / inhalationPeriodLength);
+        double dropletsAbsorptionRate = airTransmissionModel.attrAirTransmissionModel.getDropletsAbsorptionRate() * (SIM_TIME_STEP_LENGTH / inhalationPeriodLength);
+
+        int exposedPedestrians = 0;
+        for (Pedestrian pedestrian : pedestrians) {
+            double expected = 0;
+            if (pedestrian.<AirTransmissionModelHealthStatus>getHealthStatus().isBreathingIn()) {
+                for (AerosolCloud aerosolCloud : topography.getAerosolClouds()) {
+                    if (aerosolCloud.getShape().contains(pedestrian.getPosition())) {
+                        expected += aerosolCloud.getPathogenConcentration() * aerosolAbsorptionRate;
+                    }
+                }
+                for (Droplets droplets : topography.getDroplets()) {
+                    if (droplets.getShape().contains(pedestrian.getPosition())) {
+                        expected += airTransmissionModel.attrAirTransmissionModel.getDropletsPathogenLoad() * dropletsAbsorptionRate;
+                    }
+                }
+            }
+            assertEquals(expected, pedestrian.getDegreeOfExposure(), ALLOWED_DOUBLE_TOLERANCE);
+            exposedPedestrians += expected > 0 ? 1 : 0;
+        }
+        assertTrue(exposedPedestrians > 0);
+    }
+
+    @Test
+    public void testParallelUpdateEqualsSequentialUpdate() {
+        airTransmissionModel.attrAirTransmissionModel.setAerosolCloudsActive(true);
+        airTransmissionModel.attrAirTransmissionModel.setDropletsActive(true);
+        List<Pedestrian> pedestrians = createCrowd(airTransmissionModel, new Random(1));
+
+        Topography parallelTopography = new Topography();
+        parallelTopography.setContextId("parallelTestId");
+        VadereContext.add(parallelTopography.getContextId(), ctx);
+        AttributesAirTransmissionModel parallelAttributes = new AttributesAirTransmissionModel();
+        parallelAttributes.setAerosolCloudsActive(true);
+        parallelAttributes.setDropletsActive(true);
+        parallelAttributes.setParallelism(4);
+        AirTransmissionModel parallelModel = new AirTransmissionModel();
+        parallelModel.initialize(List.of(parallelAttributes), new Domain(parallelTopography), null, new Random(0));
+        List<Pedestrian> parallelPedestrians = createCrowd(parallelModel, new Random(1));
+
+        for (int step = 0; step < 20; step++) {
+            double simTimeInSec = simStartTime + step * SIM_TIME_STEP_LENGTH;
+            airTransmissionModel.update(simTimeInSec);
+            parallelModel.update(simTimeInSec);
+        }
+        parallelModel.postLoop(simStartTime + 20 * SIM_TIME_STEP_LENGTH);
+
+        assertEquals(topography.getAerosolClouds().size(), parallelTopography.getAerosolClouds().size());
+        for (int i = 0; i < topography.getAerosolClouds().size(); i++) {
+            assertEquals(topography.getAerosolClouds().get(i).getRadius(), parallelTopography.getAerosolClouds().get(i).getRadius());
+            assertEquals(topography.getAerosolClouds().get(i).getCurrentPathogenLoad(), parallelTopography.getAerosolClouds().get(i).getCurrentPathogenLoad());
+        }
+        for (int i = 0; i < pedestrians.size(); i++) {
+            assertEquals(pedestrians.get(i).getDegreeOfExposure(), parallelPedestrians.get(i).getDegreeOfExposure());
+        }
+    }
+
+    /**
+     * Creates a crowd of pedestrians (some of them are infectious) with overlapping aerosol clouds and droplets.
+     */
+    private List<Pedestrian> createCrowd(AirTransmissionModel airTransmissionModel, Random random) {
+        List<Pedestrian> pedestrians = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Pedestrian pedestrian = new Pedestrian(new AttributesAgent(), random);
+            pedestrian.setHealthStatus(new AirTransmissionModelHealthStatus());
+            pedestrian.<AirTransmissionModelHealthStatus>getHealthStatus().setBreathingIn(i % 3 != 0);
+            pedestrian.setInfectious(i % 20 == 0);
+            pedestrian.setPosition(new VPoint(10 * random.nextDouble(), 10 * random.nextDouble()));
+            pedestrian.setId(i + 1);
+            airTransmissionModel.topography.addElement(pedestrian);
+            pedestrians.add(pedestrian);
+        }
+
+        for (int i = 0; i < 30; i++) {
+            airTransmissionModel.topography.addAerosolCloud(new AerosolCloud(new AttributesAerosolCloud(i + 1,
+                    0.5 + random.nextDouble(),
+                    new VPoint(10 * random.nextDouble(), 10 * random.nextDouble()),
+                    simStartTime,
+                    airTransmissionModel.attrAirTransmissionModel.getAerosolCloudInitialPathogenLoad())));
+            airTransmissionModel.topography.addDroplets(new Droplets(new AttributesDroplets(i + 1,
+                    simStartTime,
+                    airTransmissionModel.attrAirTransmissionModel.getDropletsPathogenLoad(),
+                    new VPoint(10 * random.nextDouble(), 10 * random.nextDouble()),
+                    new Vector2D(random.nextDouble() - 0.5, random.nextDouble() - 0.5),
+                    airTransmissionModel.attrAirTransmissionModel.getDropletsDistanceOfSpread(),
+                    airTransmissionModel.attrAirTransmissionModel.getDropletsAngleOfSpreadInDeg())));
+        }
+        return pedestrians;
+    }
+
     @Test
     public void testUpdatePedestriansHealthStatus() {
 
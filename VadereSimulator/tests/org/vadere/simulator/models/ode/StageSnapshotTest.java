@@ -0,0 +1,75 @@
+package org.vadere.simulator.models.ode;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.models.sfm.SFMEquations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StageSnapshotTest {
+
+	private static final double ALLOWED_DOUBLE_ERROR = 1e-12;
+
+	private double[] createSolution(final int size, final Random random) {
+		// x, y, vx, vy per person (see SFMEquations)
+		double[] solution = new double[4 * size];
+		for (int i = 0; i < size; i++) {
+			solution[4 * i] = random.nextDouble() * 50;
+			solution[4 * i + 1] = random.nextDouble() * 20;
+			solution[4 * i + 2] = random.nextGaussian();
+			solution[4 * i + 3] = random.nextGaussian();
+		}
+		return solution;
+	}
+
+	@Test
+	public void testNeighborsEqualBruteForce() {
+		Random random = new Random(1);
+		StageSnapshot snapshot = new StageSnapshot();
+		SFMEquations equations = new SFMEquations();
+
+		// the second update reuses the arrays of the first one
+		for (int size : new int[] {500, 120}) {
+			double[] solution = createSolution(size, random);
+			snapshot.update(solution, equations, size, 2.0);
+
+			assertEquals(size, snapshot.size());
+			assertEquals(solution[4 * 7 + 2], snapshot.getVelocityX(7), ALLOWED_DOUBLE_ERROR);
+
+			for (double radius : new double[] {0.5, 2.0, 7.0}) {
+				for (int i = 0; i < size; i++) {
+					double x = snapshot.getX(i);
+					double y = snapshot.getY(i);
+					List<Integer> expected = new ArrayList<>();
+					for (int j = 0; j < size; j++) {
+						double dx = solution[4 * j] - x;
+						double dy = solution[4 * j + 1] - y;
+						if (dx * dx + dy * dy < radius * radius) {
+							expected.add(j);
+						}
+					}
+
+					List<Integer> actual = new ArrayList<>();
+					snapshot.forEachNeighbor(x, y, radius, actual::add);
+					actual.sort(Integer::compare);
+					assertEquals(expected, actual);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testPersonsFarApart() {
+		StageSnapshot snapshot = new StageSnapshot();
+		double[] solution = new double[] {0, 0, 0, 0, 1e7, 1e7, 0, 0, 0.5, 0, 0, 0};
+		snapshot.update(solution, new SFMEquations(), 3, 1.0);
+
+		List<Integer> actual = new ArrayList<>();
+		snapshot.forEachNeighbor(0, 0, 1.0, actual::add);
+		actual.sort(Integer::compare);
+		assertEquals(List.of(0, 2), actual);
+	}
+}
@@ -0,0 +1,142 @@
+package org.vadere.simulator.models.osm.optimization;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.simulator.models.potential.fields.IPotentialFieldTargetGrid;
+import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
+import org.vadere.simulator.models.potential.fields.PotentialFieldObstacle;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.Attributes;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.attributes.models.AttributesPotentialCompactSoftshell;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesObstacle;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.attributes.scenario.AttributesTopography;
+import org.vadere.state.scenario.Obstacle;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.GeometryUtils;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparing the evaluation of the step circle candidates of one agent one by one and in one batch. The results
+ * are the number of evaluated candidates per second for one agent in a crowd of {@link #NUMBER_OF_AGENTS} agents.
+ */
+public class PerformanceCandidateEvaluation {
+
+	private static final int NUMBER_OF_CANDIDATES = 64;
+
+	private static final int NUMBER_OF_AGENTS = 100;
+
+	@State(Scope.Thread)
+	public static class StateCandidates {
+		public PedestrianOSM pedestrian;
+		public PotentialEvaluationFunction function;
+		public List<VPoint> candidates;
+		public double[] xs;
+		public double[] ys;
+		public double[] potentials;
+		public double stepSize;
+
+		@Setup(Level.Trial)
+		public void doSetup() {
+			AttributesTopography attributesTopography = new AttributesTopography();
+			attributesTopography.setBounds(new VRectangle(0, 0, 20, 20));
+			Topography topography = new Topography(attributesTopography, new AttributesAgent());
+
+			Target target = new Target(new AttributesTarget());
+			target.setShape(new VRectangle(17, 8, 2, 4));
+			target.getAttributes().setId(1);
+			topography.addTarget(target);
+			topography.addObstacle(new Obstacle(new AttributesObstacle(2, new VRectangle(12, 2, 1, 6))));
+			topography.addObstacle(new Obstacle(new AttributesObstacle(3, new VRectangle(12, 12, 1, 6))));
+
+			List<Attributes> attributesList = new ArrayList<>();
+			attributesList.add(new AttributesFloorField());
+			attributesList.add(new AttributesPotentialCompactSoftshell());
+			AttributesOSM attributesOSM = new AttributesOSM();
+			Domain domain = new Domain(topography);
+			Random random = new Random(1);
+
+			IPotentialFieldTargetGrid potentialFieldTarget = IPotentialFieldTargetGrid.createPotentialField(attributesList,
+					domain, new AttributesAgent(), attributesOSM.getTargetPotentialModel());
+			potentialFieldTarget.preLoop(0);
+			PotentialFieldObstacle potentialFieldObstacle = PotentialFieldObstacle.createPotentialField(attributesList,
+					domain, new AttributesAgent(), random, attributesOSM.getObstaclePotentialModel());
+			PotentialFieldAgent potentialFieldAgent = PotentialFieldAgent.createPotentialField(attributesList,
+					domain, new AttributesAgent(), random, attributesOSM.getPedestrianPotentialModel());
+
+			// a dense crowd in front of the bottleneck, the first agent is in the middle of the crowd
+			for (int i = 0; i < NUMBER_OF_AGENTS; i++) {
+				PedestrianOSM ped = new PedestrianOSM(attributesOSM, new AttributesAgent(i + 10), topography, random,
+						potentialFieldTarget, potentialFieldObstacle, potentialFieldAgent, new ArrayList<>(), null);
+				ped.setPosition(i == 0 ? new VPoint(8, 10) : new VPoint(4 + 8 * random.nextDouble(), 6 + 8 * random.nextDouble()));
+				LinkedList<Integer> targets = new LinkedList<>();
+				targets.add(target.getId());
+				ped.setTargets(targets);
+				topography.addElement(ped);
+				if (i == 0) {
+					pedestrian = ped;
+				}
+			}
+			pedestrian.refreshRelevantPedestrians();
+
+			stepSize = pedestrian.getDesiredStepSize();
+			function = new PotentialEvaluationFunction(pedestrian);
+			function.setStepSize(stepSize);
+			candidates = GeometryUtils.getDiscDiscretizationPoints(
+					new VCircle(pedestrian.getPosition(), stepSize), 1, NUMBER_OF_CANDIDATES, 0, 2 * Math.PI);
+			xs = new double[NUMBER_OF_CANDIDATES];
+			ys = new double[NUMBER_OF_CANDIDATES];
+			potentials = new double[NUMBER_OF_CANDIDATES];
+			for (int i = 0; i < NUMBER_OF_CANDIDATES; i++) {
+				xs[i] = candidates.get(i).x;
+				ys[i] = candidates.get(i).y;
+			}
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(NUMBER_OF_CANDIDATES)
+	public double testSingleEvaluation(PerformanceCandidateEvaluation.StateCandidates state) {
+		double sum = 0;
+		for (VPoint candidate : state.candidates) {
+			sum += state.function.value(new double[]{candidate.x, candidate.y});
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(NUMBER_OF_CANDIDATES)
+	public double[] testBatchEvaluation(PerformanceCandidateEvaluation.StateCandidates state) {
+		state.function.values(state.xs, state.ys, NUMBER_OF_CANDIDATES, state.potentials);
+		return state.potentials;
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(NUMBER_OF_CANDIDATES)
+	public VPoint testDiscreteOptimizer(PerformanceCandidateEvaluation.StateCandidates state) {
+		return new StepCircleOptimizerDiscrete(0.0, new Random(1)).getNextPosition(state.pedestrian, state.candidates, state.stepSize);
+	}
+}
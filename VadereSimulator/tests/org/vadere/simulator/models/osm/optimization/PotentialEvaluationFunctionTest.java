@@ -0,0 +1,140 @@
+package org.vadere.simulator.models.osm.optimization;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.models.osm.PedestrianOSM;
+import org.vadere.simulator.models.potential.fields.IPotentialFieldTargetGrid;
+import org.vadere.simulator.models.potential.fields.PotentialFieldAgent;
+import org.vadere.simulator.models.potential.fields.PotentialFieldObstacle;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.state.attributes.Attributes;
+import org.vadere.state.attributes.models.AttributesFloorField;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.attributes.models.AttributesPotentialCompactSoftshell;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.attributes.scenario.AttributesObstacle;
+import org.vadere.state.attributes.scenario.AttributesTarget;
+import org.vadere.state.scenario.Obstacle;
+import org.vadere.state.scenario.Target;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.GeometryUtils;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+public class PotentialEvaluationFunctionTest {
+
+	private Topography topography;
+	private PedestrianOSM pedestrian;
+
+	@BeforeEach
+	public void setUp() {
+		topography = new Topography();
+
+		Target target = new Target(new AttributesTarget());
+		target.setShape(new VRectangle(8, 4, 1, 2));
+		target.getAttributes().setId(1);
+		topography.addTarget(target);
+		topography.addObstacle(new Obstacle(new AttributesObstacle(2, new VRectangle(5.2, 4.5, 0.3, 1.0))));
+
+		List<Attributes> attributesList = new ArrayList<>();
+		attributesList.add(new AttributesFloorField());
+		attributesList.add(new AttributesPotentialCompactSoftshell());
+		AttributesOSM attributesOSM = new AttributesOSM();
+		Domain domain = new Domain(topography);
+		Random random = new Random(1);
+
+		IPotentialFieldTargetGrid potentialFieldTarget = IPotentialFieldTargetGrid.createPotentialField(attributesList,
+				domain, new AttributesAgent(), attributesOSM.getTargetPotentialModel());
+		potentialFieldTarget.preLoop(0);
+		PotentialFieldObstacle potentialFieldObstacle = PotentialFieldObstacle.createPotentialField(attributesList,
+				domain, new AttributesAgent(), random, attributesOSM.getObstaclePotentialModel());
+		PotentialFieldAgent potentialFieldAgent = PotentialFieldAgent.createPotentialField(attributesList,
+				domain, new AttributesAgent(), random, attributesOSM.getPedestrianPotentialModel());
+
+		VPoint[] positions = {new VPoint(5, 5), new VPoint(5.4, 5.6), new VPoint(4.6, 4.5)};
+		List<PedestrianOSM> pedestrians = new ArrayList<>();
+		for (int i = 0; i < positions.length; i++) {
+			PedestrianOSM ped = new PedestrianOSM(attributesOSM, new AttributesAgent(i + 10), topography, random,
+					potentialFieldTarget, potentialFieldObstacle, potentialFieldAgent, new ArrayList<>(), null);
+			ped.setPosition(positions[i]);
+			LinkedList<Integer> targets = new LinkedList<>();
+			targets.add(target.getId());
+			ped.setTargets(targets);
+			topography.addElement(ped);
+			pedestrians.add(ped);
+		}
+
+		pedestrian = pedestrians.get(0);
+		pedestrian.refreshRelevantPedestrians();
+	}
+
+	@Test
+	public void batchEvaluationEqualsSingleEvaluation() {
+		double stepSize = pedestrian.getDesiredStepSize();
+		List<VPoint> candidates = GeometryUtils.getDiscDiscretizationPoints(
+				new VCircle(pedestrian.getPosition(), stepSize), 3, 20, 0, 2 * Math.PI);
+		// outside of the step circle
+		candidates.add(pedestrian.getPosition().add(new VPoint(stepSize + 0.1, 0)));
+
+		int n = candidates.size();
+		double[] xs = new double[n];
+		double[] ys = new double[n];
+		for (int i = 0; i < n; i++) {
+			xs[i] = candidates.get(i).x;
+			ys[i] = candidates.get(i).y;
+		}
+
+		PotentialEvaluationFunction function = new PotentialEvaluationFunction(pedestrian);
+		function.setStepSize(stepSize);
+		double[] potentials = new double[n];
+		function.values(xs, ys, n, potentials);
+
+		for (int i = 0; i < n; i++) {
+			assertThat(potentials[i], equalTo(function.value(new double[]{xs[i], ys[i]})));
+		}
+		assertThat(potentials[n - 1], equalTo(100000.0));
+	}
+
+	@Test
+	public void batchPotentialsEqualSinglePotentials() {
+		double[] xs = {5.0, 5.3, 8.5, 6.0, 4.5};
+		double[] ys = {5.0, 5.0, 5.0, 5.2, 4.5};
+		double[] potentials = new double[xs.length];
+		pedestrian.getPotentials(xs, ys, xs.length, potentials);
+
+		for (int i = 0; i < xs.length; i++) {
+			assertThat(potentials[i], equalTo(pedestrian.getPotential(new VPoint(xs[i], ys[i]))));
+		}
+	}
+
+	@Test
+	public void discreteOptimizerIsNotChangedByBatchEvaluation() {
+		double stepSize = pedestrian.getDesiredStepSize();
+		List<VPoint> candidates = GeometryUtils.getDiscDiscretizationPoints(
+				new VCircle(pedestrian.getPosition(), stepSize), 2, 16, 0, 2 * Math.PI);
+
+		PotentialEvaluationFunction function = new PotentialEvaluationFunction(pedestrian);
+		function.setStepSize(stepSize);
+		VPoint expected = pedestrian.getPosition();
+		double potential = pedestrian.getPotential(expected);
+		for (VPoint candidate : candidates) {
+			double candidatePotential = function.value(new double[]{candidate.x, candidate.y});
+			if (candidatePotential < potential) {
+				potential = candidatePotential;
+				expected = candidate;
+			}
+		}
+
+		StepCircleOptimizerDiscrete optimizer = new StepCircleOptimizerDiscrete(0.0, new Random(1));
+		assertThat(optimizer.getNextPosition(pedestrian, candidates, stepSize), equalTo(expected));
+	}
+}
@@ -0,0 +1,62 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vadere.state.types.UpdateType;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestUpdateSchemeEventDrivenParallel {
+
+	/**
+	 * Enlarges the topography of the test scenario to a 60 x 20 corridor, i.e. the grid of the update scheme has
+	 * more than 20 cells along the corridor and there are more than 10 regions. The source at the left end
+	 * spawns a dense crowd which walks to the target at the right end.
+	 */
+	private static void createCorridor(final ObjectNode scenarioNode) {
+		ObjectNode topography = (ObjectNode) scenarioNode.get("topography");
+		ObjectNode bounds = (ObjectNode) topography.get("attributes").get("bounds");
+		bounds.put("width", 60.0);
+		bounds.put("height", 20.0);
+		((ArrayNode) topography.get("obstacles")).removeAll();
+
+		ObjectNode target = (ObjectNode) topography.get("targets").get(0);
+		setRectangle((ObjectNode) target.get("shape"), 56.0, 1.0, 3.0, 18.0);
+
+		ObjectNode source = (ObjectNode) topography.get("sources").get(0);
+		setRectangle((ObjectNode) source.get("shape"), 1.0, 1.0, 4.0, 18.0);
+		ObjectNode spawner = (ObjectNode) source.get("spawner");
+		spawner.put("eventElementCount", 30);
+		spawner.put("constraintsTimeEnd", 10.0);
+	}
+
+	private static void setRectangle(final ObjectNode shape, final double x, final double y, final double width, final double height) {
+		shape.put("x", x);
+		shape.put("y", y);
+		shape.put("width", width);
+		shape.put("height", height);
+	}
+
+	@Test
+	public void testDeterministicForDifferentPoolSizes(@TempDir Path outputDir) throws IOException, URISyntaxException {
+		UpdateSchemeTestRun expected = UpdateSchemeTestRun.run(UpdateType.EVENT_DRIVEN_PARALLEL, 1, 30.0,
+				outputDir.resolve("run1"), TestUpdateSchemeEventDrivenParallel::createCorridor);
+		assertTrue(expected.getSpawned() > 100);
+
+		for (int parallelism : new int[] {2, 3, 8}) {
+			UpdateSchemeTestRun run = UpdateSchemeTestRun.run(UpdateType.EVENT_DRIVEN_PARALLEL, parallelism, 30.0,
+					outputDir.resolve("run" + parallelism), TestUpdateSchemeEventDrivenParallel::createCorridor);
+
+			assertEquals(expected.getSpawned(), run.getSpawned(), "parallelism " + parallelism);
+			assertEquals(expected.getReachedTarget(), run.getReachedTarget(), "parallelism " + parallelism);
+			assertEquals(expected.getTrajectories(), run.getTrajectories(), "parallelism " + parallelism);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.vadere.state.types.UpdateType;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestUpdateSchemeParallelForkJoin {
+
+	@Test
+	public void testEqualsParallelUpdate(@TempDir Path outputDir) throws IOException, URISyntaxException {
+		UpdateSchemeTestRun parallel = UpdateSchemeTestRun.run(UpdateType.PARALLEL, 0, 40.0, outputDir.resolve("parallel"));
+		UpdateSchemeTestRun forkJoin1 = UpdateSchemeTestRun.run(UpdateType.PARALLEL_FORK_JOIN, 1, 40.0, outputDir.resolve("forkJoin1"));
+		UpdateSchemeTestRun forkJoin4 = UpdateSchemeTestRun.run(UpdateType.PARALLEL_FORK_JOIN, 4, 40.0, outputDir.resolve("forkJoin4"));
+
+		assertTrue(parallel.getSpawned() > 0);
+		assertTrue(parallel.getReachedTarget() > 0);
+		assertEquals(0, forkJoin4.getOverlaps());
+		assertEquals(parallel.getSpawned(), forkJoin4.getSpawned());
+		assertEquals(parallel.getReachedTarget(), forkJoin4.getReachedTarget());
+		assertEquals(parallel.getTrajectories(), forkJoin1.getTrajectories());
+		assertEquals(parallel.getTrajectories(), forkJoin4.getTrajectories());
+	}
+}
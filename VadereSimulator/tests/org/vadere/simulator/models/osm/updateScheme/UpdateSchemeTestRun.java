@@ -0,0 +1,121 @@
+package org.vadere.simulator.models.osm.updateScheme;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.vadere.simulator.control.simulation.PassiveCallback;
+import org.vadere.simulator.control.simulation.ScenarioRun;
+import org.vadere.simulator.projects.Domain;
+import org.vadere.simulator.projects.Scenario;
+import org.vadere.simulator.projects.io.JsonConverter;
+import org.vadere.simulator.utils.cache.ScenarioCache;
+import org.vadere.state.attributes.AttributesSimulation;
+import org.vadere.state.attributes.models.AttributesOSM;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.types.UpdateType;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Runs the OSM test scenario with a given update scheme and records the positions of all pedestrians after
+ * each step, the overlaps between pedestrians and the number of pedestrians which reached their target.
+ */
+class UpdateSchemeTestRun implements PassiveCallback {
+
+	private static final String SCENARIO = "/data/simpleProject/scenarios/test_postvis.scenario";
+
+	private Domain domain;
+	private final List<Map<Integer, VPoint>> trajectories = new ArrayList<>();
+	private int overlaps;
+	private int spawned;
+	private int reachedTarget;
+
+	static UpdateSchemeTestRun run(final UpdateType updateType, final int parallelism, final double finishTime, final Path outputDir)
+			throws IOException, URISyntaxException {
+		return run(updateType, parallelism, finishTime, outputDir, scenarioNode -> {});
+	}
+
+	/**
+	 * Runs the test scenario after the json tree of the scenario is changed by <tt>modifier</tt>, e.g. to enlarge the topography.
+	 */
+	static UpdateSchemeTestRun run(final UpdateType updateType, final int parallelism, final double finishTime, final Path outputDir,
+	                               final Consumer<ObjectNode> modifier) throws IOException, URISyntaxException {
+		Path scenarioFile = Paths.get(UpdateSchemeTestRun.class.getResource(SCENARIO).toURI());
+		JsonNode root = StateJsonConverter.readTree(Files.readString(scenarioFile));
+		JsonNode scenarioNode = root.get(StateJsonConverter.SCENARIO_KEY);
+		modifier.accept((ObjectNode) scenarioNode);
+		ObjectNode attributesOSM = (ObjectNode) scenarioNode.get("attributesModel").get(AttributesOSM.class.getName());
+		attributesOSM.put("updateType", updateType.name());
+		attributesOSM.put("parallelism", parallelism);
+		ObjectNode attributesSimulation = (ObjectNode) scenarioNode.get(AttributesSimulation.JSON_KEY);
+		attributesSimulation.put("finishTime", finishTime);
+		attributesSimulation.put("visualizationEnabled", false);
+		Scenario scenario = JsonConverter.deserializeScenarioRunManagerFromNode(root);
+
+		UpdateSchemeTestRun testRun = new UpdateSchemeTestRun();
+		ScenarioRun scenarioRun = new ScenarioRun(scenario, outputDir.toString(), true, null, scenarioFile, ScenarioCache.empty());
+		scenarioRun.addPassiveCallback(testRun);
+		scenarioRun.run();
+		return testRun;
+	}
+
+	List<Map<Integer, VPoint>> getTrajectories() {
+		return trajectories;
+	}
+
+	int getOverlaps() {
+		return overlaps;
+	}
+
+	int getSpawned() {
+		return spawned;
+	}
+
+	int getReachedTarget() {
+		return reachedTarget;
+	}
+
+	@Override
+	public void preLoop(double simTimeInSec) {}
+
+	@Override
+	public void postLoop(double simTimeInSec) {
+		spawned = domain.getTopography().peekNextDynamicElementId() - 1;
+		reachedTarget = spawned - domain.getTopography().getElements(Pedestrian.class).size();
+	}
+
+	@Override
+	public void preUpdate(double simTimeInSec) {}
+
+	@Override
+	public void postUpdate(double simTimeInSec) {
+		List<Pedestrian> pedestrians = new ArrayList<>(domain.getTopography().getElements(Pedestrian.class));
+		Map<Integer, VPoint> positions = new TreeMap<>();
+		for (int i = 0; i < pedestrians.size(); i++) {
+			Pedestrian pedestrian = pedestrians.get(i);
+			positions.put(pedestrian.getId(), pedestrian.getPosition());
+			for (int j = i + 1; j < pedestrians.size(); j++) {
+				Pedestrian other = pedestrians.get(j);
+				if (pedestrian.getPosition().distance(other.getPosition()) < pedestrian.getRadius() + other.getRadius() - 1e-6) {
+					overlaps++;
+				}
+			}
+		}
+		trajectories.add(positions);
+	}
+
+	@Override
+	public void setDomain(Domain domain) {
+		this.domain = domain;
+	}
+}
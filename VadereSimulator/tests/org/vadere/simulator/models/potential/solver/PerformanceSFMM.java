@@ -79,7 +79,7 @@ public class PerformanceSFMM {
 	public double testFMM(PerformanceSFMM.StateCellGrid stateCellGrid) {
 		EikonalSolverFMM ffm = new EikonalSolverFMM(stateCellGrid.cellGrid, stateCellGrid.distanceFunction, true, new UnitTimeCostFunction(), 0.1, 1.0);
 		ffm.solve();
-		return stateCellGrid.cellGrid.getValue(0, 0).potential;
+		return stateCellGrid.cellGrid.getPotential(0, 0);
 	}
 
 	@Benchmark
@@ -87,6 +87,6 @@ public class PerformanceSFMM {
 	public double testSFMM(PerformanceSFMM.StateCellGrid stateCellGrid) {
 		EikonalSolverSFMM ffm = new EikonalSolverSFMM(stateCellGrid.cellGrid, stateCellGrid.distanceFunction, true, new UnitTimeCostFunction(), 0.1, 1.0);
 		ffm.solve();
-		return stateCellGrid.cellGrid.getValue(0, 0).potential;
+		return stateCellGrid.cellGrid.getPotential(0, 0);
 	}
 }
@@ -0,0 +1,142 @@
+package org.vadere.simulator.models.potential.solver;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.models.potential.solver.calculators.cartesian.EikonalSolverFMM;
+import org.vadere.simulator.models.potential.solver.timecost.ITimeCostFunction;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.FloorDiscretizer;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+import org.vadere.util.geometry.shapes.IPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+import org.vadere.util.math.DistanceFunctionTarget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the incremental update of a dynamic floor field by {@link EikonalSolverFMM} with solving
+ * the eikonal equation from scratch.
+ */
+public class TestEikonalSolverFMMIncremental {
+
+	private static final double WIDTH = 20;
+	private static final double HEIGHT = 20;
+	private static final double RESOLUTION = 0.1;
+
+	private final VRectangle targetShape = new VRectangle(17, 8, 2, 4);
+	private final VRectangle obstacleShape = new VRectangle(10, 2, 1, 12);
+
+	/**
+	 * A dynamic time cost function which is 1 everywhere except of some regions.
+	 */
+	private static class RegionTimeCostFunction implements ITimeCostFunction {
+		private final List<VRectangle> regions = new ArrayList<>();
+		private final List<Double> regionCosts = new ArrayList<>();
+
+		@Override
+		public double costAt(IPoint p) {
+			double cost = 1.0;
+			for (int i = 0; i < regions.size(); i++) {
+				if (regions.get(i).contains(p)) {
+					cost += regionCosts.get(i);
+				}
+			}
+			return cost;
+		}
+
+		@Override
+		public boolean needsUpdate() {
+			return true;
+		}
+	}
+
+	private CellGrid createCellGrid() {
+		CellGrid cellGrid = new CellGrid(WIDTH, HEIGHT, RESOLUTION, new CellState());
+		FloorDiscretizer.setGridValuesForShape(cellGrid, targetShape, new CellState(0.0, PathFindingTag.Target));
+		FloorDiscretizer.setGridValuesForShape(cellGrid, obstacleShape, new CellState(Double.MAX_VALUE, PathFindingTag.Obstacle));
+		return cellGrid;
+	}
+
+	private EikonalSolverFMM createSolver(final ITimeCostFunction timeCost, final boolean isHighAccuracy) {
+		CellGrid cellGrid = createCellGrid();
+		List<VShape> targetShapes = new ArrayList<>();
+		targetShapes.add(targetShape);
+		return new EikonalSolverFMM(cellGrid, new DistanceFunctionTarget(cellGrid, targetShapes), isHighAccuracy, timeCost, 0.1, 1.0);
+	}
+
+	private void assertEqualsFullSolve(final EikonalSolverFMM incremental, final ITimeCostFunction timeCost, final boolean isHighAccuracy) {
+		EikonalSolverFMM full = createSolver(timeCost, isHighAccuracy);
+		full.solve();
+
+		// the fast marching method depends slightly on the order in which the cells are reached, thus
+		// the travel times may differ by less than the travel time through one cell
+		CellGrid expected = full.getCellGrid();
+		CellGrid actual = incremental.getCellGrid();
+		double sumOfErrors = 0;
+		for (int x = 0; x < expected.getNumPointsX(); x++) {
+			for (int y = 0; y < expected.getNumPointsY(); y++) {
+				assertEquals(expected.getTag(x, y), actual.getTag(x, y));
+				double potential = expected.getPotential(x, y);
+				if (potential < Double.MAX_VALUE) {
+					assertEquals(potential, actual.getPotential(x, y), RESOLUTION, "cell (" + x + ", " + y + ")");
+					sumOfErrors += Math.abs(potential - actual.getPotential(x, y));
+				} else {
+					assertEquals(potential, actual.getPotential(x, y));
+				}
+			}
+		}
+		assertTrue(sumOfErrors / (expected.getNumPointsX() * expected.getNumPointsY()) < 1.0E-3);
+	}
+
+	private void testIncrementalUpdates(final boolean isHighAccuracy) {
+		RegionTimeCostFunction timeCost = new RegionTimeCostFunction();
+		EikonalSolverFMM solver = createSolver(timeCost, isHighAccuracy);
+		solver.setIncrementalUpdate(true);
+		solver.solve();
+
+		// the first update has to compute the whole floor field
+		solver.update();
+		int numberOfCells = solver.getCellGrid().getNumPointsX() * solver.getCellGrid().getNumPointsY();
+		assertEqualsFullSolve(solver, timeCost, isHighAccuracy);
+
+		// nothing changed
+		solver.update();
+		assertEquals(0, solver.getLastUpdateChangedCells());
+		assertEquals(0, solver.getLastUpdateRecomputedCells());
+
+		// raise: a crowd in front of the target
+		timeCost.regions.add(new VRectangle(14, 9, 1, 1));
+		timeCost.regionCosts.add(3.0);
+		solver.update();
+		assertTrue(solver.getLastUpdateChangedCells() > 0);
+		assertTrue(solver.getLastUpdateRecomputedCells() < numberOfCells / 2);
+		assertEqualsFullSolve(solver, timeCost, isHighAccuracy);
+
+		// lower: the crowd moves away and a new one appears behind the obstacle
+		timeCost.regionCosts.set(0, 1.0);
+		timeCost.regions.add(new VRectangle(5, 15, 2, 1));
+		timeCost.regionCosts.add(5.0);
+		solver.update();
+		assertEqualsFullSolve(solver, timeCost, isHighAccuracy);
+
+		timeCost.regions.clear();
+		timeCost.regionCosts.clear();
+		solver.update();
+		assertEqualsFullSolve(solver, timeCost, isHighAccuracy);
+	}
+
+	@Test
+	public void testIncrementalUpdate() {
+		testIncrementalUpdates(false);
+	}
+
+	@Test
+	public void testIncrementalUpdateHighAccuracy() {
+		testIncrementalUpdates(true);
+	}
+}
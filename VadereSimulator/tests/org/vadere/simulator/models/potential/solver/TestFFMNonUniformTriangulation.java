@@ -385,18 +385,18 @@ public class TestFFMNonUniformTriangulation {
             e.printStackTrace();
         }
         log.info("max error: " + maxError);
-        Stream<Point> resultPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag != PathFindingTag.Obstacle);
+        Stream<Point> resultPoints = cellGrid.pointStream().filter(p -> cellGrid.getTag(p) != PathFindingTag.Obstacle);
         double n = resultPoints.count();
 
-        resultPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag != PathFindingTag.Obstacle);
+        resultPoints = cellGrid.pointStream().filter(p -> cellGrid.getTag(p) != PathFindingTag.Obstacle);
         log.info("max error-2: " + resultPoints
-                .map(p -> Math.abs(cellGrid.getValue(p).potential - distanceFunc.apply(cellGrid.pointToCoord(p))))
+                .map(p -> Math.abs(cellGrid.getPotential(p) - distanceFunc.apply(cellGrid.pointToCoord(p))))
                 .max(Comparator.comparingDouble(d -> d)));
         log.info("L2-error: " + Math.sqrt(sum /  counter));
 
-        resultPoints = cellGrid.pointStream().filter(p -> cellGrid.getValue(p).tag != PathFindingTag.Obstacle);
+        resultPoints = cellGrid.pointStream().filter(p -> cellGrid.getTag(p) != PathFindingTag.Obstacle);
         log.info("max error-2: " + Math.sqrt(resultPoints
-                .map(p -> Math.abs(cellGrid.getValue(p).potential - distanceFunc.apply(cellGrid.pointToCoord(p))))
+                .map(p -> Math.abs(cellGrid.getPotential(p) - distanceFunc.apply(cellGrid.pointToCoord(p))))
                 .map(val -> val * val)
                 .reduce(0.0, (d1, d2) -> d1 + d2) / n));
 
@@ -64,7 +64,7 @@ public class TestIFIMGrid {
 		for(int i = 0; i < cellGrid.getNumPointsY(); i++) {
 			System.out.print("[");
 			for(int j = 0; j < cellGrid.getNumPointsX(); j++) {
-				System.out.print(cellGrid.getValue(i,j).potential);
+				System.out.print(cellGrid.getPotential(i,j));
 				if(j < cellGrid.getNumPointsX()-1) {
 					System.out.print(",");
 				}
@@ -115,7 +115,7 @@ public class TestIFIMGrid {
 		for(int i = 0; i < cellGrid.getNumPointsY(); i++) {
 			System.out.print("[");
 			for(int j = 0; j < cellGrid.getNumPointsX(); j++) {
-				System.out.print(cellGrid.getValue(i,j).potential);
+				System.out.print(cellGrid.getPotential(i,j));
 				if(j < cellGrid.getNumPointsX()-1) {
 					System.out.print(",");
 				}
@@ -0,0 +1,178 @@
+package org.vadere.simulator.projects.dataprocessing.outputfile;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.projects.dataprocessing.ProcessorManager;
+import org.vadere.simulator.projects.dataprocessing.datakey.TimestepKey;
+import org.vadere.simulator.projects.dataprocessing.datakey.TimestepPedestrianIdKey;
+import org.vadere.simulator.projects.dataprocessing.processor.DataProcessor;
+import org.vadere.simulator.projects.dataprocessing.processor.PedestrianPositionProcessor;
+import org.vadere.simulator.projects.dataprocessing.processor.PedestrianVelocityProcessor;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereStringWriter;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereWriter;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereWriterFactory;
+import org.vadere.state.attributes.processor.AttributesPedestrianPositionProcessor;
+import org.vadere.state.attributes.processor.AttributesPedestrianVelocityProcessor;
+import org.vadere.state.attributes.scenario.AttributesAgent;
+import org.vadere.state.scenario.Pedestrian;
+import org.vadere.state.scenario.Topography;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OutputFileStreamingTest {
+
+	private static final int STEPS = 20;
+
+	/**
+	 * Stores the square of the time step for the current and (once more) for the last time step, i.e. a value
+	 * might change one step after it was added first.
+	 */
+	private static class SquareProcessor extends DataProcessor<TimestepKey, Integer> {
+
+		int maxSize = 0;
+		int keyQueries = 0;
+
+		SquareProcessor() {
+			super("square");
+			setId(1);
+		}
+
+		@Override
+		protected void doUpdate(final SimulationState state) {
+			putValue(new TimestepKey(state.getStep()), state.getStep() * state.getStep());
+			if (state.getStep() > 1) {
+				putValue(new TimestepKey(state.getStep() - 1), (state.getStep() - 1) * (state.getStep() - 1));
+			}
+			maxSize = Math.max(maxSize, getData().size());
+		}
+
+		@Override
+		public Set<TimestepKey> getKeys() {
+			keyQueries++;
+			return super.getKeys();
+		}
+	}
+
+	private List<String> run(final int streamingWindow, final SquareProcessor processor) {
+		VadereStringWriter writer = new VadereStringWriter();
+		OutputFile<TimestepKey> file = new TimestepOutputFile();
+		initFile(file, processor.getId(), streamingWindow, writer);
+
+		ProcessorManager manager = new ProcessorManager(Collections.singletonList(processor), Collections.singletonList(file), null, null);
+		manager.initOutputFiles();
+		manager.preLoop(state(0));
+		for (int step = 1; step <= STEPS; step++) {
+			manager.update(state(step));
+		}
+		manager.postLoop(state(STEPS));
+		manager.writeOutput();
+		return writer.getOutput();
+	}
+
+	private static void initFile(final OutputFile<?> file, final int processorId, final int streamingWindow, final VadereStringWriter writer) {
+		file.setProcessorIds(Collections.singletonList(processorId));
+		file.setSeparator(" ");
+		file.setStreamingWindow(streamingWindow);
+		file.setVadereWriterFactory(new VadereWriterFactory() {
+			@Override
+			public VadereWriter create(String path) {
+				return writer;
+			}
+		});
+	}
+
+	/**
+	 * Streams the positions and the velocities of a pedestrian which accelerates, into two files with the same
+	 * streaming window. Returns the rows of the velocity file.
+	 */
+	private List<String> runVelocities(final int streamingWindow, final int backSteps) {
+		PedestrianPositionProcessor positionProcessor = new PedestrianPositionProcessor();
+		positionProcessor.setId(1);
+		AttributesPedestrianPositionProcessor positionAttributes = new AttributesPedestrianPositionProcessor();
+		positionAttributes.setInterpolate(false);
+		positionProcessor.setAttributes(positionAttributes);
+
+		PedestrianVelocityProcessor velocityProcessor = new PedestrianVelocityProcessor();
+		velocityProcessor.setId(2);
+		AttributesPedestrianVelocityProcessor velocityAttributes = new AttributesPedestrianVelocityProcessor();
+		velocityAttributes.setPedestrianPositionProcessorId(1);
+		velocityAttributes.setBackSteps(backSteps);
+		velocityProcessor.setAttributes(velocityAttributes);
+
+		VadereStringWriter positionWriter = new VadereStringWriter();
+		OutputFile<TimestepPedestrianIdKey> positionFile = new TimestepPedestrianIdOutputFile();
+		initFile(positionFile, 1, streamingWindow, positionWriter);
+		VadereStringWriter velocityWriter = new VadereStringWriter();
+		OutputFile<TimestepPedestrianIdKey> velocityFile = new TimestepPedestrianIdOutputFile();
+		initFile(velocityFile, 2, streamingWindow, velocityWriter);
+
+		Topography topography = new Topography();
+		Pedestrian pedestrian = new Pedestrian(new AttributesAgent(1), new Random(0));
+		topography.addElement(pedestrian);
+
+		ProcessorManager manager = new ProcessorManager(Arrays.asList(positionProcessor, velocityProcessor),
+				Arrays.asList(positionFile, velocityFile), null, topography);
+		manager.initOutputFiles();
+		manager.preLoop(state(0, topography));
+		for (int step = 1; step <= STEPS; step++) {
+			pedestrian.setPosition(new VPoint(0.01 * step * step, 1));
+			manager.update(state(step, topography));
+		}
+		manager.postLoop(state(STEPS, topography));
+		manager.writeOutput();
+		return velocityWriter.getOutput();
+	}
+
+	private static SimulationState state(final int step) {
+		return state(step, null);
+	}
+
+	private static SimulationState state(final int step, final Topography topography) {
+		SimulationState state = mock(SimulationState.class);
+		when(state.getStep()).thenReturn(step);
+		when(state.getSimTimeInSec()).thenReturn(step * 0.4);
+		when(state.getTopography()).thenReturn(topography);
+		return state;
+	}
+
+	@Test
+	public void testStreamingWritesSameRows() {
+		SquareProcessor bufferedProcessor = new SquareProcessor();
+		SquareProcessor streamedProcessor = new SquareProcessor();
+		List<String> buffered = run(0, bufferedProcessor);
+		List<String> streamed = run(2, streamedProcessor);
+
+		assertEquals(STEPS + 1, buffered.size());
+		assertEquals(Arrays.asList("timeStep", "square-PID1"), Arrays.asList(buffered.get(0).split(" ")));
+		assertEquals(buffered, streamed);
+
+		// the streamed processor only keeps the rows of the streaming window
+		assertEquals(STEPS, bufferedProcessor.maxSize);
+		assertTrue(streamedProcessor.maxSize <= 3);
+
+		// the streamed file does not iterate over all keys of its processor
+		assertTrue(bufferedProcessor.keyQueries > 0);
+		assertEquals(0, streamedProcessor.keyQueries);
+	}
+
+	@Test
+	public void testStreamingKeepsValuesOfReferencedProcessors() {
+		// the velocity processor reads the positions of 5 steps ago, which are already written
+		List<String> buffered = runVelocities(0, 5);
+		List<String> streamed = runVelocities(2, 5);
+
+		assertEquals(STEPS + 1, buffered.size());
+		assertTrue(Double.parseDouble(buffered.get(STEPS).split(" ")[2]) > 0);
+		assertEquals(buffered, streamed);
+	}
+}
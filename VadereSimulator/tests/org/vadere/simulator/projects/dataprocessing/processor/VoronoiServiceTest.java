@@ -0,0 +1,78 @@
+package org.vadere.simulator.projects.dataprocessing.processor;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.control.simulation.SimulationState;
+import org.vadere.simulator.utils.PedestrianListBuilder;
+import org.vadere.state.scenario.Agent;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.voronoi.Face;
+import org.vadere.util.voronoi.VoronoiDiagram;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class VoronoiServiceTest {
+
+	private SimulationState createState(final int step, final VPoint... positions) {
+		return new SimulationStateMock(step) {
+			@Override
+			public void mockIt() {
+				PedestrianListBuilder b = new PedestrianListBuilder();
+				for (int i = 0; i < positions.length; i++) {
+					b.add(i + 1, positions[i]);
+				}
+				when(state.getTopography().getElements(Agent.class)).thenReturn(b.getAgentList());
+			}
+		}.get();
+	}
+
+	@Test
+	public void testFacesAreComputedOncePerStateAndArea() {
+		VoronoiService voronoiService = new VoronoiService();
+		SimulationState state = createState(1, new VPoint(3.0, 6.5), new VPoint(6.0, 8.0), new VPoint(8.5, 7.0));
+
+		List<Face> faces = voronoiService.getFaces(state, new VRectangle(0, 0, 16, 16));
+		assertEquals(3, faces.size());
+		assertSame(faces, voronoiService.getFaces(state, new VRectangle(0, 0, 16, 16)));
+
+		List<Face> otherFaces = voronoiService.getFaces(state, new VRectangle(0, 0, 7, 16));
+		assertEquals(2, otherFaces.size());
+		verify(state.getTopography(), times(1)).getElements(Agent.class);
+
+		SimulationState nextState = createState(2, new VPoint(3.0, 6.5), new VPoint(6.0, 8.0));
+		List<Face> nextFaces = voronoiService.getFaces(nextState, new VRectangle(0, 0, 16, 16));
+		assertNotSame(faces, nextFaces);
+		assertEquals(2, nextFaces.size());
+	}
+
+	@Test
+	public void testFacesEqualDiagram() {
+		VPoint[] positions = {new VPoint(1.0, 1.5), new VPoint(4.0, 2.0), new VPoint(2.5, 5.0), new VPoint(7.0, 6.0), new VPoint(5.5, 9.0)};
+		VRectangle voronoiArea = new VRectangle(0, 0, 10, 10);
+		VoronoiDiagram voronoiDiagram = new VoronoiDiagram(voronoiArea);
+		voronoiDiagram.computeVoronoiDiagram(List.of(positions));
+
+		List<Face> expected = voronoiDiagram.getFaces();
+		List<Face> faces = new VoronoiService().getFaces(createState(1, positions), voronoiArea);
+
+		assertEquals(expected.size(), faces.size());
+		for (int i = 0; i < faces.size(); i++) {
+			assertEquals(expected.get(i).getSite(), faces.get(i).getSite());
+			assertEquals(expected.get(i).computeArea(), faces.get(i).computeArea(), 1e-12);
+		}
+	}
+
+	@Test
+	public void testEmptyArea() {
+		List<Face> faces = new VoronoiService().getFaces(createState(1, new VPoint(20.0, 20.0)), new VRectangle(0, 0, 10, 10));
+		assertTrue(faces.isEmpty());
+	}
+}
@@ -0,0 +1,213 @@
+package org.vadere.simulator.projects.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereBinaryFileWriter;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereFileWriter;
+import org.vadere.simulator.projects.dataprocessing.writer.VadereWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tech.tablesaw.api.ColumnType;
+import tech.tablesaw.api.Table;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryTableReaderTest {
+
+	private static final String SEP = " ";
+
+	private Path textFile;
+	private Path binaryFile;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		textFile = Files.createTempFile("postvis", ".traj");
+		binaryFile = Files.createTempFile("postvis", ".traj");
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(textFile);
+		Files.deleteIfExists(binaryFile);
+	}
+
+	@Test
+	public void testBinaryTableEqualsTextTable() throws IOException {
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(Arrays.asList("pedestrianId", "simTime", "endTime-PID1", "startX-PID1", "mostImportantStimulus-PID2", "isInfectious-PID3"));
+		for (int i = 0; i < 1000; i++) {
+			rows.add(Arrays.asList(
+					Integer.toString(i % 17),
+					Double.toString(i * 0.4),
+					Double.toString(i * 0.4 + 0.123456789),
+					Double.toString(Math.sin(i) * 100),
+					i % 3 == 0 ? "ElapsedTime" : "Wait",
+					Boolean.toString(i % 5 == 0)));
+		}
+
+		write(new VadereFileWriter(textFile.toString()), rows);
+		write(new VadereBinaryFileWriter(binaryFile.toString()), rows);
+
+		assertFalse(BinaryTableReader.isBinaryTable(textFile));
+		assertTrue(BinaryTableReader.isBinaryTable(binaryFile));
+
+		Table expected = new TrajectoryReader(textFile).readFile();
+		Table actual = new TrajectoryReader(binaryFile).readFile();
+		new TrajectoryReader(textFile).checkFile();
+		new TrajectoryReader(binaryFile).checkFile();
+
+		assertEquals(expected.columnNames(), actual.columnNames());
+		assertEquals(expected.rowCount(), actual.rowCount());
+		for (int col = 0; col < expected.columnCount(); col++) {
+			assertEquals(expected.column(col).type(), actual.column(col).type());
+			for (int row = 0; row < expected.rowCount(); row++) {
+				assertEquals(expected.column(col).get(row), actual.column(col).get(row));
+			}
+		}
+	}
+
+	@Test
+	public void testCheckFileDetectsDuplicateColumns() throws IOException {
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(Arrays.asList("pedestrianId", "simTime", "id-PID2"));
+		rows.add(Arrays.asList("1", "0.4", "1"));
+
+		write(new VadereFileWriter(textFile.toString()), rows);
+		write(new VadereBinaryFileWriter(binaryFile.toString()), rows);
+
+		assertThrows(IOException.class, () -> new TrajectoryReader(textFile).checkFile());
+		assertThrows(IOException.class, () -> new TrajectoryReader(binaryFile).checkFile());
+	}
+
+	@Test
+	public void testColumnTypesOfBlocksAreMerged() throws IOException {
+		int nRows = 70000;
+		// the first block (1 << 16 rows) contains integers only, the second one doubles only
+		int nIntegers = 1 << 16;
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(Arrays.asList("number", "text", "missing"));
+		for (int i = 0; i < nRows; i++) {
+			String number = i < nIntegers ? Integer.toString(i) : Double.toString(i + 0.5);
+			String text = i < nIntegers ? Integer.toString(i) : "t" + i;
+			rows.add(Arrays.asList(number, text, i % 2 == 0 ? "" : Integer.toString(i)));
+		}
+
+		write(new VadereBinaryFileWriter(binaryFile.toString()), rows);
+		Table table = new BinaryTableReader(binaryFile).readFile();
+
+		assertEquals(nRows, table.rowCount());
+		assertEquals(ColumnType.DOUBLE, table.column("number").type());
+		assertEquals(ColumnType.STRING, table.column("text").type());
+		assertEquals(ColumnType.INTEGER, table.column("missing").type());
+
+		for (int i = 0; i < nRows; i++) {
+			assertEquals(i < nIntegers ? i : i + 0.5, table.doubleColumn("number").getDouble(i));
+			assertEquals(rows.get(i + 1).get(1), table.stringColumn("text").get(i));
+			assertEquals(i % 2 == 0, table.intColumn("missing").isMissing(i));
+		}
+	}
+
+	@Test
+	public void testTextRoundTrip() throws IOException {
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(Arrays.asList("id", "label", "number", "decimal", "missing", "flag"));
+		String[][] values = {
+				{"1", "007", Integer.toString(Integer.MIN_VALUE), "1.5", "", "true"},
+				{"2", "+7", "12", "1.50", "NaN", "false"},
+				{"3", "7", "-3", "1e3", "", "true"},
+				{"4", "1.0", "2147483647", "-0.0", "1", ""}
+		};
+		for (String[] row : values) {
+			rows.add(Arrays.asList(row));
+		}
+
+		write(new VadereBinaryFileWriter(binaryFile.toString()), rows);
+		BinaryTable table = new BinaryTableReader(binaryFile).open();
+
+		assertEquals(rows.get(0), table.columnNames());
+		assertEquals(values.length, table.rowCount());
+		for (int col = 0; col < table.columnCount(); col++) {
+			for (int row = 0; row < values.length; row++) {
+				assertEquals(values[row][col], table.column(col).getString(row));
+			}
+		}
+
+		// only columns which reproduce the text are numbers
+		assertEquals(VadereBinaryFileWriter.TYPE_INT, table.column("id").type());
+		assertEquals(VadereBinaryFileWriter.TYPE_STRING, table.column("label").type());
+		assertEquals(VadereBinaryFileWriter.TYPE_STRING, table.column("number").type());
+		assertEquals(VadereBinaryFileWriter.TYPE_STRING, table.column("decimal").type());
+		assertEquals(VadereBinaryFileWriter.TYPE_STRING, table.column("missing").type());
+		assertEquals(VadereBinaryFileWriter.TYPE_BOOLEAN, table.column("flag").type());
+		assertTrue(table.column("flag").isMissing(3));
+	}
+
+	@Test
+	public void testLazyColumnView() throws IOException {
+		int nRows = 3 * (1 << 16) + 17;
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(Arrays.asList("pedestrianId", "simTime", "state"));
+		for (int i = 0; i < nRows; i++) {
+			rows.add(Arrays.asList(Integer.toString(i), Double.toString(i * 0.4), i % 3 == 0 ? "ElapsedTime" : ""));
+		}
+
+		write(new VadereBinaryFileWriter(binaryFile.toString()), rows);
+		BinaryTable table = new BinaryTableReader(binaryFile).open();
+
+		assertEquals(nRows, table.rowCount());
+		for (int i : new int[]{0, (1 << 16) - 1, 1 << 16, 2 * (1 << 16) + 5, nRows - 1}) {
+			assertEquals(i, table.column("pedestrianId").getInt(i));
+			assertEquals(i * 0.4, table.column("simTime").getDouble(i));
+			assertEquals(i % 3 != 0, table.column("state").isMissing(i));
+			assertEquals(rows.get(i + 1).get(2), table.column(2).getString(i));
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> table.column(0).getInt(nRows));
+		assertThrows(IllegalStateException.class, () -> table.column("state").getDouble(0));
+	}
+
+	@Test
+	public void testPrintln() throws IOException {
+		try (VadereWriter out = new VadereBinaryFileWriter(binaryFile.toString())) {
+			out.println("#IDXCOL=1,DATACOL=1,SEP=' '");
+			out.println("timeStep value");
+			out.printRow(Arrays.asList("1", "a"), SEP);
+			out.println("2 b");
+			out.println("3 ");
+		}
+
+		BinaryTable table = new BinaryTableReader(binaryFile).open();
+		assertEquals(Arrays.asList("timeStep", "value"), table.columnNames());
+		assertEquals(3, table.rowCount());
+		assertEquals(3, table.column("timeStep").getInt(2));
+		assertEquals("b", table.column("value").getString(1));
+		assertTrue(table.column("value").isMissing(2));
+	}
+
+	@Test
+	public void testEmptyTable() throws IOException {
+		List<List<String>> rows = new ArrayList<>();
+		rows.add(Arrays.asList("pedestrianId", "simTime"));
+
+		write(new VadereBinaryFileWriter(binaryFile.toString()), rows);
+		Table table = new BinaryTableReader(binaryFile).readFile();
+
+		assertEquals(Arrays.asList("pedestrianId", "simTime"), table.columnNames());
+		assertTrue(table.isEmpty());
+	}
+
+	private static void write(final VadereWriter writer, final List<List<String>> rows) throws IOException {
+		try (VadereWriter out = writer) {
+			for (List<String> row : rows) {
+				out.printRow(row, SEP);
+			}
+			out.flush();
+		}
+	}
+}
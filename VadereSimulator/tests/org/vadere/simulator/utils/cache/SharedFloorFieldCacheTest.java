@@ -0,0 +1,180 @@
+package org.vadere.simulator.utils.cache;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.util.data.cellgrid.CellGrid;
+import org.vadere.util.data.cellgrid.CellState;
+import org.vadere.util.data.cellgrid.PathFindingTag;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedFloorFieldCacheTest {
+
+	private CellGrid createFloorField(final double potential) {
+		CellGrid cellGrid = new CellGrid(2, 1, 0.5, new CellState());
+		for (int x = 0; x < cellGrid.getNumPointsX(); x++) {
+			for (int y = 0; y < cellGrid.getNumPointsY(); y++) {
+				cellGrid.setValue(x, y, new CellState(potential + x, PathFindingTag.Reached));
+			}
+		}
+		return cellGrid;
+	}
+
+	@SuppressWarnings("unchecked")
+	private CellGridSharedCacheObject createCacheObject(final SharedFloorFieldCache sharedCache) {
+		return new CellGridSharedCacheObject(SharedFloorFieldCache.toKey("hash", "ff"), sharedCache, ICacheObject.empty("ff"));
+	}
+
+	@Test
+	public void testClaimAndPut() {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+		assertNull(sharedCache.getOrClaim("key"));
+
+		CellGrid floorField = createFloorField(1.0);
+		sharedCache.put("key", floorField);
+		floorField.setValue(0, 0, new CellState(42.0, PathFindingTag.Reached));
+
+		CellGrid cached = sharedCache.getOrClaim("key");
+		assertNotNull(cached);
+		assertEquals(1.0, cached.getPotential(0, 0));
+		assertEquals(1, sharedCache.getMisses());
+		assertEquals(1, sharedCache.getHits());
+		assertEquals(1, sharedCache.size());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		long size = SharedFloorFieldCache.getSize(createFloorField(1.0));
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache(2 * size);
+		sharedCache.put("a", createFloorField(1.0));
+		sharedCache.put("b", createFloorField(2.0));
+		assertNotNull(sharedCache.getOrClaim("a"));
+
+		sharedCache.put("c", createFloorField(3.0));
+		assertTrue(sharedCache.contains("a"));
+		assertFalse(sharedCache.contains("b"));
+		assertTrue(sharedCache.contains("c"));
+		assertEquals(1, sharedCache.getEvictions());
+		assertEquals(2 * size, sharedCache.getBytes());
+
+		// the evicted floor field is claimed again
+		assertNull(sharedCache.getOrClaim("b"));
+	}
+
+	@Test
+	public void testKeepsFloorFieldLargerThanBound() {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache(1);
+		sharedCache.put("a", createFloorField(1.0));
+		assertTrue(sharedCache.contains("a"));
+
+		sharedCache.put("b", createFloorField(2.0));
+		assertFalse(sharedCache.contains("a"));
+		assertTrue(sharedCache.contains("b"));
+		assertEquals(1, sharedCache.size());
+	}
+
+	@Test
+	public void testWaitForClaim() throws Exception {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+		assertNull(sharedCache.getOrClaim("key"));
+
+		CompletableFuture<CellGrid> waiting = CompletableFuture.supplyAsync(() -> sharedCache.getOrClaim("key"));
+		assertFalse(waiting.isDone());
+
+		sharedCache.put("key", createFloorField(1.0));
+		assertEquals(2.0, waiting.get(10, TimeUnit.SECONDS).getPotential(1, 0));
+	}
+
+	@Test
+	public void testReleaseClaim() {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+		assertNull(sharedCache.getOrClaim("key"));
+		sharedCache.release("key");
+
+		// the next caller claims the key again
+		assertFalse(sharedCache.contains("key"));
+		assertNull(sharedCache.getOrClaim("key"));
+		assertEquals(2, sharedCache.getMisses());
+	}
+
+	@Test
+	public void testWaiterClaimsAfterRelease() throws Exception {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+		assertNull(sharedCache.getOrClaim("key"));
+
+		CompletableFuture<CellGrid> waiting = CompletableFuture.supplyAsync(() -> sharedCache.getOrClaim("key"));
+		assertFalse(waiting.isDone());
+
+		// the waiter claims the released key, i.e. it is the only caller which may put or release it
+		sharedCache.release("key");
+		assertNull(waiting.get(10, TimeUnit.SECONDS));
+		assertEquals(2, sharedCache.getMisses());
+
+		CompletableFuture<CellGrid> next = CompletableFuture.supplyAsync(() -> sharedCache.getOrClaim("key"));
+		assertFalse(next.isDone());
+		sharedCache.put("key", createFloorField(1.0));
+		assertEquals(1.0, next.get(10, TimeUnit.SECONDS).getPotential(0, 0));
+	}
+
+	@Test
+	public void testCacheObjectWaitsForReleasedClaim() throws Exception {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+
+		CellGridSharedCacheObject first = createCacheObject(sharedCache);
+		assertFalse(first.readable());
+
+		CellGridSharedCacheObject second = createCacheObject(sharedCache);
+		CompletableFuture<Boolean> readable = CompletableFuture.supplyAsync(second::readable);
+		assertFalse(readable.isDone());
+		first.release();
+		assertFalse(readable.get(10, TimeUnit.SECONDS));
+
+		// the second object holds the claim, thus a third object waits for it
+		CellGridSharedCacheObject third = createCacheObject(sharedCache);
+		CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(third::readable);
+		first.release();
+		assertFalse(waiting.isDone());
+
+		second.persistObject(createFloorField(1.0));
+		assertTrue(waiting.get(10, TimeUnit.SECONDS));
+		assertEquals(2, sharedCache.getMisses());
+	}
+
+	@Test
+	public void testCacheObjectsShareFloorField() throws CacheException {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+
+		CellGridSharedCacheObject first = createCacheObject(sharedCache);
+		assertFalse(first.readable());
+		assertTrue(first.writable());
+		first.persistObject(createFloorField(1.0));
+		assertTrue(sharedCache.contains(SharedFloorFieldCache.toKey("hash", "ff")));
+
+		CellGridSharedCacheObject second = createCacheObject(sharedCache);
+		assertTrue(second.readable());
+		CellGrid floorField = new CellGrid(2, 1, 0.5, new CellState());
+		second.initializeObjectFromCache(floorField);
+		assertEquals(1.0, floorField.getPotential(0, 0));
+		assertEquals(2.0, floorField.getPotential(1, 0));
+		assertEquals(PathFindingTag.Reached, floorField.getTag(1, 0));
+	}
+
+	@Test
+	public void testCacheObjectReleasesClaim() {
+		SharedFloorFieldCache sharedCache = new SharedFloorFieldCache();
+
+		CellGridSharedCacheObject first = createCacheObject(sharedCache);
+		assertFalse(first.readable());
+		first.release();
+
+		CellGridSharedCacheObject second = createCacheObject(sharedCache);
+		assertFalse(second.readable());
+		assertEquals(2, sharedCache.getMisses());
+	}
+}
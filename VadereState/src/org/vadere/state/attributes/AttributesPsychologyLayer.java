@@ -64,6 +64,13 @@ public class AttributesPsychologyLayer {
      * </ul>
      */
     private String cognition;
+    /**
+     * <i>parallelism</i> is the number of threads which compute the stimuli of the pedestrians and
+     * update the perception and cognition models. If it is 1, the layer is updated sequentially, if it
+     * is smaller than 1, the number of available processors is used. Models which cannot update a pedestrian
+     * independently of the other pedestrians are always updated sequentially.
+     */
+    private int parallelism;
     /**
      * Edit the attributes of the perception and the cognition models here.
      */
@@ -80,6 +87,7 @@ public class AttributesPsychologyLayer {
         this.perception = perception;
         this.cognition = cognition;
         this.attributesModel = attributesModel;
+        this.parallelism = 1;
     }
 
     // Getter
@@ -91,6 +99,10 @@ public class AttributesPsychologyLayer {
         return cognition;
     }
 
+    public int getParallelism() {
+        return parallelism;
+    }
+
     // Setter
     public void setPerception(String perception) {
         this.perception = perception;
@@ -100,6 +112,10 @@ public class AttributesPsychologyLayer {
         this.cognition = cognition;
     }
 
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
     // Overridden Methods
     @Override
     public boolean equals(Object o) {
@@ -107,12 +123,13 @@ public class AttributesPsychologyLayer {
         if (o == null || getClass() != o.getClass()) return false;
         AttributesPsychologyLayer that = (AttributesPsychologyLayer) o;
         return Objects.equals(perception, that.perception) &&
-                Objects.equals(cognition, that.cognition);
+                Objects.equals(cognition, that.cognition) &&
+                parallelism == that.parallelism;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(perception, cognition);
+        return Objects.hash(perception, cognition, parallelism);
     }
 
 
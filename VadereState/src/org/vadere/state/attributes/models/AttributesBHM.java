@@ -56,6 +56,15 @@ public class AttributesBHM extends Attributes {
 	private double spaceToKeep = 0.01;
 	private boolean stepAwayFromCollisions = false;
 
+	/**
+	 * The number of threads which compute the next steps of the pedestrians. If it is 1, the pedestrians are
+	 * updated one after another. Otherwise, the steps of all pedestrians which step before the end of the time step
+	 * are computed in parallel on the basis of the same positions and are performed in the order of their time and id.
+	 * In this case each pedestrian has its own random number generator. If it is smaller than 1, the number of
+	 * available processors is used. <tt>reconsiderOldTargets</tt> requires the sequential update.
+	 */
+	private int parallelism = 1;
+
 	public double getStepLengthIntercept() {
 		return stepLengthIntercept;
 	}
@@ -195,6 +204,10 @@ public class AttributesBHM extends Attributes {
 		return switchBehaviour;
 	}
 
+	public int getParallelism() {
+		return parallelism;
+	}
+
 
 
 }
@@ -64,6 +64,9 @@ public class AttributesFloorField extends Attributes {
 	 *
 	 * Thus the created hash file can be moved to a different location without invalidating the
 	 * saved floor field.
+	 *
+	 * {@link CacheType#TILED_CACHE} stores the floor fields as compressed tiles in the shared
+	 * directory "[cacheDir]/tiles" (identical tiles are stored once) and loads the tiles lazily.
 	 */
 	@JsonView(Views.CacheViewExclude.class)
 	private CacheType cacheType = CacheType.NO_CACHE;
@@ -78,6 +81,29 @@ public class AttributesFloorField extends Attributes {
 
 	private AttributesTimeCost timeCostAttributes;
 
+	/**
+	 * If true, a dynamic floor field computed by the fast marching method is updated incrementally, i.e. only
+	 * the cells which depend on changed time costs are recomputed. This does not influence the initial floor
+	 * field, thus it is not part of the cache hash.
+	 */
+	@JsonView(Views.CacheViewExclude.class)
+	private boolean incrementalUpdate = false;
+
+	/**
+	 * If true, the potentials of grid based floor fields are stored as floats instead of doubles which
+	 * almost halves the memory of large floor fields. The travel times are rounded to about seven
+	 * significant digits (like {@link CacheType#TILED_CACHE} does), a cached floor field is rounded
+	 * when it is loaded, thus this is not part of the cache hash.
+	 * Note that the eikonal solvers compute on the grid, i.e. each travel time is computed from the
+	 * rounded travel times of its neighbours. Therefore, a floor field solved in single precision is
+	 * not just the rounded double precision floor field, the rounding errors add up along the wave
+	 * front (in the order of 1e-7 times the travel time) and the simulation results can differ
+	 * slightly. Use a cache which was written in double precision for results which do not depend
+	 * on this option.
+	 */
+	@JsonView(Views.CacheViewExclude.class)
+	private boolean singlePrecision = false;
+
 	public AttributesFloorField() {
 		timeCostAttributes = new AttributesTimeCost();
 	}
@@ -111,6 +137,14 @@ public class AttributesFloorField extends Attributes {
 		return cacheDir;
 	}
 
+	public boolean isIncrementalUpdate() {
+		return incrementalUpdate;
+	}
+
+	public boolean isSinglePrecision() {
+		return singlePrecision;
+	}
+
 	public void setCreateMethod(EikonalSolverType createMethod) {
 		checkSealed();
 		this.createMethod = createMethod;
@@ -149,4 +183,14 @@ public class AttributesFloorField extends Attributes {
 		checkSealed();
 		this.cacheDir = cacheDir;
 	}
+
+	public void setIncrementalUpdate(boolean incrementalUpdate) {
+		checkSealed();
+		this.incrementalUpdate = incrementalUpdate;
+	}
+
+	public void setSinglePrecision(boolean singlePrecision) {
+		checkSealed();
+		this.singlePrecision = singlePrecision;
+	}
 }
@@ -158,6 +158,13 @@ public class AttributesOSM extends Attributes {
 	 */
 	private UpdateType updateType = UpdateType.EVENT_DRIVEN;
 
+	/**
+	 * The number of threads used by the parallel update schemes which are based on a fork join pool,
+	 * e.g. <tt>UpdateType.PARALLEL_FORK_JOIN</tt>. If it is smaller than 1, the number of available
+	 * processors is used.
+	 */
+	private int parallelism = 0;
+
 	/**
 	 * If <tt>true</tt> this avoids agent jumping over small walls. However, this does not fix the problem that
 	 * the target potential computation fails due to small obstacles. Since this is a quick fix and the
@@ -220,6 +227,10 @@ public class AttributesOSM extends Attributes {
 		return updateType;
 	}
 
+	public int getParallelism() {
+		return parallelism;
+	}
+
 	public MovementType getMovementType() {
 		return movementType;
 	}
@@ -35,6 +35,12 @@ public class AttributesAirTransmissionModel extends AttributesExposureModel {
 	private boolean dropletsActive;
 	private AttributesAirTransmissionModelDroplets dropletParameters;
 
+	/**
+	 * The number of threads used to update the aerosol clouds and the exposure of the pedestrians. If it is
+	 * 1, the model is updated sequentially, if it is smaller than 1, the number of available processors is
+	 * used. The results do not depend on the parallelism.
+	 */
+	private int parallelism;
 
 	public AttributesAirTransmissionModel() {
 		super();
@@ -46,6 +52,8 @@ public class AttributesAirTransmissionModel extends AttributesExposureModel {
 
 		this.dropletsActive = false;
 		this.dropletParameters = new AttributesAirTransmissionModelDroplets();
+
+		this.parallelism = 1;
 	}
 
 	// Getter
@@ -110,6 +118,10 @@ public class AttributesAirTransmissionModel extends AttributesExposureModel {
 		return dropletParameters.getAbsorptionRate();
 	}
 
+	public int getParallelism() {
+		return parallelism;
+	}
+
 	public void setAerosolCloudsActive(boolean aerosolCloudsActive) {
 		this.aerosolCloudsActive = aerosolCloudsActive;
 	}
@@ -137,4 +149,8 @@ public class AttributesAirTransmissionModel extends AttributesExposureModel {
 	public void setDropletsAngleOfSpreadInDeg(double angleOfSpreadInDeg) {
 		this.dropletParameters.setAngleOfSpreadInDeg(angleOfSpreadInDeg);
 	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
 }
@@ -21,6 +21,15 @@ public class AttributesObstacle extends AttributesVisualElement{
 		this.shape = shape;
 	}
 
+	/**
+	 * Creates an unsealed copy which shares the (immutable) shape of the original.
+	 */
+	public AttributesObstacle(AttributesObstacle other) {
+		this.id = other.id;
+		this.shape = other.shape;
+		this.visible = other.visible;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
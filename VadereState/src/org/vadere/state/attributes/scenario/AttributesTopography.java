@@ -1,7 +1,10 @@
 package org.vadere.state.attributes.scenario;
 
+import com.fasterxml.jackson.annotation.JsonView;
 import org.vadere.state.attributes.Attributes;
 import org.vadere.state.scenario.ReferenceCoordinateSystem;
+import org.vadere.state.types.SpatialMapType;
+import org.vadere.state.util.Views;
 import org.vadere.util.geometry.shapes.VRectangle;
 
 import java.awt.geom.Rectangle2D;
@@ -17,6 +20,12 @@ public class AttributesTopography extends Attributes {
 	 *  such as UTM zones, or GPS lon lat.
 	 */
 	private ReferenceCoordinateSystem referenceCoordinateSystem = null;
+	/**
+	 * The spatial data structure used to find pedestrians in a fixed radius. <tt>COMPACT_LINKED_CELLS</tt> avoids
+	 * allocations and locks for queries but requires that the topography is not modified while it is queried.
+	 */
+	@JsonView(Views.CacheViewExclude.class) // ignore when determining if floor field cache is valid
+	private SpatialMapType spatialMapType = SpatialMapType.LINKED_CELLS;
 
 	// Getters...
 
@@ -38,6 +47,10 @@ public class AttributesTopography extends Attributes {
 		return bounded;
 	}
 
+	public SpatialMapType getSpatialMapType() {
+		return spatialMapType;
+	}
+
 	public void setBounds(VRectangle bounds) {
 		checkSealed();
 		this.bounds = bounds;
@@ -3,6 +3,9 @@ package org.vadere.state.scenario;
 import java.awt.geom.RectangularShape;
 import java.util.*;
 
+import org.vadere.state.types.SpatialMapType;
+import org.vadere.util.geometry.CompactLinkedCellsGrid;
+import org.vadere.util.geometry.ISpatialMap;
 import org.vadere.util.geometry.LinkedCellsGrid;
 import org.vadere.util.geometry.shapes.VPoint;
 
@@ -16,28 +19,39 @@ public class DynamicElementContainer<T extends DynamicElement> {
 	private final List<T> initialElements;
 
 	/**
-	 * LinkedCellsGrid storing all elements for fast access.
+	 * Spatial map (e.g. a LinkedCellsGrid) storing all elements for fast access.
 	 */
-	private final LinkedCellsGrid<T> cellsElements;
+	private final ISpatialMap<T> cellsElements;
 
 	private final RectangularShape bounds;
 	private final double cellSize;
+	private final SpatialMapType spatialMapType;
 
 	public DynamicElementContainer(RectangularShape bounds, double cellSize) {
+		this(bounds, cellSize, SpatialMapType.LINKED_CELLS);
+	}
+
+	public DynamicElementContainer(RectangularShape bounds, double cellSize, SpatialMapType spatialMapType) {
 		elementMap = new HashMap<>();
 		initialElements = new LinkedList<>();
 		this.bounds = bounds;
 		this.cellSize = cellSize;
-
-		this.cellsElements = new LinkedCellsGrid<>(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(),
-				bounds.getHeight(), cellSize);
+		this.spatialMapType = spatialMapType;
+
+		if (spatialMapType == SpatialMapType.COMPACT_LINKED_CELLS) {
+			this.cellsElements = new CompactLinkedCellsGrid<>(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(),
+					bounds.getHeight(), cellSize);
+		} else {
+			this.cellsElements = new LinkedCellsGrid<>(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(),
+					bounds.getHeight(), cellSize);
+		}
 
 		this.addListener = new LinkedList<>();
 		this.removeListener = new LinkedList<>();
 		this.moveListener = new LinkedList<>();
 	}
 
-	public synchronized LinkedCellsGrid<T> getCellsElements() {
+	public synchronized ISpatialMap<T> getCellsElements() {
 		return cellsElements;
 	}
 
@@ -126,7 +140,7 @@ public class DynamicElementContainer<T extends DynamicElement> {
 
 	@Override
 	protected DynamicElementContainer<T> clone() throws CloneNotSupportedException {
-		DynamicElementContainer<T> clone = new DynamicElementContainer<>(bounds, cellSize);
+		DynamicElementContainer<T> clone = new DynamicElementContainer<>(bounds, cellSize, spatialMapType);
 
 		for (T element : this.elementMap.values()) {
 			clone.addElement(element);
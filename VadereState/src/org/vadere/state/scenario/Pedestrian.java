@@ -326,6 +326,14 @@ public class Pedestrian extends Agent {
         return new Pedestrian(this);
     }
 
+    /**
+     * Returns a copy of this pedestrian which is a plain {@link Pedestrian} even if this pedestrian is a
+     * model specific subclass, i.e. the copy can be serialized as initial pedestrian of a topography.
+     */
+    public Pedestrian copyAsPedestrian() {
+        return new Pedestrian(this);
+    }
+
 
     public LinkedList<Pedestrian> getPedGroupMembers() {
         return agentsInGroup;
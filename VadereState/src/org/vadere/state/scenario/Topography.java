@@ -10,7 +10,9 @@ import org.vadere.state.attributes.scenario.AttributesDynamicElement;
 import org.vadere.state.attributes.scenario.AttributesObstacle;
 import org.vadere.state.attributes.scenario.AttributesTopography;
 import org.vadere.state.util.Views;
-import org.vadere.util.geometry.LinkedCellsGrid;
+import org.vadere.util.geometry.ISpatialMap;
+import org.vadere.util.geometry.ShapeBoundsGrid;
+import org.vadere.util.geometry.ShapeSegmentGrid;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.geometry.shapes.VPolygon;
@@ -33,6 +35,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -54,6 +57,21 @@ public class Topography implements DynamicElementMover{
 	 */
 	private static final double CELL_SIZE = 2;
 
+	/**
+	 * Cell size of the index of the obstacle edges, i.e. a step (of length smaller than 1) touches at most 4 cells.
+	 */
+	private static final double OBSTACLE_SEGMENT_CELL_SIZE = 1;
+
+	/** Index of the obstacle edges which is built on demand, see {@link #getObstacleSegmentIndex()}. */
+	private transient volatile ShapeSegmentGrid obstacleSegmentIndex;
+	private transient final Object obstacleSegmentIndexLock = new Object();
+
+	/** Index of the bounds of the obstacles which is built on demand, see {@link #getObstacleBoundsIndex()}. */
+	private transient volatile ShapeBoundsGrid obstacleBoundsIndex;
+
+	/** Counts the changes of the static elements, see {@link #getStaticElementsVersion()}. */
+	private transient final AtomicLong staticElementsVersion = new AtomicLong();
+
 	private final AttributesTopography attributes;
 
 	/**
@@ -160,7 +178,7 @@ public class Topography implements DynamicElementMover{
 
 		RectangularShape bounds = this.getBounds();
 
-		this.pedestrians = new DynamicElementContainer<>(bounds, CELL_SIZE);
+		this.pedestrians = new DynamicElementContainer<>(bounds, CELL_SIZE, attributes.getSpatialMapType());
 		recomputeCells = false;
 
 		this.obstacleDistanceFunction = new IDistanceFunctionCached() {
@@ -340,7 +358,7 @@ public class Topography implements DynamicElementMover{
 		// TODO [priority=medium] [task=refactoring] this is needed for the SimulationDataWriter. Refactor in the process of refactoring the Writer.
 		if (DynamicElement.class.isAssignableFrom(elementType)) {
 
-			DynamicElementContainer result = new DynamicElementContainer<>(this.getBounds(), CELL_SIZE);
+			DynamicElementContainer result = new DynamicElementContainer<>(this.getBounds(), CELL_SIZE, attributes.getSpatialMapType());
 			for (Pedestrian ped : pedestrians.getElements()) {
 				result.addElement(ped);
 			}
@@ -354,7 +372,7 @@ public class Topography implements DynamicElementMover{
 		return pedestrians.idExists(id);
 	}
 
-	public <T extends DynamicElement> LinkedCellsGrid<T> getSpatialMap(Class<T> elementType) {
+	public <T extends DynamicElement> ISpatialMap<T> getSpatialMap(Class<T> elementType) {
 		return getContainer(elementType).getCellsElements();
 	}
 
@@ -414,6 +432,21 @@ public class Topography implements DynamicElementMover{
 		logger.info(String.format("Set PedestrianIdCount to start value: %d", this.dynamicElementIdCounter.get()));
 	}
 
+	/**
+	 * Returns the next id which {@link #getNextDynamicElementId()} will issue without issuing it.
+	 */
+	public int peekNextDynamicElementId() {
+		return dynamicElementIdCounter.get();
+	}
+
+	/**
+	 * Sets the next id which {@link #getNextDynamicElementId()} will issue, e.g. to continue a simulation
+	 * from a checkpoint without reusing the ids of removed pedestrians.
+	 */
+	public void setNextDynamicElementId(final int nextId) {
+		dynamicElementIdCounter.set(nextId);
+	}
+
 	public boolean isRecomputeCells() {
 		return recomputeCells;
 	}
@@ -446,6 +479,54 @@ public class Topography implements DynamicElementMover{
 		return obstacles.stream().map(obs -> obs.getShape()).collect(Collectors.toList());
 	}
 
+	/**
+	 * Returns an index of the edges of all obstacles which answers whether a line segment intersects any obstacle
+	 * (see {@link ShapeSegmentGrid#intersects(double, double, double, double)}). The index is built once and rebuilt
+	 * if obstacles are added or removed. Changing the shape of an obstacle requires {@link #resetObstacleSegmentIndex()}.
+	 */
+	public ShapeSegmentGrid getObstacleSegmentIndex() {
+		ShapeSegmentGrid index = obstacleSegmentIndex;
+		if (index == null || index.size() != obstacles.size()) {
+			synchronized (obstacleSegmentIndexLock) {
+				index = obstacleSegmentIndex;
+				if (index == null || index.size() != obstacles.size()) {
+					index = new ShapeSegmentGrid(getObstacleShapes(), OBSTACLE_SEGMENT_CELL_SIZE);
+					obstacleSegmentIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	public void resetObstacleSegmentIndex() {
+		obstacleSegmentIndex = null;
+	}
+
+	/**
+	 * Returns an index of the bounds of all obstacles which finds the obstacles close to a point, i.e. the candidates
+	 * for <tt>getObstacles().get(i).getShape().distance(point) &lt; radius</tt> (see
+	 * {@link ShapeBoundsGrid#forEachCandidate(double, double, double, java.util.function.IntConsumer)}). The index
+	 * is built once and rebuilt if obstacles are added or removed. Changing the shape of an obstacle requires
+	 * {@link #resetObstacleBoundsIndex()}.
+	 */
+	public ShapeBoundsGrid getObstacleBoundsIndex() {
+		ShapeBoundsGrid index = obstacleBoundsIndex;
+		if (index == null || index.size() != obstacles.size()) {
+			synchronized (obstacleSegmentIndexLock) {
+				index = obstacleBoundsIndex;
+				if (index == null || index.size() != obstacles.size()) {
+					index = new ShapeBoundsGrid(getObstacleShapes(), CELL_SIZE);
+					obstacleBoundsIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	public void resetObstacleBoundsIndex() {
+		obstacleBoundsIndex = null;
+	}
+
 	public List<Stairs> getStairs() {
 		return stairs;
 	}
@@ -468,26 +549,50 @@ public class Topography implements DynamicElementMover{
 		return pedestrians;
 	}
 
+	/**
+	 * Returns a number which changes whenever a static element of the topography is added or removed, i.e. all
+	 * elements except of the dynamic elements, aerosol clouds and droplets. Observers which copy the static
+	 * elements, e.g. a visualization, compare it to the number of their copy. Code which changes the lists of
+	 * the static elements directly has to call {@link #staticElementsChanged()}.
+	 */
+	public long getStaticElementsVersion() {
+		return staticElementsVersion.get();
+	}
+
+	public void staticElementsChanged() {
+		staticElementsVersion.incrementAndGet();
+	}
+
 	public void addSource(Source source) {
 		this.sources.add(source);
+		staticElementsChanged();
 	}
 
 	public void addTarget(Target target) {
 		this.targets.add(target);
+		staticElementsChanged();
 	}
 
-	public void addTargetChanger(TargetChanger targetChanger) { this.targetChangers.add(targetChanger); }
+	public void addTargetChanger(TargetChanger targetChanger) {
+		this.targetChangers.add(targetChanger);
+		staticElementsChanged();
+	}
 
 	public void addAbsorbingArea(AbsorbingArea absorbingArea) {
 		this.absorbingAreas.add(absorbingArea);
+		staticElementsChanged();
 	}
 
 	public void addObstacle(Obstacle obstacle) {
 		this.obstacles.add(obstacle);
+		resetObstacleSegmentIndex();
+		resetObstacleBoundsIndex();
+		staticElementsChanged();
 	}
 
 	public void addMeasurementArea(MeasurementArea measurementArea){
 		this.measurementAreas.add(measurementArea);
+		staticElementsChanged();
 	}
 
 	public void addAerosolCloud(AerosolCloud aerosolCloud) { this.aerosolClouds.add(aerosolCloud); }
@@ -496,6 +601,7 @@ public class Topography implements DynamicElementMover{
 
 	public void addStairs(Stairs stairs) {
 		this.stairs.add(stairs);
+		staticElementsChanged();
 	}
 
 
@@ -505,6 +611,7 @@ public class Topography implements DynamicElementMover{
 		this.teleporter = teleporter;
 		if (teleporter != null)
 			allScenarioElements.add(Collections.singletonList(teleporter));
+		staticElementsChanged();
 	}
 
 	public <T extends DynamicElement> void addInitialElement(T element) {
@@ -572,6 +679,9 @@ public class Topography implements DynamicElementMover{
 			this.obstacles.remove(boundaryObstacle);
 		}
 		this.boundaryObstacles.clear();
+		resetObstacleSegmentIndex();
+		resetObstacleBoundsIndex();
+		staticElementsChanged();
 	}
 
 	/**
@@ -2,7 +2,6 @@ package org.vadere.state.scenario.spawner;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import org.apache.commons.math3.random.JDKRandomGenerator;
 import org.vadere.state.attributes.spawner.AttributesSpawner;
 import org.vadere.state.scenario.AttributesAttached;
 import org.vadere.state.scenario.distribution.DistributionFactory;
@@ -11,6 +10,7 @@ import org.vadere.state.scenario.spawner.impl.LERPSpawner;
 import org.vadere.state.scenario.spawner.impl.MixedSpawner;
 import org.vadere.state.scenario.spawner.impl.RegularSpawner;
 import org.vadere.state.scenario.spawner.impl.TimeSeriesSpawner;
+import org.vadere.util.random.RestorableRandom;
 
 import java.util.Random;
 import java.util.function.Supplier;
@@ -28,11 +28,13 @@ import java.util.function.Supplier;
 public abstract class VSpawner<T extends AttributesSpawner>  extends AttributesAttached<T> {
     protected int dynamicElementsCreatedTotal = 0;
     private final VDistribution distribution;
+    private final RestorableRandom randomGenerator;
 
     public VSpawner(T attributes, Random random) {
         this.attributes= attributes;
+        this.randomGenerator = new RestorableRandom(random.nextInt());
         try {
-            this.distribution = DistributionFactory.create(attributes.getDistributionAttributes(), new JDKRandomGenerator(random.nextInt()));
+            this.distribution = DistributionFactory.create(attributes.getDistributionAttributes(), randomGenerator);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -92,6 +94,17 @@ public abstract class VSpawner<T extends AttributesSpawner>  extends AttributesA
         dynamicElementsCreatedTotal += count;
     }
 
+    public void setDynamicElementsCreatedTotal(int dynamicElementsCreatedTotal) {
+        this.dynamicElementsCreatedTotal = dynamicElementsCreatedTotal;
+    }
+
+    /**
+     * Returns the random generator of the distribution, e.g. to store its state in a simulation checkpoint.
+     */
+    public RestorableRandom getRandomGenerator() {
+        return randomGenerator;
+    }
+
     public VDistribution getDistribution() {
         return distribution;
     }
@@ -0,0 +1,290 @@
+package org.vadere.state.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double-ended queue of foot steps which stores the start and end points and times of the foot steps
+ * in one primitive array instead of one {@link FootStep} (with two {@link org.vadere.util.geometry.shapes.VPoint}s)
+ * and one list node per foot step. The buffer grows up to its maximum size, if the maximum size is reached
+ * the oldest foot step is dropped, i.e. the buffer retains the most recent foot steps.
+ *
+ * <p>The foot steps have to be ordered by time (see {@link VTrajectory#add(FootStep)}) which allows
+ * {@link #firstEndingAfter(double)} and {@link #lastStartingBefore(double)} to use binary search.</p>
+ */
+public class FootStepRingBuffer implements FootStepView, Iterable<FootStep> {
+
+	// start x, start y, end x, end y, start time, end time
+	private static final int STRIDE = 6;
+	private static final int INITIAL_CAPACITY = 4;
+
+	private final int maxSize;
+	private double[] data;
+	private int head;
+	private int size;
+
+	/**
+	 * Creates a buffer without size limit.
+	 */
+	public FootStepRingBuffer() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a buffer which retains the <tt>maxSize</tt> most recent foot steps.
+	 */
+	public FootStepRingBuffer(final int maxSize) {
+		this.maxSize = Math.max(0, maxSize);
+		this.data = new double[Math.min(INITIAL_CAPACITY, this.maxSize) * STRIDE];
+		this.head = 0;
+		this.size = 0;
+	}
+
+	public FootStepRingBuffer(@NotNull final FootStepRingBuffer other) {
+		this.maxSize = other.maxSize;
+		this.data = new double[Math.min(Math.max(other.size, INITIAL_CAPACITY), maxSize) * STRIDE];
+		this.head = 0;
+		this.size = other.size;
+		other.copyTo(data, 0, other.size);
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private int capacity() {
+		return data.length / STRIDE;
+	}
+
+	private int offset(final int i) {
+		int index = head + i;
+		int capacity = capacity();
+		return (index < capacity ? index : index - capacity) * STRIDE;
+	}
+
+	private int checkedOffset(final int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("index " + i + " of " + size + " foot steps.");
+		}
+		return offset(i);
+	}
+
+	/**
+	 * Copies the foot steps <tt>[0, n)</tt> in order into the array.
+	 */
+	private void copyTo(final double[] target, final int targetOffset, final int n) {
+		int firstPart = Math.min(n, capacity() - head);
+		System.arraycopy(data, head * STRIDE, target, targetOffset, firstPart * STRIDE);
+		System.arraycopy(data, 0, target, targetOffset + firstPart * STRIDE, (n - firstPart) * STRIDE);
+	}
+
+	private void grow() {
+		int capacity = (int) Math.min((long) Math.max(capacity() * 2, INITIAL_CAPACITY), maxSize);
+		double[] newData = new double[capacity * STRIDE];
+		copyTo(newData, 0, size);
+		data = newData;
+		head = 0;
+	}
+
+	private void set(final int offset, final double startX, final double startY, final double endX, final double endY,
+	                 final double startTime, final double endTime) {
+		data[offset] = startX;
+		data[offset + 1] = startY;
+		data[offset + 2] = endX;
+		data[offset + 3] = endY;
+		data[offset + 4] = startTime;
+		data[offset + 5] = endTime;
+	}
+
+	/**
+	 * Appends the foot step. If the buffer has reached its maximum size, the oldest foot step is dropped.
+	 */
+	public void addLast(final double startX, final double startY, final double endX, final double endY,
+	                    final double startTime, final double endTime) {
+		if (maxSize == 0) {
+			return;
+		}
+		if (size == maxSize) {
+			removeFirst();
+		} else if (size == capacity()) {
+			grow();
+		}
+		set(offset(size), startX, startY, endX, endY, startTime, endTime);
+		size++;
+	}
+
+	public void addLast(@NotNull final FootStep footStep) {
+		addLast(footStep.getStart().x, footStep.getStart().y, footStep.getEnd().x, footStep.getEnd().y,
+				footStep.getStartTime(), footStep.getEndTime());
+	}
+
+	/**
+	 * Inserts the foot step at the front. If the buffer has reached its maximum size, the foot step is dropped.
+	 */
+	public void addFirst(@NotNull final FootStep footStep) {
+		if (size == maxSize) {
+			return;
+		}
+		if (size == capacity()) {
+			grow();
+		}
+		head = head == 0 ? capacity() - 1 : head - 1;
+		size++;
+		set(offset(0), footStep.getStart().x, footStep.getStart().y, footStep.getEnd().x, footStep.getEnd().y,
+				footStep.getStartTime(), footStep.getEndTime());
+	}
+
+	public void removeFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		head = size == 1 ? 0 : offset(1) / STRIDE;
+		size--;
+	}
+
+	public void removeLast() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		size--;
+		if (size == 0) {
+			head = 0;
+		}
+	}
+
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	@Override
+	public double getStartX(final int i) {
+		return data[checkedOffset(i)];
+	}
+
+	@Override
+	public double getStartY(final int i) {
+		return data[checkedOffset(i) + 1];
+	}
+
+	@Override
+	public double getEndX(final int i) {
+		return data[checkedOffset(i) + 2];
+	}
+
+	@Override
+	public double getEndY(final int i) {
+		return data[checkedOffset(i) + 3];
+	}
+
+	@Override
+	public double getStartTime(final int i) {
+		return data[checkedOffset(i) + 4];
+	}
+
+	@Override
+	public double getEndTime(final int i) {
+		return data[checkedOffset(i) + 5];
+	}
+
+	/**
+	 * Returns the index of the first foot step which ends after the time or {@link #size()} if there is none.
+	 */
+	public int firstEndingAfter(final double time) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (getEndTime(middle) <= time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the index of the last foot step which starts before the time or <tt>-1</tt> if there is none.
+	 */
+	public int lastStartingBefore(final double time) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (getStartTime(middle) < time) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low - 1;
+	}
+
+	/**
+	 * Returns a buffer without size limit which contains the foot steps <tt>[from, to)</tt>.
+	 */
+	public FootStepRingBuffer copy(final int from, final int to) {
+		FootStepRingBuffer copy = new FootStepRingBuffer();
+		int n = Math.max(0, to - from);
+		copy.data = new double[Math.max(n, INITIAL_CAPACITY) * STRIDE];
+		copy.size = n;
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(data, offset(from + i), copy.data, i * STRIDE, STRIDE);
+		}
+		return copy;
+	}
+
+	/**
+	 * Creates the foot steps from the oldest to the most recent one.
+	 */
+	@NotNull
+	@Override
+	public Iterator<FootStep> iterator() {
+		return new Iterator<>() {
+			private int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			@Override
+			public FootStep next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(i++);
+			}
+		};
+	}
+
+	/**
+	 * Creates the foot steps from the most recent to the oldest one.
+	 */
+	public Iterator<FootStep> descendingIterator() {
+		return new Iterator<>() {
+			private int i = size - 1;
+
+			@Override
+			public boolean hasNext() {
+				return i >= 0;
+			}
+
+			@Override
+			public FootStep next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(i--);
+			}
+		};
+	}
+}
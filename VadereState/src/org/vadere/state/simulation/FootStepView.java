@@ -0,0 +1,50 @@
+package org.vadere.state.simulation;
+
+import org.vadere.util.geometry.shapes.VPoint;
+
+/**
+ * A read-only view of a sequence of foot steps which are ordered by time. The primitive accessors
+ * do not allocate, i.e. processors and models can read the foot steps of all agents in every
+ * simulation step without copying them. The view is not a snapshot: it reflects later changes of
+ * the underlying foot steps.
+ */
+public interface FootStepView {
+
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	double getStartX(int i);
+
+	double getStartY(int i);
+
+	double getEndX(int i);
+
+	double getEndY(int i);
+
+	double getStartTime(int i);
+
+	double getEndTime(int i);
+
+	default double length(final int i) {
+		return Math.hypot(getEndX(i) - getStartX(i), getEndY(i) - getStartY(i));
+	}
+
+	/**
+	 * Calls the visitor for each foot step, the oldest foot step first.
+	 */
+	default void forEachFootStep(final FootStepVisitor visitor) {
+		for (int i = 0; i < size(); i++) {
+			visitor.visit(getStartX(i), getStartY(i), getEndX(i), getEndY(i), getStartTime(i), getEndTime(i));
+		}
+	}
+
+	/**
+	 * Creates the foot step <tt>i</tt>.
+	 */
+	default FootStep get(final int i) {
+		return new FootStep(new VPoint(getStartX(i), getStartY(i)), new VPoint(getEndX(i), getEndY(i)), getStartTime(i), getEndTime(i));
+	}
+}
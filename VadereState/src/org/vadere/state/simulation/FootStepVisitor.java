@@ -0,0 +1,11 @@
+package org.vadere.state.simulation;
+
+/**
+ * Receives the values of the foot steps of a {@link FootStepView} (see {@link FootStepView#forEachFootStep}),
+ * i.e. the foot steps are read without creating {@link FootStep} objects.
+ */
+@FunctionalInterface
+public interface FootStepVisitor {
+
+	void visit(double startX, double startY, double endX, double endY, double startTime, double endTime);
+}
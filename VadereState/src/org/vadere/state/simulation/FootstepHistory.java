@@ -27,11 +27,19 @@ public class FootstepHistory {
 
     // Getters
     public int getCapacity() { return capacity; }
+
+    /**
+     * Returns the foot steps (the oldest foot step first) themselves, i.e. changes of the list change the history.
+     */
     public ArrayList<FootStep> getFootSteps() { return footSteps; }
+
     public int size() { return footSteps.size(); }
 
     // Methods
     public boolean add(FootStep footStep) {
+        if (capacity <= 0) {
+            return false;
+        }
         if (footSteps.size() >= capacity) {
             footSteps.remove(0);
         }
@@ -46,6 +54,10 @@ public class FootstepHistory {
 		footSteps.remove(footSteps.size()-1);
 	}
 
+    public void clear() {
+        footSteps.clear();
+    }
+
     public double getAverageSpeedInMeterPerSecond() {
         double speed = Double.NaN;
 
@@ -1,5 +1,7 @@
 package org.vadere.state.simulation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -7,35 +9,76 @@ import org.vadere.util.geometry.shapes.VRectangle;
 
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * A sequence of foot steps ordered by time. The foot steps are stored in a {@link FootStepRingBuffer}, use
+ * {@link #view()} to read them without creating {@link FootStep} objects.
+ */
 public class VTrajectory implements Iterable<FootStep> {
 
 	// Variables
-	private LinkedList<FootStep> footSteps;
+	@JsonIgnore
+	private FootStepRingBuffer footStepBuffer;
 
 	// Constructors
 	public VTrajectory() {
-		footSteps = new LinkedList<>();
+		footStepBuffer = new FootStepRingBuffer();
+	}
+
+	private VTrajectory(@NotNull final FootStepRingBuffer footStepBuffer) {
+		this.footStepBuffer = footStepBuffer;
 	}
 
 	// Getters
+	/**
+	 * Returns a copy of the foot steps. Use {@link #view()} or {@link #iterator()} to read the foot steps without copying them.
+	 */
+	@JsonProperty("footSteps")
 	public LinkedList<FootStep> getFootSteps() {
-		return new LinkedList<>(footSteps);
+		LinkedList<FootStep> footSteps = new LinkedList<>();
+		footStepBuffer.forEach(footSteps::add);
+		return footSteps;
+	}
+
+	@JsonProperty("footSteps")
+	private void setFootSteps(@NotNull final List<FootStep> footSteps) {
+		footStepBuffer = new FootStepRingBuffer();
+		footSteps.forEach(footStepBuffer::addLast);
+	}
+
+	/**
+	 * Returns a read-only view of the foot steps which does not copy them.
+	 */
+	public FootStepView view() {
+		return footStepBuffer;
+	}
+
+	private FootStep first() {
+		return footStepBuffer.get(0);
+	}
+
+	private FootStep last() {
+		return footStepBuffer.get(footStepBuffer.size() - 1);
 	}
 
 	public boolean adjustEndTime(@NotNull final double endTime) {
 		if(!isEmpty()) {
-			while (!isEmpty() && footSteps.peekLast().getStartTime() >= endTime) {
-				footSteps.removeLast();
+			while (!isEmpty() && footStepBuffer.getStartTime(footStepBuffer.size() - 1) >= endTime) {
+				footStepBuffer.removeLast();
 			}
 
-			if(footSteps.isEmpty()) {
+			if(footStepBuffer.isEmpty()) {
 				return false;
 			}
-			FootStep footStep = footSteps.removeLast();
-			footSteps.addLast(new FootStep(footStep.getStart(), footStep.getEnd(), footStep.getStartTime(), endTime));
+			FootStep footStep = last();
+			footStepBuffer.removeLast();
+			footStepBuffer.addLast(new FootStep(footStep.getStart(), footStep.getEnd(), footStep.getStartTime(), endTime));
 		} else {
 			throw new IllegalStateException("cant adjust the last footstep of an empty trajectory.");
 		}
@@ -44,7 +87,7 @@ public class VTrajectory implements Iterable<FootStep> {
 
 	// Methods
 	public int size() {
-		return footSteps.size();
+		return footStepBuffer.size();
 	}
 
 	public Optional<Double> speed(@NotNull final VRectangle rectangle) {
@@ -57,14 +100,14 @@ public class VTrajectory implements Iterable<FootStep> {
 		if(isEmpty()) {
 			return false;
 		}
-		return footSteps.peekFirst().getStartTime() <= startTime && footSteps.peekLast().getEndTime() >= endTime;
+		return footStepBuffer.getStartTime(0) <= startTime && footStepBuffer.getEndTime(size() - 1) >= endTime;
 	}
 
 	public boolean isInBetween(@NotNull final VTrajectory other) {
 		if(isEmpty() || other.isEmpty()) {
 			return false;
 		}
-		return isInBetween(other.footSteps.peekFirst().getStartTime(), other.footSteps.peekLast().getEndTime());
+		return isInBetween(other.footStepBuffer.getStartTime(0), other.footStepBuffer.getEndTime(other.size() - 1));
 
 	}
 
@@ -72,22 +115,26 @@ public class VTrajectory implements Iterable<FootStep> {
 		if(isEmpty()) {
 			return Optional.empty();
 		}
-		return Optional.of(footSteps.peekFirst().getStartTime());
+		return Optional.of(footStepBuffer.getStartTime(0));
 	}
 
 	public Optional<Double> getEndTime() {
 		if(isEmpty()) {
 			return Optional.empty();
 		}
-		return Optional.of(footSteps.peekLast().getEndTime());
+		return Optional.of(footStepBuffer.getEndTime(size() - 1));
 	}
 
 	public boolean isEmpty() {
-		return footSteps.isEmpty();
+		return footStepBuffer.isEmpty();
 	}
 
 	public double length() {
-		return footSteps.stream().mapToDouble(footStep -> footStep.length()).sum();
+		double length = 0;
+		for (int i = 0; i < footStepBuffer.size(); i++) {
+			length += footStepBuffer.length(i);
+		}
+		return length;
 	}
 
 	public double length(final double startSimTime, final double endSimTime) {
@@ -95,17 +142,17 @@ public class VTrajectory implements Iterable<FootStep> {
 	}
 
 	public Optional<Double> duration() {
-		if(footSteps.isEmpty()) {
+		if(footStepBuffer.isEmpty()) {
 			return Optional.empty();
 		}
 		else {
-			double duration = footSteps.peekLast().getEndTime() - footSteps.peekFirst().getStartTime();
+			double duration = footStepBuffer.getEndTime(size() - 1) - footStepBuffer.getStartTime(0);
 			return Optional.of(duration);
 		}
 	}
 
 	public Optional<Double> speed() {
-		if(footSteps.isEmpty()) {
+		if(footStepBuffer.isEmpty()) {
 			return Optional.empty();
 		}
 		else {
@@ -115,24 +162,26 @@ public class VTrajectory implements Iterable<FootStep> {
 
 	public VTrajectory add(@NotNull final FootStep footStep) {
 
-		assert footSteps.isEmpty() ||
-				(footSteps.peekLast().getEndTime() <= footStep.getStartTime() &&  // make sure it is in order
-						footSteps.peekLast().getStartTime() < footStep.getStartTime());
+		assert footStepBuffer.isEmpty() ||
+				(footStepBuffer.getEndTime(size() - 1) <= footStep.getStartTime() &&  // make sure it is in order
+						footStepBuffer.getStartTime(size() - 1) < footStep.getStartTime());
 
-		footSteps.add(footStep);
+		footStepBuffer.addLast(footStep);
 		return this;
 	}
 
 	public FootStep removeLast() {
-		assert !footSteps.isEmpty();
-		return footSteps.removeLast();
+		assert !footStepBuffer.isEmpty();
+		FootStep footStep = last();
+		footStepBuffer.removeLast();
+		return footStep;
 	}
 
 	public VTrajectory cut(@NotNull final VRectangle rectangle) {
 		LinkedList<FootStep> newFootSteps = new LinkedList<>();
-		boolean inside = !footSteps.isEmpty() ? rectangle.contains(footSteps.peekFirst().getStart()) : false;
+		boolean inside = !footStepBuffer.isEmpty() ? rectangle.contains(first().getStart()) : false;
 
-		for(FootStep footStep : footSteps) {
+		for(FootStep footStep : footStepBuffer) {
 			if(footStep.intersects(rectangle)) {
 				Pair<FootStep, FootStep> splitStep = footStep.cut(footStep.computeIntersectionTime(rectangle));
 
@@ -153,7 +202,7 @@ public class VTrajectory implements Iterable<FootStep> {
 		}
 
 		VTrajectory copy = new VTrajectory();
-		copy.footSteps = newFootSteps;
+		newFootSteps.forEach(copy.footStepBuffer::addLast);
 		return copy;
 	}
 
@@ -162,53 +211,56 @@ public class VTrajectory implements Iterable<FootStep> {
 	}
 
 	public void cutTail(final double simStartTime) {
-		while (!footSteps.isEmpty() && footSteps.peekFirst().getEndTime() <= simStartTime) {
-			footSteps.removeFirst();
+		while (!footStepBuffer.isEmpty() && footStepBuffer.getEndTime(0) <= simStartTime) {
+			footStepBuffer.removeFirst();
 		}
 
-		if(!footSteps.isEmpty() && footSteps.peekFirst().getStartTime() < simStartTime) {
-			FootStep footStep = footSteps.removeFirst();
-			footSteps.addFirst(footStep.cut(simStartTime).getRight());
+		if(!footStepBuffer.isEmpty() && footStepBuffer.getStartTime(0) < simStartTime) {
+			FootStep footStep = first();
+			footStepBuffer.removeFirst();
+			footStepBuffer.addFirst(footStep.cut(simStartTime).getRight());
 		}
 
 	}
 
 	public void cutHead(final double simEndTime) {
-		while (!footSteps.isEmpty() && footSteps.peekLast().getStartTime() >= simEndTime) {
-			footSteps.removeLast();
+		while (!footStepBuffer.isEmpty() && footStepBuffer.getStartTime(size() - 1) >= simEndTime) {
+			footStepBuffer.removeLast();
 		}
 
-		if(!footSteps.isEmpty() && footSteps.peekLast().getEndTime() > simEndTime) {
-			FootStep footStep = footSteps.removeLast();
-			footSteps.addLast(footStep.cut(simEndTime).getLeft());
+		if(!footStepBuffer.isEmpty() && footStepBuffer.getEndTime(size() - 1) > simEndTime) {
+			FootStep footStep = last();
+			footStepBuffer.removeLast();
+			footStepBuffer.addLast(footStep.cut(simEndTime).getLeft());
 		}
 	}
 
 	public void concat(@NotNull final VTrajectory trajectory) {
-		for (FootStep footStep : trajectory) {
-			if(isEmpty() || (footStep.getStartTime() >= footSteps.peekLast().getEndTime())) {
-				footSteps.addLast(footStep);
+		FootStepRingBuffer other = trajectory.footStepBuffer;
+		for (int i = 0; i < other.size(); i++) {
+			if(isEmpty() || (other.getStartTime(i) >= footStepBuffer.getEndTime(size() - 1))) {
+				footStepBuffer.addLast(other.getStartX(i), other.getStartY(i), other.getEndX(i), other.getEndY(i),
+						other.getStartTime(i), other.getEndTime(i));
 			}
 		}
 	}
 
 	public void clear() {
-		footSteps.clear();
+		footStepBuffer.clear();
 	}
 
 	public VTrajectory clone() {
-		VTrajectory newTrajectory = new VTrajectory();
-
-		LinkedList<FootStep> footStepCopy = new LinkedList<>(footSteps);
-		newTrajectory.footSteps = footStepCopy;
-
-		return newTrajectory;
+		return new VTrajectory(new FootStepRingBuffer(footStepBuffer));
 	}
 
+	/**
+	 * Returns the part of the trajectory between the start and end time. Only the foot steps within the time
+	 * interval are copied, they are found by binary search.
+	 */
 	public VTrajectory cut(final double startTime, final double endTime) {
-		LinkedList<FootStep> copy = new LinkedList<>(footSteps);
-		VTrajectory subTrajectory = new VTrajectory();
-		subTrajectory.footSteps = copy;
+		int from = footStepBuffer.firstEndingAfter(startTime);
+		int to = footStepBuffer.lastStartingBefore(endTime) + 1;
+		VTrajectory subTrajectory = new VTrajectory(footStepBuffer.copy(from, to));
 		subTrajectory.cutHead(endTime);
 		subTrajectory.cutTail(startTime);
 		return subTrajectory;
@@ -217,21 +269,21 @@ public class VTrajectory implements Iterable<FootStep> {
 	@NotNull
 	@Override
 	public Iterator<FootStep> iterator() {
-		return footSteps.iterator();
+		return footStepBuffer.iterator();
 	}
 
 	public Iterator<FootStep> descendingIterator() {
-		return footSteps.descendingIterator();
+		return footStepBuffer.descendingIterator();
 	}
 
 	public Stream<FootStep> stream() {
-		return footSteps.stream();
+		return StreamSupport.stream(Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.SIZED), false);
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
-		footSteps.stream().forEach(footStep -> builder.append(footStep));
+		footStepBuffer.forEach(footStep -> builder.append(footStep));
 		return builder.toString();
 	}
 }
@@ -21,6 +21,8 @@ public enum TraCIDataType {
 	POLYGON(0x06, -1, false),
 	TRAFFIC_LIGHT_PHASE_LIST(0x0D, -1, false),
 	COLOR(0x11, 5, false),
+	DOUBLE_LIST(0x12, -1, true),
+	INTEGER_LIST(0x13, -1, true),
 	;
 
 
@@ -0,0 +1,14 @@
+package org.vadere.state.types;
+
+/**
+ * The spatial data structure used by the topography to find dynamic elements (e.g. pedestrians) in a fixed radius.
+ *
+ * <ul>
+ *     <li>LINKED_CELLS: {@link org.vadere.util.geometry.LinkedCellsGrid}, one list per cell</li>
+ *     <li>COMPACT_LINKED_CELLS: {@link org.vadere.util.geometry.CompactLinkedCellsGrid}, flat arrays sorted by cell,
+ *     allocation free and lock free queries</li>
+ * </ul>
+ */
+public enum SpatialMapType {
+	LINKED_CELLS, COMPACT_LINKED_CELLS;
+}
@@ -0,0 +1,376 @@
+package org.vadere.state.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary snapshot of a json tree, e.g. of a scenario or a topography. Compared to the json text
+ * numbers are stored by their bits, i.e. they are neither formatted nor parsed, each field name is stored
+ * once and referenced afterwards and there is no whitespace. Therefore, encoding and decoding a large
+ * topography is much faster than writing and parsing its json text.
+ *
+ * <p>
+ * Decoding a snapshot returns a tree which is equal to the encoded one (short values become int values).
+ * The encoding is deterministic: like the json text of a tree the snapshot depends on the order of the
+ * fields, i.e. two trees which are serialized from equal objects have equal snapshots. The snapshots are
+ * meant to be kept in memory or in caches of one Vadere version, they are no replacement for the
+ * scenario file.
+ * </p>
+ */
+public final class BinaryNodeCodec {
+
+	private static final int MAGIC = 0x56534E31; // "VSN1"
+
+	private static final byte NULL = 0;
+	private static final byte FALSE = 1;
+	private static final byte TRUE = 2;
+	private static final byte INT = 3;
+	private static final byte LONG = 4;
+	private static final byte DOUBLE = 5;
+	private static final byte FLOAT = 6;
+	private static final byte BIG_INTEGER = 7;
+	private static final byte DECIMAL = 8;
+	private static final byte STRING = 9;
+	private static final byte BINARY = 10;
+	private static final byte ARRAY = 11;
+	private static final byte OBJECT = 12;
+
+	private BinaryNodeCodec() {}
+
+	/**
+	 * Encodes the tree.
+	 *
+	 * @throws IllegalArgumentException if the tree contains nodes which are no json values, e.g. POJO nodes
+	 */
+	public static byte[] encode(@NotNull final JsonNode node) {
+		Encoder encoder = new Encoder();
+		encoder.writeInt(MAGIC);
+		encoder.writeNode(node);
+		return encoder.toByteArray();
+	}
+
+	/**
+	 * Decodes a snapshot created by {@link #encode(JsonNode)}.
+	 *
+	 * @throws IOException if the bytes are no valid snapshot
+	 */
+	public static JsonNode decode(@NotNull final byte[] bytes) throws IOException {
+		try {
+			Decoder decoder = new Decoder(bytes, StateJsonConverter.getMapper().getNodeFactory());
+			if (decoder.readInt() != MAGIC) {
+				throw new IOException("the bytes are no snapshot of a json tree");
+			}
+			JsonNode node = decoder.readNode();
+			if (decoder.position != bytes.length) {
+				throw new IOException("the snapshot contains " + (bytes.length - decoder.position) + " trailing bytes");
+			}
+			return node;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("the snapshot is truncated or corrupt", e);
+		}
+	}
+
+	private static class Encoder {
+		private byte[] buffer = new byte[1 << 12];
+		private int position = 0;
+		private final Map<String, Integer> names = new HashMap<>();
+
+		private void writeNode(final JsonNode node) {
+			switch (node.getNodeType()) {
+				case NULL:
+					writeByte(NULL);
+					break;
+				case BOOLEAN:
+					writeByte(node.booleanValue() ? TRUE : FALSE);
+					break;
+				case NUMBER:
+					writeNumber(node);
+					break;
+				case STRING:
+					writeByte(STRING);
+					writeString(node.textValue());
+					break;
+				case BINARY:
+					writeByte(BINARY);
+					byte[] data = binaryValue(node);
+					writeVarInt(data.length);
+					writeBytes(data);
+					break;
+				case ARRAY:
+					writeByte(ARRAY);
+					writeVarInt(node.size());
+					for (JsonNode element : node) {
+						writeNode(element);
+					}
+					break;
+				case OBJECT:
+					writeByte(OBJECT);
+					writeVarInt(node.size());
+					Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+					while (fields.hasNext()) {
+						Map.Entry<String, JsonNode> field = fields.next();
+						writeName(field.getKey());
+						writeNode(field.getValue());
+					}
+					break;
+				default:
+					throw new IllegalArgumentException("cannot encode a node of type " + node.getNodeType());
+			}
+		}
+
+		private void writeNumber(final JsonNode node) {
+			switch (node.numberType()) {
+				case INT:
+					writeByte(INT);
+					writeVarLong(zigZag(node.intValue()));
+					break;
+				case LONG:
+					writeByte(LONG);
+					writeVarLong(zigZag(node.longValue()));
+					break;
+				case DOUBLE:
+					writeByte(DOUBLE);
+					writeLong(Double.doubleToRawLongBits(node.doubleValue()));
+					break;
+				case FLOAT:
+					writeByte(FLOAT);
+					writeInt(Float.floatToRawIntBits(node.floatValue()));
+					break;
+				case BIG_INTEGER:
+					writeByte(BIG_INTEGER);
+					writeString(node.bigIntegerValue().toString());
+					break;
+				case BIG_DECIMAL:
+					writeByte(DECIMAL);
+					writeString(node.decimalValue().toString());
+					break;
+				default:
+					throw new IllegalArgumentException("cannot encode a number of type " + node.numberType());
+			}
+		}
+
+		/**
+		 * A name is written as the index of its first occurrence + 1 or as 0 followed by the name if it occurs the first time.
+		 */
+		private void writeName(final String name) {
+			Integer index = names.get(name);
+			if (index == null) {
+				names.put(name, names.size());
+				writeVarInt(0);
+				writeString(name);
+			} else {
+				writeVarInt(index + 1);
+			}
+		}
+
+		private void writeString(final String value) {
+			byte[] data = value.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(data.length);
+			writeBytes(data);
+		}
+
+		private void writeVarInt(final int value) {
+			writeVarLong(value & 0xFFFFFFFFL);
+		}
+
+		private void writeVarLong(long value) {
+			ensureCapacity(10);
+			while ((value & ~0x7FL) != 0) {
+				buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buffer[position++] = (byte) value;
+		}
+
+		private void writeLong(final long value) {
+			writeInt((int) (value >>> 32));
+			writeInt((int) value);
+		}
+
+		private void writeInt(final int value) {
+			ensureCapacity(4);
+			buffer[position++] = (byte) (value >>> 24);
+			buffer[position++] = (byte) (value >>> 16);
+			buffer[position++] = (byte) (value >>> 8);
+			buffer[position++] = (byte) value;
+		}
+
+		private void writeByte(final byte value) {
+			ensureCapacity(1);
+			buffer[position++] = value;
+		}
+
+		private void writeBytes(final byte[] data) {
+			ensureCapacity(data.length);
+			System.arraycopy(data, 0, buffer, position, data.length);
+			position += data.length;
+		}
+
+		private void ensureCapacity(final int length) {
+			if (position + length > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, position + length));
+			}
+		}
+
+		private byte[] toByteArray() {
+			return Arrays.copyOf(buffer, position);
+		}
+
+		private static long zigZag(final long value) {
+			return (value << 1) ^ (value >> 63);
+		}
+
+		private static byte[] binaryValue(final JsonNode node) {
+			try {
+				return node.binaryValue();
+			} catch (IOException e) {
+				throw new IllegalArgumentException(e);
+			}
+		}
+	}
+
+	private static class Decoder {
+		private final byte[] bytes;
+		private final JsonNodeFactory factory;
+		private final List<String> names = new ArrayList<>();
+		private int position = 0;
+
+		private Decoder(final byte[] bytes, final JsonNodeFactory factory) {
+			this.bytes = bytes;
+			this.factory = factory;
+		}
+
+		private JsonNode readNode() throws IOException {
+			byte tag = bytes[position++];
+			switch (tag) {
+				case NULL:
+					return factory.nullNode();
+				case FALSE:
+					return factory.booleanNode(false);
+				case TRUE:
+					return factory.booleanNode(true);
+				case INT:
+					return factory.numberNode((int) unZigZag(readVarLong()));
+				case LONG:
+					return factory.numberNode(unZigZag(readVarLong()));
+				case DOUBLE:
+					return factory.numberNode(Double.longBitsToDouble(readLong()));
+				case FLOAT:
+					return factory.numberNode(Float.intBitsToFloat(readInt()));
+				case BIG_INTEGER:
+					return factory.numberNode(new BigInteger(readString()));
+				case DECIMAL:
+					return factory.numberNode(new BigDecimal(readString()));
+				case STRING:
+					return factory.textNode(readString());
+				case BINARY:
+					return factory.binaryNode(readBytes(readLength()));
+				case ARRAY: {
+					int size = readVarInt();
+					ArrayNode array = factory.arrayNode(size);
+					for (int i = 0; i < size; i++) {
+						array.add(readNode());
+					}
+					return array;
+				}
+				case OBJECT: {
+					int size = readVarInt();
+					ObjectNode object = factory.objectNode();
+					for (int i = 0; i < size; i++) {
+						String name = readName();
+						object.set(name, readNode());
+					}
+					return object;
+				}
+				default:
+					throw new IOException("unknown tag " + tag + " at position " + (position - 1));
+			}
+		}
+
+		private String readName() throws IOException {
+			int index = readVarInt();
+			if (index == 0) {
+				String name = readString();
+				names.add(name);
+				return name;
+			}
+			if (index > names.size()) {
+				throw new IOException("unknown field name " + index + " at position " + position);
+			}
+			return names.get(index - 1);
+		}
+
+		private String readString() throws IOException {
+			int length = readLength();
+			String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return value;
+		}
+
+		/**
+		 * Reads the length of a string or binary value which has to fit into the remaining bytes.
+		 */
+		private int readLength() throws IOException {
+			int length = readVarInt();
+			if (length > bytes.length - position) {
+				throw new IOException("the snapshot is truncated at position " + position);
+			}
+			return length;
+		}
+
+		private byte[] readBytes(final int length) {
+			byte[] data = Arrays.copyOfRange(bytes, position, position + length);
+			position += length;
+			return data;
+		}
+
+		private int readVarInt() throws IOException {
+			long value = readVarLong();
+			if (value < 0 || value > Integer.MAX_VALUE) {
+				throw new IOException("invalid length " + value + " at position " + position);
+			}
+			return (int) value;
+		}
+
+		private long readVarLong() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				byte b = bytes[position++];
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("invalid number at position " + position);
+		}
+
+		private long readLong() {
+			return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+		}
+
+		private int readInt() {
+			int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+					| ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+			position += 4;
+			return value;
+		}
+
+		private static long unZigZag(final long value) {
+			return (value >>> 1) ^ -(value & 1);
+		}
+	}
+}
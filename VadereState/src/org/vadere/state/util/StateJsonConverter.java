@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.vadere.state.attributes.*;
@@ -22,6 +23,8 @@ import org.vadere.util.logging.Logger;
 import org.vadere.util.reflection.DynamicClassInstantiator;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -49,6 +52,8 @@ public abstract class StateJsonConverter {
 
 	private static ObjectWriter writer = mapper.writer();
 
+	private static ObjectWriter cacheWriter = prettyWriter.withView(Views.CacheView.class);
+
 	public static ObjectMapper getMapper() {
 		return mapper;
 	}
@@ -188,6 +193,31 @@ public abstract class StateJsonConverter {
 		return topography;
 	}
 
+	/**
+	 * Creates a copy of the topography which is equal to the copy created by serializing and deserializing the
+	 * topography, except that the obstacles of the copy share the (immutable) shapes of the original obstacles.
+	 * The shapes of obstacles are usually the largest part of a topography, i.e. this is much cheaper than a
+	 * copy via json.
+	 */
+	public static Topography copyTopography(Topography topography) {
+		Topography copy = deserializeTopographyFromNode(serializeTopographyToNode(topography, false));
+		for (Obstacle obstacle : topography.getObstacles()) {
+			copy.addObstacle(new Obstacle(new AttributesObstacle((AttributesObstacle) obstacle.getAttributes())));
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns a binary snapshot of the topography (see {@link BinaryNodeCodec}).
+	 */
+	public static byte[] serializeTopographyToSnapshot(Topography topography) {
+		return BinaryNodeCodec.encode(serializeTopographyToNode(topography));
+	}
+
+	public static Topography deserializeTopographyFromSnapshot(byte[] snapshot) throws IOException {
+		return deserializeTopographyFromNode(BinaryNodeCodec.decode(snapshot));
+	}
+
 	public static void checkForTextOutOfNode(String json) throws IOException {
 		// via stackoverflow.com/a/26026359
 		JsonParser jp = mapper.getFactory().createParser(json);
@@ -317,6 +347,10 @@ public abstract class StateJsonConverter {
 	}
 
 	public static ObjectNode serializeTopographyToNode(Topography topography) {
+		return serializeTopographyToNode(topography, true);
+	}
+
+	private static ObjectNode serializeTopographyToNode(Topography topography, boolean withObstacles) {
 		ObjectNode topographyNode = mapper.createObjectNode();
 
 		JsonNode attributesNode = mapper.convertValue(topography.getAttributes(), JsonNode.class);
@@ -326,8 +360,10 @@ public abstract class StateJsonConverter {
 		topographyNode.set("attributes", attributesNode);
 
 		ArrayNode obstacleNodes = mapper.createArrayNode();
-		topography.getObstacles()
-				.forEach(obstacle -> obstacleNodes.add(mapper.convertValue(obstacle.getAttributes(), JsonNode.class)));
+		if (withObstacles) {
+			topography.getObstacles()
+					.forEach(obstacle -> obstacleNodes.add(mapper.convertValue(obstacle.getAttributes(), JsonNode.class)));
+		}
 		topographyNode.set("obstacles", obstacleNodes);
 
 		ArrayNode measurementAreaNodes = mapper.createArrayNode();
@@ -468,9 +504,10 @@ public abstract class StateJsonConverter {
 		}
 
 		try {
-			String scenarioString = prettyWriter.writeValueAsString(jsonNode);
-			return DigestUtils.sha1Hex(scenarioString);
-		} catch (JsonProcessingException e) {
+			MessageDigest digest = DigestUtils.getSha1Digest();
+			prettyWriter.writeValue(new DigestOutputStream(digest), jsonNode);
+			return Hex.encodeHexString(digest.digest());
+		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
@@ -518,25 +555,47 @@ public abstract class StateJsonConverter {
 	 * Use the Jackson view {@link Views.CacheView} to EXCLUDE the @link AttributesFloorField#cacheDir
 	 * field to allow reallocation of created floor field caches.
 	 *
+	 * The json text is passed to the digest while it is written, i.e. the (large) text of the topography
+	 * is never built. The hash is equal to the SHA-1 hash of the text.
 	 */
 	public static String getFloorFieldHash(final Topography topography, final AttributesFloorField attr)  {
 		try {
-			String topographyStr = mapper
-									.writerWithDefaultPrettyPrinter()
-									.withView(Views.CacheView.class)
-									.writeValueAsString(topography);
-			String attrString = mapper
-									.writerWithDefaultPrettyPrinter()
-									.withView(Views.CacheView.class)
-									.writeValueAsString(attr);
-			String hashIt = attrString + "\n" + topographyStr;
-			String hash = DigestUtils.sha1Hex(hashIt.getBytes());
+			if (logger.isTraceEnabled()) {
+				logger.tracef("used String for hash: \n%s", cacheWriter.writeValueAsString(attr) + "\n" + cacheWriter.writeValueAsString(topography));
+			}
+			MessageDigest digest = DigestUtils.getSha1Digest();
+			DigestOutputStream out = new DigestOutputStream(digest);
+			cacheWriter.writeValue(out, attr);
+			out.write('\n');
+			cacheWriter.writeValue(out, topography);
+			String hash = Hex.encodeHexString(digest.digest());
 			logger.debugf("created Hash: %s", hash);
-			logger.tracef("used String for hash: \n%s", hashIt);
 			return hash;
-		} catch (JsonProcessingException e) {
+		} catch (IOException e) {
 			logger.error("cannot create hash of topography and floor field attributes for cache access.");
 		}
 		return DigestUtils.sha1Hex("error");
 	}
+
+	/**
+	 * Passes all bytes to a digest. Unlike {@link java.security.DigestOutputStream} it can be written after
+	 * Jackson has closed it.
+	 */
+	private static class DigestOutputStream extends OutputStream {
+		private final MessageDigest digest;
+
+		private DigestOutputStream(MessageDigest digest) {
+			this.digest = digest;
+		}
+
+		@Override
+		public void write(int b) {
+			digest.update((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			digest.update(b, off, len);
+		}
+	}
 }
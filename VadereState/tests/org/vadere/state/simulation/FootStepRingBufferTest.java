@@ -0,0 +1,139 @@
+package org.vadere.state.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.state.util.StateJsonConverter;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FootStepRingBufferTest {
+
+	private static final double ALLOWED_DOUBLE_ERROR = 1e-12;
+
+	private FootStep createFootStep(final int i) {
+		return new FootStep(new VPoint(i, 0), new VPoint(i + 1, 0.5 * i), i, i + 1);
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		FootStepRingBuffer buffer = new FootStepRingBuffer();
+		for (int i = 0; i < 100; i++) {
+			buffer.addLast(createFootStep(i));
+		}
+		buffer.removeFirst();
+		buffer.removeLast();
+		buffer.addFirst(createFootStep(0));
+
+		assertEquals(99, buffer.size());
+		for (int i = 0; i < buffer.size(); i++) {
+			assertEquals(i, buffer.getStartX(i), ALLOWED_DOUBLE_ERROR);
+			assertEquals(0.5 * i, buffer.getEndY(i), ALLOWED_DOUBLE_ERROR);
+			assertEquals(i + 1, buffer.getEndTime(i), ALLOWED_DOUBLE_ERROR);
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> buffer.getStartX(99));
+	}
+
+	@Test
+	public void testForEachFootStepVisitsInOrder() {
+		FootStepRingBuffer buffer = new FootStepRingBuffer(5);
+		for (int i = 0; i < 8; i++) {
+			buffer.addLast(createFootStep(i));
+		}
+
+		LinkedList<double[]> visited = new LinkedList<>();
+		buffer.forEachFootStep((startX, startY, endX, endY, startTime, endTime) ->
+				visited.add(new double[] {startX, startY, endX, endY, startTime, endTime}));
+
+		assertEquals(5, visited.size());
+		for (int i = 0; i < visited.size(); i++) {
+			FootStep expected = createFootStep(i + 3);
+			assertArrayEquals(new double[] {expected.getStart().x, expected.getStart().y, expected.getEnd().x,
+					expected.getEnd().y, expected.getStartTime(), expected.getEndTime()}, visited.get(i), ALLOWED_DOUBLE_ERROR);
+		}
+	}
+
+	@Test
+	public void testMaxSizeRetainsMostRecentFootSteps() {
+		FootStepRingBuffer buffer = new FootStepRingBuffer(5);
+		for (int i = 0; i < 23; i++) {
+			buffer.addLast(createFootStep(i));
+		}
+
+		assertEquals(5, buffer.size());
+		Iterator<FootStep> iterator = buffer.iterator();
+		for (int i = 18; i < 23; i++) {
+			assertEquals(i, iterator.next().getStartTime(), ALLOWED_DOUBLE_ERROR);
+		}
+		assertFalse(iterator.hasNext());
+
+		Iterator<FootStep> descendingIterator = buffer.descendingIterator();
+		assertEquals(22, descendingIterator.next().getStartTime(), ALLOWED_DOUBLE_ERROR);
+
+		FootStepRingBuffer copy = new FootStepRingBuffer(buffer);
+		buffer.clear();
+		assertEquals(5, copy.size());
+		assertEquals(18, copy.getStartTime(0), ALLOWED_DOUBLE_ERROR);
+	}
+
+	@Test
+	public void testBinarySearch() {
+		FootStepRingBuffer buffer = new FootStepRingBuffer(10);
+		for (int i = 0; i < 15; i++) {
+			buffer.addLast(createFootStep(i));
+		}
+
+		// the buffer contains the foot steps [5, 15)
+		assertEquals(0, buffer.firstEndingAfter(0.0));
+		assertEquals(2, buffer.firstEndingAfter(7.0));
+		assertEquals(2, buffer.firstEndingAfter(7.5));
+		assertEquals(10, buffer.firstEndingAfter(15.0));
+		assertEquals(-1, buffer.lastStartingBefore(5.0));
+		assertEquals(2, buffer.lastStartingBefore(7.5));
+		assertEquals(9, buffer.lastStartingBefore(100.0));
+	}
+
+	@Test
+	public void testTrajectoryCutEqualsCutOfAllFootSteps() {
+		VTrajectory trajectory = new VTrajectory();
+		for (int i = 0; i < 50; i++) {
+			trajectory.add(createFootStep(i));
+		}
+
+		double[][] intervals = {{0.0, 50.0}, {3.5, 7.25}, {4.0, 9.0}, {-1.0, 2.5}, {48.5, 60.0}, {20.0, 20.5}};
+		for (double[] interval : intervals) {
+			VTrajectory expected = trajectory.clone();
+			expected.cutHead(interval[1]);
+			expected.cutTail(interval[0]);
+
+			VTrajectory actual = trajectory.cut(interval[0], interval[1]);
+			assertEquals(expected.size(), actual.size());
+			assertEquals(expected.length(), actual.length(), ALLOWED_DOUBLE_ERROR);
+			assertEquals(expected.toString(), actual.toString());
+		}
+		assertEquals(50, trajectory.size());
+	}
+
+	@Test
+	public void testTrajectoryJson() throws IOException {
+		VTrajectory trajectory = new VTrajectory();
+		for (int i = 0; i < 3; i++) {
+			trajectory.add(createFootStep(i));
+		}
+
+		String json = StateJsonConverter.serializeObject(trajectory);
+		assertTrue(json.contains("footSteps"));
+		VTrajectory copy = StateJsonConverter.getMapper().readValue(json, VTrajectory.class);
+		LinkedList<FootStep> footSteps = copy.getFootSteps();
+
+		assertEquals(3, footSteps.size());
+		assertEquals(trajectory.toString(), copy.toString());
+	}
+}
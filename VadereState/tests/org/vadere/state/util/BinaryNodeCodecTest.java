@@ -0,0 +1,69 @@
+package org.vadere.state.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BinaryNodeCodecTest {
+
+    private ObjectNode createTree() {
+        ObjectNode root = StateJsonConverter.createObjectNode();
+        root.put("name", "scenario äöü");
+        root.putNull("mainModel");
+        root.put("enabled", true);
+        root.put("visible", false);
+        root.put("int", -17);
+        root.put("long", Long.MIN_VALUE);
+        root.put("double", -0.1);
+        root.put("nan", Double.NaN);
+        root.put("float", 2.5f);
+        root.put("bigInteger", new BigInteger("123456789012345678901234567890"));
+        root.put("decimal", new BigDecimal("1.000000000000000000001"));
+        root.put("binary", new byte[] {1, 2, 3});
+        ArrayNode points = root.putArray("points");
+        for (int i = 0; i < 100; i++) {
+            ObjectNode point = points.addObject();
+            point.put("x", i * 0.3);
+            point.put("y", -i * 0.7);
+        }
+        root.putObject("empty");
+        root.putArray("emptyArray");
+        return root;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        JsonNode tree = createTree();
+        byte[] snapshot = BinaryNodeCodec.encode(tree);
+        assertEquals(tree, BinaryNodeCodec.decode(snapshot));
+        assertEquals(StateJsonConverter.serializeJsonNode(tree), StateJsonConverter.serializeJsonNode(BinaryNodeCodec.decode(snapshot)));
+    }
+
+    @Test
+    public void testDeterministic() {
+        assertArrayEquals(BinaryNodeCodec.encode(createTree()), BinaryNodeCodec.encode(createTree()));
+
+        ObjectNode changed = createTree();
+        ((ObjectNode) changed.get("points").get(42)).put("x", 42 * 0.3 + 1e-12);
+        assertFalse(Arrays.equals(BinaryNodeCodec.encode(createTree()), BinaryNodeCodec.encode(changed)));
+    }
+
+    @Test
+    public void testCorruptSnapshot() {
+        byte[] snapshot = BinaryNodeCodec.encode(createTree());
+        assertThrows(IOException.class, () -> BinaryNodeCodec.decode(Arrays.copyOf(snapshot, snapshot.length - 5)));
+        assertThrows(IOException.class, () -> BinaryNodeCodec.decode(Arrays.copyOf(snapshot, snapshot.length + 1)));
+        assertThrows(IOException.class, () -> BinaryNodeCodec.decode(new byte[] {1, 2, 3, 4, 5}));
+    }
+}
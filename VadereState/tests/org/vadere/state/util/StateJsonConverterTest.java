@@ -2,6 +2,7 @@ package org.vadere.state.util;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.vadere.state.attributes.distributions.AttributesBinomialDistribution;
@@ -18,11 +19,15 @@ import org.vadere.state.scenario.Target;
 import org.vadere.state.scenario.Topography;
 import org.vadere.util.geometry.shapes.VRectangle;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import static  org.junit.jupiter.api.Assertions.assertEquals;
 import static  org.junit.jupiter.api.Assertions.assertNotEquals;
+import static  org.junit.jupiter.api.Assertions.assertNotSame;
+import static  org.junit.jupiter.api.Assertions.assertSame;
+import static  org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StateJsonConverterTest {
 
@@ -150,6 +155,51 @@ public class StateJsonConverterTest {
         assertNotEquals(hash1, hash3,"Hashes must differ");
     }
 
+    @Test
+    public void getFloorFieldHashEqualsHashOfJsonText() throws Exception {
+        Topography topography = new Topography();
+        topography.addObstacle(new Obstacle(new AttributesObstacle(3, new VRectangle(1,1,3,3))));
+        topography.addTarget(new Target(new AttributesTarget(1, new VRectangle(5,5,1,1))));
+        AttributesFloorField attr = new AttributesFloorField();
+
+        // the hash has to stay compatible to existing floor field caches
+        ObjectMapper mapper = StateJsonConverter.getMapper();
+        String text = mapper.writerWithDefaultPrettyPrinter().withView(Views.CacheView.class).writeValueAsString(attr) + "\n"
+                + mapper.writerWithDefaultPrettyPrinter().withView(Views.CacheView.class).writeValueAsString(topography);
+        assertEquals(DigestUtils.sha1Hex(text.getBytes(StandardCharsets.UTF_8)), StateJsonConverter.getFloorFieldHash(topography, attr));
+    }
+
+    @Test
+    public void copyTopographySharesObstacleShapes() throws Exception {
+        Topography topography = new Topography();
+        topography.addObstacle(new Obstacle(new AttributesObstacle(3, new VRectangle(1,1,3,3))));
+        topography.addObstacle(new Obstacle(new AttributesObstacle(4, new VRectangle(6,1,1,3))));
+        topography.addTarget(new Target(new AttributesTarget(1, new VRectangle(5,5,1,1))));
+        topography.getObstacles().get(0).getAttributes().seal();
+
+        Topography copy = StateJsonConverter.copyTopography(topography);
+        assertEquals(StateJsonConverter.serializeTopography(topography), StateJsonConverter.serializeTopography(copy));
+        assertSame(topography.getObstacles().get(1).getShape(), copy.getObstacles().get(1).getShape());
+        assertNotSame(topography.getObstacles().get(1).getAttributes(), copy.getObstacles().get(1).getAttributes());
+        assertNotSame(topography.getTargets().get(0).getAttributes(), copy.getTargets().get(0).getAttributes());
+
+        // the copy is not sealed
+        copy.getObstacles().get(0).setShape(new VRectangle(2,2,1,1));
+        assertEquals(new VRectangle(1,1,3,3), topography.getObstacles().get(0).getShape());
+    }
+
+    @Test
+    public void topographySnapshotRoundTrip() throws Exception {
+        Topography topography = new Topography();
+        topography.addObstacle(new Obstacle(new AttributesObstacle(3, new VRectangle(1,1,3,3))));
+        topography.addTarget(new Target(new AttributesTarget(1, new VRectangle(5,5,1,1))));
+
+        byte[] snapshot = StateJsonConverter.serializeTopographyToSnapshot(topography);
+        Topography restored = StateJsonConverter.deserializeTopographyFromSnapshot(snapshot);
+        assertEquals(StateJsonConverter.serializeTopography(topography), StateJsonConverter.serializeTopography(restored));
+        assertTrue(snapshot.length < StateJsonConverter.serializeTopography(topography).length());
+    }
+
     @Test
     public void deserializeEvents() {
     }
@@ -2,6 +2,7 @@ package org.vadere.util.data.cellgrid;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.vadere.util.geometry.shapes.IPoint;
 import org.vadere.util.geometry.shapes.VPoint;
 import org.vadere.util.math.InterpolationUtil;
@@ -10,6 +11,7 @@ import org.vadere.util.math.MathUtil;
 import java.awt.*;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -28,9 +30,20 @@ import tech.tablesaw.api.Table;
  * of the grid points can be regarded as elements of a matrix. Each element in
  * the matrix refers to a certain point in the grid. Internally the values are
  * stored as array of values in column major order.
+ *
+ * <p>
+ * The potentials and tags are stored in primitive arrays (struct of arrays) instead of one
+ * {@link CellState} object per point, thus {@link #getValue(int, int)} returns a copy of the value
+ * and changes have to be written back by {@link #setValue(int, int, CellState)},
+ * {@link #setPotential(int, int, double)} or {@link #setTag(int, int, PathFindingTag)}. The
+ * potentials can be stored in single precision to halve the memory of large grids, in this case
+ * <tt>Double.MAX_VALUE</tt> is stored as <tt>Float.POSITIVE_INFINITY</tt>.
+ * </p>
  */
 public class CellGrid {
 
+	private static final PathFindingTag[] TAGS = PathFindingTag.values();
+
 	/** Width of the grid. */
 	protected final double width;
 	/** Height of the grid. */
@@ -46,14 +59,27 @@ public class CellGrid {
 
 	protected final double yMin;
 
-	protected CellState[][] values;
+	/** The potentials in double precision, null if the grid uses single precision. */
+	protected final double[] potentials;
+	/** The potentials in single precision, null if the grid uses double precision. */
+	protected final float[] floatPotentials;
+	/** The ordinals of the {@link PathFindingTag}s. */
+	protected final byte[] tags;
+
+	/** Provides the values of the tiles which were not accessed so far, null if all values are present. */
+	private volatile CellGridTileLoader tileLoader;
+	private volatile AtomicIntegerArray loadedTiles;
+	private int tileSize;
+	private int numTilesX;
+	private int numLoadedTiles;
 
 	/**
 	 * Creates an grid with the given width, height and resolution. All grid
-	 * point values are initialized with 'value'.
+	 * point values are initialized with 'value'. If 'singlePrecision' is true the
+	 * potentials are stored as floats.
 	 */
 	public CellGrid(double width, double height, double resolution,
-	                CellState value, double xMin, double yMin) {
+	                CellState value, double xMin, double yMin, boolean singlePrecision) {
 		this.width = width;
 		this.height = height;
 		this.resolution = resolution;
@@ -64,11 +90,22 @@ public class CellGrid {
 		numPointsX = (int) Math.floor(width / resolution + 0.001) + 1;
 		numPointsY = (int) Math.floor(height / resolution + 0.001) + 1;
 
-		values = new CellState[numPointsX][numPointsY];
+		potentials = singlePrecision ? null : new double[numPointsX * numPointsY];
+		floatPotentials = singlePrecision ? new float[numPointsX * numPointsY] : null;
+		tags = new byte[numPointsX * numPointsY];
 
 		reset(value);
 	}
 
+	/**
+	 * Creates an grid with the given width, height and resolution. All grid
+	 * point values are initialized with 'value'.
+	 */
+	public CellGrid(double width, double height, double resolution,
+	                CellState value, double xMin, double yMin) {
+		this(width, height, resolution, value, xMin, yMin, false);
+	}
+
 	/**
 	 * Creates an grid with the given width, height and resolution. All grid
 	 * point values are initialized with 'value'.
@@ -86,19 +123,19 @@ public class CellGrid {
 		resolution = grid.resolution;
 		numPointsX = grid.numPointsX;
 		numPointsY = grid.numPointsY;
-		values = new CellState[numPointsX][numPointsY];
 		xMin = grid.xMin;
 		yMin = grid.yMin;
 
-		for (int row = 0; row < numPointsY; row++) {
-			for (int col = 0; col < numPointsX; col++) {
-				values[col][row] = grid.values[col][row].clone();
-			}
-		}
+		grid.loadAllTiles();
+
+		potentials = grid.potentials != null ? grid.potentials.clone() : null;
+		floatPotentials = grid.floatPotentials != null ? grid.floatPotentials.clone() : null;
+		tags = grid.tags.clone();
 	}
 
-	/** Returns the values of all data points. */
+	/** Returns copies of the values of all data points (row by row). */
 	public Iterable<CellState> getRawBuffer() {
+		loadAllTiles();
 		return new Iterable<CellState>() {
 			@Override
 			public Iterator<CellState> iterator() {
@@ -113,7 +150,7 @@ public class CellGrid {
 
 					@Override
 					public CellState next() {
-						CellState result = values[col][row];
+						CellState result = getValue(col, row);
 						col++;
 						if (col >= numPointsX) {
 							col = 0;
@@ -132,25 +169,27 @@ public class CellGrid {
 	}
 
 	/**
-	 * Load data for CellState[][] structure from the given table. Method asumes the dimension
-	 * of the table matches the dimension of {@link #values}
+	 * Load the values of the grid from the given table. Method asumes the dimension
+	 * of the table matches the dimension of the grid.
 	 *
 	 * @param table contains data in the form [x, y, (potential)value, tag]
 	 */
 	public void loadFromTable(Table table){
+		setTileLoader(null);
 		for (Row r : table){
-			values[r.getInt("x")][r.getInt("y")].potential = r.getDouble("value");
-			values[r.getInt("x")][r.getInt("y")].tag =
-					PathFindingTag.valueOf(r.getString("tag"));
+			int index = index(r.getInt("x"), r.getInt("y"));
+			storePotential(index, r.getDouble("value"));
+			tags[index] = (byte) PathFindingTag.valueOf(r.getString("tag")).ordinal();
 		}
 	}
 
 	/**
-	 * Generate table view of {@link #values} to save as cache
+	 * Generate table view of the grid values to save as cache
 	 * *
-	 * @return table representation of {@link #values} data in the from [x, y, (potential)value, tag]
+	 * @return table representation of the grid values in the from [x, y, (potential)value, tag]
 	 */
 	public Table asTable(){
+		loadAllTiles();
 		int len = numPointsX * numPointsY;
 		IntColumn colX = IntColumn.create("x", new int[len]);
 		IntColumn colY = IntColumn.create("y", new int[len]);
@@ -159,10 +198,11 @@ public class CellGrid {
 		int tblRow = 0;
 		for (int row = 0; row < numPointsY; row++) {
 			for (int col = 0; col < numPointsX; col++) {
+				int index = index(col, row);
 				colX.set(tblRow, col);
 				colY.set(tblRow, row);
-				colVal.set(tblRow, values[col][row].potential);
-				colTag.set(tblRow, values[col][row].tag.name());
+				colVal.set(tblRow, loadPotential(index));
+				colTag.set(tblRow, TAGS[tags[index]].name());
 				tblRow++;
 			}
 		}
@@ -212,16 +252,28 @@ public class CellGrid {
 	}
 
 	/**
-	 * Returns the value of the grid point specified by matrix element indices.
+	 * Returns a copy of the value of the grid point specified by matrix element indices.
+	 *
+	 * @deprecated the grid does not store {@link CellState} objects anymore, i.e. changing the fields of the
+	 * returned value does not change the grid. Use {@link #getPotential(int, int)} and {@link #getTag(int, int)}
+	 * to read and {@link #setValue(int, int, double, PathFindingTag)} to write the value.
 	 */
+	@Deprecated
 	public CellState getValue(int pointX, int pointY) {
-		return values[pointX][pointY];
+		if (tileLoader != null) {
+			loadTile(pointX, pointY);
+		}
+		int index = index(pointX, pointY);
+		return new CellState(loadPotential(index), TAGS[tags[index]]);
 	}
 
 	/**
-	 * Returns the value of the grid point specified by the given matrix element
+	 * Returns a copy of the value of the grid point specified by the given matrix element
 	 * index 'p'.
+	 *
+	 * @deprecated see {@link #getValue(int, int)}, use {@link #getPotential(Point)} and {@link #getTag(Point)}.
 	 */
+	@Deprecated
 	public CellState getValue(Point p) {
 		return getValue(p.x, p.y);
 	}
@@ -230,8 +282,7 @@ public class CellGrid {
 	 * Sets the value of the grid point specified by matrix element indices.
 	 */
 	public void setValue(int pointX, int pointY, CellState value) {
-		// points.set(pointToIdx(pointX, pointY), value);
-		values[pointX][pointY] = value;
+		setValue(pointX, pointY, value.potential, value.tag);
 	}
 
 	/**
@@ -242,6 +293,133 @@ public class CellGrid {
 		setValue(p.x, p.y, value);
 	}
 
+	/**
+	 * Sets the potential and the tag of the grid point specified by matrix element indices.
+	 */
+	public void setValue(int pointX, int pointY, double potential, PathFindingTag tag) {
+		if (tileLoader != null) {
+			loadTile(pointX, pointY);
+		}
+		int index = index(pointX, pointY);
+		storePotential(index, potential);
+		tags[index] = (byte) tag.ordinal();
+	}
+
+	/**
+	 * Sets the potential and the tag of the grid point specified by the matrix element index 'p'.
+	 */
+	public void setValue(Point p, double potential, PathFindingTag tag) {
+		setValue(p.x, p.y, potential, tag);
+	}
+
+	/**
+	 * Returns the potential of the grid point specified by matrix element indices.
+	 */
+	public double getPotential(int pointX, int pointY) {
+		if (tileLoader != null) {
+			loadTile(pointX, pointY);
+		}
+		return loadPotential(index(pointX, pointY));
+	}
+
+	/**
+	 * Returns the potential of the grid point specified by the matrix element index 'p'.
+	 */
+	public double getPotential(Point p) {
+		return getPotential(p.x, p.y);
+	}
+
+	/**
+	 * Sets the potential of the grid point specified by matrix element indices.
+	 */
+	public void setPotential(int pointX, int pointY, double potential) {
+		if (tileLoader != null) {
+			loadTile(pointX, pointY);
+		}
+		storePotential(index(pointX, pointY), potential);
+	}
+
+	/**
+	 * Sets the potential of the grid point specified by the matrix element index 'p'.
+	 */
+	public void setPotential(Point p, double potential) {
+		setPotential(p.x, p.y, potential);
+	}
+
+	/**
+	 * Returns the tag of the grid point specified by matrix element indices.
+	 */
+	public PathFindingTag getTag(int pointX, int pointY) {
+		if (tileLoader != null) {
+			loadTile(pointX, pointY);
+		}
+		return TAGS[tags[index(pointX, pointY)]];
+	}
+
+	/**
+	 * Returns the tag of the grid point specified by the matrix element index 'p'.
+	 */
+	public PathFindingTag getTag(Point p) {
+		return getTag(p.x, p.y);
+	}
+
+	/**
+	 * Sets the tag of the grid point specified by matrix element indices.
+	 */
+	public void setTag(int pointX, int pointY, PathFindingTag tag) {
+		if (tileLoader != null) {
+			loadTile(pointX, pointY);
+		}
+		tags[index(pointX, pointY)] = (byte) tag.ordinal();
+	}
+
+	/**
+	 * Sets the tag of the grid point specified by the matrix element index 'p'.
+	 */
+	public void setTag(Point p, PathFindingTag tag) {
+		setTag(p.x, p.y, tag);
+	}
+
+	/**
+	 * Returns true if the potentials are stored in single precision.
+	 */
+	public boolean isSinglePrecision() {
+		return floatPotentials != null;
+	}
+
+	/*
+	 * The following methods access the arrays directly, i.e. the caller has to make sure that all tiles are loaded,
+	 * see loadAllTiles and setTileLoader(null).
+	 */
+
+	int index(final int pointX, final int pointY) {
+		return pointX * numPointsY + pointY;
+	}
+
+	double loadPotential(final int index) {
+		if (potentials != null) {
+			return potentials[index];
+		}
+		float potential = floatPotentials[index];
+		return potential == Float.POSITIVE_INFINITY ? Double.MAX_VALUE : potential;
+	}
+
+	void storePotential(final int index, final double potential) {
+		if (potentials != null) {
+			potentials[index] = potential;
+		} else {
+			floatPotentials[index] = potential == Double.MAX_VALUE ? Float.POSITIVE_INFINITY : (float) potential;
+		}
+	}
+
+	PathFindingTag loadTag(final int index) {
+		return TAGS[tags[index]];
+	}
+
+	void storeTag(final int index, final PathFindingTag tag) {
+		tags[index] = (byte) tag.ordinal();
+	}
+
 	/**
 	 * Returns the closest grid point (matrix index) to the given coordinates.
 	 */
@@ -281,9 +459,102 @@ public class CellGrid {
 
 	/** Sets the values of all grid points to 'value'. */
 	public void reset(CellState value) {
-		for (int row = 0; row < numPointsY; row++) {
-			for (int col = 0; col < numPointsX; col++) {
-				values[col][row] = value.clone();
+		setTileLoader(null);
+		for (int index = 0; index < tags.length; index++) {
+			storePotential(index, value.potential);
+			tags[index] = (byte) value.tag.ordinal();
+		}
+	}
+
+	/**
+	 * Copies the values of all data points of the given grid into this grid. Both grids have to
+	 * have the same number of points. Tiles of this grid which are not loaded so far are overwritten.
+	 */
+	public void setValues(@NotNull final CellGrid grid) {
+		if (grid.numPointsX != numPointsX || grid.numPointsY != numPointsY) {
+			throw new IllegalArgumentException("The grids have a different number of points.");
+		}
+
+		grid.loadAllTiles();
+		setTileLoader(null);
+		if (potentials != null && grid.potentials != null) {
+			System.arraycopy(grid.potentials, 0, potentials, 0, potentials.length);
+		} else {
+			for (int index = 0; index < tags.length; index++) {
+				storePotential(index, grid.loadPotential(index));
+			}
+		}
+		System.arraycopy(grid.tags, 0, tags, 0, tags.length);
+	}
+
+	/**
+	 * Lets the grid load its values lazily: the values of a tile of the grid are loaded by the given loader
+	 * when a point of the tile is accessed for the first time. Thus, only the tiles which are actually used
+	 * are read, e.g. from a cache. Passing null removes the loader, tiles which are not loaded so far keep
+	 * their current values.
+	 */
+	public synchronized void setTileLoader(@Nullable final CellGridTileLoader loader) {
+		if (loader != null) {
+			tileSize = loader.getTileSize();
+			numTilesX = (numPointsX + tileSize - 1) / tileSize;
+			int numTilesY = (numPointsY + tileSize - 1) / tileSize;
+			loadedTiles = new AtomicIntegerArray(numTilesX * numTilesY);
+		} else {
+			loadedTiles = null;
+		}
+		numLoadedTiles = 0;
+		tileLoader = loader;
+	}
+
+	/**
+	 * Loads all tiles which are not loaded so far (see {@link #setTileLoader(CellGridTileLoader)}).
+	 */
+	public void loadAllTiles() {
+		if (tileLoader != null) {
+			for (int y = 0; y < numPointsY; y += tileSize) {
+				for (int x = 0; x < numPointsX; x += tileSize) {
+					loadTile(x, y);
+				}
+			}
+		}
+	}
+
+	private void loadTile(final int pointX, final int pointY) {
+		int tileX = pointX / tileSize;
+		int tileY = pointY / tileSize;
+		int index = tileY * numTilesX + tileX;
+		AtomicIntegerArray loaded = loadedTiles;
+		if (loaded == null || loaded.get(index) == 1) {
+			return;
+		}
+
+		// the grid might be shared by threads (e.g. a parallel update scheme), thus load each tile exactly once
+		synchronized (this) {
+			if (tileLoader == null || loadedTiles.get(index) == 1) {
+				return;
+			}
+
+			int xStart = tileX * tileSize;
+			int yStart = tileY * tileSize;
+			int tileWidth = Math.min(tileSize, numPointsX - xStart);
+			int tileHeight = Math.min(tileSize, numPointsY - yStart);
+			double[] tilePotentials = new double[tileWidth * tileHeight];
+			PathFindingTag[] tileTags = new PathFindingTag[tileWidth * tileHeight];
+			tileLoader.loadTile(tileX, tileY, tileWidth, tileHeight, tilePotentials, tileTags);
+
+			for (int y = 0; y < tileHeight; y++) {
+				for (int x = 0; x < tileWidth; x++) {
+					int pointIndex = index(xStart + x, yStart + y);
+					storePotential(pointIndex, tilePotentials[y * tileWidth + x]);
+					tags[pointIndex] = (byte) tileTags[y * tileWidth + x].ordinal();
+				}
+			}
+
+			loadedTiles.set(index, 1);
+			numLoadedTiles++;
+			if (numLoadedTiles == loadedTiles.length()) {
+				// all values are present, i.e. release the loader
+				setTileLoader(null);
 			}
 		}
 	}
@@ -371,10 +642,10 @@ public class CellGrid {
 
 			VPoint gridPointCoord = pointToCoord(gridPoint);
 
-			double z1 = getValue(gridPoint).potential;
-			double z2 = getValue(gridPoint.x + incX, gridPoint.y).potential;
-			double z3 = getValue(gridPoint.x + incX, gridPoint.y + incY).potential;
-			double z4 = getValue(gridPoint.x, gridPoint.y + incY).potential;
+			double z1 = getPotential(gridPoint);
+			double z2 = getPotential(gridPoint.x + incX, gridPoint.y);
+			double z3 = getPotential(gridPoint.x + incX, gridPoint.y + incY);
+			double z4 = getPotential(gridPoint.x, gridPoint.y + incY);
 
 			double t = (pos.getX() - gridPointCoord.x) / getResolution();
 			double u = (pos.getY() - gridPointCoord.y) / getResolution();
@@ -398,10 +669,10 @@ public class CellGrid {
 		}
 
 
-		gridPotentials[0] = getValue(gridPoint).potential;
-		gridPotentials[1] = getValue(gridPoint.x + incX, gridPoint.y).potential;
-		gridPotentials[2] = getValue(gridPoint.x + incX, gridPoint.y + incY).potential;
-		gridPotentials[3] = getValue(gridPoint.x, gridPoint.y + incY).potential;
+		gridPotentials[0] = getPotential(gridPoint);
+		gridPotentials[1] = getPotential(gridPoint.x + incX, gridPoint.y);
+		gridPotentials[2] = getPotential(gridPoint.x + incX, gridPoint.y + incY);
+		gridPotentials[3] = getPotential(gridPoint.x, gridPoint.y + incY);
 
 
 		/* Interpolate the known (potential < Double.MAX_VALUE) values. */
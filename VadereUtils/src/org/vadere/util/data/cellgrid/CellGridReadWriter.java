@@ -65,11 +65,11 @@ public class CellGridReadWriter implements IDataWriter, IDataReader<CellGrid> {
 
 		assert xDim == cellGrid.getNumPointsX();
 		assert yDim == cellGrid.getNumPointsY();
-		CellState[][] values = cellGrid.values;
+		cellGrid.setTileLoader(null);
 		for (Row r : table){
-			values[r.getInt("x")][r.getInt("y")].potential = r.getDouble("value");
-			values[r.getInt("x")][r.getInt("y")].tag =
-					PathFindingTag.valueOf(r.getString("tag"));
+			int index = cellGrid.index(r.getInt("x"), r.getInt("y"));
+			cellGrid.storePotential(index, r.getDouble("value"));
+			cellGrid.storeTag(index, PathFindingTag.valueOf(r.getString("tag")));
 		}
 
 		return cellGrid;
@@ -80,20 +80,21 @@ public class CellGridReadWriter implements IDataWriter, IDataReader<CellGrid> {
 	@Override
 	public void toTextFile(File file) throws IOException {
 		file.getAbsoluteFile().getParentFile().mkdirs();
-		CellState[][] values = cellGrid.values;
+		cellGrid.loadAllTiles();
 
 		PrintWriter stream = new PrintWriter(
 				new FastBufferedOutputStream(new FileOutputStream(file)));
 		stream.write("x,y,value,tag\n");
 		for (int row = 0; row < cellGrid.getNumPointsY(); row++) {
 			for (int col = 0; col < cellGrid.getNumPointsX(); col++) {
+				int index = cellGrid.index(col, row);
 				stream.write(Integer.toString(col));
 				stream.write(",");
 				stream.write(Integer.toString(row));
 				stream.write(",");
-				stream.write(values[col][row].potential.toString());
+				stream.write(Double.toString(cellGrid.loadPotential(index)));
 				stream.write(",");
-				stream.write(values[col][row].tag.name());
+				stream.write(cellGrid.loadTag(index).name());
 				stream.write("\n");
 			}
 		}
@@ -123,7 +124,7 @@ public class CellGridReadWriter implements IDataWriter, IDataReader<CellGrid> {
 
 		assert xDim == cellGrid.getNumPointsX();
 		assert yDim == cellGrid.getNumPointsY();
-		CellState[][] values = cellGrid.values;
+		cellGrid.setTileLoader(null);
 
 		int lines = 0;
 		int maxLines = xDim * yDim;
@@ -134,8 +135,9 @@ public class CellGridReadWriter implements IDataWriter, IDataReader<CellGrid> {
 				int row = stream.readInt();
 				double val = stream.readDouble();
 				PathFindingTag tag = PathFindingTag.valueOf(stream.readInt());
-				values[col][row].potential = val;
-				values[col][row].tag = tag;
+				int index = cellGrid.index(col, row);
+				cellGrid.storePotential(index, val);
+				cellGrid.storeTag(index, tag);
 				lines++;
 			} catch (EOFException eof){
 				throw new IllegalArgumentException("Stream ended to soon. Expected " +
@@ -148,7 +150,7 @@ public class CellGridReadWriter implements IDataWriter, IDataReader<CellGrid> {
 	@Override
 	public void toBinary(File file) throws IOException {
 		file.getAbsoluteFile().getParentFile().mkdirs();
-		CellState[][] values = cellGrid.values;
+		cellGrid.loadAllTiles();
 
 		DataOutputStream stream = new DataOutputStream(
 				new FastBufferedOutputStream(new FileOutputStream(file))
@@ -161,8 +163,9 @@ public class CellGridReadWriter implements IDataWriter, IDataReader<CellGrid> {
 			for (int col = 0; col < cellGrid.getNumPointsX(); col++) {
 				stream.writeInt(col);
 				stream.writeInt(row);
-				stream.writeDouble(values[col][row].potential);
-				stream.writeInt(values[col][row].tag.ordinal());
+				int index = cellGrid.index(col, row);
+				stream.writeDouble(cellGrid.loadPotential(index));
+				stream.writeInt(cellGrid.loadTag(index).ordinal());
 			}
 		}
 		stream.flush();
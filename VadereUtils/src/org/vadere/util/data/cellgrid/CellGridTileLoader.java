@@ -0,0 +1,20 @@
+package org.vadere.util.data.cellgrid;
+
+/**
+ * Provides the values of a {@link CellGrid} tile by tile, see {@link CellGrid#setTileLoader(CellGridTileLoader)}.
+ * A tile consists of <tt>tileSize x tileSize</tt> points, the tiles at the upper and right border of the grid
+ * may be smaller.
+ */
+public interface CellGridTileLoader {
+
+	/**
+	 * Returns the number of points along the x- and y-axis of a tile.
+	 */
+	int getTileSize();
+
+	/**
+	 * Writes the values of the tile <tt>(tileX, tileY)</tt> into the given arrays (row major order, i.e. the
+	 * value of the point <tt>(x, y)</tt> of the tile is at <tt>y * tileWidth + x</tt>).
+	 */
+	void loadTile(int tileX, int tileY, int tileWidth, int tileHeight, double[] potentials, PathFindingTag[] tags);
+}
@@ -0,0 +1,281 @@
+package org.vadere.util.data.cellgrid;
+
+import org.vadere.util.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A content addressed store for {@link CellGrid}s, e.g. the cached target floor fields and obstacle distances
+ * of a scenario. A grid is split into tiles of <tt>tileSize x tileSize</tt> points. Each tile (potentials as
+ * floats and tags as bytes) is stored deflate compressed in a file named by the SHA-256 hash of its content.
+ * Thus, identical tiles of different grids, e.g. of other targets or of other variants of the same topography,
+ * are stored only once. An index file per grid lists the hashes of its tiles.
+ *
+ * Opening a grid ({@link #open(Path, int, int)}) only reads its index. The returned {@link CellGridTileLoader}
+ * decompresses a tile when the grid accesses it for the first time. Each distinct tile file is memory-mapped once
+ * per loader, i.e. identical tiles of a grid (e.g. tiles inside obstacles) share one mapping.
+ *
+ * Potentials are stored with single precision. {@link Double#MAX_VALUE} (i.e. no potential) is stored as
+ * infinity and loaded as {@link Double#MAX_VALUE} again, thus it is restored unchanged. Other potentials beyond
+ * the range of a float are loaded as {@link Double#MAX_VALUE} as well.
+ */
+public class CellGridTileStore {
+
+	public static final int DEFAULT_TILE_SIZE = 64;
+
+	private static Logger logger = Logger.getLogger(CellGridTileStore.class);
+
+	private static final int MAGIC = 0x56544653; // VTFS
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 6 * Integer.BYTES;
+	private static final int HASH_BYTES = 32;
+	private static final String TILE_SUFFIX = ".tile";
+
+	private final Path storeDir;
+
+	/**
+	 * @param storeDir the directory of the tiles, it can be shared by any number of grids
+	 */
+	public CellGridTileStore(Path storeDir) {
+		this.storeDir = storeDir;
+	}
+
+	public void write(CellGrid grid, Path indexFile) throws IOException {
+		write(grid, DEFAULT_TILE_SIZE, indexFile);
+	}
+
+	/**
+	 * Writes the tiles of the grid which are not in the store so far and the index of the grid.
+	 */
+	public void write(CellGrid grid, int tileSize, Path indexFile) throws IOException {
+		grid.loadAllTiles();
+		int numPointsX = grid.getNumPointsX();
+		int numPointsY = grid.getNumPointsY();
+		int numTilesX = (numPointsX + tileSize - 1) / tileSize;
+		int numTilesY = (numPointsY + tileSize - 1) / tileSize;
+
+		ByteBuffer index = ByteBuffer.allocate(HEADER_BYTES + numTilesX * numTilesY * HASH_BYTES);
+		index.putInt(MAGIC).putInt(VERSION).putInt(numPointsX).putInt(numPointsY).putInt(tileSize).putInt(numTilesX * numTilesY);
+
+		MessageDigest digest = createDigest();
+		int writtenTiles = 0;
+		for (int tileY = 0; tileY < numTilesY; tileY++) {
+			for (int tileX = 0; tileX < numTilesX; tileX++) {
+				byte[] content = tileContent(grid, tileX * tileSize, tileY * tileSize, tileSize);
+				byte[] hash = digest.digest(content);
+				index.put(hash);
+
+				Path tileFile = tilePath(hash);
+				if (!Files.exists(tileFile)) {
+					writeAtomically(tileFile, compress(content));
+					writtenTiles++;
+				}
+			}
+		}
+		writeAtomically(indexFile, index.array());
+		logger.infof("wrote %s (%d tiles, %d new)", indexFile, numTilesX * numTilesY, writtenTiles);
+	}
+
+	/**
+	 * Opens the grid of the given index file. The tiles are loaded lazily by the returned loader, see
+	 * {@link CellGrid#setTileLoader(CellGridTileLoader)}.
+	 *
+	 * @throws IOException if the index can not be read, does not match the dimension of the grid or refers
+	 *                     to missing tiles
+	 */
+	public CellGridTileLoader open(Path indexFile, int numPointsX, int numPointsY) throws IOException {
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+			MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (index.remaining() < HEADER_BYTES || index.getInt() != MAGIC || index.getInt() != VERSION) {
+				throw new IOException("not a tile index: " + indexFile);
+			}
+
+			int x = index.getInt();
+			int y = index.getInt();
+			if (x != numPointsX || y != numPointsY) {
+				throw new IOException(String.format("tile index %s has %dx%d points but expected %dx%d", indexFile, x, y, numPointsX, numPointsY));
+			}
+
+			int tileSize = index.getInt();
+			int numTiles = index.getInt();
+			if (tileSize <= 0 || index.remaining() != numTiles * HASH_BYTES) {
+				throw new IOException("corrupt tile index: " + indexFile);
+			}
+
+			Path[] tiles = new Path[numTiles];
+			Map<Path, Path> distinctTiles = new HashMap<>();
+			byte[] hash = new byte[HASH_BYTES];
+			for (int i = 0; i < numTiles; i++) {
+				index.get(hash);
+				// identical tiles share the path instance, i.e. the loader maps the file once
+				tiles[i] = distinctTiles.computeIfAbsent(tilePath(hash), path -> path);
+				if (!Files.isRegularFile(tiles[i])) {
+					throw new IOException("missing tile " + tiles[i] + " of " + indexFile);
+				}
+			}
+			return new TileLoader(tiles, tileSize, (numPointsX + tileSize - 1) / tileSize);
+		}
+	}
+
+	private Path tilePath(byte[] hash) {
+		StringBuilder hex = new StringBuilder(2 * hash.length);
+		for (byte b : hash) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		// two levels to keep the directories small
+		return storeDir.resolve(hex.substring(0, 2)).resolve(hex + TILE_SUFFIX);
+	}
+
+	private static byte[] tileContent(CellGrid grid, int xStart, int yStart, int tileSize) {
+		int tileWidth = Math.min(tileSize, grid.getNumPointsX() - xStart);
+		int tileHeight = Math.min(tileSize, grid.getNumPointsY() - yStart);
+		ByteBuffer content = ByteBuffer.allocate(tileWidth * tileHeight * (Float.BYTES + 1));
+		for (int y = yStart; y < yStart + tileHeight; y++) {
+			for (int x = xStart; x < xStart + tileWidth; x++) {
+				double potential = grid.loadPotential(grid.index(x, y));
+				content.putFloat(potential == Double.MAX_VALUE ? Float.POSITIVE_INFINITY : (float) potential);
+			}
+		}
+		for (int y = yStart; y < yStart + tileHeight; y++) {
+			for (int x = xStart; x < xStart + tileWidth; x++) {
+				content.put(grid.tags[grid.index(x, y)]);
+			}
+		}
+		return content.array();
+	}
+
+	private static byte[] compress(byte[] content) {
+		Deflater deflater = new Deflater();
+		deflater.setInput(content);
+		deflater.finish();
+		ByteBuffer compressed = ByteBuffer.allocate(Integer.BYTES + content.length + 64);
+		compressed.putInt(content.length);
+		while (!deflater.finished()) {
+			if (!compressed.hasRemaining()) {
+				ByteBuffer grown = ByteBuffer.allocate(2 * compressed.capacity());
+				compressed.flip();
+				compressed = grown.put(compressed);
+			}
+			deflater.deflate(compressed);
+		}
+		deflater.end();
+		byte[] bytes = new byte[compressed.position()];
+		compressed.get(0, bytes);
+		return bytes;
+	}
+
+	private static void writeAtomically(Path file, byte[] bytes) throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Files.createDirectories(dir);
+		// other processes might write the same tile concurrently, thus never expose partially written files
+		Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			Files.write(tmp, bytes);
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static class TileLoader implements CellGridTileLoader {
+
+		private final Path[] tiles;
+		private final int tileSize;
+		private final int numTilesX;
+
+		/**
+		 * the mapped tile files, a grid loads each tile once, i.e. only files shared by multiple tiles are reused.
+		 */
+		private final Map<Path, MappedByteBuffer> mappedTiles;
+
+		private TileLoader(Path[] tiles, int tileSize, int numTilesX) {
+			this.tiles = tiles;
+			this.tileSize = tileSize;
+			this.numTilesX = numTilesX;
+			this.mappedTiles = new ConcurrentHashMap<>();
+		}
+
+		int getNumMappedTiles() {
+			return mappedTiles.size();
+		}
+
+		private ByteBuffer map(Path tile) throws IOException {
+			try {
+				return mappedTiles.computeIfAbsent(tile, path -> {
+					try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+						return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}).slice();
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+
+		@Override
+		public int getTileSize() {
+			return tileSize;
+		}
+
+		@Override
+		public void loadTile(int tileX, int tileY, int tileWidth, int tileHeight, double[] potentials, PathFindingTag[] tags) {
+			Path tile = tiles[tileY * numTilesX + tileX];
+			int numPoints = tileWidth * tileHeight;
+			ByteBuffer content = ByteBuffer.allocate(numPoints * (Float.BYTES + 1));
+
+			try {
+				ByteBuffer compressed = map(tile);
+				if (compressed.getInt() != content.capacity()) {
+					throw new IOException("tile " + tile + " does not match the tile size");
+				}
+				Inflater inflater = new Inflater();
+				inflater.setInput(compressed);
+				while (!inflater.finished() && content.hasRemaining()) {
+					if (inflater.inflate(content) == 0 && inflater.needsInput()) {
+						break;
+					}
+				}
+				inflater.end();
+				if (content.hasRemaining()) {
+					throw new IOException("truncated tile " + tile);
+				}
+			} catch (IOException | DataFormatException e) {
+				throw new UncheckedIOException(new IOException("cannot load tile " + tile, e));
+			}
+
+			content.flip();
+			for (int i = 0; i < numPoints; i++) {
+				float potential = content.getFloat();
+				potentials[i] = potential == Float.POSITIVE_INFINITY ? Double.MAX_VALUE : potential;
+			}
+			for (int i = 0; i < numPoints; i++) {
+				tags[i] = PathFindingTag.valueOf(content.get());
+			}
+		}
+	}
+}
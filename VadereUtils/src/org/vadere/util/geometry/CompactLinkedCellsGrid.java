@@ -0,0 +1,419 @@
+package org.vadere.util.geometry;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A linked cells grid based on flat arrays instead of one list per cell. The cells are discretized exactly like
+ * in {@link LinkedCellsGrid}, i.e. both return the same objects for the same query.
+ *
+ * <p>
+ * The objects are stored in compressed sparse row (CSR) format: <tt>objects</tt> is sorted by the cell
+ * index and the objects of cell <tt>c</tt> are <tt>objects[cellStart[c]]</tt>, ..., <tt>objects[cellStart[c+1]-1]</tt>.
+ * Since re-sorting the whole array for each move is too expensive, objects which are added or moved after the
+ * last sort are marked as stale in the sorted part and their slots are collected in a small list of pending slots
+ * which is scanned by each query. If a query finds too many pending slots, i.e. more than O(sqrt(n + #cells)), the
+ * array is sorted again by a counting sort in O(n + #cells) before. Therefore a move costs O(1) and a query only touches
+ * contiguous memory of the cells in range and the pending slots. Many modifications without any query in between
+ * (e.g. adding all agents) do not cause any sort.
+ * </p>
+ *
+ * <p>
+ * Queries do not allocate memory if the consumer based query
+ * {@link CompactLinkedCellsGrid#forEachObject(VPoint, double, Consumer)} or
+ * {@link CompactLinkedCellsGrid#getObjects(VPoint, double, java.util.Collection)} with a caller owned buffer is used.
+ * Multiple threads can query the grid concurrently without any lock, only the first query after many modifications
+ * acquires the lock to sort the array. Modifications are synchronized but they must not run concurrently with
+ * queries, which is the case for the update schemes, since they separate the computation of the next positions
+ * from moving the agents.
+ * </p>
+ *
+ * @param <T> type of the stored objects
+ */
+public class CompactLinkedCellsGrid<T extends PointPositioned> implements ISpatialMap<T> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * the minimal number of pending slots which triggers a new sort.
+	 */
+	private static final int MIN_PENDING = 16;
+
+	private final double left;
+	private final double top;
+	private final double width;
+	private final double height;
+	private final int gridWidth;
+	private final int gridHeight;
+	private final double cellWidth;
+	private final double cellHeight;
+
+	/**
+	 * the start index of each cell in the sorted part of <tt>objects</tt>, has length #cells + 1.
+	 */
+	private final int[] cellStart;
+
+	/**
+	 * cursors used while sorting, has length #cells.
+	 */
+	private final int[] cursor;
+
+	/**
+	 * the objects, the first <tt>sortedSize</tt> slots are sorted by cell, a slot is <tt>null</tt> if the object was removed.
+	 */
+	private Object[] objects;
+
+	/**
+	 * the current cell of the object of each slot, -1 if the object was removed.
+	 */
+	private int[] cells;
+
+	/**
+	 * marks the slots of the sorted part which are no longer valid, i.e. the object was moved or removed.
+	 */
+	private boolean[] stale;
+
+	/**
+	 * the slots of objects which were added or moved after the last sort.
+	 */
+	private int[] pending;
+
+	private Object[] objectsBuffer;
+	private int[] cellsBuffer;
+
+	private int pendingCount;
+	private int sortedSize;
+	private int usedSlots;
+	/**
+	 * the number of pending and removed slots since the last sort, volatile such that a query which sees
+	 * that another query sorted the array also sees the sorted array.
+	 */
+	private volatile int modifications;
+	private int size;
+
+	public CompactLinkedCellsGrid(@NotNull final VRectangle bound, double sideLength) {
+		this(bound.x, bound.y, bound.width, bound.height, sideLength);
+	}
+
+	/**
+	 * Generates a grid with given dimension, position and side length of the cells.
+	 *
+	 * @param left          x-position of top left corner
+	 * @param top           y-position of top left corner
+	 * @param width         width of the grid, in world units (e.g. [m])
+	 * @param height        height of the grid, in world units (e.g. [m])
+	 * @param sideLength    the side length of a cell, in world units (e.g. [m])
+	 */
+	public CompactLinkedCellsGrid(double left, double top, double width, double height, double sideLength) {
+		this.left = left;
+		this.top = top;
+		this.width = width;
+		this.height = height;
+		this.gridWidth = (int) Math.max(1, width / sideLength);
+		this.gridHeight = (int) Math.max(1, height / sideLength);
+		this.cellWidth = width / gridWidth;
+		this.cellHeight = height / gridHeight;
+		this.cellStart = new int[gridWidth * gridHeight + 1];
+		this.cursor = new int[gridWidth * gridHeight];
+		this.objects = new Object[INITIAL_CAPACITY];
+		this.cells = new int[INITIAL_CAPACITY];
+		this.stale = new boolean[INITIAL_CAPACITY];
+		this.pending = new int[INITIAL_CAPACITY];
+		this.objectsBuffer = new Object[INITIAL_CAPACITY];
+		this.cellsBuffer = new int[INITIAL_CAPACITY];
+	}
+
+	public int getGridWidth() {
+		return gridWidth;
+	}
+
+	public int getGridHeight() {
+		return gridHeight;
+	}
+
+	private int gridPosX(final double x) {
+		return (int) Math.max(0, Math.min(gridWidth - 1, Math.floor((x - left) / width * gridWidth)));
+	}
+
+	private int gridPosY(final double y) {
+		return (int) Math.max(0, Math.min(gridHeight - 1, Math.floor((y - top) / height * gridHeight)));
+	}
+
+	/**
+	 * Returns the index of the cell containing the position, the cells are ordered by x first
+	 * and by y second, i.e. in the same order as {@link LinkedCellsGrid} iterates over its cells.
+	 */
+	private int cell(@NotNull final VPoint pos) {
+		return gridPosX(pos.x) * gridHeight + gridPosY(pos.y);
+	}
+
+	@Override
+	public synchronized void addObject(@NotNull final T object) {
+		if(usedSlots == objects.length) {
+			// reuse the slots of removed objects if there are enough of them
+			if(usedSlots - size >= objects.length / 2) {
+				sort();
+			} else {
+				grow();
+			}
+		}
+
+		int slot = usedSlots++;
+		objects[slot] = object;
+		cells[slot] = cell(object.getPosition());
+		stale[slot] = true;
+		size++;
+		addPending(slot);
+	}
+
+	@Override
+	public synchronized void moveObject(@NotNull final T object, @NotNull final VPoint oldPosition) {
+		int oldCell = cell(oldPosition);
+		int newCell = cell(object.getPosition());
+		if(oldCell != newCell) {
+			int slot = findSlot(object, oldCell);
+			if(slot >= 0) {
+				cells[slot] = newCell;
+				if(!stale[slot]) {
+					stale[slot] = true;
+					addPending(slot);
+				}
+			} else {
+				addObject(object);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void removeObject(@NotNull final T object) {
+		removeObject(object, object.getPosition());
+	}
+
+	@Override
+	public synchronized void removeObject(@NotNull final T object, @NotNull final VPoint oldPosition) {
+		int cell = cell(oldPosition);
+		int slot;
+		while ((slot = findSlot(object, cell)) >= 0) {
+			objects[slot] = null;
+			cells[slot] = -1;
+			if(!stale[slot]) {
+				stale[slot] = true;
+				modifications++;
+			}
+			size--;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEachObject(@NotNull final VPoint pos, final double radius, @NotNull final Consumer<? super T> consumer) {
+		sortIfRequired();
+
+		int iX = gridPosX(pos.x);
+		int iY = gridPosY(pos.y);
+		int radX = (int) Math.ceil(radius / cellWidth);
+		int radY = (int) Math.ceil(radius / cellHeight);
+		int minX = Math.max(0, iX - radX);
+		int maxX = Math.min(gridWidth - 1, iX + radX);
+		int minY = Math.max(0, iY - radY);
+		int maxY = Math.min(gridHeight - 1, iY + radY);
+
+		// the cells (x, minY), ..., (x, maxY) are contiguous
+		for(int x = minX; x <= maxX; x++) {
+			int end = cellStart[x * gridHeight + maxY + 1];
+			for(int i = cellStart[x * gridHeight + minY]; i < end; i++) {
+				if(!stale[i]) {
+					T object = (T) objects[i];
+					if(object.getPosition().distance(pos) < radius) {
+						consumer.accept(object);
+					}
+				}
+			}
+		}
+
+		for(int i = 0; i < pendingCount; i++) {
+			int slot = pending[i];
+			int cell = cells[slot];
+			if(cell >= 0) {
+				int x = cell / gridHeight;
+				int y = cell % gridHeight;
+				if(x >= minX && x <= maxX && y >= minY && y <= maxY) {
+					T object = (T) objects[slot];
+					if(object.getPosition().distance(pos) < radius) {
+						consumer.accept(object);
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized List<T> getElements() {
+		List<T> elements = new ArrayList<>(size);
+		for(int i = 0; i < sortedSize; i++) {
+			if(!stale[i]) {
+				elements.add((T) objects[i]);
+			}
+		}
+		for(int i = 0; i < pendingCount; i++) {
+			if(cells[pending[i]] >= 0) {
+				elements.add((T) objects[pending[i]]);
+			}
+		}
+		return elements;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return getElements().iterator();
+	}
+
+	@Override
+	public synchronized void clear() {
+		Arrays.fill(objects, 0, usedSlots, null);
+		Arrays.fill(cellStart, 0);
+		pendingCount = 0;
+		sortedSize = 0;
+		usedSlots = 0;
+		modifications = 0;
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(@NotNull final T element) {
+		for(T object : getElements()) {
+			if(object.equals(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the slot of an object which is equal to the given object and is contained in the given cell.
+	 *
+	 * @return the slot or -1 if there is no such object
+	 */
+	private int findSlot(@NotNull final T object, final int cell) {
+		for(int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+			if(!stale[i] && object.equals(objects[i])) {
+				return i;
+			}
+		}
+		for(int i = 0; i < pendingCount; i++) {
+			int slot = pending[i];
+			if(cells[slot] == cell && object.equals(objects[slot])) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	private void addPending(final int slot) {
+		if(pendingCount == pending.length) {
+			pending = Arrays.copyOf(pending, pending.length * 2);
+		}
+		pending[pendingCount++] = slot;
+		modifications++;
+	}
+
+	private void sortIfRequired() {
+		if(modifications > Math.max(MIN_PENDING, (int) Math.sqrt(size + cursor.length))) {
+			synchronized (this) {
+				if(modifications > Math.max(MIN_PENDING, (int) Math.sqrt(size + cursor.length))) {
+					sort();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sorts all objects by their cells (counting sort), removes the slots of removed objects and clears the
+	 * pending slots.
+	 */
+	private void sort() {
+		if(objectsBuffer.length < objects.length) {
+			objectsBuffer = new Object[objects.length];
+			cellsBuffer = new int[objects.length];
+		}
+
+		Arrays.fill(cellStart, 0);
+		for(int slot = 0; slot < usedSlots; slot++) {
+			if(cells[slot] >= 0) {
+				cellStart[cells[slot] + 1]++;
+			}
+		}
+		for(int cell = 0; cell < cursor.length; cell++) {
+			cellStart[cell + 1] += cellStart[cell];
+			cursor[cell] = cellStart[cell];
+		}
+
+		for(int slot = 0; slot < usedSlots; slot++) {
+			int cell = cells[slot];
+			if(cell >= 0) {
+				int index = cursor[cell]++;
+				objectsBuffer[index] = objects[slot];
+				cellsBuffer[index] = cell;
+			}
+		}
+
+		Object[] tmpObjects = objects;
+		int[] tmpCells = cells;
+		objects = objectsBuffer;
+		cells = cellsBuffer;
+		objectsBuffer = tmpObjects;
+		cellsBuffer = tmpCells;
+
+		Arrays.fill(objectsBuffer, 0, usedSlots, null);
+		Arrays.fill(objects, size, usedSlots, null);
+		Arrays.fill(stale, 0, usedSlots, false);
+		usedSlots = size;
+		sortedSize = size;
+		pendingCount = 0;
+		modifications = 0;
+	}
+
+	private void grow() {
+		int capacity = objects.length * 2;
+		objects = Arrays.copyOf(objects, capacity);
+		cells = Arrays.copyOf(cells, capacity);
+		stale = Arrays.copyOf(stale, capacity);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(left, top, width, height, gridWidth, gridHeight, getElements());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompactLinkedCellsGrid)) {
+			return false;
+		}
+		CompactLinkedCellsGrid<?> other = (CompactLinkedCellsGrid<?>) obj;
+		return Double.compare(left, other.left) == 0
+				&& Double.compare(top, other.top) == 0
+				&& Double.compare(width, other.width) == 0
+				&& Double.compare(height, other.height) == 0
+				&& gridWidth == other.gridWidth
+				&& gridHeight == other.gridHeight
+				&& getElements().equals(other.getElements());
+	}
+}
@@ -0,0 +1,111 @@
+package org.vadere.util.geometry;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A spatial data structure augmenting the position of generic objects for fast fixed radius queries,
+ * e.g. {@link LinkedCellsGrid} or {@link CompactLinkedCellsGrid}. Objects do not inform the map if they change
+ * their position, therefore the owner of the map has to call {@link ISpatialMap#moveObject(PointPositioned, VPoint)}.
+ *
+ * @param <T> type of the stored objects
+ */
+public interface ISpatialMap<T extends PointPositioned> extends Iterable<T> {
+
+	/**
+	 * Adds the object at its current position.
+	 *
+	 * @param object the object
+	 */
+	void addObject(@NotNull T object);
+
+	/**
+	 * Informs the map that the object, which position is already changed, was at <tt>oldPosition</tt>.
+	 *
+	 * @param object        the object
+	 * @param oldPosition   the position of the object when it was added or moved the last time
+	 */
+	void moveObject(@NotNull T object, @NotNull VPoint oldPosition);
+
+	/**
+	 * Removes the objects equal to the given object, assuming it did not move since it was added or moved the last time.
+	 *
+	 * @param object the object
+	 */
+	void removeObject(@NotNull T object);
+
+	/**
+	 * Removes the objects equal to the given object which was at <tt>oldPosition</tt>.
+	 *
+	 * @param object        the object
+	 * @param oldPosition   the position of the object when it was added or moved the last time
+	 */
+	void removeObject(@NotNull T object, @NotNull VPoint oldPosition);
+
+	/**
+	 * Calls the consumer for each object with a distance smaller than <tt>radius</tt> to <tt>pos</tt>.
+	 * This does not allocate any memory (except for the consumer).
+	 *
+	 * @param pos       position of the center of the ball
+	 * @param radius    radius of the ball
+	 * @param consumer  consumer which accepts all objects in the ball
+	 */
+	void forEachObject(@NotNull VPoint pos, double radius, @NotNull Consumer<? super T> consumer);
+
+	/**
+	 * Adds all objects in the ball around pos with given radius to the given (caller owned) collection, which
+	 * is not cleared before.
+	 *
+	 * @param pos       position of the center of the ball
+	 * @param radius    radius of the ball
+	 * @param result    the collection the objects are added to
+	 */
+	default void getObjects(@NotNull final VPoint pos, final double radius, @NotNull final Collection<? super T> result) {
+		forEachObject(pos, radius, result::add);
+	}
+
+	/**
+	 * Returns a list of objects in the ball around pos with given radius.
+	 *
+	 * @param pos       position of the center of the ball
+	 * @param radius    radius of the ball
+	 * @return list of objects, or an empty list if no objects are present.
+	 */
+	default List<T> getObjects(@NotNull final VPoint pos, final double radius) {
+		List<T> result = new ArrayList<>();
+		getObjects(pos, radius, result);
+		return result;
+	}
+
+	/**
+	 * Returns all objects ordered by the cells containing them.
+	 *
+	 * @return all objects
+	 */
+	List<T> getElements();
+
+	/**
+	 * Removes all objects.
+	 */
+	void clear();
+
+	/**
+	 * Returns the number of objects.
+	 *
+	 * @return the number of objects
+	 */
+	int size();
+
+	/**
+	 * Tests whether the map contains an object which equals the given object.
+	 *
+	 * @param element the object
+	 * @return true if the map contains the object, false otherwise
+	 */
+	boolean contains(@NotNull T element);
+}
@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.jetbrains.annotations.NotNull;
 import org.vadere.util.geometry.shapes.VPoint;
@@ -18,7 +19,7 @@ import org.vadere.util.geometry.shapes.VRectangle;
  * 
  * 
  */
-public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
+public class LinkedCellsGrid<T extends PointPositioned> implements ISpatialMap<T> {
 	final private double left;
 	final private double top;
 	final private double width;
@@ -263,6 +264,27 @@ public class LinkedCellsGrid<T extends PointPositioned> implements Iterable<T> {
 		return result;
 	}
 
+	@Override
+	public synchronized void forEachObject(final VPoint pos, final double radius, final Consumer<? super T> consumer) {
+		int[] gridPos = gridPos(pos);
+		int[] discreteRad = new int[2];
+		discreteRad[0] = (int) Math.ceil(radius / cellSize[0]);
+		discreteRad[1] = (int) Math.ceil(radius / cellSize[1]);
+
+		final int maxRow = Math.min(gridSize[0] - 1, gridPos[0] + discreteRad[0]);
+		final int maxCol = Math.min(gridSize[1] - 1, gridPos[1] + discreteRad[1]);
+
+		for (int row = Math.max(0, gridPos[0] - discreteRad[0]); row <= maxRow; row++) {
+			for (int col = Math.max(0, gridPos[1] - discreteRad[1]); col <= maxCol; col++) {
+				for (T object : grid[row][col].objects) {
+					if (object.getPosition().distance(pos) < radius) {
+						consumer.accept(object);
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Removes the objects equal to the given object from the grid regardless of
 	 * their position. Note that this function has complexity O(N), with N =
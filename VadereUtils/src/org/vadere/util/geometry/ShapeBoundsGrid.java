@@ -0,0 +1,194 @@
+package org.vadere.util.geometry;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A static uniform grid over the bounding boxes of a list of shapes which finds the shapes which might be close to
+ * a point, i.e. the candidates for <tt>shape.distance(point) &lt; radius</tt>, without testing all shapes. The shapes
+ * are identified by their index in the list.
+ *
+ * <p>
+ * Like {@link ShapeSegmentGrid} the cells are stored in compressed sparse row (CSR) format and a query does not
+ * allocate memory. The grid is immutable, i.e. multiple threads can query it concurrently.
+ * </p>
+ */
+public class ShapeBoundsGrid {
+
+	/**
+	 * the maximal number of cells, the cell size is increased for very large domains.
+	 */
+	private static final int MAX_CELLS = 1 << 22;
+
+	private final int numberOfShapes;
+	private final double left;
+	private final double top;
+	private final double cellSize;
+	private final int gridWidth;
+	private final int gridHeight;
+
+	/**
+	 * the bounds of each shape (minX, minY, maxX, maxY).
+	 */
+	private final double[] bounds;
+
+	/**
+	 * the cell range of each shape (minCol, minRow, maxCol, maxRow).
+	 */
+	private final int[] ranges;
+
+	/**
+	 * the start index of each cell in <tt>items</tt>, has length #cells + 1.
+	 */
+	private final int[] cellStart;
+
+	/**
+	 * the shapes sorted by cell, the shapes of a cell are sorted by their index.
+	 */
+	private final int[] items;
+
+	/**
+	 * Builds the grid.
+	 *
+	 * @param shapes    the shapes
+	 * @param cellSize  the (minimal) side length of the quadratic cells
+	 */
+	public ShapeBoundsGrid(@NotNull final List<? extends VShape> shapes, final double cellSize) {
+		this.numberOfShapes = shapes.size();
+		this.bounds = new double[4 * numberOfShapes];
+		this.ranges = new int[4 * numberOfShapes];
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (int i = 0; i < numberOfShapes; i++) {
+			Rectangle2D bound = shapes.get(i).getBounds2D();
+			bounds[4 * i] = bound.getMinX();
+			bounds[4 * i + 1] = bound.getMinY();
+			bounds[4 * i + 2] = bound.getMaxX();
+			bounds[4 * i + 3] = bound.getMaxY();
+			minX = Math.min(minX, bound.getMinX());
+			minY = Math.min(minY, bound.getMinY());
+			maxX = Math.max(maxX, bound.getMaxX());
+			maxY = Math.max(maxY, bound.getMaxY());
+		}
+
+		if (numberOfShapes == 0) {
+			this.left = 0;
+			this.top = 0;
+			this.cellSize = cellSize;
+			this.gridWidth = 0;
+			this.gridHeight = 0;
+			this.cellStart = new int[1];
+			this.items = new int[0];
+			return;
+		}
+
+		double size = cellSize;
+		while ((Math.floor((maxX - minX) / size) + 1) * (Math.floor((maxY - minY) / size) + 1) > MAX_CELLS) {
+			size *= 2;
+		}
+		this.left = minX;
+		this.top = minY;
+		this.cellSize = size;
+		this.gridWidth = (int) Math.floor((maxX - minX) / size) + 1;
+		this.gridHeight = (int) Math.floor((maxY - minY) / size) + 1;
+
+		for (int i = 0; i < numberOfShapes; i++) {
+			ranges[4 * i] = getCol(bounds[4 * i]);
+			ranges[4 * i + 1] = getRow(bounds[4 * i + 1]);
+			ranges[4 * i + 2] = getCol(bounds[4 * i + 2]);
+			ranges[4 * i + 3] = getRow(bounds[4 * i + 3]);
+		}
+
+		// counting sort of the shapes by cell
+		this.cellStart = new int[gridWidth * gridHeight + 1];
+		for (int i = 0; i < numberOfShapes; i++) {
+			for (int row = ranges[4 * i + 1]; row <= ranges[4 * i + 3]; row++) {
+				for (int col = ranges[4 * i]; col <= ranges[4 * i + 2]; col++) {
+					cellStart[row * gridWidth + col + 1]++;
+				}
+			}
+		}
+		for (int c = 0; c < gridWidth * gridHeight; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+
+		this.items = new int[cellStart[gridWidth * gridHeight]];
+		int[] cursor = Arrays.copyOf(cellStart, gridWidth * gridHeight);
+		for (int i = 0; i < numberOfShapes; i++) {
+			for (int row = ranges[4 * i + 1]; row <= ranges[4 * i + 3]; row++) {
+				for (int col = ranges[4 * i]; col <= ranges[4 * i + 2]; col++) {
+					items[cursor[row * gridWidth + col]++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calls the consumer once for each shape whose bounding box is closer than or equally close as <tt>radius</tt>
+	 * to the point <tt>(x, y)</tt>, in particular for each shape whose bounding box contains the point. Since the
+	 * distance of a point to a shape is at least the distance to its bounding box, these are all shapes with
+	 * <tt>shape.distance(point) &lt; radius</tt> and a few more. The shapes are not passed in a specific order.
+	 */
+	public void forEachCandidate(final double x, final double y, final double radius, @NotNull final IntConsumer consumer) {
+		if (items.length == 0) {
+			return;
+		}
+
+		double r = Math.max(0, radius);
+
+		// the ball is outside of the bounds of all shapes
+		if (x + r < left || y + r < top || x - r > left + gridWidth * cellSize || y - r > top + gridHeight * cellSize) {
+			return;
+		}
+
+		int minCol = getCol(x - r);
+		int minRow = getRow(y - r);
+		int maxCol = getCol(x + r);
+		int maxRow = getRow(y + r);
+		double rSq = r * r;
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int col = minCol; col <= maxCol; col++) {
+				int cell = row * gridWidth + col;
+				for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+					int i = items[k];
+
+					// a shape which covers multiple cells of the query is reported by its first cell only
+					if (col != Math.max(minCol, ranges[4 * i]) || row != Math.max(minRow, ranges[4 * i + 1])) {
+						continue;
+					}
+
+					double dx = Math.max(0, Math.max(bounds[4 * i] - x, x - bounds[4 * i + 2]));
+					double dy = Math.max(0, Math.max(bounds[4 * i + 1] - y, y - bounds[4 * i + 3]));
+					if (dx * dx + dy * dy <= rSq) {
+						consumer.accept(i);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of shapes of the grid.
+	 */
+	public int size() {
+		return numberOfShapes;
+	}
+
+	private int getCol(final double x) {
+		return Math.max(0, Math.min(gridWidth - 1, (int) Math.floor((x - left) / cellSize)));
+	}
+
+	private int getRow(final double y) {
+		return Math.max(0, Math.min(gridHeight - 1, (int) Math.floor((y - top) / cellSize)));
+	}
+}
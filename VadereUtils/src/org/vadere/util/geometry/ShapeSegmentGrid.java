@@ -0,0 +1,245 @@
+package org.vadere.util.geometry;
+
+import org.jetbrains.annotations.NotNull;
+import org.vadere.util.geometry.shapes.VLine;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VPolygon;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A static uniform grid over the edges of a set of shapes which answers whether a line segment intersects any of
+ * the shapes, i.e. <tt>shapes.stream().anyMatch(s -&gt; s.intersects(line))</tt>, by testing only the edges near
+ * the line segment.
+ *
+ * <p>
+ * The edges of polygons are stored in the grid and tested exactly like {@link VPolygon#intersects(VLine)} does.
+ * All other shapes (e.g. circles, rectangles) are stored by their bounds and tested by
+ * {@link VShape#intersects(VLine)}, since their test is not restricted to the boundary. The cells of the grid are
+ * stored in compressed sparse row (CSR) format (see {@link CompactLinkedCellsGrid}) and the edges as packed
+ * coordinates, thus a query does not allocate memory (except for non polygon shapes). The grid is immutable,
+ * i.e. multiple threads can query it concurrently.
+ * </p>
+ */
+public class ShapeSegmentGrid {
+
+	/**
+	 * the maximal number of cells, the cell size is increased for very large domains.
+	 */
+	private static final int MAX_CELLS = 1 << 22;
+
+	private final int numberOfShapes;
+	private final double left;
+	private final double top;
+	private final double cellSize;
+	private final int gridWidth;
+	private final int gridHeight;
+
+	/**
+	 * the start index of each cell in <tt>items</tt>, has length #cells + 1.
+	 */
+	private final int[] cellStart;
+
+	/**
+	 * the items sorted by cell: <tt>i &gt;= 0</tt> is the edge <tt>i</tt>, <tt>i &lt; 0</tt> the shape <tt>-i-1</tt>.
+	 */
+	private final int[] items;
+
+	/**
+	 * the edges of the polygons (x1, y1, x2, y2).
+	 */
+	private final double[] edges;
+
+	/**
+	 * the shapes which are not polygons.
+	 */
+	private final VShape[] otherShapes;
+
+	/**
+	 * Builds the grid.
+	 *
+	 * @param shapes    the shapes
+	 * @param cellSize  the (minimal) side length of the quadratic cells
+	 */
+	public ShapeSegmentGrid(@NotNull final Collection<? extends VShape> shapes, final double cellSize) {
+		this.numberOfShapes = shapes.size();
+
+		// collect the edges of polygons and all other shapes
+		double[] edgeCoordinates = new double[64];
+		int numberOfEdges = 0;
+		VShape[] others = new VShape[shapes.size()];
+		int numberOfOthers = 0;
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+
+		for (VShape shape : shapes) {
+			if (shape instanceof VPolygon) {
+				List<VPoint> points = ((VPolygon) shape).getPoints();
+				for (int i = 0; i < points.size(); i++) {
+					VPoint p1 = points.get(i);
+					VPoint p2 = points.get(i < points.size() - 1 ? i + 1 : 0);
+					if (4 * numberOfEdges + 4 > edgeCoordinates.length) {
+						edgeCoordinates = Arrays.copyOf(edgeCoordinates, 2 * edgeCoordinates.length);
+					}
+					edgeCoordinates[4 * numberOfEdges] = p1.x;
+					edgeCoordinates[4 * numberOfEdges + 1] = p1.y;
+					edgeCoordinates[4 * numberOfEdges + 2] = p2.x;
+					edgeCoordinates[4 * numberOfEdges + 3] = p2.y;
+					numberOfEdges++;
+				}
+			} else {
+				others[numberOfOthers++] = shape;
+			}
+
+			Rectangle2D bounds = shape.getBounds2D();
+			minX = Math.min(minX, bounds.getMinX());
+			minY = Math.min(minY, bounds.getMinY());
+			maxX = Math.max(maxX, bounds.getMaxX());
+			maxY = Math.max(maxY, bounds.getMaxY());
+		}
+
+		this.edges = Arrays.copyOf(edgeCoordinates, 4 * numberOfEdges);
+		this.otherShapes = Arrays.copyOf(others, numberOfOthers);
+
+		int numberOfItems = numberOfEdges + numberOfOthers;
+		if (numberOfItems == 0) {
+			this.left = 0;
+			this.top = 0;
+			this.cellSize = cellSize;
+			this.gridWidth = 0;
+			this.gridHeight = 0;
+			this.cellStart = new int[1];
+			this.items = new int[0];
+			return;
+		}
+
+		double size = cellSize;
+		while ((Math.floor((maxX - minX) / size) + 1) * (Math.floor((maxY - minY) / size) + 1) > MAX_CELLS) {
+			size *= 2;
+		}
+		this.left = minX;
+		this.top = minY;
+		this.cellSize = size;
+		this.gridWidth = (int) Math.floor((maxX - minX) / size) + 1;
+		this.gridHeight = (int) Math.floor((maxY - minY) / size) + 1;
+
+		// the cell range of each item: minCol, minRow, maxCol, maxRow
+		int[] ranges = new int[4 * numberOfItems];
+		for (int i = 0; i < numberOfEdges; i++) {
+			setRange(ranges, i,
+					Math.min(edges[4 * i], edges[4 * i + 2]), Math.min(edges[4 * i + 1], edges[4 * i + 3]),
+					Math.max(edges[4 * i], edges[4 * i + 2]), Math.max(edges[4 * i + 1], edges[4 * i + 3]));
+		}
+		for (int i = 0; i < numberOfOthers; i++) {
+			Rectangle2D bounds = otherShapes[i].getBounds2D();
+			setRange(ranges, numberOfEdges + i, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+		}
+
+		// counting sort of the items by cell
+		this.cellStart = new int[gridWidth * gridHeight + 1];
+		for (int i = 0; i < numberOfItems; i++) {
+			for (int row = ranges[4 * i + 1]; row <= ranges[4 * i + 3]; row++) {
+				for (int col = ranges[4 * i]; col <= ranges[4 * i + 2]; col++) {
+					cellStart[row * gridWidth + col + 1]++;
+				}
+			}
+		}
+		for (int c = 0; c < gridWidth * gridHeight; c++) {
+			cellStart[c + 1] += cellStart[c];
+		}
+
+		this.items = new int[cellStart[gridWidth * gridHeight]];
+		int[] cursor = Arrays.copyOf(cellStart, gridWidth * gridHeight);
+		for (int i = 0; i < numberOfItems; i++) {
+			int item = i < numberOfEdges ? i : -(i - numberOfEdges) - 1;
+			for (int row = ranges[4 * i + 1]; row <= ranges[4 * i + 3]; row++) {
+				for (int col = ranges[4 * i]; col <= ranges[4 * i + 2]; col++) {
+					items[cursor[row * gridWidth + col]++] = item;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the line segment from <tt>(x1, y1)</tt> to <tt>(x2, y2)</tt> intersects any of the shapes.
+	 */
+	public boolean intersects(final double x1, final double y1, final double x2, final double y2) {
+		if (items.length == 0) {
+			return false;
+		}
+
+		double minX = Math.min(x1, x2);
+		double minY = Math.min(y1, y2);
+		double maxX = Math.max(x1, x2);
+		double maxY = Math.max(y1, y2);
+
+		// the line segment is outside of the bounds of all shapes
+		if (maxX < left || maxY < top || minX > left + gridWidth * cellSize || minY > top + gridHeight * cellSize) {
+			return false;
+		}
+
+		int minCol = getCol(minX);
+		int minRow = getRow(minY);
+		int maxCol = getCol(maxX);
+		int maxRow = getRow(maxY);
+		VLine line = null;
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int col = minCol; col <= maxCol; col++) {
+				int cell = row * gridWidth + col;
+				for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+					int item = items[k];
+					if (item >= 0) {
+						if (Line2D.linesIntersect(edges[4 * item], edges[4 * item + 1], edges[4 * item + 2], edges[4 * item + 3], x1, y1, x2, y2)) {
+							return true;
+						}
+					} else {
+						if (line == null) {
+							line = new VLine(x1, y1, x2, y2);
+						}
+						if (otherShapes[-item - 1].intersects(line)) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the line segment intersects any of the shapes.
+	 */
+	public boolean intersects(@NotNull final VLine line) {
+		return intersects(line.x1, line.y1, line.x2, line.y2);
+	}
+
+	/**
+	 * Returns the number of shapes of the grid.
+	 */
+	public int size() {
+		return numberOfShapes;
+	}
+
+	private void setRange(final int[] ranges, final int item, final double minX, final double minY, final double maxX, final double maxY) {
+		ranges[4 * item] = getCol(minX);
+		ranges[4 * item + 1] = getRow(minY);
+		ranges[4 * item + 2] = getCol(maxX);
+		ranges[4 * item + 3] = getRow(maxY);
+	}
+
+	private int getCol(final double x) {
+		return Math.max(0, Math.min(gridWidth - 1, (int) Math.floor((x - left) / cellSize)));
+	}
+
+	private int getRow(final double y) {
+		return Math.max(0, Math.min(gridHeight - 1, (int) Math.floor((y - top) / cellSize)));
+	}
+}
@@ -240,22 +240,22 @@ public class InterpolationUtil {
 		int y4 = (int) y;
 
 		// compute the plane spanned by v1 and v2
-		double z1 = pot.getValue(x1, y1).potential;
-		double z31 = pot.getValue(x3, y3).potential - z1;
+		double z1 = pot.getPotential(x1, y1);
+		double z31 = pot.getPotential(x3, y3) - z1;
 		double[] v1 = new double[3];
 		double[] v2 = new double[] {x3 - x1, y3 - y1, z31};
 
 		// check whether its the upper or lower triangle
 		if (locX < locY) // upper triangle
 		{
-			double z21 = pot.getValue(x2, y2).potential - z1;
+			double z21 = pot.getPotential(x2, y2) - z1;
 
 			v1[0] = x2 - x1;
 			v1[1] = y2 - y1;
 			v1[2] = z21;
 		} else // lower triangle
 		{
-			double z41 = pot.getValue(x4, y4).potential - z1;
+			double z41 = pot.getPotential(x4, y4) - z1;
 
 			v1[0] = x4 - x1;
 			v1[1] = y4 - y1;
@@ -0,0 +1,98 @@
+package org.vadere.util.random;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * A random generator which state can be stored and restored in place, e.g. by a simulation checkpoint while
+ * other objects still refer to the generator. {@link Random} does not expose its state, therefore, this
+ * generator draws all numbers from a {@link Random} which is replaced by {@link #setState(byte[])}. The state
+ * is the serialized form of this {@link Random}, it includes the cached second value of {@link #nextGaussian()}.
+ * The generator draws the same numbers as a {@link Random} or a
+ * {@link org.apache.commons.math3.random.JDKRandomGenerator} with the same seed.
+ */
+public class RestorableRandom extends Random implements RandomGenerator {
+
+	private static final long serialVersionUID = 1L;
+
+	// no initializer, the constructor of Random sets the field by calling setSeed
+	private Random random;
+
+	public RestorableRandom(final long seed) {
+		super(seed);
+	}
+
+	@Override
+	public synchronized void setSeed(final long seed) {
+		if (random == null) {
+			random = new Random(seed);
+		} else {
+			random.setSeed(seed);
+		}
+	}
+
+	@Override
+	public void setSeed(final int seed) {
+		setSeed((long) seed);
+	}
+
+	@Override
+	public void setSeed(final int[] seed) {
+		setSeed(RandomGeneratorFactory.convertToLong(seed));
+	}
+
+	/**
+	 * All methods of {@link Random} except {@link #nextGaussian()} draw their numbers by this method. Since
+	 * {@link Random#nextInt()} returns <tt>next(32)</tt>, the upper bits of its value are the value of
+	 * <tt>next(bits)</tt>.
+	 */
+	@Override
+	protected int next(final int bits) {
+		return random.nextInt() >>> (32 - bits);
+	}
+
+	@Override
+	public double nextGaussian() {
+		return random.nextGaussian();
+	}
+
+	/**
+	 * Returns the current state of the generator.
+	 */
+	public byte[] getState() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(random);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Restores a state returned by {@link #getState()}, i.e. the generator continues with the numbers which
+	 * followed the state.
+	 */
+	public void setState(@NotNull final byte[] state) {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state))) {
+			// the state might be read from a file, therefore, no other class is deserialized
+			in.setObjectInputFilter(info -> info.serialClass() == null || info.serialClass() == Random.class ?
+					ObjectInputFilter.Status.ALLOWED : ObjectInputFilter.Status.REJECTED);
+			random = (Random) in.readObject();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+}
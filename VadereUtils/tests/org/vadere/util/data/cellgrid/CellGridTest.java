@@ -12,6 +12,7 @@ import tech.tablesaw.io.RuntimeIOException;
 
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CellGridTest {
 
@@ -51,20 +52,54 @@ public class CellGridTest {
 		// set random data to CellGrid
 		for (int row = 0; row < cellGrid.numPointsY; row++) {
 			for (int col = 0; col < cellGrid.numPointsX; col++) {
-				cellGrid.values[col][row] =
+				cellGrid.setValue(col, row,
 						new CellState(rnd.nextDouble(),
-								PathFindingTag.values()[rnd.nextInt(maxPathFindingTag)]);
+								PathFindingTag.values()[rnd.nextInt(maxPathFindingTag)]));
 			}
 		}
 
 		compare(cellGrid.asTable(), cellGrid);
 	}
 
+	@Test
+	public void testValuesAreCopies(){
+		CellGrid cellGrid = new CellGrid(3.0, 3.0, 1.0, new CellState(), 0.0, 0.0);
+		CellState state = cellGrid.getValue(1, 2);
+		state.potential = 1.0;
+		assertEquals(Double.MAX_VALUE, cellGrid.getPotential(1, 2));
+
+		cellGrid.setValue(1, 2, state);
+		cellGrid.setTag(1, 2, PathFindingTag.Reached);
+		assertEquals(new CellState(1.0, PathFindingTag.Reached), cellGrid.getValue(1, 2));
+		assertEquals(new CellState(), cellGrid.getValue(2, 1));
+
+		CellGrid clone = cellGrid.clone();
+		cellGrid.setPotential(1, 2, 2.0);
+		assertEquals(1.0, clone.getPotential(1, 2));
+	}
+
+	@Test
+	public void testSinglePrecision(){
+		CellGrid cellGrid = new CellGrid(3.0, 3.0, 1.0, new CellState(), 0.0, 0.0, true);
+		assertTrue(cellGrid.isSinglePrecision());
+		assertEquals(Double.MAX_VALUE, cellGrid.getPotential(0, 0));
+
+		cellGrid.setValue(1, 1, 0.1, PathFindingTag.Reachable);
+		assertEquals((float) 0.1, cellGrid.getPotential(1, 1));
+		assertEquals(PathFindingTag.Reachable, cellGrid.getTag(1, 1));
+
+		cellGrid.setPotential(1, 1, Double.MAX_VALUE);
+		assertEquals(Double.MAX_VALUE, cellGrid.getPotential(1, 1));
+
+		CellGrid clone = cellGrid.clone();
+		assertTrue(clone.isSinglePrecision());
+		compare(cellGrid.asTable(), clone);
+	}
 
 	private void compare(Table t, CellGrid cellGrid){
 		for (int row = 0; row < cellGrid.numPointsY; row++) {
 			for (int col = 0; col < cellGrid.numPointsX; col++) {
-				CellState state = cellGrid.values[col][row];
+				CellState state = cellGrid.getValue(col, row);
 				Table f = t.where(
 						t.intColumn("x").isEqualTo(col)
 								.and(t.intColumn("y").isEqualTo(row))
@@ -0,0 +1,175 @@
+package org.vadere.util.data.cellgrid;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CellGridTileStoreTest {
+
+	@TempDir
+	Path tmp;
+
+	@Test
+	public void tilesAreLoadedLazily() throws IOException {
+		CellGridTileStore store = new CellGridTileStore(tmp.resolve("tiles"));
+		CellGrid grid = createGrid();
+		store.write(grid, 16, tmp.resolve("grid.fftiles"));
+
+		CellGrid loaded = new CellGrid(10.0, 6.0, 0.1, new CellState(), 0.0, 0.0);
+		CountingLoader loader = new CountingLoader(store.open(tmp.resolve("grid.fftiles"), loaded.getNumPointsX(), loaded.getNumPointsY()));
+		loaded.setTileLoader(loader);
+		assertThat(loader.count, equalTo(0));
+
+		assertValue(loaded.getValue(20, 20), grid.getValue(20, 20));
+		assertValue(loaded.getValue(31, 17), grid.getValue(31, 17));
+		assertThat(loader.count, equalTo(1));
+
+		// 101 x 61 points
+		loaded.loadAllTiles();
+		assertThat(loader.count, equalTo(7 * 4));
+		for (int x = 0; x < grid.getNumPointsX(); x++) {
+			for (int y = 0; y < grid.getNumPointsY(); y++) {
+				assertValue(loaded.getValue(x, y), grid.getValue(x, y));
+			}
+		}
+		assertThat(loader.count, equalTo(7 * 4));
+	}
+
+	@Test
+	public void identicalTilesAreStoredOnce() throws IOException {
+		CellGridTileStore store = new CellGridTileStore(tmp.resolve("tiles"));
+		CellGrid grid = new CellGrid(10.0, 6.0, 0.1, new CellState(1.0, PathFindingTag.Reachable), 0.0, 0.0);
+		store.write(grid, 16, tmp.resolve("grid1.fftiles"));
+
+		// inner tiles, tiles of the right border, tiles of the upper border and the upper right tile
+		assertThat(countTiles(), equalTo(4L));
+
+		grid.setPotential(0, 0, 0.0);
+		store.write(grid, 16, tmp.resolve("grid2.fftiles"));
+		assertThat(countTiles(), equalTo(5L));
+	}
+
+	@Test
+	public void maxValueIsStoredAsInfinity() throws IOException {
+		CellGridTileStore store = new CellGridTileStore(tmp.resolve("tiles"));
+		CellGrid grid = new CellGrid(10.0, 6.0, 0.1, new CellState(Double.MAX_VALUE, PathFindingTag.Obstacle), 0.0, 0.0);
+		store.write(grid, 16, tmp.resolve("grid1.fftiles"));
+
+		// infinity is stored like Double.MAX_VALUE, i.e. no new tile is written
+		grid.setPotential(0, 0, Double.POSITIVE_INFINITY);
+		store.write(grid, 16, tmp.resolve("grid2.fftiles"));
+		assertThat(countTiles(), equalTo(4L));
+
+		CellGrid loaded = new CellGrid(10.0, 6.0, 0.1, new CellState(), 0.0, 0.0);
+		loaded.setTileLoader(store.open(tmp.resolve("grid2.fftiles"), loaded.getNumPointsX(), loaded.getNumPointsY()));
+		assertThat(loaded.getPotential(0, 0), equalTo(Double.MAX_VALUE));
+		assertThat(loaded.getPotential(50, 30), equalTo(Double.MAX_VALUE));
+	}
+
+	@Test
+	public void identicalTilesAreMappedOnce() throws IOException {
+		CellGridTileStore store = new CellGridTileStore(tmp.resolve("tiles"));
+		CellGrid grid = new CellGrid(10.0, 6.0, 0.1, new CellState(1.0, PathFindingTag.Reachable), 0.0, 0.0);
+		store.write(grid, 16, tmp.resolve("grid.fftiles"));
+
+		CellGrid loaded = new CellGrid(10.0, 6.0, 0.1, new CellState(), 0.0, 0.0);
+		CellGridTileLoader loader = store.open(tmp.resolve("grid.fftiles"), loaded.getNumPointsX(), loaded.getNumPointsY());
+		loaded.setTileLoader(loader);
+		loaded.loadAllTiles();
+
+		assertThat(((CellGridTileStore.TileLoader) loader).getNumMappedTiles(), equalTo(4));
+		for (int x = 0; x < grid.getNumPointsX(); x++) {
+			for (int y = 0; y < grid.getNumPointsY(); y++) {
+				assertValue(loaded.getValue(x, y), grid.getValue(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void loaderIsReleasedAfterAllTilesAreLoaded() throws IOException {
+		CellGridTileStore store = new CellGridTileStore(tmp.resolve("tiles"));
+		CellGrid grid = createGrid();
+		store.write(grid, 16, tmp.resolve("grid.fftiles"));
+
+		CellGrid loaded = new CellGrid(10.0, 6.0, 0.1, new CellState(), 0.0, 0.0);
+		CountingLoader first = new CountingLoader(store.open(tmp.resolve("grid.fftiles"), loaded.getNumPointsX(), loaded.getNumPointsY()));
+		loaded.setTileLoader(first);
+		loaded.loadAllTiles();
+		assertThat(first.count, equalTo(7 * 4));
+
+		// the counters of the first loader must not leak into the second one
+		CountingLoader second = new CountingLoader(store.open(tmp.resolve("grid.fftiles"), loaded.getNumPointsX(), loaded.getNumPointsY()));
+		loaded.setTileLoader(second);
+		loaded.loadAllTiles();
+		assertThat(second.count, equalTo(7 * 4));
+		assertValue(loaded.getValue(100, 60), grid.getValue(100, 60));
+		assertThat(second.count, equalTo(7 * 4));
+	}
+
+	@Test
+	public void openFailsForOtherDimension() throws IOException {
+		CellGridTileStore store = new CellGridTileStore(tmp.resolve("tiles"));
+		store.write(createGrid(), tmp.resolve("grid.fftiles"));
+
+		assertThrows(IOException.class, () -> store.open(tmp.resolve("grid.fftiles"), 10, 10));
+	}
+
+	private long countTiles() throws IOException {
+		try (Stream<Path> files = Files.walk(tmp.resolve("tiles"))) {
+			return files.filter(Files::isRegularFile).count();
+		}
+	}
+
+	private static CellGrid createGrid() {
+		CellGrid grid = new CellGrid(10.0, 6.0, 0.1, new CellState(), 0.0, 0.0);
+		for (int x = 0; x < grid.getNumPointsX(); x++) {
+			for (int y = 0; y < grid.getNumPointsY(); y++) {
+				if (x < 10) {
+					grid.setValue(x, y, new CellState(Double.MAX_VALUE, PathFindingTag.Obstacle));
+				} else {
+					grid.setValue(x, y, new CellState(0.1 * x + 0.01 * y, PathFindingTag.Reached));
+				}
+			}
+		}
+		return grid;
+	}
+
+	private static void assertValue(CellState actual, CellState expected) {
+		assertThat(actual.tag, equalTo(expected.tag));
+		if (expected.potential == Double.MAX_VALUE) {
+			assertThat(actual.potential, equalTo(Double.MAX_VALUE));
+		} else {
+			assertThat(actual.potential, closeTo(expected.potential, 1e-5));
+		}
+	}
+
+	private static class CountingLoader implements CellGridTileLoader {
+
+		private final CellGridTileLoader loader;
+		private int count;
+
+		private CountingLoader(CellGridTileLoader loader) {
+			this.loader = loader;
+		}
+
+		@Override
+		public int getTileSize() {
+			return loader.getTileSize();
+		}
+
+		@Override
+		public void loadTile(int tileX, int tileY, int tileWidth, int tileHeight, double[] potentials, PathFindingTag[] tags) {
+			count++;
+			loader.loadTile(tileX, tileY, tileWidth, tileHeight, potentials, tags);
+		}
+	}
+}
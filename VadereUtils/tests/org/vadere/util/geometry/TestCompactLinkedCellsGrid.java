@@ -0,0 +1,143 @@
+package org.vadere.util.geometry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vadere.util.geometry.shapes.VPoint;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link CompactLinkedCellsGrid} and compares its query results with the results of the
+ * {@link LinkedCellsGrid}.
+ */
+public class TestCompactLinkedCellsGrid {
+
+	private static class MovingObject implements PointPositioned {
+		public final int id;
+		public VPoint position;
+
+		public MovingObject(int id, VPoint position) {
+			this.id = id;
+			this.position = position;
+		}
+
+		@Override
+		public VPoint getPosition() {
+			return position;
+		}
+	}
+
+	private static final double left = 0;
+	private static final double top = 0;
+	private static final double width = 100;
+	private static final double height = 50;
+	private static final double sideLength = 2;
+
+	private CompactLinkedCellsGrid<MovingObject> compactGrid;
+	private LinkedCellsGrid<MovingObject> linkedCellsGrid;
+
+	@BeforeEach
+	public void setUp() {
+		compactGrid = new CompactLinkedCellsGrid<>(left, top, width, height, sideLength);
+		linkedCellsGrid = new LinkedCellsGrid<>(left, top, width, height, sideLength);
+	}
+
+	@Test
+	public void testAddGetRemove() {
+		MovingObject obj1 = new MovingObject(1, new VPoint(0, 0));
+		MovingObject obj2 = new MovingObject(2, new VPoint(10, 10));
+		MovingObject obj3 = new MovingObject(3, new VPoint(50, 10));
+		compactGrid.addObject(obj1);
+		compactGrid.addObject(obj2);
+		compactGrid.addObject(obj3);
+
+		assertEquals(3, compactGrid.size());
+		assertEquals(3, compactGrid.getObjects(new VPoint(25, 25), 40).size());
+
+		List<MovingObject> objects = compactGrid.getObjects(obj1.getPosition(), obj1.getPosition().distance(obj2.getPosition()) - 1);
+		assertEquals(1, objects.size());
+		assertEquals(obj1, objects.get(0));
+
+		compactGrid.removeObject(obj2);
+		assertEquals(2, compactGrid.size());
+		assertFalse(compactGrid.contains(obj2));
+		assertTrue(compactGrid.contains(obj1));
+		assertTrue(compactGrid.contains(obj3));
+
+		compactGrid.clear();
+		assertEquals(0, compactGrid.size());
+		assertEquals(0, compactGrid.getObjects(new VPoint(25, 25), 40).size());
+	}
+
+	@Test
+	public void testMoveObject() {
+		MovingObject obj = new MovingObject(1, new VPoint(1, 1));
+		compactGrid.addObject(obj);
+
+		VPoint oldPosition = obj.getPosition();
+		obj.position = new VPoint(90, 40);
+		compactGrid.moveObject(obj, oldPosition);
+
+		assertEquals(1, compactGrid.size());
+		assertEquals(0, compactGrid.getObjects(oldPosition, 1).size());
+		assertEquals(1, compactGrid.getObjects(obj.getPosition(), 1).size());
+	}
+
+	/**
+	 * Applies the same random sequence of adds, moves and removes to both grids and compares the results of
+	 * random queries. This covers queries between two sorts of the compact grid as well.
+	 */
+	@Test
+	public void testSameResultsAsLinkedCellsGrid() {
+		Random random = new Random(0);
+		List<MovingObject> objects = new ArrayList<>();
+		int nextId = 0;
+
+		for (int i = 0; i < 20000; i++) {
+			double action = random.nextDouble();
+			if (action < 0.1 || objects.isEmpty()) {
+				MovingObject obj = new MovingObject(nextId++, randomPoint(random));
+				objects.add(obj);
+				compactGrid.addObject(obj);
+				linkedCellsGrid.addObject(obj);
+			} else if (action < 0.15) {
+				MovingObject obj = objects.remove(random.nextInt(objects.size()));
+				compactGrid.removeObject(obj);
+				linkedCellsGrid.removeObject(obj);
+			} else {
+				MovingObject obj = objects.get(random.nextInt(objects.size()));
+				VPoint oldPosition = obj.getPosition();
+				// small steps most of the time but some jumps across the whole grid
+				obj.position = random.nextDouble() < 0.9 ?
+						new VPoint(clamp(oldPosition.x + random.nextGaussian(), width), clamp(oldPosition.y + random.nextGaussian(), height)) :
+						randomPoint(random);
+				compactGrid.moveObject(obj, oldPosition);
+				linkedCellsGrid.moveObject(obj, oldPosition);
+			}
+
+			assertEquals(linkedCellsGrid.size(), compactGrid.size());
+
+			VPoint pos = randomPoint(random);
+			double radius = random.nextDouble() * 10;
+			assertEquals(new HashSet<>(linkedCellsGrid.getObjects(pos, radius)), new HashSet<>(compactGrid.getObjects(pos, radius)));
+		}
+
+		assertEquals(new HashSet<>(linkedCellsGrid.getElements()), new HashSet<>(compactGrid.getElements()));
+		assertEquals(objects.size(), compactGrid.getElements().size());
+	}
+
+	private static VPoint randomPoint(Random random) {
+		return new VPoint(left + random.nextDouble() * width, top + random.nextDouble() * height);
+	}
+
+	private static double clamp(double value, double max) {
+		return Math.max(0, Math.min(max, value));
+	}
+}
@@ -0,0 +1,85 @@
+package org.vadere.util.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link ShapeBoundsGrid} and compares its results with testing all shapes by
+ * {@link VShape#distance(org.vadere.util.geometry.shapes.IPoint)}.
+ */
+public class TestShapeBoundsGrid {
+
+	@Test
+	public void testEqualsBruteForce() {
+		Random random = new Random(0);
+		List<VShape> shapes = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			double x = 50 * random.nextDouble();
+			double y = 30 * random.nextDouble();
+			switch (i % 3) {
+				case 0:
+					shapes.add(new VRectangle(x, y, 0.1 + 2 * random.nextDouble(), 0.1 + 2 * random.nextDouble()));
+					break;
+				case 1:
+					shapes.add(new VCircle(new VPoint(x, y), 0.1 + random.nextDouble()));
+					break;
+				default:
+					// a long thin wall
+					shapes.add(GeometryUtils.polygonFromPoints2D(new VPoint(x, y), new VPoint(x + 20, y + 5),
+							new VPoint(x + 20, y + 5.05), new VPoint(x, y + 0.05)));
+			}
+		}
+
+		ShapeBoundsGrid grid = new ShapeBoundsGrid(shapes, 2.0);
+		assertEquals(shapes.size(), grid.size());
+
+		int hits = 0;
+		for (int i = 0; i < 5000; i++) {
+			VPoint point = new VPoint(-5 + 80 * random.nextDouble(), -5 + 45 * random.nextDouble());
+			double radius = 3 * random.nextDouble();
+
+			List<Integer> expected = new ArrayList<>();
+			for (int j = 0; j < shapes.size(); j++) {
+				if (shapes.get(j).distance(point) < radius) {
+					expected.add(j);
+				}
+			}
+
+			List<Integer> candidates = new ArrayList<>();
+			grid.forEachCandidate(point.x, point.y, radius, candidates::add);
+			List<Integer> actual = new ArrayList<>();
+			for (int j : candidates) {
+				if (shapes.get(j).distance(point) < radius) {
+					actual.add(j);
+				}
+			}
+			Collections.sort(actual);
+
+			assertEquals(expected, actual, "point " + point + " radius " + radius);
+			assertEquals(candidates.size(), candidates.stream().distinct().count());
+			hits += expected.size();
+		}
+		// the test has to cover both cases
+		assertTrue(hits > 100);
+	}
+
+	@Test
+	public void testEmpty() {
+		ShapeBoundsGrid grid = new ShapeBoundsGrid(Collections.emptyList(), 1.0);
+		assertEquals(0, grid.size());
+		grid.forEachCandidate(0, 0, 1, i -> {
+			throw new AssertionError();
+		});
+	}
+}
@@ -0,0 +1,92 @@
+package org.vadere.util.geometry;
+
+import org.junit.jupiter.api.Test;
+import org.vadere.util.geometry.shapes.VCircle;
+import org.vadere.util.geometry.shapes.VLine;
+import org.vadere.util.geometry.shapes.VPoint;
+import org.vadere.util.geometry.shapes.VPolygon;
+import org.vadere.util.geometry.shapes.VRectangle;
+import org.vadere.util.geometry.shapes.VShape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link ShapeSegmentGrid} and compares its results with testing all shapes by
+ * {@link VShape#intersects(VLine)}.
+ */
+public class TestShapeSegmentGrid {
+
+	@Test
+	public void testEqualsBruteForce() {
+		Random random = new Random(0);
+		List<VShape> shapes = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			double x = 50 * random.nextDouble();
+			double y = 30 * random.nextDouble();
+			switch (i % 4) {
+				case 0:
+					shapes.add(new VRectangle(x, y, 0.1 + 2 * random.nextDouble(), 0.1 + 2 * random.nextDouble()));
+					break;
+				case 1:
+					shapes.add(new VCircle(new VPoint(x, y), 0.1 + random.nextDouble()));
+					break;
+				case 2:
+					shapes.add(GeometryUtils.polygonFromPoints2D(new VPoint(x, y), new VPoint(x + 3 * random.nextDouble(), y + 0.1),
+							new VPoint(x + 1, y + 3 * random.nextDouble())));
+					break;
+				default:
+					// a long thin wall
+					shapes.add(GeometryUtils.polygonFromPoints2D(new VPoint(x, y), new VPoint(x + 20, y + 5),
+							new VPoint(x + 20, y + 5.05), new VPoint(x, y + 0.05)));
+			}
+		}
+
+		ShapeSegmentGrid grid = new ShapeSegmentGrid(shapes, 1.0);
+		assertEquals(shapes.size(), grid.size());
+
+		int hits = 0;
+		for (int i = 0; i < 20000; i++) {
+			VPoint p1 = new VPoint(-5 + 80 * random.nextDouble(), -5 + 45 * random.nextDouble());
+			double angle = 2 * Math.PI * random.nextDouble();
+			double length = 1.5 * random.nextDouble();
+			VPoint p2 = p1.add(new VPoint(length * Math.cos(angle), length * Math.sin(angle)));
+			VLine line = new VLine(p1, p2);
+
+			boolean expected = shapes.stream().anyMatch(shape -> shape.intersects(line));
+			assertEquals(expected, grid.intersects(line), "segment " + p1 + " -> " + p2);
+			hits += expected ? 1 : 0;
+		}
+		// the test has to cover both cases
+		assertTrue(hits > 100);
+	}
+
+	@Test
+	public void testSegmentInsideShapes() {
+		VPolygon polygon = GeometryUtils.polygonFromPoints2D(new VPoint(0, 0), new VPoint(10, 0), new VPoint(10, 10), new VPoint(0, 10));
+		ShapeSegmentGrid grid = new ShapeSegmentGrid(Collections.singletonList(polygon), 1.0);
+
+		// like VPolygon.intersects(VLine) only the edges are tested
+		assertFalse(grid.intersects(5, 5, 5.5, 5.5));
+		assertTrue(grid.intersects(9.5, 5, 10.5, 5));
+
+		// rectangles and circles contain the segment
+		grid = new ShapeSegmentGrid(List.of(new VRectangle(0, 0, 10, 10), new VCircle(new VPoint(20, 5), 3)), 1.0);
+		assertTrue(grid.intersects(5, 5, 5.5, 5.5));
+		assertTrue(grid.intersects(20, 5, 20.5, 5.5));
+		assertFalse(grid.intersects(14, 5, 15, 5));
+	}
+
+	@Test
+	public void testEmpty() {
+		ShapeSegmentGrid grid = new ShapeSegmentGrid(Collections.emptyList(), 1.0);
+		assertEquals(0, grid.size());
+		assertFalse(grid.intersects(0, 0, 1, 1));
+	}
+}
@@ -0,0 +1,61 @@
+package org.vadere.util.random;
+
+import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that the {@link RestorableRandom} draws the numbers of a {@link Random} with the same seed and continues them
+ * after its state is restored.
+ */
+public class TestRestorableRandom {
+
+	/**
+	 * Draws numbers of all kinds, an odd number of Gaussians leaves a cached Gaussian in the generator.
+	 */
+	private static String draw(final Random random) {
+		StringBuilder numbers = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			numbers.append(random.nextInt()).append(' ')
+					.append(random.nextInt(17)).append(' ')
+					.append(random.nextLong()).append(' ')
+					.append(random.nextDouble()).append(' ')
+					.append(random.nextFloat()).append(' ')
+					.append(random.nextBoolean()).append(' ')
+					.append(random.nextGaussian()).append(' ')
+					.append(random.nextInt(3, 1000)).append(' ')
+					.append(random.doubles(2).sum()).append(' ');
+		}
+		return numbers.toString();
+	}
+
+	@Test
+	public void testDrawsTheNumbersOfRandom() {
+		assertEquals(draw(new Random(42)), draw(new RestorableRandom(42)));
+		assertEquals(draw(new JDKRandomGenerator(-7)), draw(new RestorableRandom(-7)));
+
+		RestorableRandom random = new RestorableRandom(1);
+		random.setSeed(5);
+		assertEquals(draw(new Random(5)), draw(random));
+	}
+
+	@Test
+	public void testRestoreContinuesTheNumbers() {
+		RestorableRandom random = new RestorableRandom(3);
+		draw(random);
+		byte[] state = random.getState();
+		String expected = draw(random);
+
+		// the restore replaces the state in place
+		draw(random);
+		random.setState(state);
+		assertEquals(expected, draw(random));
+
+		RestorableRandom other = new RestorableRandom(0);
+		other.setState(state);
+		assertEquals(expected, draw(other));
+	}
+}